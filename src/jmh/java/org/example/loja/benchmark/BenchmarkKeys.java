@@ -0,0 +1,64 @@
+package org.example.loja.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+/**
+ * Writes a freshly generated key pair (RSA-2048 by default, P-256 for EC) as PEM files so
+ * benchmarks can exercise the same file-based key loading as the application.
+ */
+final class BenchmarkKeys {
+
+    final Path publicKeyPath;
+    final Path privateKeyPath;
+
+    private BenchmarkKeys(Path publicKeyPath, Path privateKeyPath) {
+        this.publicKeyPath = publicKeyPath;
+        this.privateKeyPath = privateKeyPath;
+    }
+
+    static BenchmarkKeys generate() throws Exception {
+        return generate("RSA");
+    }
+
+    static BenchmarkKeys generate(String keyAlgorithm) throws Exception {
+        KeyPair keyPair = keyPair(keyAlgorithm);
+
+        Path dir = Files.createTempDirectory("loja-jmh-keys");
+        Path publicKey = dir.resolve("public_key.pem");
+        Path privateKey = dir.resolve("private_key.pem");
+        Files.writeString(publicKey, pem("PUBLIC KEY", keyPair.getPublic().getEncoded()), StandardCharsets.US_ASCII);
+        Files.writeString(privateKey, pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()), StandardCharsets.US_ASCII);
+        return new BenchmarkKeys(publicKey, privateKey);
+    }
+
+    /**
+     * Generates an in-memory key pair: RSA-2048, EC on P-256 or Ed25519.
+     */
+    static KeyPair keyPair(String keyAlgorithm) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+        switch (keyAlgorithm) {
+            case "RSA" -> generator.initialize(2048);
+            case "EC" -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+            default -> {
+            }
+        }
+        return generator.generateKeyPair();
+    }
+
+    void delete() throws Exception {
+        Files.deleteIfExists(publicKeyPath);
+        Files.deleteIfExists(privateKeyPath);
+        Files.deleteIfExists(publicKeyPath.getParent());
+    }
+
+    private static String pem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        return "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n";
+    }
+}
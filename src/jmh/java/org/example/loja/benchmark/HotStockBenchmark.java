@@ -0,0 +1,87 @@
+package org.example.loja.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockChangeDTO;
+import org.example.loja.repository.InventoryMovementJdbcRepository;
+import org.example.loja.repository.ProductStockJdbcRepository;
+import org.example.loja.services.HotStockCounter;
+import org.example.loja.services.InventoryJournal;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sales per second on a single product from 8 threads: {@code directUpdate} is the
+ * conditional UPDATE of the regular path, autocommitted on an in-memory H2 database, and
+ * {@code hotCounter} goes through {@link HotStockCounter} with a flush every 50 ms.
+ * <p>
+ * Run with {@code -Djmh.args="HotStockBenchmark -t 8"}; {@code -t 1} shows the uncontended
+ * cost. Contention and flush latency are in the {@code products.stock.hot} metrics.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class HotStockBenchmark {
+
+    private static final long STORE_ID = 1;
+    private static final long PRODUCT_ID = 1;
+
+    private ProductStockJdbcRepository repository;
+    private HotStockCounter counter;
+    private final List<StockChangeDTO> sale = List.of(new StockChangeDTO(PRODUCT_ID, -1));
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:hot-stock-bench;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, store_id BIGINT, quantity INT, version BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.update("INSERT INTO products (id, store_id, quantity) VALUES (?, ?, ?)", PRODUCT_ID, STORE_ID, Integer.MAX_VALUE);
+
+        repository = new ProductStockJdbcRepository(jdbcTemplate);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InventoryJournal journal = new InventoryJournal(new InventoryMovementJdbcRepository(jdbcTemplate), 10_000, 500, meterRegistry);
+        counter = new HotStockCounter(String.valueOf(PRODUCT_ID), 0, 0, repository, journal, meterRegistry);
+        running = true;
+        flusher = new Thread(() -> {
+            while (running) {
+                counter.flush();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "hot-stock-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        flusher.join();
+        counter.shutdown();
+    }
+
+    @Benchmark
+    public int directUpdate() {
+        return repository.adjustQuantities(STORE_ID, sale)[0];
+    }
+
+    @Benchmark
+    public StockAdjustment hotCounter() {
+        return counter.adjust(STORE_ID, PRODUCT_ID, -1);
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.loja.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.example.loja.config.security.JwtKeyMaterial;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sign and verify operations per second for each token signature algorithm, on a token
+ * shaped like the store admin access token. RS256 and ES256 go through
+ * {@link JwtKeyMaterial} exactly as configured in the application.
+ * <p>
+ * java-jwt has no EdDSA support, so {@code EdDSA} uses a small Ed25519 {@link Algorithm}
+ * backed by the JDK provider; it is only here to show what switching libraries would buy.
+ * <p>
+ * Run with {@code -Djmh.args="JwtSignatureBenchmark -prof gc"} to include allocations per
+ * operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtSignatureBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private BenchmarkKeys keys;
+    private Algorithm signer;
+    private Function<String, DecodedJWT> verifier;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        switch (algorithm) {
+            case "RS256" -> {
+                keys = BenchmarkKeys.generate("RSA");
+                JwtKeyMaterial keyMaterial = new JwtKeyMaterial(keys.publicKeyPath.toString(),
+                        keys.privateKeyPath.toString(), "", "", "RS256", "", "", 0, 604_800, 300);
+                signer = keyMaterial.algorithm();
+                verifier = keyMaterial::verify;
+            }
+            case "ES256" -> {
+                keys = BenchmarkKeys.generate("EC");
+                JwtKeyMaterial keyMaterial = new JwtKeyMaterial("", "",
+                        keys.publicKeyPath.toString(), keys.privateKeyPath.toString(), "ES256", "", "", 0, 604_800, 300);
+                signer = keyMaterial.algorithm();
+                verifier = keyMaterial::verify;
+            }
+            case "EdDSA" -> {
+                KeyPair keyPair = BenchmarkKeys.keyPair("Ed25519");
+                signer = new Ed25519Algorithm(keyPair.getPublic(), keyPair.getPrivate());
+                verifier = JWT.require(signer).withIssuer(JwtKeyMaterial.ISSUER).build()::verify;
+            }
+            default -> throw new IllegalArgumentException(algorithm);
+        }
+        token = sign();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (keys != null) {
+            keys.delete();
+        }
+    }
+
+    @Benchmark
+    public String sign() {
+        return JWT.create()
+                .withIssuer(JwtKeyMaterial.ISSUER)
+                .withClaim("email", "admin@loja.com")
+                .withArrayClaim("roles", new String[]{"STORE_ADMIN"})
+                .withClaim("name", "Store Admin")
+                .withClaim("id", "7d3f6c52-4a0e-4c59-9a7f-3f6a2b1c9e10")
+                .withClaim("type", "storeAdmin")
+                .withArrayClaim("stores", new Long[]{1L, 2L, 3L})
+                .withJWTId(UUID.randomUUID().toString())
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 900_000))
+                .sign(signer);
+    }
+
+    @Benchmark
+    public DecodedJWT verify() {
+        return verifier.apply(token);
+    }
+
+    private static final class Ed25519Algorithm extends Algorithm {
+
+        private final PublicKey publicKey;
+        private final PrivateKey privateKey;
+
+        Ed25519Algorithm(PublicKey publicKey, PrivateKey privateKey) {
+            super("EdDSA", "Ed25519");
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
+        }
+
+        @Override
+        public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+            try {
+                Signature signature = Signature.getInstance("Ed25519");
+                signature.initVerify(publicKey);
+                signature.update((jwt.getHeader() + "." + jwt.getPayload()).getBytes(StandardCharsets.UTF_8));
+                if (!signature.verify(Base64.getUrlDecoder().decode(jwt.getSignature()))) {
+                    throw new SignatureVerificationException(this);
+                }
+            } catch (SignatureVerificationException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SignatureVerificationException(this, e);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+            try {
+                Signature signature = Signature.getInstance("Ed25519");
+                signature.initSign(privateKey);
+                signature.update(contentBytes);
+                return signature.sign();
+            } catch (Exception e) {
+                throw new SignatureGenerationException(this, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.loja.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.example.loja.config.security.JwtKeyMaterial;
+import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.PrincipalCache;
+import org.example.loja.config.security.TokenRevocationList;
+import org.example.loja.config.security.VerifiedTokenCache;
+import org.example.loja.entities.AdminMasterEntity;
+import org.example.loja.entities.RoleEntity;
+import org.example.loja.util.Authorization;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second for token validation: {@code validateTokenPerCallKeyLoading} is the
+ * original implementation (PEM read + {@code KeyFactory} on every call),
+ * {@code validateTokenVerifierOnly} uses the cached {@link JwtKeyMaterial} verifier and
+ * {@code validateToken} answers repeat tokens from {@link VerifiedTokenCache}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtTokenProviderBenchmark {
+
+    private BenchmarkKeys keys;
+    private JwtKeyMaterial keyMaterial;
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keys = BenchmarkKeys.generate();
+        keyMaterial = new JwtKeyMaterial(keys.publicKeyPath.toString(), keys.privateKeyPath.toString(),
+                "", "", "RS256", "", "", 0, 604_800, 300);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        provider = new JwtTokenProvider(null, keyMaterial, new VerifiedTokenCache(10_000, 900, registry),
+                new PrincipalCache("claims", 60, 10_000, 28_800, registry),
+                new TokenRevocationList(null, 100_000, 0.001));
+
+        RoleEntity role = new RoleEntity();
+        role.setName("ADMIN_MASTER");
+        AdminMasterEntity admin = new AdminMasterEntity();
+        admin.setId(UUID.randomUUID());
+        admin.setEmail("admin@loja.com");
+        admin.setRole(Set.of(role));
+        token = provider.generateAdminMasterToken(admin);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        keys.delete();
+    }
+
+    @Benchmark
+    public boolean validateTokenPerCallKeyLoading() throws Exception {
+        Algorithm algorithm = Algorithm.RSA256(
+                (RSAPublicKey) Authorization.getPublicKey(keys.publicKeyPath.toString()),
+                (RSAPrivateKey) Authorization.getPrivateKey(keys.privateKeyPath.toString())
+        );
+        JWT.require(algorithm).withIssuer(JwtKeyMaterial.ISSUER).build().verify(token);
+        return true;
+    }
+
+    @Benchmark
+    public boolean validateTokenVerifierOnly() {
+        keyMaterial.verifier().verify(token);
+        return true;
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(token);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.loja.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.services.PasswordHashingService;
+import org.example.loja.util.Authorization;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput (password verifications per second) for each BCrypt cost factor.
+ * {@code verifyOnRequestThread} is the previous behaviour; {@code verifyOnHashingPool} goes
+ * through {@link PasswordHashingService} with enough queue for every benchmark thread, so
+ * the numbers compare the pool overhead rather than rejections.
+ * <p>
+ * Run with {@code -Djmh.args="PasswordHashingBenchmark -t 8"} to simulate a login burst.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12", "14", "16"})
+    public int cost;
+
+    private String hash;
+    private PasswordHashingService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hash = Authorization.hashPassword(PASSWORD, cost);
+        service = new PasswordHashingService(cost, 0, 1024, 600_000, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public boolean verifyOnRequestThread() {
+        return Authorization.isAuthorized(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean verifyOnHashingPool() {
+        return service.verify(PASSWORD, hash, newHash -> {
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.loja.benchmark;
+
+import org.example.loja.util.PrefixTrie;
+import org.example.loja.util.TextAnalyzer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keystroke latency of the autocomplete trie over {@code names} synthetic product names of
+ * three to five words: each lookup normalizes a typed prefix of one to twelve characters and
+ * copies its top 10. {@code rebuild} is the cost of the periodic rebuild for one store.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductAutocompleteBenchmark {
+
+    private static final int PREFIXES = 1_024;
+
+    @Param({"100000", "1000000"})
+    public int names;
+
+    private List<String> keys;
+    private PrefixTrie<String> trie;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 3 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                double u = random.nextDouble();
+                name.append("Palavra").append(Integer.toString((int) (u * u * 5_000), 36)).append(' ');
+            }
+            keys.add(TextAnalyzer.normalize(name.toString()));
+        }
+        trie = buildTrie();
+        prefixes = new String[PREFIXES];
+        for (int i = 0; i < PREFIXES; i++) {
+            String key = keys.get(random.nextInt(names));
+            prefixes[i] = key.substring(0, Math.min(key.length(), 1 + random.nextInt(12)));
+        }
+    }
+
+    private PrefixTrie<String> buildTrie() {
+        return PrefixTrie.build(keys, key -> key, String::hashCode, 10);
+    }
+
+    @Benchmark
+    public List<String> complete() {
+        return trie.complete(TextAnalyzer.normalize(prefixes[next++ & (PREFIXES - 1)]));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    @Warmup(iterations = 2)
+    public PrefixTrie<String> rebuild() {
+        return buildTrie();
+    }
+}
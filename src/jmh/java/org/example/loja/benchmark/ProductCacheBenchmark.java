@@ -0,0 +1,189 @@
+package org.example.loja.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.dto.ProductSnapshot;
+import org.example.loja.entities.CategoryEntity;
+import org.example.loja.entities.ImageEntity;
+import org.example.loja.entities.ProductEntity;
+import org.example.loja.entities.StoreEntity;
+import org.example.loja.repository.CategoryRepository;
+import org.example.loja.repository.ImageRepository;
+import org.example.loja.repository.ProductsRepository;
+import org.example.loja.repository.StoreRepository;
+import org.example.loja.services.ProductCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code getProductById} with and without {@link ProductCache}, on an in-memory
+ * H2 catalog of {@code products} products with two categories and an image each. Reads
+ * follow a Zipf distribution (s = 1), so a small set of popular products gets most of them.
+ * {@code database} is every read going to the database, i.e. the old behaviour;
+ * {@code cached} goes through a cache of {@code maxSize} entries and reports its hit ratio at
+ * the end of the trial.
+ * <p>
+ * Misses go through the application's Spring Data {@link ProductsRepository}, set up like
+ * the {@code @DataJpaTest}s with the schema generated from the entities, so they pay for
+ * the entity graph query and Hibernate's hydration as they do in production. H2's
+ * in-process round trip still understates the miss cost against MySQL. The catalog is
+ * written through the repositories too, which makes the trial setup slow.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductCacheBenchmark {
+
+    private static final int READS = 1 << 16;
+
+    private static final int PRODUCTS_PER_TRANSACTION = 1_000;
+
+    @Param({"100000"})
+    public int products;
+
+    @Param({"1000", "10000"})
+    public int maxSize;
+
+    private ConfigurableApplicationContext context;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache cache;
+    private long[] productIds;
+    private long[] reads;
+    private int next;
+
+    // Only what @DataJpaTest brings up: the datasource, Hibernate and the repositories.
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = ProductEntity.class)
+    @EnableJpaRepositories(basePackageClasses = ProductsRepository.class)
+    static class Catalog {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Catalog.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.config.import=",
+                        "--spring.application.name=loja-bench",
+                        "--spring.datasource.url=jdbc:h2:mem:product-cache-bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        createCatalog();
+
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductCache(context.getBean(ProductsRepository.class), maxSize, 600, meterRegistry);
+        reads = zipf(new Random(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        double hits = meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count();
+        double misses = meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count();
+        if (hits + misses > 0) {
+            System.out.printf("%nHit ratio %.3f, evictions %.0f%n", hits / (hits + misses),
+                    meterRegistry.get("cache.evictions").functionCounter().count());
+        }
+        context.close();
+    }
+
+    private long nextId() {
+        return reads[next++ & (READS - 1)];
+    }
+
+    @Benchmark
+    public Optional<ProductSnapshot> database() {
+        return cache.load(nextId());
+    }
+
+    @Benchmark
+    public Optional<ProductSnapshot> cached() {
+        return cache.get(nextId());
+    }
+
+    private void createCatalog() {
+        StoreRepository storeRepository = context.getBean(StoreRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        ImageRepository imageRepository = context.getBean(ImageRepository.class);
+        ProductsRepository productsRepository = context.getBean(ProductsRepository.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        StoreEntity store = new StoreEntity();
+        store.setName("Loja");
+        store.setPhone("+5511999999999");
+        store.setEmail("loja@loja.com");
+        store.setLocations(new HashSet<>());
+        StoreEntity savedStore = storeRepository.save(store);
+        List<CategoryEntity> categories = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            categories.add(new CategoryEntity(null, "Categoria " + i, "Descrição " + i));
+        }
+        List<CategoryEntity> savedCategories = categoryRepository.saveAll(categories);
+
+        productIds = new long[products];
+        for (int from = 0; from < products; from += PRODUCTS_PER_TRANSACTION) {
+            int first = from;
+            int last = Math.min(products, from + PRODUCTS_PER_TRANSACTION);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < last; i++) {
+                    ImageEntity image = new ImageEntity();
+                    image.setUrl("https://cdn.loja.com/" + i + ".png");
+                    ProductEntity product = new ProductEntity();
+                    product.setName("Produto " + i);
+                    product.setPrice(10.0 + i % 1000);
+                    product.setDescription("Descrição do produto " + i);
+                    product.setBrand("Marca " + i % 40);
+                    product.setQuantity(100);
+                    product.setStore(savedStore);
+                    product.setCategories(new HashSet<>(List.of(savedCategories.get(i % 50), savedCategories.get(i * 7 % 50))));
+                    product.setImage(new HashSet<>(Set.of(imageRepository.save(image))));
+                    productIds[i] = productsRepository.save(product).getId();
+                }
+            });
+        }
+    }
+
+    private long[] zipf(Random random) {
+        double[] cumulative = new double[products];
+        double sum = 0;
+        for (int rank = 0; rank < products; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        long[] ids = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            // Scatter the popular ranks across the id space.
+            ids[i] = productIds[(int) (((long) (rank < 0 ? -rank - 1 : rank) * 7919) % products)];
+        }
+        return ids;
+    }
+}
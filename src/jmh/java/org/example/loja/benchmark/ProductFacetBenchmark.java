@@ -0,0 +1,66 @@
+package org.example.loja.benchmark;
+
+import org.example.loja.dto.FacetCounts;
+import org.example.loja.dto.FacetFilter;
+import org.example.loja.dto.ProductDocument;
+import org.example.loja.services.ProductFacetIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link ProductFacetIndex} over {@code products} synthetic products in one
+ * store, with 200 brands and 50 categories: the counts for a catalog page with and without
+ * a selection, one page of filtered ids, and the cost of a stock change.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductFacetBenchmark {
+
+    @Param({"1000000"})
+    public int products;
+
+    private ProductFacetIndex index;
+    private FacetFilter selection;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        index = new ProductFacetIndex("50,100,250,500,1000");
+        index.rebuild(consumer -> {
+            for (long id = 1; id <= products; id++) {
+                consumer.accept(new ProductDocument(id, 1L, "Produto", null, "Marca" + random.nextInt(200),
+                        10.0 + random.nextInt(2_000), random.nextInt(10), Set.of(1L + random.nextInt(50))));
+            }
+        });
+        selection = new FacetFilter(Set.of("Marca1", "Marca2", "Marca3"), Set.of(7L), Set.of(2, 3), true);
+    }
+
+    @Benchmark
+    public FacetCounts countAll() {
+        return index.count(1, FacetFilter.none());
+    }
+
+    @Benchmark
+    public FacetCounts countSelection() {
+        return index.count(1, selection);
+    }
+
+    @Benchmark
+    public List<Long> filterPage() {
+        return index.filter(1, selection, 0, 20);
+    }
+
+    @Benchmark
+    public void updateQuantity() {
+        index.updateQuantity(1 + random.nextInt(products), random.nextInt(3));
+    }
+}
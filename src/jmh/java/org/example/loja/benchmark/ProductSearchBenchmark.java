@@ -0,0 +1,100 @@
+package org.example.loja.benchmark;
+
+import org.example.loja.dto.ProductDocument;
+import org.example.loja.services.ProductSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link ProductSearchIndex} over {@code products} synthetic products spread
+ * across {@code stores} stores. Words are drawn from a 5,000 word vocabulary with a skewed
+ * distribution, so common terms have long posting lists as in a real catalog. Queries have
+ * one to three terms; {@code reindex} is the cost of an incremental update.
+ * <p>
+ * Sample mode reports percentiles; the index for 1M products needs a few GB of heap
+ * ({@code -Djmh.args="ProductSearchBenchmark -jvmArgsAppend -Xmx4g"} if the default is lower).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+    private static final int QUERIES = 1_024;
+
+    @Param({"1000000"})
+    public int products;
+
+    @Param({"1", "20"})
+    public int stores;
+
+    private ProductSearchIndex index;
+    private String[] words;
+    private String[] queries;
+    private int next;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "termo" + Integer.toString(i, 36);
+        }
+        index = new ProductSearchIndex(1.2, 0.75);
+        index.rebuild(consumer -> {
+            for (long id = 1; id <= products; id++) {
+                consumer.accept(document(id));
+            }
+        });
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = text(1 + random.nextInt(3));
+        }
+    }
+
+    // Squaring a uniform draw favours the low indices, giving a few very common words.
+    private String word() {
+        double u = random.nextDouble();
+        return words[(int) (u * u * VOCABULARY)];
+    }
+
+    private String text(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(word()).append(' ');
+        }
+        return text.toString();
+    }
+
+    private ProductDocument document(long id) {
+        return new ProductDocument(id, 1 + id % stores, text(3), text(12), word(), 10.0 + random.nextInt(2_000), random.nextInt(10),
+                Set.of(1L + random.nextInt(50)));
+    }
+
+    private String nextQuery() {
+        return queries[next++ & (QUERIES - 1)];
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Hit> search() {
+        return index.search(1, nextQuery(), null, false, 20);
+    }
+
+    @Benchmark
+    public List<ProductSearchIndex.Hit> searchInStockInCategory() {
+        return index.search(1, nextQuery(), 7L, true, 20);
+    }
+
+    @Benchmark
+    public void reindex() {
+        index.index(document(1 + random.nextInt(products)));
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.loja.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.example.loja.config.security.AuthContext;
+import org.example.loja.config.security.JwtAuthenticationFilter;
+import org.example.loja.config.security.JwtKeyMaterial;
+import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.PrincipalCache;
+import org.example.loja.config.security.StoreMembershipRegistry;
+import org.example.loja.config.security.StoreScoped;
+import org.example.loja.config.security.TokenRevocationList;
+import org.example.loja.config.security.VerifiedTokenCache;
+import org.example.loja.entities.RoleEntity;
+import org.example.loja.entities.StoreAdminEntity;
+import org.example.loja.entities.StoreEntity;
+import org.example.loja.interceptor.StoreAccessInterceptor;
+import org.example.loja.util.Authorization;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of each step of the security path for a store admin token: claim
+ * accessors, token validation, the full {@link JwtAuthenticationFilter} dispatch on mock
+ * servlet objects, {@link StoreAccessInterceptor#preHandle} on a {@link StoreScoped}
+ * handler, and a BCrypt check at the default cost for scale.
+ * <p>
+ * Run with {@code -Djmh.args="SecurityHotPathBenchmark -prof gc"}; {@code gc.alloc.rate.norm}
+ * is the number of bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SecurityHotPathBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private BenchmarkKeys keys;
+    private JwtTokenProvider provider;
+    private JwtAuthenticationFilter filter;
+    private StoreAccessInterceptor interceptor;
+    private HandlerMethod storeScopedHandler;
+    private AuthContext authContext;
+    private String token;
+    private String passwordHash;
+
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keys = BenchmarkKeys.generate();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial(keys.publicKeyPath.toString(), keys.privateKeyPath.toString(),
+                "", "", "RS256", "", "", 0, 604_800, 300);
+        provider = new JwtTokenProvider(null, keyMaterial, new VerifiedTokenCache(10_000, 900, registry),
+                new PrincipalCache("claims", 60, 10_000, 28_800, registry),
+                new TokenRevocationList(null, 100_000, 0.001));
+        StoreMembershipRegistry membershipRegistry = new StoreMembershipRegistry(null, 10_000, 3600, registry);
+        filter = new JwtAuthenticationFilter(provider, membershipRegistry);
+        interceptor = new StoreAccessInterceptor();
+        storeScopedHandler = new HandlerMethod(new StoreScopedHandler(), StoreScopedHandler.class.getMethod("handle"));
+
+        RoleEntity role = new RoleEntity();
+        role.setName("STORE_ADMIN");
+        StoreAdminEntity admin = new StoreAdminEntity();
+        admin.setId(UUID.randomUUID());
+        admin.setName("Store Admin");
+        admin.setEmail("admin@loja.com");
+        admin.setRole(Set.of(role));
+        for (long id = 1; id <= 3; id++) {
+            StoreEntity store = new StoreEntity();
+            store.setId(id);
+            admin.getManagedStore().add(store);
+        }
+        token = provider.generateStoreAdminToken(admin);
+        authContext = AuthContext.from(provider.verifyAccessToken(token), membershipRegistry);
+        passwordHash = Authorization.hashPassword(PASSWORD, 12);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        keys.delete();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return provider.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public List<String> getRolesFromToken() {
+        return provider.getRolesFromToken(token);
+    }
+
+    @Benchmark
+    public int authenticationFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/store/2/product");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public boolean storeAccessInterceptor() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/store/2/product");
+        request.setAttribute(AuthContext.ATTRIBUTE, authContext);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("storeId", "2"));
+        return interceptor.preHandle(request, new MockHttpServletResponse(), storeScopedHandler);
+    }
+
+    @Benchmark
+    public boolean isAuthorized() {
+        return Authorization.isAuthorized(PASSWORD, passwordHash);
+    }
+
+    @StoreScoped
+    public static class StoreScopedHandler {
+
+        public void handle() {
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.loja.benchmark;
+
+import org.example.loja.dto.StockChangeDTO;
+import org.example.loja.repository.ProductStockJdbcRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POS syncs per second, each sync carrying {@code changes} stock changes, on an in-memory H2
+ * database (multiply by {@code changes} for items per second). {@code singleItem} runs one
+ * transaction with an UPDATE and a SELECT per change, like the per-item endpoint;
+ * {@code batch} is the bulk endpoint: one transaction, one JDBC batch and one SELECT.
+ * Deltas alternate between -1 and +1 so stock stays stable.
+ * <p>
+ * H2 runs in-process with no network round trips, so the gap against MySQL is larger than
+ * what this reports.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StockBatchBenchmark {
+
+    private static final long STORE_ID = 1;
+    private static final int PRODUCTS = 1_000;
+
+    @Param({"50", "500"})
+    public int changes;
+
+    private ProductStockJdbcRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private List<StockChangeDTO> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:stock-bench;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS products");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, store_id BIGINT, quantity INT, version BIGINT DEFAULT 0 NOT NULL)");
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= PRODUCTS; id++) {
+            rows.add(new Object[]{id, STORE_ID, 1_000_000});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, store_id, quantity) VALUES (?, ?, ?)", rows);
+
+        repository = new ProductStockJdbcRepository(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        batch = new ArrayList<>();
+        for (int i = 0; i < changes; i++) {
+            batch.add(new StockChangeDTO((long) (i * 7919 % PRODUCTS) + 1, i % 2 == 0 ? -1 : 1));
+        }
+        batch.sort((a, b) -> Long.compare(a.getProductId(), b.getProductId()));
+    }
+
+    @Benchmark
+    public int singleItem() {
+        int applied = 0;
+        for (StockChangeDTO change : batch) {
+            applied += transactionTemplate.execute(status -> {
+                int updated = repository.adjustQuantities(STORE_ID, List.of(change))[0];
+                repository.findQuantities(STORE_ID, List.of(change.getProductId()));
+                return updated;
+            });
+        }
+        return applied;
+    }
+
+    @Benchmark
+    public Map<Long, Integer> batch() {
+        return transactionTemplate.execute(status -> {
+            repository.adjustQuantities(STORE_ID, batch);
+            return repository.findQuantities(STORE_ID, batch.stream().map(StockChangeDTO::getProductId).distinct().toList());
+        });
+    }
+}
@@ -2,8 +2,10 @@ package org.example.loja;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import io.github.cdimascio.dotenv.Dotenv;
 @SpringBootApplication
+@EnableScheduling
 public class LojaApplication {
 
     public static void main(String[] args) {
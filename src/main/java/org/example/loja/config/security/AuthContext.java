@@ -0,0 +1,79 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.example.loja.enums.TokenType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of the verified bearer token of the current request.
+ * <p>
+ * Built once by {@link JwtAuthenticationFilter} and stored under {@link #ATTRIBUTE}, so
+ * controllers ({@code @RequestAttribute(AuthContext.ATTRIBUTE)}) and interceptors read the
+ * caller's identity without decoding the token again.
+ *
+ * @param userId   the {@code id} claim, {@code null} for admin master tokens
+ * @param email    the {@code email} claim
+ * @param roles    the {@code roles} claim
+ * @param type     the {@code type} claim
+ * @param stores   the stores the caller may act on, every store for admin master tokens
+ * @param tokenId  the {@code jti} claim, {@code null} for tokens issued without one
+ * @param expiresAt the {@code exp} claim in epoch millis
+ */
+public record AuthContext(UUID userId,
+                          String email,
+                          List<String> roles,
+                          TokenType type,
+                          StoreMembership stores,
+                          String tokenId,
+                          long expiresAt) {
+
+    public static final String ATTRIBUTE = "org.example.loja.config.security.AuthContext";
+
+    public AuthContext {
+        roles = List.copyOf(roles);
+    }
+
+    public static AuthContext from(DecodedJWT jwt, StoreMembershipRegistry registry) {
+        String id = jwt.getClaim("id").asString();
+        String[] roles = jwt.getClaim("roles").asArray(String.class);
+        TokenType type = TokenType.fromString(jwt.getClaim("type").asString());
+        return new AuthContext(
+                id != null ? UUID.fromString(id) : null,
+                jwt.getClaim("email").asString(),
+                roles != null ? Arrays.asList(roles) : List.of(),
+                type,
+                type == TokenType.ADMIN_MASTER ? StoreMembership.ALL : membershipOf(jwt, registry),
+                jwt.getId(),
+                jwt.getExpiresAt() != null ? jwt.getExpiresAt().getTime() : Long.MAX_VALUE);
+    }
+
+    /**
+     * Admin masters may act on every store; store admins and managers only on the stores
+     * listed in their token.
+     */
+    public boolean canAccessStore(long storeId) {
+        return stores.contains(storeId);
+    }
+
+    private static StoreMembership membershipOf(DecodedJWT jwt, StoreMembershipRegistry registry) {
+        String ref = jwt.getClaim("storesRef").asString();
+        if (ref != null) {
+            return registry.membershipOf(UUID.fromString(ref));
+        }
+        try {
+            Long[] stores = jwt.getClaim("stores").asArray(Long.class);
+            if (stores != null) {
+                // The claim is written sorted, see JwtTokenProvider#generateStoreAdminToken.
+                return StoreMembership.sorted(Arrays.stream(stores).mapToLong(Long::longValue).toArray());
+            }
+        } catch (JWTDecodeException e) {
+            // Tokens issued before the claim was a numeric array carry no usable store list.
+        }
+        String store = jwt.getClaim("store").asString();
+        return store != null ? StoreMembership.sorted(new long[]{Long.parseLong(store)}) : StoreMembership.NONE;
+    }
+}
@@ -1,24 +1,34 @@
 package org.example.loja.config.security;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.List;
 
+/**
+ * The only place where the bearer token is verified. Runs inside the Spring Security chain
+ * (see {@link SecurityConfig}), populates the security context and exposes the verified
+ * claims to the rest of the request as an {@link AuthContext} attribute.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+    private final StoreMembershipRegistry storeMembershipRegistry;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, StoreMembershipRegistry storeMembershipRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.storeMembershipRegistry = storeMembershipRegistry;
     }
 
     @Override
@@ -30,20 +40,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtTokenProvider.validateToken(token)) {
-                String username = jwtTokenProvider.getUsernameFromToken(token);
-                List<String> roles = jwtTokenProvider.getRolesFromToken(token);
-                var authentication = jwtTokenProvider.getAuthentication(username);
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            } else {
+            try {
+                DecodedJWT jwt = jwtTokenProvider.verifyAccessToken(token);
+                request.setAttribute(AuthContext.ATTRIBUTE, AuthContext.from(jwt, storeMembershipRegistry));
+                SecurityContextHolder.getContext().setAuthentication(jwtTokenProvider.getAuthentication(jwt));
+            } catch (JWTVerificationException | AuthenticationException | IllegalArgumentException e) {
+                logger.debug("Rejecting bearer token: " + e.getMessage());
+                SecurityContextHolder.clearContext();
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Invalid or expired token");
                 return;
             }
         } else {
-            logger.warn("Authorization header is missing or malformed");
+            logger.debug("Authorization header is missing or malformed");
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,397 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import org.example.loja.util.Authorization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Key ring for issued tokens: every public key is indexed by its {@code kid} (the RFC 7638
+ * thumbprint), tokens are signed with a {@code kid} header, and verification is a single
+ * map lookup followed by the signature check. Keys are parsed once and the whole ring is
+ * swapped atomically when the key files change on disk, so the request path never touches
+ * the filesystem or {@code KeyFactory}.
+ * <p>
+ * Tokens are signed with {@code jwt.signing-algorithm}. {@code jwt.verification-algorithms}
+ * lists further algorithms that are still accepted, which allows switching algorithms
+ * without logging everybody out: add the new one to the list, switch signing, and drop the
+ * old one once its tokens have expired. RS256 uses {@code PUBLIC_KEY}/{@code PRIVATE_KEY},
+ * ES256 uses {@code jwt.ec.public-key}/{@code jwt.ec.private-key}; the private key is only
+ * required for the signing algorithm.
+ * <p>
+ * With {@code jwt.keys.dir} set, the ring also holds every {@code <epochSeconds>-<alg>.public.pem}
+ * key of that directory and signs with the newest one that has a private key and has been
+ * published for {@code jwt.keys.activation-delay-seconds}, giving JWKS consumers time to
+ * fetch it. When {@code jwt.keys.rotation-interval-hours} is positive a new pair is generated
+ * into the directory on that schedule, and keys superseded for longer than
+ * {@code jwt.keys.retired-ttl-seconds} are deleted. The directory may be shared between
+ * nodes; every node picks up new keys on its next reload.
+ */
+@Component
+public class JwtKeyMaterial {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyMaterial.class);
+
+    public static final String ISSUER = "loja";
+
+    private static final Pattern KEY_FILE = Pattern.compile("(\\d+)-(RS256|ES256)\\.(public|private)\\.pem");
+
+    private final JwtSigningAlgorithm signingAlgorithm;
+
+    private final Set<JwtSigningAlgorithm> verificationAlgorithms;
+
+    private final Map<JwtSigningAlgorithm, String[]> keyPaths = new EnumMap<>(JwtSigningAlgorithm.class);
+
+    private final Path keysDir;
+
+    private final Duration rotationInterval;
+
+    private final Duration retiredKeyTtl;
+
+    private final Duration activationDelay;
+
+    private final AtomicReference<KeyRing> current = new AtomicReference<>();
+
+    public JwtKeyMaterial(@Value("${PUBLIC_KEY:}") String publicKeyPath,
+                          @Value("${PRIVATE_KEY:}") String privateKeyPath,
+                          @Value("${jwt.ec.public-key:}") String ecPublicKeyPath,
+                          @Value("${jwt.ec.private-key:}") String ecPrivateKeyPath,
+                          @Value("${jwt.signing-algorithm:RS256}") String signingAlgorithm,
+                          @Value("${jwt.verification-algorithms:}") String verificationAlgorithms,
+                          @Value("${jwt.keys.dir:}") String keysDir,
+                          @Value("${jwt.keys.rotation-interval-hours:0}") long rotationIntervalHours,
+                          @Value("${jwt.keys.retired-ttl-seconds:604800}") long retiredKeyTtlSeconds,
+                          @Value("${jwt.keys.activation-delay-seconds:300}") long activationDelaySeconds) throws Exception {
+        this.signingAlgorithm = JwtSigningAlgorithm.fromString(signingAlgorithm);
+        this.verificationAlgorithms = EnumSet.of(this.signingAlgorithm);
+        Arrays.stream(verificationAlgorithms.split(","))
+                .filter(value -> !value.isBlank())
+                .map(JwtSigningAlgorithm::fromString)
+                .forEach(this.verificationAlgorithms::add);
+
+        keyPaths.put(JwtSigningAlgorithm.RS256, new String[]{publicKeyPath, privateKeyPath});
+        keyPaths.put(JwtSigningAlgorithm.ES256, new String[]{ecPublicKeyPath, ecPrivateKeyPath});
+
+        this.keysDir = keysDir.isBlank() ? null : Paths.get(keysDir);
+        this.rotationInterval = Duration.ofHours(rotationIntervalHours);
+        this.retiredKeyTtl = Duration.ofSeconds(retiredKeyTtlSeconds);
+        this.activationDelay = Duration.ofSeconds(activationDelaySeconds);
+
+        if (this.keysDir != null) {
+            Files.createDirectories(this.keysDir);
+            rotateIfDue();
+        }
+        this.current.set(load());
+        logger.debug("JWT key ring loaded, signing with {} key {}, {} keys accepted",
+                this.signingAlgorithm, current.get().signingKid(), current.get().keys().size());
+    }
+
+    public JwtSigningAlgorithm signingAlgorithm() {
+        return signingAlgorithm;
+    }
+
+    /** Signing algorithm of the active key; tokens it signs carry the key's {@code kid}. */
+    public Algorithm algorithm() {
+        return current.get().signer();
+    }
+
+    /** Verifier of the active signing key. */
+    public JWTVerifier verifier() {
+        KeyRing ring = current.get();
+        return ring.keys().get(ring.signingKid()).verifier();
+    }
+
+    /** Public key of the active signing key. */
+    public PublicKey publicKey() {
+        KeyRing ring = current.get();
+        return ring.keys().get(ring.signingKid()).publicKey();
+    }
+
+    /** Public keys of the ring as a JWK Set ({@code {"keys": [...]}}). */
+    public Map<String, Object> jwks() {
+        return current.get().jwks();
+    }
+
+    /**
+     * Verifies the token with the key named by its {@code kid} header. Tokens issued before
+     * key ids were introduced have no {@code kid} and are checked against the configured
+     * key of their algorithm.
+     *
+     * @throws JWTVerificationException if the key is unknown, the algorithm is not accepted
+     *                                  or the token is invalid
+     */
+    public DecodedJWT verify(String token) {
+        DecodedJWT decoded = JWT.decode(token);
+        KeyRing ring = current.get();
+        String kid = decoded.getKeyId();
+        JWTVerifier verifier;
+        if (kid != null) {
+            RingKey key = ring.keys().get(kid);
+            if (key == null) {
+                throw new JWTVerificationException("Unknown key id " + kid);
+            }
+            if (!key.algorithm().name().equals(decoded.getAlgorithm())) {
+                throw new AlgorithmMismatchException("Token algorithm does not match key " + kid);
+            }
+            verifier = key.verifier();
+        } else {
+            verifier = ring.unkeyed().get(decoded.getAlgorithm());
+            if (verifier == null) {
+                throw new AlgorithmMismatchException("Token algorithm " + decoded.getAlgorithm() + " is not accepted");
+            }
+        }
+        return verifier.verify(decoded);
+    }
+
+    /**
+     * Rebuilds the ring when any key file changed, appeared or disappeared, or when a
+     * pending key reached its activation time. A failed reload keeps the previous ring.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        KeyRing ring = current.get();
+        try {
+            if (lastModified().equals(ring.modified()) && System.currentTimeMillis() < ring.nextActivationMillis()) {
+                return;
+            }
+            current.set(load());
+            logger.info("JWT key ring reloaded, signing with key {}", current.get().signingKid());
+        } catch (Exception e) {
+            logger.error("Error while reloading JWT key material, keeping previous keys", e);
+        }
+    }
+
+    /**
+     * Generates a new key pair in {@code jwt.keys.dir} once the newest one is older than the
+     * rotation interval, and deletes keys that were superseded long enough ago that every
+     * token they signed has expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.rotation-check-interval-ms:3600000}")
+    public synchronized void rotateIfDue() {
+        if (keysDir == null || rotationInterval.isZero()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis() / 1000;
+            TreeMap<Long, JwtSigningAlgorithm> created = new TreeMap<>();
+            for (Path file : keyFiles()) {
+                Matcher matcher = KEY_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && matcher.group(3).equals("private")) {
+                    created.put(Long.parseLong(matcher.group(1)), JwtSigningAlgorithm.valueOf(matcher.group(2)));
+                }
+            }
+
+            Long newest = created.isEmpty() ? null : created.lastKey();
+            if (newest == null || created.get(newest) != signingAlgorithm
+                    || newest + rotationInterval.toSeconds() <= now) {
+                writeKeyPair(now);
+                created.put(now, signingAlgorithm);
+                logger.info("Generated new {} signing key", signingAlgorithm);
+            }
+
+            // A key is retired once a newer one took over; keep it until its tokens expired.
+            Long successor = null;
+            for (Long createdAt : created.descendingKeySet()) {
+                if (successor != null && successor + activationDelay.toSeconds() + retiredKeyTtl.toSeconds() <= now) {
+                    deleteKeyPair(createdAt, created.get(createdAt));
+                }
+                successor = createdAt;
+            }
+        } catch (Exception e) {
+            logger.error("Error while rotating JWT keys", e);
+        }
+    }
+
+    private KeyRing load() throws Exception {
+        // Read the timestamps first so a write racing with this load triggers another reload.
+        Map<String, FileTime> modified = lastModified();
+        long now = System.currentTimeMillis();
+
+        Map<String, RingKey> keys = new HashMap<>();
+        Map<String, JWTVerifier> unkeyed = new HashMap<>();
+        Algorithm signer = null;
+        String signingKid = null;
+        long nextActivation = Long.MAX_VALUE;
+
+        for (JwtSigningAlgorithm alg : verificationAlgorithms) {
+            String[] paths = keyPaths.get(alg);
+            if (paths[0].isBlank()) {
+                continue;
+            }
+            PublicKey publicKey = Authorization.getPublicKey(paths[0], alg.keyAlgorithm());
+            RingKey key = ringKey(alg, publicKey);
+            keys.put(key.kid(), key);
+            unkeyed.put(alg.name(), key.verifier());
+            if (alg == signingAlgorithm && !paths[1].isBlank()) {
+                PrivateKey privateKey = Authorization.getPrivateKey(paths[1], alg.keyAlgorithm());
+                signer = alg.create(publicKey, privateKey, key.kid());
+                signingKid = key.kid();
+            }
+        }
+
+        if (keysDir != null) {
+            TreeMap<Long, JwtSigningAlgorithm> signingCandidates = new TreeMap<>(Comparator.reverseOrder());
+            for (Path file : keyFiles()) {
+                Matcher matcher = KEY_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                JwtSigningAlgorithm alg = JwtSigningAlgorithm.valueOf(matcher.group(2));
+                if (!verificationAlgorithms.contains(alg)) {
+                    continue;
+                }
+                if (matcher.group(3).equals("public")) {
+                    RingKey key = ringKey(alg, Authorization.getPublicKey(file.toString(), alg.keyAlgorithm()));
+                    keys.put(key.kid(), key);
+                } else if (alg == signingAlgorithm) {
+                    signingCandidates.put(Long.parseLong(matcher.group(1)), alg);
+                }
+            }
+
+            // Newest published key first; a key only signs once JWKS consumers could have seen it.
+            for (Long createdAt : signingCandidates.keySet()) {
+                long activatesAt = (createdAt + activationDelay.toSeconds()) * 1000;
+                Path publicFile = keysDir.resolve(keyFileName(createdAt, signingAlgorithm, "public"));
+                if (!Files.exists(publicFile)) {
+                    continue;
+                }
+                boolean last = createdAt.equals(signingCandidates.lastKey());
+                if (activatesAt > now && !(last && signer == null)) {
+                    nextActivation = Math.min(nextActivation, activatesAt);
+                    continue;
+                }
+                PublicKey publicKey = Authorization.getPublicKey(publicFile.toString(), signingAlgorithm.keyAlgorithm());
+                PrivateKey privateKey = Authorization.getPrivateKey(
+                        keysDir.resolve(keyFileName(createdAt, signingAlgorithm, "private")).toString(),
+                        signingAlgorithm.keyAlgorithm());
+                signingKid = signingAlgorithm.thumbprint(publicKey);
+                signer = signingAlgorithm.create(publicKey, privateKey, signingKid);
+                break;
+            }
+        }
+
+        if (signer == null) {
+            throw new IllegalArgumentException("No private key configured for " + signingAlgorithm);
+        }
+
+        List<Map<String, String>> jwks = new ArrayList<>();
+        for (RingKey key : keys.values()) {
+            Map<String, String> jwk = new LinkedHashMap<>(key.algorithm().jwk(key.publicKey()));
+            jwk.put("kid", key.kid());
+            jwk.put("use", "sig");
+            jwk.put("alg", key.algorithm().name());
+            jwks.add(jwk);
+        }
+
+        return new KeyRing(signer, signingKid, Map.copyOf(keys), Map.copyOf(unkeyed),
+                Map.of("keys", List.copyOf(jwks)), modified, nextActivation);
+    }
+
+    private static RingKey ringKey(JwtSigningAlgorithm alg, PublicKey publicKey) {
+        Algorithm algorithm = alg.create(publicKey, null);
+        return new RingKey(alg.thumbprint(publicKey), alg, publicKey,
+                JWT.require(algorithm).withIssuer(ISSUER).build());
+    }
+
+    private Map<String, FileTime> lastModified() throws IOException {
+        Map<String, FileTime> modified = new HashMap<>();
+        for (JwtSigningAlgorithm alg : verificationAlgorithms) {
+            String[] paths = keyPaths.get(alg);
+            for (int i = 0; i < (alg == signingAlgorithm ? 2 : 1); i++) {
+                if (!paths[i].isBlank()) {
+                    modified.put(paths[i], Files.getLastModifiedTime(Paths.get(paths[i])));
+                }
+            }
+        }
+        if (keysDir != null) {
+            for (Path file : keyFiles()) {
+                modified.put(file.toString(), Files.getLastModifiedTime(file));
+            }
+        }
+        return modified;
+    }
+
+    private List<Path> keyFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(keysDir, "*.pem")) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    private void writeKeyPair(long createdAt) throws Exception {
+        KeyPair keyPair = signingAlgorithm.generateKeyPair();
+        // Private key first: a pair only counts once its public key exists.
+        writePem(keyFileName(createdAt, signingAlgorithm, "private"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        writePem(keyFileName(createdAt, signingAlgorithm, "public"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+    }
+
+    private void writePem(String fileName, String type, byte[] der) throws IOException {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        Path temp = Files.createTempFile(keysDir, ".key", ".tmp");
+        Files.writeString(temp, "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n",
+                StandardCharsets.US_ASCII);
+        Files.move(temp, keysDir.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteKeyPair(long createdAt, JwtSigningAlgorithm alg) throws IOException {
+        Files.deleteIfExists(keysDir.resolve(keyFileName(createdAt, alg, "public")));
+        Files.deleteIfExists(keysDir.resolve(keyFileName(createdAt, alg, "private")));
+        logger.info("Deleted retired {} key created at {}", alg, createdAt);
+    }
+
+    private static String keyFileName(long createdAt, JwtSigningAlgorithm alg, String kind) {
+        return createdAt + "-" + alg.name() + "." + kind + ".pem";
+    }
+
+    private record RingKey(String kid,
+                           JwtSigningAlgorithm algorithm,
+                           PublicKey publicKey,
+                           JWTVerifier verifier) {
+    }
+
+    private record KeyRing(Algorithm signer,
+                           String signingKid,
+                           Map<String, RingKey> keys,
+                           Map<String, JWTVerifier> unkeyed,
+                           Map<String, Object> jwks,
+                           Map<String, FileTime> modified,
+                           long nextActivationMillis) {
+    }
+}
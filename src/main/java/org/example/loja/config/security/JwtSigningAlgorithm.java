@@ -0,0 +1,176 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Signature algorithms accepted for issued tokens, named as in the JWT {@code alg} header.
+ * <p>
+ * ES256 signs roughly an order of magnitude faster than RS256 with a 2048-bit key and
+ * produces much shorter tokens; RS256 verification is cheaper, so the right choice depends
+ * on the login-to-request ratio (see {@code JwtSignatureBenchmark}).
+ */
+public enum JwtSigningAlgorithm {
+    RS256("RSA"),
+    ES256("EC");
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final String keyAlgorithm;
+
+    JwtSigningAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    /** {@code KeyFactory} algorithm used to parse the PEM keys. */
+    public String keyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /**
+     * Builds the java-jwt algorithm; {@code privateKey} may be {@code null} for
+     * verification-only use.
+     */
+    public Algorithm create(PublicKey publicKey, PrivateKey privateKey) {
+        return switch (this) {
+            case RS256 -> Algorithm.RSA256((RSAPublicKey) publicKey, (RSAPrivateKey) privateKey);
+            case ES256 -> Algorithm.ECDSA256((ECPublicKey) publicKey, (ECPrivateKey) privateKey);
+        };
+    }
+
+    /**
+     * Same as {@link #create(PublicKey, PrivateKey)}, writing {@code keyId} to the
+     * {@code kid} header of every token it signs.
+     */
+    public Algorithm create(PublicKey publicKey, PrivateKey privateKey, String keyId) {
+        return switch (this) {
+            case RS256 -> Algorithm.RSA256(new RSAKeyProvider() {
+                @Override
+                public RSAPublicKey getPublicKeyById(String kid) {
+                    return (RSAPublicKey) publicKey;
+                }
+
+                @Override
+                public RSAPrivateKey getPrivateKey() {
+                    return (RSAPrivateKey) privateKey;
+                }
+
+                @Override
+                public String getPrivateKeyId() {
+                    return keyId;
+                }
+            });
+            case ES256 -> Algorithm.ECDSA256(new ECDSAKeyProvider() {
+                @Override
+                public ECPublicKey getPublicKeyById(String kid) {
+                    return (ECPublicKey) publicKey;
+                }
+
+                @Override
+                public ECPrivateKey getPrivateKey() {
+                    return (ECPrivateKey) privateKey;
+                }
+
+                @Override
+                public String getPrivateKeyId() {
+                    return keyId;
+                }
+            });
+        };
+    }
+
+    public KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+        switch (this) {
+            case RS256 -> generator.initialize(2048);
+            case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+        }
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Public JWK members of the key (RFC 7517), in the lexicographic order required for
+     * the RFC 7638 thumbprint.
+     */
+    public Map<String, String> jwk(PublicKey publicKey) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        switch (this) {
+            case RS256 -> {
+                RSAPublicKey rsa = (RSAPublicKey) publicKey;
+                jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+                jwk.put("kty", "RSA");
+                jwk.put("n", base64Url(rsa.getModulus(), 0));
+            }
+            case ES256 -> {
+                ECPublicKey ec = (ECPublicKey) publicKey;
+                jwk.put("crv", "P-256");
+                jwk.put("kty", "EC");
+                jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+                jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+            }
+        }
+        return jwk;
+    }
+
+    /** RFC 7638 thumbprint of the key, used as its {@code kid}. */
+    public String thumbprint(PublicKey publicKey) {
+        StringBuilder json = new StringBuilder("{");
+        jwk(publicKey).forEach((name, value) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(name).append("\":\"").append(value).append('"');
+        });
+        json.append('}');
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.toString().getBytes(StandardCharsets.UTF_8));
+            return BASE64_URL.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Unsigned big-endian encoding, left-padded to {@code length} bytes when non-zero. */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    public static JwtSigningAlgorithm fromString(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing JWT signing algorithm");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported JWT signing algorithm " + value);
+        }
+    }
+}
@@ -1,31 +1,29 @@
 package org.example.loja.config.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.example.loja.entities.*;
 import org.example.loja.enums.TokenType;
-import org.example.loja.util.Authorization;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.security.KeyFactory;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Component
@@ -35,75 +33,151 @@ public class JwtTokenProvider {
 
     private final UserDetailsService userDetailsService;
 
+    private final JwtKeyMaterial keyMaterial;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocationList revocationList;
+
     @Autowired
-    public JwtTokenProvider(UserDetailsService userDetailsService) {
+    public JwtTokenProvider(UserDetailsService userDetailsService, JwtKeyMaterial keyMaterial,
+                            VerifiedTokenCache verifiedTokenCache, PrincipalCache principalCache,
+                            TokenRevocationList revocationList) {
         this.userDetailsService = userDetailsService;
+        this.keyMaterial = keyMaterial;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
     }
-    private final String issuer = "loja";
+    private final String issuer = JwtKeyMaterial.ISSUER;
+
+    /** Store admins owning more stores than this get a {@code storesRef} claim instead of the list. */
+    @Value("${jwt.stores.inline-max:32}")
+    private int inlineStoresLimit = 32;
 
+    @Value("${jwt.access-token.ttl-seconds:900}")
+    private long accessTokenTtlSeconds = 900;
 
-    @Value("${PUBLIC_KEY}")
-    private String publicKeyPath;
+    @Value("${jwt.refresh-token.ttl-seconds:604800}")
+    private long refreshTokenTtlSeconds = 604800;
 
-    @Value("${PRIVATE_KEY}")
-    private String privateKeyPath;
+    private static final String TOKEN_USE_CLAIM = "token_use";
+    private static final String REFRESH_TOKEN_USE = "refresh";
 
     public TokenType parseTypeOfToken(String token) {
-        DecodedJWT jwt = JWT.decode(token);
+        DecodedJWT jwt = decode(token);
         String type = jwt.getClaim("type").asString();
         return TokenType.fromString(type);
     }
 
-    public RSAPublicKey getPublicKey() throws Exception {
-        logger.debug("Loading public key from path: {}", publicKeyPath);
-        try {
-            String key = new String(Files.readAllBytes(Paths.get(publicKeyPath)))
-                    .replaceAll("-----BEGIN PUBLIC KEY-----", "")
-                    .replaceAll("-----END PUBLIC KEY-----", "")
-                    .replaceAll("\\s+", "");
-
-            byte[] keyBytes = Base64.getDecoder().decode(key);
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(keyBytes);
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-
-            RSAPublicKey publicKey = (RSAPublicKey) keyFactory.generatePublic(keySpec);
-            logger.debug("Public key loaded successfully.");
-            return publicKey;
-        } catch (Exception e) {
-            logger.error("Error while loading public key", e);
-            throw e;
-        }
+    public PublicKey getPublicKey() {
+        return keyMaterial.publicKey();
     }
+
     public List<String> getRolesFromToken(String token) {
-        DecodedJWT jwt = JWT.decode(token);
+        DecodedJWT jwt = decode(token);
         return List.of(jwt.getClaim("roles").asArray(String.class));
     }
 
     public String getUsernameFromToken(String token) {
-        DecodedJWT jwt = JWT.decode(token);
+        DecodedJWT jwt = decode(token);
         return jwt.getClaim("email").asString();
     }
     public String getRoleFromToken(String token) {
-        DecodedJWT jwt = JWT.decode(token);
+        DecodedJWT jwt = decode(token);
         return jwt.getClaim("roles").asArray(String.class)[0];
     }
 
-    public Authentication getAuthentication(String username) {
-        logger.debug("Retrieving authentication for user: {}", username);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        Authentication authentication = new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
-        logger.debug("Authentication retrieved successfully for user: {}", username);
+    /**
+     * Resolves the principal of an already verified token through {@link PrincipalCache}.
+     *
+     * @throws org.springframework.security.authentication.DisabledException if the account was deactivated
+     */
+    public Authentication getAuthentication(String token) {
+        return getAuthentication(decode(token));
+    }
+
+    /**
+     * Same as {@link #getAuthentication(String)} for a token the caller already verified.
+     */
+    public Authentication getAuthentication(DecodedJWT jwt) {
+        logger.debug("Retrieving authentication for token subject...");
+        Authentication authentication = principalCache.get(jwt, () -> loadAuthentication(jwt.getToken()));
+        logger.debug("Authentication retrieved successfully for user: {}", authentication.getName());
         return authentication;
     }
 
+    private Authentication loadAuthentication(String token) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token);
+        List<SimpleGrantedAuthority> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> new SimpleGrantedAuthority(authority.startsWith("ROLE_") ? authority : "ROLE_" + authority))
+                .toList();
+        return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
+    }
+
+    /**
+     * Verifies the signature and claims of the token, answering from {@link VerifiedTokenCache}
+     * when the same token was already verified. Revocation is checked on every call.
+     *
+     * @throws JWTVerificationException if the token is invalid, expired or revoked
+     */
+    public DecodedJWT verify(String token) throws JWTVerificationException {
+        DecodedJWT jwt = verifiedTokenCache.getIfPresent(token);
+        if (jwt == null) {
+            jwt = keyMaterial.verify(token);
+            verifiedTokenCache.put(token, jwt);
+        }
+        if (revocationList.isRevoked(jwt.getId())) {
+            throw new JWTVerificationException("Token has been revoked");
+        }
+        return jwt;
+    }
+
+    /**
+     * Same as {@link #verify(String)}, rejecting refresh tokens.
+     */
+    public DecodedJWT verifyAccessToken(String token) throws JWTVerificationException {
+        DecodedJWT jwt = verify(token);
+        if (REFRESH_TOKEN_USE.equals(jwt.getClaim(TOKEN_USE_CLAIM).asString())) {
+            throw new JWTVerificationException("Refresh tokens cannot be used as access tokens");
+        }
+        return jwt;
+    }
+
+    /**
+     * Same as {@link #verify(String)}, accepting only refresh tokens.
+     */
+    public DecodedJWT verifyRefreshToken(String token) throws JWTVerificationException {
+        DecodedJWT jwt = verify(token);
+        if (!REFRESH_TOKEN_USE.equals(jwt.getClaim(TOKEN_USE_CLAIM).asString())) {
+            throw new JWTVerificationException("Not a refresh token");
+        }
+        return jwt;
+    }
+
+    /**
+     * Revokes the token until it expires.
+     *
+     * @return {@code false} if it was already revoked or carries no {@code jti}
+     */
+    public boolean revoke(DecodedJWT jwt) {
+        return revoke(jwt.getId(), jwt.getExpiresAt().getTime());
+    }
+
+    public boolean revoke(String jti, long expiresAtMillis) {
+        if (jti == null) {
+            return false;
+        }
+        return revocationList.revoke(jti, expiresAtMillis);
+    }
+
     public boolean validateToken(String token) {
         logger.debug("Validating token...");
         try {
-            Algorithm algorithm = Algorithm.RSA256(
-                    (RSAPublicKey) Authorization.getPublicKey(publicKeyPath),
-                    (RSAPrivateKey) Authorization.getPrivateKey(privateKeyPath)
-            );
-            JWT.require(algorithm).withIssuer(issuer).build().verify(token);
+            verifyAccessToken(token);
             logger.debug("Token validated successfully.");
             return true;
         } catch (Exception e) {
@@ -115,19 +189,17 @@ public class JwtTokenProvider {
     public String generateAdminMasterToken(AdminMasterEntity admin) throws Exception {
         logger.debug("Generating JWT for AdminMasterEntity with ID: {}", admin.getId());
         try {
-            Algorithm algorithm = Algorithm.RSA256(
-                    (RSAPublicKey) Authorization.getPublicKey(publicKeyPath),
-                    (RSAPrivateKey) Authorization.getPrivateKey(privateKeyPath)
-            );
+            Algorithm algorithm = keyMaterial.algorithm();
 
             String token = JWT.create()
                     .withIssuer(issuer)
                     .withClaim("email", admin.getEmail())
                     .withArrayClaim("roles", admin.getRole().stream()
                             .map(RoleEntity::getName).toArray(String[]::new))
-                    .withClaim("type", "adminMaster-")
+                    .withClaim("type", TokenType.ADMIN_MASTER.claimValue())
+                    .withJWTId(UUID.randomUUID().toString())
                     .withIssuedAt(new Date())
-                    .withExpiresAt(new Date(System.currentTimeMillis() + 8000 * 60 * 60))
+                    .withExpiresAt(expiresIn(accessTokenTtlSeconds))
                     .sign(algorithm);
 
             logger.debug("JWT generated successfully for AdminMasterEntity.");
@@ -141,22 +213,31 @@ public class JwtTokenProvider {
     public String generateStoreAdminToken(StoreAdminEntity admin) throws Exception {
         logger.debug("Generating JWT for StoreAdminEntity with ID: {}", admin.getId());
         try {
-            Algorithm algorithm = Algorithm.RSA256(
-                    (RSAPublicKey) Authorization.getPublicKey(publicKeyPath),
-                    (RSAPrivateKey) Authorization.getPrivateKey(privateKeyPath)
-            );
-            String token = JWT.create()
+            Algorithm algorithm = keyMaterial.algorithm();
+            JWTCreator.Builder builder = JWT.create()
                     .withIssuer(issuer)
                     .withClaim("email", admin.getEmail())
                     .withArrayClaim("roles", admin.getRole().stream()
                             .map(RoleEntity::getName).toArray(String[]::new))
                     .withClaim("name", admin.getName())
                     .withClaim("id", admin.getId().toString())
-                    .withClaim("stores", admin.getManagedStore().stream().map(StoreEntity::getId).toString())
-                    .withClaim("type", "storeAdmin")
+                    .withClaim("type", TokenType.STORE_ADMIN.claimValue())
+                    .withJWTId(UUID.randomUUID().toString())
                     .withIssuedAt(new Date())
-                    .withExpiresAt(new Date(System.currentTimeMillis() + 8000 * 60 * 60))
-                    .sign(algorithm);
+                    .withExpiresAt(expiresIn(accessTokenTtlSeconds));
+
+            Long[] storeIds = admin.getManagedStore().stream()
+                    .map(StoreEntity::getId)
+                    .filter(Objects::nonNull)
+                    .sorted()
+                    .toArray(Long[]::new);
+            if (storeIds.length <= inlineStoresLimit) {
+                builder.withArrayClaim("stores", storeIds);
+            } else {
+                // Too many stores to inline: StoreMembershipRegistry resolves them server-side.
+                builder.withClaim("storesRef", admin.getId().toString());
+            }
+            String token = builder.sign(algorithm);
 
             logger.debug("Jwt generated successfully for StoreAdminEntity.");
 
@@ -171,21 +252,19 @@ public class JwtTokenProvider {
     public String generateStoreManagerToken(StoreManagerEntity manager) throws Exception {
         logger.debug("Generating JWT for StoreAdminEntity with ID: {}", manager.getId());
         try {
-            Algorithm algorithm = Algorithm.RSA256(
-                    (RSAPublicKey) Authorization.getPublicKey(publicKeyPath),
-                    (RSAPrivateKey) Authorization.getPrivateKey(privateKeyPath)
-            );
+            Algorithm algorithm = keyMaterial.algorithm();
             String token = JWT.create()
                     .withIssuer(issuer)
                     .withClaim("email", manager.getEmail())
                     .withArrayClaim("roles", manager.getRole().stream()
                             .map(RoleEntity::getName).toArray(String[]::new))
                     .withClaim("name", manager.getName())
-                    .withClaim("store", manager.getStore().getId().toString())
+                    .withArrayClaim("stores", new Long[]{manager.getStore().getId()})
                     .withClaim("id", manager.getId().toString())
-                    .withClaim("type", "manager")
+                    .withClaim("type", TokenType.MANAGER.claimValue())
+                    .withJWTId(UUID.randomUUID().toString())
                     .withIssuedAt(new Date())
-                    .withExpiresAt(new Date(System.currentTimeMillis() + 8000 * 60 * 60))
+                    .withExpiresAt(expiresIn(accessTokenTtlSeconds))
                     .sign(algorithm);
 
             logger.debug("Jwt generated successfully for StoreAdminEntity.");
@@ -197,6 +276,32 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * Issues a refresh token for the account. It only carries what is needed to reload the
+     * account on refresh; roles and stores are read again from the database at that point.
+     */
+    public String generateRefreshToken(String email, TokenType type) {
+        logger.debug("Generating refresh token for {}", type);
+        return JWT.create()
+                .withIssuer(issuer)
+                .withClaim("email", email)
+                .withClaim("type", type.claimValue())
+                .withClaim(TOKEN_USE_CLAIM, REFRESH_TOKEN_USE)
+                .withJWTId(UUID.randomUUID().toString())
+                .withIssuedAt(new Date())
+                .withExpiresAt(expiresIn(refreshTokenTtlSeconds))
+                .sign(keyMaterial.algorithm());
+    }
+
+    private static Date expiresIn(long seconds) {
+        return new Date(System.currentTimeMillis() + seconds * 1000);
+    }
+
+    private DecodedJWT decode(String token) {
+        DecodedJWT cached = verifiedTokenCache.getIfPresent(token);
+        return cached != null ? cached : JWT.decode(token);
+    }
+
     public static UUID extractIdFromToken(String tokenValue) {
         logger.debug("Extracting ID from token...");
         String token = tokenValue.startsWith("Bearer ") ? tokenValue.substring(7) : tokenValue;
@@ -216,18 +321,4 @@ public class JwtTokenProvider {
             throw new IllegalArgumentException("Failed to decode JWT token", e);
         }
     }
-
-    public List<String> parseStoresFromToken(String token, String TokenType) {
-        if (TokenType.equals("storeAdmin")) {
-            logger.debug("Parsing JWT token...");
-            DecodedJWT jwt = JWT.decode(token);
-            return jwt.getClaim("stores").asList(String.class);
-        } else if (TokenType.equals("manager")) {
-            logger.debug("Parsing JWT token...");
-            DecodedJWT jwt = JWT.decode(token);
-            return jwt.getClaim("stores").asList(String.class);
-
-        }
-        return null;
-    }
 }
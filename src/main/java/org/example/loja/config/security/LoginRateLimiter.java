@@ -0,0 +1,174 @@
+package org.example.loja.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window throttle for the login endpoints, applied per e-mail and per client address
+ * before any BCrypt work is done.
+ * <p>
+ * Each key owns one {@link AtomicLong} packing the current window number and the attempt
+ * counts of the current and previous windows, updated with a CAS loop (no locks). The
+ * estimate weights the previous window by the part of it still inside the sliding window.
+ * Keys live in a bounded Caffeine cache and expire two windows after their last attempt.
+ * <p>
+ * Limits are read per endpoint from {@code security.login.rate-limit.<endpoint>.max-per-email}
+ * and {@code .max-per-ip}, falling back to the global defaults. Outcomes are counted as
+ * {@code security.login.attempts{endpoint, outcome}}; throttled attempts are logged with a
+ * truncated SHA-256 of the e-mail rather than the e-mail itself.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private static final int COUNT_BITS = 16;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int WINDOW_SHIFT = 2 * COUNT_BITS;
+
+    public enum Endpoint {
+        ADMIN_MASTER("admin-master"),
+        STORE_ADMIN("store-admin"),
+        STORE_MANAGER("store-manager");
+
+        private final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+    }
+
+    private record Limits(int perEmail, int perIp, Counter allowed, Counter blocked) {
+    }
+
+    private final long windowMillis;
+
+    private final Cache<String, AtomicLong> windows;
+
+    private final Map<Endpoint, Limits> limits = new EnumMap<>(Endpoint.class);
+
+    public LoginRateLimiter(@Value("${security.login.rate-limit.window-seconds:60}") long windowSeconds,
+                            @Value("${security.login.rate-limit.max-per-email:5}") int defaultPerEmail,
+                            @Value("${security.login.rate-limit.max-per-ip:20}") int defaultPerIp,
+                            @Value("${security.login.rate-limit.max-keys:100000}") long maxKeys,
+                            Environment environment,
+                            MeterRegistry meterRegistry) {
+        this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(2 * windowMillis))
+                .build();
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            String prefix = "security.login.rate-limit." + endpoint.key;
+            limits.put(endpoint, new Limits(
+                    environment.getProperty(prefix + ".max-per-email", Integer.class, defaultPerEmail),
+                    environment.getProperty(prefix + ".max-per-ip", Integer.class, defaultPerIp),
+                    Counter.builder("security.login.attempts")
+                            .tag("endpoint", endpoint.key).tag("outcome", "allowed")
+                            .register(meterRegistry),
+                    Counter.builder("security.login.attempts")
+                            .tag("endpoint", endpoint.key).tag("outcome", "blocked")
+                            .register(meterRegistry)));
+        }
+    }
+
+    /**
+     * Records a login attempt, returning {@code false} when either the e-mail or the client
+     * address already used up its attempts in the current window. A refused attempt is not
+     * counted against either key, so a throttled address cannot use up a victim's e-mail.
+     */
+    public boolean tryAcquire(Endpoint endpoint, String email, String remoteAddress) {
+        Limits endpointLimits = limits.get(endpoint);
+        long now = System.currentTimeMillis();
+
+        String normalizedEmail = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        AtomicLong emailState = windows.get(endpoint.key + "|email|" + normalizedEmail, k -> new AtomicLong());
+        AtomicLong ipState = windows.get(endpoint.key + "|ip|" + remoteAddress, k -> new AtomicLong());
+
+        boolean allowed = tryAcquire(emailState, endpointLimits.perEmail(), now, false)
+                && tryAcquire(ipState, endpointLimits.perIp(), now, false)
+                && tryAcquire(emailState, endpointLimits.perEmail(), now, true);
+        if (allowed && !tryAcquire(ipState, endpointLimits.perIp(), now, true)) {
+            // The address filled up between the check and the increment.
+            release(emailState, now);
+            allowed = false;
+        }
+        if (!allowed) {
+            logger.warn("Login attempt throttled on {} for e-mail {} from {}",
+                    endpoint.key, digest(normalizedEmail), remoteAddress);
+            endpointLimits.blocked().increment();
+            return false;
+        }
+        endpointLimits.allowed().increment();
+        return true;
+    }
+
+    /** Checks the estimate against the limit and, when {@code increment} is set, counts the attempt. */
+    private boolean tryAcquire(AtomicLong state, int limit, long now, boolean increment) {
+        long window = now / windowMillis;
+        double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+
+        while (true) {
+            long packed = state.get();
+            long stateWindow = packed >>> WINDOW_SHIFT;
+            long current = packed & COUNT_MASK;
+            long previous = (packed >>> COUNT_BITS) & COUNT_MASK;
+
+            if (stateWindow != window) {
+                previous = stateWindow == window - 1 ? current : 0;
+                current = 0;
+            }
+            if (previous * previousWeight + current >= limit) {
+                return false;
+            }
+            if (!increment) {
+                return true;
+            }
+            long next = (window << WINDOW_SHIFT) | (previous << COUNT_BITS) | Math.min(current + 1, COUNT_MASK);
+            if (state.compareAndSet(packed, next)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(AtomicLong state, long now) {
+        long window = now / windowMillis;
+        while (true) {
+            long packed = state.get();
+            if (packed >>> WINDOW_SHIFT != window || (packed & COUNT_MASK) == 0) {
+                return;
+            }
+            if (state.compareAndSet(packed, packed - 1)) {
+                return;
+            }
+        }
+    }
+
+    // Throttling is mostly hit by credential stuffing; the logs get a stable pseudonym, not the e-mail.
+    private static String digest(String email) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(email.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Short-TTL cache of authenticated principals keyed by token subject (the {@code id} claim,
+ * or the e-mail for tokens without one).
+ * <p>
+ * With {@code security.principal.source=claims} a miss builds the {@link Authentication}
+ * straight from the signed claims, so no SQL is issued. Subjects whose account changed are
+ * marked stale through {@link #invalidate(String)}; while the mark lasts (one access token
+ * lifetime, {@code jwt.access-token.ttl-seconds}) their principal is always reloaded from the
+ * database, which is where deactivation shows up.
+ * <p>
+ * Stale marks are held in memory only. Tokens issued before this instance started are
+ * therefore also resolved from the database, so a restart cannot let a deactivated account
+ * back in; claims mode takes over fully once those tokens have expired.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    public enum Source {
+        CLAIMS,
+        DATABASE
+    }
+
+    private final Source source;
+
+    private final Cache<String, Authentication> principals;
+
+    private final Cache<String, Boolean> staleSubjects;
+
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    public PrincipalCache(@Value("${security.principal.source:claims}") String source,
+                          @Value("${security.principal.cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${security.principal.cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal.stale-ttl-seconds:${jwt.access-token.ttl-seconds:900}}") long staleTtlSeconds,
+                          MeterRegistry meterRegistry) {
+        this.source = Source.valueOf(source.trim().toUpperCase());
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.staleSubjects = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(staleTtlSeconds))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principals");
+    }
+
+    /**
+     * Returns the principal for the verified token, calling {@code databaseLoader} only in
+     * database mode or for subjects whose account changed recently.
+     *
+     * @throws DisabledException if the account was deactivated
+     */
+    public Authentication get(DecodedJWT jwt, Supplier<Authentication> databaseLoader) {
+        String subject = subjectOf(jwt);
+        Authentication authentication = principals.getIfPresent(subject);
+        if (authentication == null) {
+            if (source == Source.CLAIMS && issuedSinceStart(jwt) && staleSubjects.getIfPresent(subject) == null) {
+                authentication = fromClaims(jwt);
+            } else {
+                logger.debug("Loading principal for subject {} from the database", subject);
+                authentication = databaseLoader.get();
+            }
+            principals.put(subject, authentication);
+        }
+        if (authentication.getPrincipal() instanceof UserDetails userDetails && !userDetails.isEnabled()) {
+            throw new DisabledException("Account is disabled");
+        }
+        return authentication;
+    }
+
+    /**
+     * Drops the cached principal of the subject and forces the next lookups back to the
+     * database. Must be called whenever an account is deactivated, reactivated or removed.
+     */
+    public void invalidate(String subject) {
+        logger.debug("Invalidating cached principal for subject {}", subject);
+        staleSubjects.put(subject, Boolean.TRUE);
+        principals.invalidate(subject);
+    }
+
+    // Marks made before a restart are lost, so older tokens may belong to a deactivated account.
+    private boolean issuedSinceStart(DecodedJWT jwt) {
+        Date issuedAt = jwt.getIssuedAt();
+        return issuedAt != null && issuedAt.getTime() >= startedAtMillis;
+    }
+
+    static String subjectOf(DecodedJWT jwt) {
+        String id = jwt.getClaim("id").asString();
+        return id != null ? id : jwt.getClaim("email").asString();
+    }
+
+    private static Authentication fromClaims(DecodedJWT jwt) {
+        String[] roles = jwt.getClaim("roles").asArray(String.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of() : Arrays.stream(roles)
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+        UserDetails userDetails = new User(jwt.getClaim("email").asString(), "", authorities);
+        return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
+    }
+}
@@ -3,6 +3,7 @@ package org.example.loja.config.security;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,16 +11,12 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
-import java.security.interfaces.RSAPublicKey;
 import java.util.List;
 
 @Configuration
@@ -29,13 +26,16 @@ public class SecurityConfig {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     private static final String[] PERMIT_ALL_PATHS = {
             "/admin/master/login",
             "/api/v1/store-admins/login",
             "/api/v1/store-admins/register",
             "/api/v1/store-manager/login",
+            "/api/v1/auth/refresh",
+            "/api/v1/auth/logout",
+            "/.well-known/jwks.json",
             "/api/v1/graphql",
             "/v3/api-docs/**",
             "/swagger-ui/**",
@@ -46,7 +46,7 @@ public class SecurityConfig {
 
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, CustomAuthenticationEntryPoint customAuthenticationEntryPoint) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         logger.debug("Configuring security filter chain...");
         http
                 .csrf(AbstractHttpConfigurer::disable)  // Disable CSRF for APIs
@@ -54,9 +54,7 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(
-                                jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
-                        .authenticationEntryPoint(customAuthenticationEntryPoint))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(ex -> ex
                         .authenticationEntryPoint(((request, response, authException) -> {
                             logger.error("Authentication failed: {}", authException.getMessage());
@@ -82,16 +80,15 @@ public class SecurityConfig {
     }
 
 
+    /**
+     * {@link JwtAuthenticationFilter} is a bean so it can be injected above; keep Boot from
+     * also registering it as a plain servlet filter, which would verify every token twice.
+     */
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        logger.debug("Configuring JWT authentication converter...");
-        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        grantedAuthoritiesConverter.setAuthoritiesClaimName("roles");
-        grantedAuthoritiesConverter.setAuthorityPrefix("ROLE_");
-
-        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
-        return jwtAuthenticationConverter;
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
@@ -108,19 +105,6 @@ public class SecurityConfig {
         return source;
     }
 
-    @Bean
-    public JwtDecoder jwtDecoder() throws Exception {
-        logger.debug("Creating JwtDecoder bean...");
-        try {
-            RSAPublicKey publicKey = jwtTokenProvider.getPublicKey();
-            logger.debug("Public key retrieved successfully.");
-            return NimbusJwtDecoder.withPublicKey(publicKey).build();
-        } catch (Exception e) {
-            logger.error("Error while creating JwtDecoder bean", e);
-            throw new Exception("Error while creating JwtDecoder bean");
-        }
-    }
-
     @Bean
     public PasswordEncoder passwordEncoder() {
         logger.debug("Creating PasswordEncoder bean...");
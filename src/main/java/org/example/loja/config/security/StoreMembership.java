@@ -0,0 +1,31 @@
+package org.example.loja.config.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Set of store ids a caller may act on. Lookups are a binary search over the sorted ids, so
+ * the authorization check stays cheap whether an admin owns one store or thousands, and the
+ * memory used only depends on how many stores there are, not on how large their ids are.
+ */
+@FunctionalInterface
+public interface StoreMembership {
+
+    StoreMembership NONE = storeId -> false;
+
+    StoreMembership ALL = storeId -> true;
+
+    boolean contains(long storeId);
+
+    static StoreMembership of(Collection<Long> storeIds) {
+        long[] ids = storeIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return ids.length == 0 ? NONE : sorted(ids);
+    }
+
+    /**
+     * Wraps ids that are already sorted ascending, as written in the {@code stores} claim.
+     */
+    static StoreMembership sorted(long[] sortedIds) {
+        return storeId -> Arrays.binarySearch(sortedIds, storeId) >= 0;
+    }
+}
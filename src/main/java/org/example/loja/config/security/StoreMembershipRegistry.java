@@ -0,0 +1,50 @@
+package org.example.loja.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.loja.repository.StoreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Server-side store membership of store admins whose token carries a {@code storesRef}
+ * claim instead of the inline {@code stores} list. Memberships are loaded with a single id
+ * query and kept until the admin's stores change.
+ */
+@Component
+public class StoreMembershipRegistry {
+
+    private final StoreRepository storeRepository;
+
+    private final Cache<UUID, StoreMembership> memberships;
+
+    public StoreMembershipRegistry(StoreRepository storeRepository,
+                                   @Value("${security.store-membership.cache.max-size:10000}") long maxSize,
+                                   @Value("${security.store-membership.cache.ttl-seconds:3600}") long ttlSeconds,
+                                   MeterRegistry meterRegistry) {
+        this.storeRepository = storeRepository;
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memberships, "security.store-memberships");
+    }
+
+    public StoreMembership membershipOf(UUID storeAdminId) {
+        return memberships.get(storeAdminId,
+                id -> StoreMembership.of(storeRepository.findIdsByStoreAdminId(id)));
+    }
+
+    /**
+     * Must be called whenever a store is assigned to or removed from the admin.
+     */
+    public void invalidate(UUID storeAdminId) {
+        memberships.invalidate(storeAdminId);
+    }
+}
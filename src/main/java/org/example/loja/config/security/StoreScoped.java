@@ -0,0 +1,22 @@
+package org.example.loja.config.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler (or every handler of a controller) as acting on a single store. The store
+ * id is read from the path variable named by {@link #value()} and checked against the
+ * caller's {@link AuthContext} before the handler runs; handlers without the annotation are
+ * not checked.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface StoreScoped {
+
+    /** Name of the path variable holding the store id. */
+    String value() default "storeId";
+}
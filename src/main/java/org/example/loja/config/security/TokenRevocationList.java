@@ -0,0 +1,197 @@
+package org.example.loja.config.security;
+
+import jakarta.annotation.PostConstruct;
+import org.example.loja.entities.RevokedTokenEntity;
+import org.example.loja.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory list of revoked token ids ({@code jti}).
+ * <p>
+ * Lookups first probe a Bloom filter, so the common case (token not revoked) is a handful
+ * of bit reads with no allocation and no database access; only a filter hit consults the
+ * exact map. Revocations are written through to {@code revoked_tokens} and reloaded at
+ * startup. Every {@code security.revocation.sync-interval-ms} the rows revoked since the
+ * previous sync are read back, so a logout on one node is enforced by the others within
+ * that interval. Entries are dropped once the token has expired, and the filter is rebuilt
+ * at the same time so it does not fill up.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    /** Re-read window before the last sync, for rows committed late or stamped by a node whose clock lags. */
+    private static final long SYNC_OVERLAP_MILLIS = 60_000;
+
+    private final RevokedTokenRepository repository;
+
+    private final int expectedEntries;
+
+    private final double falsePositiveRate;
+
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+
+    private final AtomicReference<BloomFilter> filter = new AtomicReference<>();
+
+    private long syncedUpTo;
+
+    public TokenRevocationList(RevokedTokenRepository repository,
+                               @Value("${security.revocation.expected-entries:100000}") int expectedEntries,
+                               @Value("${security.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter.set(new BloomFilter(expectedEntries, falsePositiveRate));
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        long now = System.currentTimeMillis();
+        syncedUpTo = now;
+        for (RevokedTokenEntity entity : repository.findAllByExpiresAtGreaterThan(now)) {
+            revoked.put(entity.getJti(), entity.getExpiresAt());
+        }
+        rebuildFilter();
+        logger.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return filter.get().mightContain(id) && revoked.containsKey(id);
+    }
+
+    /**
+     * Revokes the token until {@code expiresAtMillis}.
+     *
+     * @return {@code false} if the token was already revoked, here or on another node that
+     *         has not been synced yet, which lets refresh-token rotation detect a second use
+     *         of the same token
+     */
+    public synchronized boolean revoke(String jti, long expiresAtMillis) {
+        UUID id = UUID.fromString(jti);
+        if (revoked.putIfAbsent(id, expiresAtMillis) != null) {
+            return false;
+        }
+        filter.get().put(id);
+        try {
+            repository.saveAndFlush(new RevokedTokenEntity(id, expiresAtMillis, System.currentTimeMillis()));
+        } catch (DataIntegrityViolationException e) {
+            // The row already exists: another node revoked it since our last sync.
+            logger.debug("Token {} was already revoked on another node", id);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds the tokens revoked by other nodes since the previous sync.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:30000}")
+    public synchronized void sync() {
+        long now = System.currentTimeMillis();
+        int added = 0;
+        for (RevokedTokenEntity entity : repository.findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(
+                syncedUpTo - SYNC_OVERLAP_MILLIS, now)) {
+            if (revoked.putIfAbsent(entity.getJti(), entity.getExpiresAt()) == null) {
+                filter.get().put(entity.getJti());
+                added++;
+            }
+        }
+        syncedUpTo = now;
+        if (added > 0) {
+            logger.debug("Synced {} tokens revoked on other nodes", added);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:600000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        repository.deleteExpired(now);
+        rebuildFilter();
+        logger.debug("Purged {} expired revoked tokens", before - revoked.size());
+    }
+
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter.set(rebuilt);
+    }
+
+    /**
+     * Lock-free Bloom filter over UUIDs using double hashing of the two UUID halves.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        void put(UUID id) {
+            long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(UUID id) {
+            long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+            long h2 = mix(id.getLeastSignificantBits()) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** MurmurHash3 64-bit finalizer. */
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by the SHA-256
+ * of the raw token. An entry never outlives the token's {@code exp} claim, so a hit can
+ * skip both the RSA verification and the base64/JSON decoding.
+ * Hits and misses are published as {@code cache.gets{cache=jwt.verified-tokens}}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, DecodedJWT> cache;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.cache.max-ttl-seconds:900}") long maxTtlSeconds,
+                              MeterRegistry meterRegistry) {
+        this(maxSize, maxTtlSeconds, meterRegistry, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(long maxSize, long maxTtlSeconds, MeterRegistry meterRegistry, Ticker ticker) {
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, DecodedJWT>() {
+                    @Override
+                    public long expireAfterCreate(String key, DecodedJWT jwt, long currentTime) {
+                        return Math.max(0, Math.min(maxTtlNanos, nanosUntilExpiry(jwt)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, DecodedJWT jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, DecodedJWT jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    public DecodedJWT getIfPresent(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    public void put(String token, DecodedJWT jwt) {
+        if (nanosUntilExpiry(jwt) > 0) {
+            cache.put(digest(token), jwt);
+        }
+    }
+
+    private static long nanosUntilExpiry(DecodedJWT jwt) {
+        Date expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.MILLISECONDS.toNanos(expiresAt.getTime() - System.currentTimeMillis());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
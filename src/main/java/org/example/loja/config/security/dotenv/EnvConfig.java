@@ -14,11 +14,13 @@ public class EnvConfig {
                 .ignoreIfMissing()
                 .load();
 
-        String publicKey = dotenv.get("PUBLIC_KEY");
-        String privateKey = dotenv.get("PRIVATE_KEY");
-
-        System.setProperty("PUBLIC_KEY", publicKey);
-        System.setProperty("PRIVATE_KEY", privateKey);
+        // Optional when the keys come from jwt.keys.dir instead.
+        for (String name : new String[]{"PUBLIC_KEY", "PRIVATE_KEY"}) {
+            String value = dotenv.get(name);
+            if (value != null) {
+                System.setProperty(name, value);
+            }
+        }
 
     }
 }
\ No newline at end of file
@@ -2,47 +2,73 @@ package org.example.loja.interceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.example.loja.config.security.JwtTokenProvider;
-import org.example.loja.enums.TokenType;
+import org.example.loja.config.security.AuthContext;
+import org.example.loja.config.security.StoreScoped;
 import org.jetbrains.annotations.NotNull;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
-import java.util.List;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Checks {@link StoreScoped} handlers: the store id comes from the path variables Spring
+ * already parsed for the handler mapping, and the caller must be allowed on that store.
+ * The annotation lookup is cached per handler method and the granted store id is kept as a
+ * request attribute, so the check runs once per request even across forwards.
+ */
 @Component
 public class StoreAccessInterceptor implements HandlerInterceptor {
 
-    @Autowired
-    private JwtTokenProvider provider;
+    public static final String AUTHORIZED_STORE_ATTRIBUTE = StoreAccessInterceptor.class.getName() + ".authorizedStore";
+
+    private final Map<Method, Optional<StoreScoped>> scopes = new ConcurrentHashMap<>();
 
     @Override
-    public boolean preHandle(HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull Object  handler) throws Exception {
-        String token = request.getHeader("Authorization");
-        String storeId = request.getRequestURI().split("/")[4];
-
-        if (token == null || storeId == null) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("{\"error\": \"Unauthorized\"}");
-            return false;
+    public boolean preHandle(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response, @NotNull Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Optional<StoreScoped> scope = scopes.computeIfAbsent(handlerMethod.getMethod(), method -> Optional.ofNullable(
+                AnnotatedElementUtils.findMergedAnnotation(method, StoreScoped.class))
+                .or(() -> Optional.ofNullable(AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), StoreScoped.class))));
+        if (scope.isEmpty()) {
+            return true;
         }
 
-        try {
-            TokenType type = provider.parseTypeOfToken(token);
-            List<String> storeIds = provider.parseStoresFromToken(token, type.name());
-
-            if ((type.name().equals("storeAdmin") || type.name().equals("manager")) && !storeIds.contains(storeId)) {
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.getWriter().write("{\"error\": \"Unauthorized\"}");
-                return false;
-            }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String storeId = pathVariables != null ? pathVariables.get(scope.get().value()) : null;
+        AuthContext auth = (AuthContext) request.getAttribute(AuthContext.ATTRIBUTE);
+        if (auth == null || storeId == null) {
+            return unauthorized(response);
+        }
 
+        long id;
+        try {
+            id = Long.parseLong(storeId);
+        } catch (NumberFormatException e) {
+            return unauthorized(response);
+        }
+        Object authorized = request.getAttribute(AUTHORIZED_STORE_ATTRIBUTE);
+        if (authorized instanceof Long granted && granted == id) {
             return true;
-        } catch (Exception e) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("{\"error\": \"Unauthorized\"}");
-            return false;
         }
+        if (!auth.canAccessStore(id)) {
+            return unauthorized(response);
+        }
+        request.setAttribute(AUTHORIZED_STORE_ATTRIBUTE, id);
+        return true;
+    }
+
+    private static boolean unauthorized(HttpServletResponse response) throws Exception {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.getWriter().write("{\"error\": \"Unauthorized\"}");
+        return false;
     }
 }
@@ -13,12 +13,9 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // Only @StoreScoped handlers are checked, so the interceptor can cover the whole API.
         registry.addInterceptor(interceptor)
-                .addPathPatterns("/api/v1/store/**/product/**")
-                .addPathPatterns("/api/v1/store/**/employees/**")
-                .addPathPatterns("/api/v1/store/**/store-manager/**")
-                .addPathPatterns("/api/v1/store/**")
-                .excludePathPatterns("/api/v1/store/public/**");
+                .addPathPatterns("/api/v1/**");
 
     }
 }
@@ -6,16 +6,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.LoginRateLimiter;
 import org.example.loja.dto.LoginDTO;
 import org.example.loja.entities.AdminMasterEntity;
+import org.example.loja.enums.TokenType;
 import org.example.loja.services.AdminMasterService;
-import org.example.loja.util.Authorization;
+import org.example.loja.services.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @Tag(name = "Admin Master Controller", description = "Endpoints for Admin Master management")
@@ -28,6 +32,12 @@ public class AdminMasterControllerLogin {
     @Autowired
     private JwtTokenProvider provider;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @Operation(
             summary = "Authenticate master admin",
             description = "Allows login for a master admin using email and password, returning a JWT token if authentication is successful."
@@ -37,7 +47,7 @@ public class AdminMasterControllerLogin {
                     responseCode = "200",
                     description = "Login successful",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(example = "{ \"token\": \"jwt_token_here\" }"))
+                            schema = @Schema(example = "{ \"token\": \"jwt_token_here\", \"refreshToken\": \"refresh_token_here\" }"))
             ),
             @ApiResponse(
                     responseCode = "401",
@@ -45,6 +55,12 @@ public class AdminMasterControllerLogin {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(example = "{ \"error\": \"Invalid credentials\" }"))
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many logins being processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{ \"error\": \"Too many login attempts, try again later\" }"))
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Unexpected error occurred",
@@ -53,16 +69,23 @@ public class AdminMasterControllerLogin {
             )
     })
     @PostMapping
-    public ResponseEntity<?> login(@RequestBody LoginDTO login) {
+    public ResponseEntity<?> login(@RequestBody LoginDTO login, HttpServletRequest request) {
+        if (!loginRateLimiter.tryAcquire(LoginRateLimiter.Endpoint.ADMIN_MASTER, login.getEmail(), request.getRemoteAddr())) {
+            return ResponseEntity.status(429).body(Map.of("error", "Too many login attempts, try again later"));
+        }
         try {
             AdminMasterEntity adminMaster = adminMasterService.getAdminMasterByEmail(login.getEmail());
-            if (!Authorization.isAuthorized(login.getPassword(), adminMaster.getPassword())) {
+            if (!passwordHashingService.verify(login.getPassword(), adminMaster.getPassword(),
+                    hash -> adminMasterService.updatePassword(adminMaster.getId(), hash))) {
                 return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
             }
             String token = provider.generateAdminMasterToken(adminMaster);
-            return ResponseEntity.ok().body(Map.of("token", token));
+            String refreshToken = provider.generateRefreshToken(adminMaster.getEmail(), TokenType.ADMIN_MASTER);
+            return ResponseEntity.ok().body(Map.of("token", token, "refreshToken", refreshToken));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).body(Map.of("error", "Too many login attempts, try again later"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
         }
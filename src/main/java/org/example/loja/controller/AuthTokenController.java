@@ -0,0 +1,113 @@
+package org.example.loja.controller;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.loja.config.security.AuthContext;
+import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.dto.RefreshTokenDTO;
+import org.example.loja.entities.StoreAdminEntity;
+import org.example.loja.entities.StoreManagerEntity;
+import org.example.loja.enums.TokenType;
+import org.example.loja.services.AdminMasterService;
+import org.example.loja.services.StoreAdminServices;
+import org.example.loja.services.StoreManagerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@Tag(name = "Auth Token Controller", description = "Endpoints for refreshing and revoking tokens")
+@RequestMapping("/api/v1/auth")
+public class AuthTokenController {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenController.class);
+
+    @Autowired
+    private JwtTokenProvider provider;
+
+    @Autowired
+    private AdminMasterService adminMasterService;
+
+    @Autowired
+    private StoreAdminServices storeAdminServices;
+
+    @Autowired
+    private StoreManagerService storeManagerService;
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh an access token",
+            description = "Exchanges a refresh token for a new access token and a new refresh token. The presented refresh token is revoked, so each one can be used only once.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "New token pair issued", content = @Content(schema = @Schema(example = "{ \"token\": \"...\", \"refreshToken\": \"...\" }"))),
+            @ApiResponse(responseCode = "401", description = "Invalid, expired, revoked or reused refresh token", content = @Content(schema = @Schema(implementation = Map.class))),
+            @ApiResponse(responseCode = "500", description = "Unexpected internal error", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenDTO body) {
+        try {
+            DecodedJWT refreshToken = provider.verifyRefreshToken(body.getRefreshToken());
+            if (!provider.revoke(refreshToken)) {
+                log.warn("Refresh token {} presented twice", refreshToken.getId());
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid refresh token"));
+            }
+
+            String email = refreshToken.getClaim("email").asString();
+            TokenType type = TokenType.fromString(refreshToken.getClaim("type").asString());
+            String accessToken = switch (type) {
+                case ADMIN_MASTER -> provider.generateAdminMasterToken(adminMasterService.getAdminMasterByEmail(email));
+                case STORE_ADMIN -> {
+                    StoreAdminEntity storeAdmin = storeAdminServices.getStoreAdminByEmail(email);
+                    if (Boolean.FALSE.equals(storeAdmin.getStatus())) {
+                        throw new IllegalArgumentException("Account is disabled");
+                    }
+                    yield provider.generateStoreAdminToken(storeAdmin);
+                }
+                case MANAGER -> {
+                    StoreManagerEntity storeManager = storeManagerService.getStoreIdByStoreManagerEmail(email);
+                    if (Boolean.FALSE.equals(storeManager.getStatus())) {
+                        throw new IllegalArgumentException("Account is disabled");
+                    }
+                    yield provider.generateStoreManagerToken(storeManager);
+                }
+            };
+
+            return ResponseEntity.ok().body(Map.of("token", accessToken, "refreshToken", provider.generateRefreshToken(email, type)));
+        } catch (JWTVerificationException | IllegalArgumentException e) {
+            log.warn("Refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid refresh token"));
+        } catch (Exception e) {
+            log.error("Unexpected error while refreshing token", e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Log out", description = "Revokes the refresh token and, when sent, the bearer access token of the request")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Tokens revoked"),
+            @ApiResponse(responseCode = "401", description = "Invalid refresh token", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<?> logout(@RequestBody RefreshTokenDTO body,
+                                    @Parameter(hidden = true) @RequestAttribute(name = AuthContext.ATTRIBUTE, required = false) AuthContext auth) {
+        try {
+            provider.revoke(provider.verifyRefreshToken(body.getRefreshToken()));
+        } catch (JWTVerificationException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid refresh token"));
+        }
+        if (auth != null) {
+            provider.revoke(auth.tokenId(), auth.expiresAt());
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
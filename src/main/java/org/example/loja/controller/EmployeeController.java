@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.loja.config.security.StoreScoped;
 import org.example.loja.entities.EmployeeEntity;
 import org.example.loja.services.EmployeeService;
 import org.slf4j.Logger;
@@ -20,6 +21,7 @@ import java.util.UUID;
 @Tag(name = "Employee Controller", description = "Manage employees and their permissions")
 @RestController
 @RequestMapping("/api/v1/store/{storeId}/employees")
+@StoreScoped
 public class EmployeeController {
 
     @Autowired
@@ -0,0 +1,92 @@
+package org.example.loja.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.loja.config.security.StoreScoped;
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.dto.StockAtTime;
+import org.example.loja.services.InventoryHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Tag(name = "Inventory", description = "Stock movement history and stock at a point in time")
+@RestController
+@RequestMapping("/api/v1/store/{storeId}/inventory")
+@StoreScoped
+public class InventoryController {
+
+    @Autowired
+    private InventoryHistoryService inventoryHistoryService;
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
+
+    @Operation(summary = "List stock movements",
+            description = "Journal of the store's stock changes, newest first. Pass nextCursor as 'after' to get the next page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of movements",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class),
+                            examples = @ExampleObject(value = "{\"items\": [{\"id\": 812, \"productId\": 3, \"storeId\": 1, \"delta\": -2, " +
+                                    "\"reason\": \"SALE\", \"actor\": \"manager@loja.com\", \"createdAt\": 1767225600000}], " +
+                                    "\"nextCursor\": \"bTF8ODEy\", \"hasNext\": true}"))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(value = "{\"error\": \"Invalid cursor\"}")))
+    })
+    @GetMapping("/movements")
+    public ResponseEntity<?> listMovements(@PathVariable long storeId,
+                                           @Parameter(description = "Only movements of this product") @RequestParam(required = false) Long productId,
+                                           @Parameter(description = "Cursor of the previous page") @RequestParam(required = false) String after,
+                                           @Parameter(description = "Page size, capped at inventory.history.page.max-size") @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(inventoryHistoryService.getMovements(storeId, productId, after, limit));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid movement history request for storeId={}: {}", storeId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error while listing stock movements for storeId={}", storeId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @Operation(summary = "Stock at a point in time",
+            description = "Rebuilds the product's stock as of 'at' (epoch millis, default now) from the nearest snapshot and the movements after it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock at the requested time",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StockAtTime.class),
+                            examples = @ExampleObject(value = "{\"productId\": 3, \"quantity\": 41, \"at\": 1767225600000, \"replayedMovements\": 17}"))),
+            @ApiResponse(responseCode = "404", description = "Product not found in this store")
+    })
+    @GetMapping("/products/{productId}/stock")
+    public ResponseEntity<?> getStockAt(@PathVariable long storeId,
+                                        @PathVariable long productId,
+                                        @Parameter(description = "Epoch millis; defaults to now") @RequestParam(required = false) Long at) {
+        try {
+            Optional<StockAtTime> stock = inventoryHistoryService.getStockAt(storeId, productId,
+                    at == null ? System.currentTimeMillis() : at);
+            if (stock.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
+            }
+            return ResponseEntity.ok(stock.get());
+        } catch (Exception e) {
+            logger.error("Unexpected error while rebuilding stock of productId={}", productId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.loja.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.loja.config.security.JwtKeyMaterial;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@Tag(name = "JWKS Controller", description = "Public keys used to verify issued tokens")
+public class JwksController {
+
+    @Autowired
+    private JwtKeyMaterial keyMaterial;
+
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private long maxAgeSeconds = 300;
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "JSON Web Key Set",
+            description = "Public keys of the token key ring, indexed by kid, so gateways can verify tokens without calling the API")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Current key set",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{ \"keys\": [ { \"kty\": \"RSA\", \"kid\": \"...\", \"use\": \"sig\", \"alg\": \"RS256\", \"n\": \"...\", \"e\": \"AQAB\" } ] }")))
+    })
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                .body(keyMaterial.jwks());
+    }
+}
@@ -1,18 +1,39 @@
 package org.example.loja.controller;
 
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.StoreScoped;
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.FacetCounts;
+import org.example.loja.dto.FacetFilter;
 import org.example.loja.dto.ProductDTO;
+import org.example.loja.dto.ProductSearchHit;
+import org.example.loja.dto.ProductSnapshot;
+import org.example.loja.dto.ProductSuggestion;
+import org.example.loja.dto.ProductSummaryDTO;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockBatchDTO;
+import org.example.loja.dto.StockBatchResult;
 import org.example.loja.entities.ProductEntity;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.enums.ProductSort;
+import org.example.loja.enums.StockBatchMode;
+import org.example.loja.services.ProductAutocomplete;
 import org.example.loja.services.ProductsServices;
 import org.example.loja.services.StoreService;
+import org.example.loja.util.EntityTag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,6 +47,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Product Management", description = "Operations related to product management")
 @RestController
 @RequestMapping("/api/v1/store/{storeId}/product")
+@StoreScoped
 public class ProductController {
 
     @Autowired
@@ -34,8 +56,298 @@ public class ProductController {
     @Autowired
     private StoreService storeService;
 
+    @Autowired
+    private ProductAutocomplete productAutocomplete;
+
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    @Operation(
+            summary = "List the store's products",
+            description = "Keyset-paginated product listing. Pass the nextCursor of a page as the after parameter to get the next one; cursors are only valid for the sort they were issued with."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of products",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"items\": [{\"id\": 123, \"name\": \"Product\"}], \"nextCursor\": \"djF8SUR8MTIzfA\", \"hasNext\": true}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, sort or page size",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Invalid cursor\"}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"An unexpected error occurred\"}"
+                            )
+                    )
+            )
+    })
+    @GetMapping
+    public ResponseEntity<?> list(@PathVariable Long storeId,
+                                  @Parameter(description = "Cursor of the previous page") @RequestParam(required = false) String after,
+                                  @Parameter(description = "Page size, capped at products.page.max-size") @RequestParam(required = false) Integer limit,
+                                  @Parameter(description = "id, price, price_desc or name") @RequestParam(defaultValue = "id") String sort) {
+        try {
+            CursorPage<ProductSummaryDTO> page = productsServices.getStoreProductsPage(storeId, after, limit, ProductSort.fromString(sort));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid product listing request for storeId={}: {}", storeId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error while listing products for storeId={}", storeId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @Operation(
+            summary = "Search products",
+            description = "Full-text search over name, brand and description of the store's products, ranked by relevance. " +
+                    "Accents and case are ignored."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching products, best first",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "[{\"product\": {\"id\": 1, \"name\": \"Televisão Smart 50\", \"price\": 2499.9, \"description\": \"Tela LED\", " +
+                                            "\"brand\": \"Samsung\", \"quantity\": 5, \"storeId\": 1}, \"score\": 1.42}]"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid page size",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Search query must not be blank\"}"
+                            )
+                    )
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@PathVariable long storeId,
+                                    @Parameter(description = "Search terms") @RequestParam String q,
+                                    @Parameter(description = "Only products in this category id") @RequestParam(required = false) Long category,
+                                    @Parameter(description = "Only products with stock") @RequestParam(defaultValue = "false") boolean inStock,
+                                    @Parameter(description = "Number of results, capped at products.page.max-size") @RequestParam(required = false) Integer limit) {
+        try {
+            List<ProductSearchHit> hits = productsServices.searchProducts(storeId, q, category, inStock, limit);
+            return ResponseEntity.ok(hits);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid product search for storeId={}: {}", storeId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error while searching products for storeId={}", storeId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @Operation(
+            summary = "Autocomplete product names and brands",
+            description = "Names and brands of the store starting with the typed prefix, most sold first. " +
+                    "Accents and case are ignored. Served from memory; new products show up within products.autocomplete.rebuild-interval-ms."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Suggestions, best first",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "[{\"text\": \"Televisão Smart 50\", \"type\": \"PRODUCT\", \"productId\": 1}, " +
+                                            "{\"text\": \"Telefunken\", \"type\": \"BRAND\", \"productId\": null}]"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty prefix or invalid limit",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Prefix must contain a letter or digit\"}"
+                            )
+                    )
+            )
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@PathVariable long storeId,
+                                     @Parameter(description = "What the user has typed so far") @RequestParam String q,
+                                     @Parameter(description = "Number of suggestions, capped at products.autocomplete.top-k") @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<ProductSuggestion> suggestions = productAutocomplete.suggest(storeId, q, limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Facet counts",
+            description = "Number of the store's products per brand, category, price band and availability. " +
+                    "Each facet is counted with the other facets' filters applied, so selected values keep showing their alternatives."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Facet counts",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"total\": 12, \"brands\": {\"LG\": 4, \"Samsung\": 8}, \"categories\": {\"3\": 12}, " +
+                                            "\"priceBands\": [{\"band\": 0, \"min\": 0.0, \"max\": 50.0, \"count\": 2}], \"inStock\": 9}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unknown price band",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Invalid price band 9\"}"
+                            )
+                    )
+            )
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<?> facets(@PathVariable long storeId,
+                                    @Parameter(description = "Brands, any of") @RequestParam(required = false) Set<String> brand,
+                                    @Parameter(description = "Category ids, any of") @RequestParam(required = false) Set<Long> category,
+                                    @Parameter(description = "Price band indexes, any of") @RequestParam(required = false) Set<Integer> priceBand,
+                                    @Parameter(description = "Only products with stock") @RequestParam(defaultValue = "false") boolean inStock) {
+        try {
+            FacetCounts counts = productsServices.getFacetCounts(storeId, new FacetFilter(brand, category, priceBand, inStock));
+            return ResponseEntity.ok(counts);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid facet request for storeId={}: {}", storeId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error while counting facets for storeId={}", storeId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @Operation(
+            summary = "Filter products by facets",
+            description = "Keyset-paginated products of the store, by id, matching every given facet. " +
+                    "Values of the same facet are alternatives."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of matching products",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, page size or price band",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Invalid price band 9\"}"
+                            )
+                    )
+            )
+    })
+    @GetMapping("/filter")
+    public ResponseEntity<?> filter(@PathVariable long storeId,
+                                    @Parameter(description = "Brands, any of") @RequestParam(required = false) Set<String> brand,
+                                    @Parameter(description = "Category ids, any of") @RequestParam(required = false) Set<Long> category,
+                                    @Parameter(description = "Price band indexes, any of") @RequestParam(required = false) Set<Integer> priceBand,
+                                    @Parameter(description = "Only products with stock") @RequestParam(defaultValue = "false") boolean inStock,
+                                    @Parameter(description = "Cursor of the previous page") @RequestParam(required = false) String after,
+                                    @Parameter(description = "Page size, capped at products.page.max-size") @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<ProductSummaryDTO> page = productsServices.filterProducts(storeId,
+                    new FacetFilter(brand, category, priceBand, inStock), after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid product filter for storeId={}: {}", storeId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error while filtering products for storeId={}", storeId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @Operation(
+            summary = "Get a product",
+            description = "Returns the product with its store, categories and image URLs, served from the product cache. " +
+                    "The response carries an ETag; send it back in If-None-Match to get a 304 while the product is unchanged."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "The product",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductSnapshot.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "304", description = "Product unchanged since the ETag in If-None-Match"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Product not found in this store",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Product not found\"}"
+                            )
+                    )
+            )
+    })
+    @GetMapping("/{productId}")
+    public ResponseEntity<?> get(@PathVariable long storeId, @PathVariable long productId,
+                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            if (ifNoneMatch != null) {
+                Optional<Long> version = productsServices.getProductVersion(storeId, productId);
+                if (version.isPresent() && EntityTag.matches(ifNoneMatch, EntityTag.of(productId, version.get()))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTag.of(productId, version.get())).build();
+                }
+            }
+            ProductSnapshot product = productsServices.getProductById(productId);
+            if (product.store() == null || product.store().id() != storeId) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
+            }
+            return ResponseEntity.ok().eTag(EntityTag.of(product.id(), product.version())).body(product);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
+        } catch (Exception e) {
+            logger.error("Unexpected error while loading productId={}", productId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
     @Operation(
             summary = "Create a new product",
             description = "Creates a new product with the provided details",
@@ -112,7 +424,8 @@ public class ProductController {
 
     @Operation(
             summary = "Update product quantity",
-            description = "Updates the inventory quantity of a specific product"
+            description = "Atomically adds the given delta to the product's stock; negative deltas are refused when the stock would go below zero. " +
+                    "Applied changes are recorded in the inventory journal with the given reason."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -128,12 +441,34 @@ public class ProductController {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Invalid product ID or quantity provided",
+                    description = "Invalid movement reason",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Invalid movement reason LOST\"}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Product not found in this store",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = Map.class),
                             examples = @ExampleObject(
-                                    value = "{\"error\": \"Quantity cannot be negative\"}"
+                                    value = "{\"error\": \"Product not found\"}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Not enough stock for the requested change",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Insufficient stock\", \"availableQuantity\": 2, \"productId\": 123}"
                             )
                     )
             ),
@@ -149,20 +484,39 @@ public class ProductController {
                     )
             )
     })
+    @PatchMapping("/{productId}/quantity")
     public ResponseEntity<?> updateProductQuantity(
-            @RequestParam long productId,
-            @RequestParam int quantity) {
+            @PathVariable long storeId,
+            @PathVariable long productId,
+            @Parameter(description = "Quantity to add; negative to remove stock") @RequestParam int quantity,
+            @Parameter(description = "sale, restock, return or adjustment (default)") @RequestParam(required = false) String reason) {
         try {
-            logger.info("Updating quantity for productId={} to {}", productId, quantity);
-            int productQuantity = productsServices.updateProductQuantity(productId, quantity);
+            logger.info("Adjusting quantity for productId={} by {}", productId, quantity);
+            StockAdjustment adjustment = productsServices.updateProductQuantity(storeId, productId, quantity,
+                    MovementReason.fromString(reason));
 
-            logger.info("Quantity update successful for productId={}, newQuantity={}", productId, productQuantity);
-            return ResponseEntity.ok().body(Map.of(
-                    "message", "Product quantity updated",
-                    "productQuantity", productQuantity,
-                    "productId", productId));
+            return switch (adjustment.status()) {
+                case APPLIED -> {
+                    logger.info("Quantity update successful for productId={}, newQuantity={}", productId, adjustment.quantity());
+                    yield ResponseEntity.ok().body(Map.of(
+                            "message", "Product quantity updated",
+                            "productQuantity", adjustment.quantity(),
+                            "productId", productId));
+                }
+                case INSUFFICIENT_STOCK -> {
+                    logger.warn("Insufficient stock for productId={}: available={}, change={}", productId, adjustment.quantity(), quantity);
+                    yield ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                            "error", "Insufficient stock",
+                            "availableQuantity", adjustment.quantity(),
+                            "productId", productId));
+                }
+                case NOT_FOUND -> {
+                    logger.warn("Product not found for quantity update, productId={}, storeId={}", productId, storeId);
+                    yield ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
+                }
+            };
         } catch (IllegalArgumentException e) {
-            logger.warn("Failed to update quantity for productId={}: {}", productId, e.getMessage());
+            logger.warn("Invalid quantity update for productId={}: {}", productId, e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Unexpected error while updating quantity for productId={}", productId, e);
@@ -170,6 +524,74 @@ public class ProductController {
         }
     }
 
+    @Operation(
+            summary = "Update many product quantities at once",
+            description = "Applies a list of (productId, delta) changes in one transaction. With mode ALL_OR_NOTHING (default) any refused item rolls the batch back; with BEST_EFFORT the remaining changes are committed. Items are reported in request order."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch committed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"committed\": true, \"items\": [{\"productId\": 123, \"delta\": -2, \"status\": \"APPLIED\", \"quantity\": 48}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty, oversized or malformed batch",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"No stock changes provided\"}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "All-or-nothing batch rolled back because of refused items",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = "{\"committed\": false, \"items\": [{\"productId\": 123, \"delta\": -2, \"status\": \"ROLLED_BACK\", \"quantity\": null}, {\"productId\": 124, \"delta\": -9, \"status\": \"INSUFFICIENT_STOCK\", \"quantity\": 3}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"An unexpected error occurred\"}"
+                            )
+                    )
+            )
+    })
+    @PostMapping("/quantities")
+    public ResponseEntity<?> updateProductQuantities(@PathVariable long storeId, @RequestBody StockBatchDTO batch) {
+        try {
+            StockBatchMode mode = StockBatchMode.fromString(batch.getMode());
+            StockBatchResult result = productsServices.updateProductQuantities(storeId, batch.getChanges(), mode,
+                    MovementReason.fromString(batch.getReason()));
+            logger.info("Stock batch for storeId={} with {} changes, mode={}, committed={}",
+                    storeId, result.items().size(), mode, result.committed());
+            return result.committed()
+                    ? ResponseEntity.ok(result)
+                    : ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid stock batch for storeId={}: {}", storeId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error while applying stock batch for storeId={}", storeId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
     @Operation(
             summary = "Delete a product",
             description = "Deletes a product by its ID"
@@ -266,6 +688,17 @@ public class ProductController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "The version in the body is stale",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    value = "{\"error\": \"Product was modified by another request\"}"
+                            )
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Internal server error",
@@ -292,6 +725,9 @@ public class ProductController {
                 logger.warn("Product not found for update, productId={}", productId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
             }
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Stale version in update of productId={}", productId);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Product was modified by another request"));
         } catch (Exception e) {
             logger.error("Unexpected error while updating productId={}", productId, e);
             return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
@@ -0,0 +1,120 @@
+package org.example.loja.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.loja.config.security.StoreScoped;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockReservationDTO;
+import org.example.loja.dto.StockReservationResult;
+import org.example.loja.services.StockReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Tag(name = "Stock Reservations", description = "Time-bounded stock holds for carts and checkouts")
+@RestController
+@RequestMapping("/api/v1/store/{storeId}/reservations")
+@StoreScoped
+public class StockReservationController {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationController.class);
+
+    @Operation(summary = "Reserve stock",
+            description = "Holds units of a product without changing its quantity until the reservation is confirmed, released or expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Stock reserved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(value = "{\"reservationId\": \"3f0c...\", \"expiresAt\": 1767225600000, \"availableQuantity\": 8}"))),
+            @ApiResponse(responseCode = "400", description = "Invalid quantity or TTL, or a hot product"),
+            @ApiResponse(responseCode = "404", description = "Product not found in this store"),
+            @ApiResponse(responseCode = "409", description = "Not enough unreserved stock",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(value = "{\"error\": \"Insufficient stock\", \"availableQuantity\": 2}")))
+    })
+    @PostMapping
+    public ResponseEntity<?> reserve(@PathVariable long storeId, @RequestBody StockReservationDTO reservation) {
+        if (reservation.getProductId() == null || reservation.getQuantity() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "productId and quantity are required"));
+        }
+        try {
+            StockReservationResult result = stockReservationService.reserve(storeId, reservation.getProductId(),
+                    reservation.getQuantity(), reservation.getTtlSeconds());
+            return switch (result.status()) {
+                case APPLIED -> {
+                    logger.info("Reserved {} units of productId={} as {}", reservation.getQuantity(), reservation.getProductId(), result.reservationId());
+                    yield ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                            "reservationId", result.reservationId(),
+                            "expiresAt", result.expiresAt(),
+                            "availableQuantity", result.availableQuantity()));
+                }
+                case INSUFFICIENT_STOCK -> ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                        "error", "Insufficient stock",
+                        "availableQuantity", result.availableQuantity()));
+                case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Product not found"));
+            };
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid reservation for storeId={}: {}", storeId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error while reserving stock for storeId={}", storeId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @Operation(summary = "Confirm a reservation", description = "Takes the held units from the product's stock, e.g. once payment completes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation confirmed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(value = "{\"message\": \"Reservation confirmed\", \"productQuantity\": 48}"))),
+            @ApiResponse(responseCode = "404", description = "Reservation not found or expired"),
+            @ApiResponse(responseCode = "409", description = "Stock changed under the reservation")
+    })
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<?> confirm(@PathVariable long storeId, @PathVariable UUID reservationId) {
+        try {
+            StockAdjustment adjustment = stockReservationService.confirm(storeId, reservationId);
+            return switch (adjustment.status()) {
+                case APPLIED -> ResponseEntity.ok(Map.of(
+                        "message", "Reservation confirmed",
+                        "productQuantity", adjustment.quantity()));
+                case INSUFFICIENT_STOCK -> ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                        "error", "Insufficient stock",
+                        "availableQuantity", adjustment.quantity()));
+                case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found"));
+            };
+        } catch (Exception e) {
+            logger.error("Unexpected error while confirming reservation {}", reservationId, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    @Operation(summary = "Release a reservation", description = "Gives the held units back without selling them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reservation released"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found or expired")
+    })
+    @DeleteMapping("/{reservationId}")
+    public ResponseEntity<?> release(@PathVariable long storeId, @PathVariable UUID reservationId) {
+        if (stockReservationService.release(storeId, reservationId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found"));
+    }
+}
@@ -6,17 +6,21 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.LoginRateLimiter;
 import org.example.loja.dto.LoginDTO;
 import org.example.loja.entities.StoreAdminEntity;
+import org.example.loja.enums.TokenType;
+import org.example.loja.services.PasswordHashingService;
 import org.example.loja.services.StoreAdminServices;
-import org.example.loja.util.Authorization;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Logger;
 
 @RestController
@@ -28,6 +32,10 @@ public class StoreAdminLoginController {
     private StoreAdminServices storeAdminServices;
     @Autowired
     private JwtTokenProvider provider;
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
     @Operation(
             summary = "Authenticate administrator",
@@ -38,7 +46,7 @@ public class StoreAdminLoginController {
                     responseCode = "200",
                     description = "Login successful",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(example = "{ \"token\": \"jwt_token_here\" }"))
+                            schema = @Schema(example = "{ \"token\": \"jwt_token_here\", \"refreshToken\": \"refresh_token_here\" }"))
             ),
             @ApiResponse(
                     responseCode = "401",
@@ -46,6 +54,12 @@ public class StoreAdminLoginController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(example = "{ \"error\": \"Invalid credentials\" }"))
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many logins being processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(example = "{ \"error\": \"Too many login attempts, try again later\" }"))
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Request error",
@@ -54,16 +68,23 @@ public class StoreAdminLoginController {
             )
     })
     @PostMapping
-    public ResponseEntity<?> login(@RequestBody LoginDTO login) {
+    public ResponseEntity<?> login(@RequestBody LoginDTO login, HttpServletRequest request) {
+        if (!loginRateLimiter.tryAcquire(LoginRateLimiter.Endpoint.STORE_ADMIN, login.getEmail(), request.getRemoteAddr())) {
+            return ResponseEntity.status(429).body(Map.of("error", "Too many login attempts, try again later"));
+        }
         try {
             StoreAdminEntity storeAdmin = storeAdminServices.getStoreAdminByEmail(login.getEmail());
 
-            if (Authorization.isAuthorized(login.getPassword(), storeAdmin.getPassword())) {
+            if (passwordHashingService.verify(login.getPassword(), storeAdmin.getPassword(),
+                    hash -> storeAdminServices.updatePassword(storeAdmin.getId(), hash))) {
                 String token = provider.generateStoreAdminToken(storeAdmin);
-                return ResponseEntity.ok().body(Map.of("token", token));
+                String refreshToken = provider.generateRefreshToken(storeAdmin.getEmail(), TokenType.STORE_ADMIN);
+                return ResponseEntity.ok().body(Map.of("token", token, "refreshToken", refreshToken));
             }
             return ResponseEntity.status(401).body(Map.of("error", "Invalid credentials"));
 
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(429).body(Map.of("error", "Too many login attempts, try again later"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -1,22 +1,28 @@
 package org.example.loja.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.AuthContext;
+import org.example.loja.config.security.StoreScoped;
+import org.example.loja.dto.StoreSummaryDTO;
 import org.example.loja.entities.StoreEntity;
 import org.example.loja.services.StoreService;
+import org.example.loja.util.EntityTag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -36,9 +42,9 @@ public class StoreController {
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     public ResponseEntity<?> postStore(@RequestBody StoreEntity store,
-                                       @RequestHeader("Authorization") String token) {
+                                       @Parameter(hidden = true) @RequestAttribute(AuthContext.ATTRIBUTE) AuthContext auth) {
         try {
-            UUID storeAdminId = JwtTokenProvider.extractIdFromToken(token);
+            UUID storeAdminId = auth.userId();
             log.info("Creating store for admin ID: {}", storeAdminId);
 
             long id = storeService.saveStore(store, storeAdminId);
@@ -54,7 +60,34 @@ public class StoreController {
         }
     }
 
+    @GetMapping(value = "/{id}")
+    @StoreScoped("id")
+    @Operation(summary = "Get a Store", description = "Returns the store details with an ETag; send it back in If-None-Match to get a 304 while the store is unchanged")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The store", content = @Content(schema = @Schema(implementation = StoreSummaryDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Store unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Store not found", content = @Content(schema = @Schema(implementation = Map.class)))
+    })
+    public ResponseEntity<?> getStore(@PathVariable long id,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            if (ifNoneMatch != null) {
+                Optional<Long> version = storeService.getStoreVersion(id);
+                if (version.isPresent() && EntityTag.matches(ifNoneMatch, EntityTag.of(id, version.get()))) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTag.of(id, version.get())).build();
+                }
+            }
+            return storeService.getStore(id)
+                    .<ResponseEntity<?>>map(store -> ResponseEntity.ok().eTag(EntityTag.of(id, store.version())).body(store))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Store not found")));
+        } catch (Exception e) {
+            log.error("Unexpected error while loading store ID: {}", id, e);
+            return ResponseEntity.status(500).body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
     @PutMapping(value = "/{id}")
+    @StoreScoped("id")
     @Operation(summary = "Update a Store", description = "Updates the store details")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Store updated successfully", content = @Content(schema = @Schema(implementation = Map.class))),
@@ -64,9 +97,9 @@ public class StoreController {
             @ApiResponse(responseCode = "403", description = "Not Authorized to deactivate store", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     public ResponseEntity<?> putStore(@RequestBody StoreEntity store,
-                                      @RequestHeader("Authorization") String token,
+                                      @Parameter(hidden = true) @RequestAttribute(AuthContext.ATTRIBUTE) AuthContext auth,
                                       @PathVariable long id) {
-        UUID storeAdminId = JwtTokenProvider.extractIdFromToken(token);
+        UUID storeAdminId = auth.userId();
         store.setId(id);
         log.info("Attempting to update store ID: {} by admin ID: {}", id, storeAdminId);
 
@@ -94,6 +127,7 @@ public class StoreController {
     }
 
     @DeleteMapping(value = "/{id}")
+    @StoreScoped("id")
     @Operation(summary = "Deactivate a Store", description = "Deactivates a store by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Store deactivated successfully", content = @Content(schema = @Schema(implementation = Map.class))),
@@ -101,8 +135,8 @@ public class StoreController {
             @ApiResponse(responseCode = "403", description = "Not Authorized to deactivate store", content = @Content(schema = @Schema(implementation = Map.class)))
     })
     public ResponseEntity<?> deactivateStore(@PathVariable long id,
-                                             @RequestHeader("Authorization") String token) {
-        UUID storeAdminId = JwtTokenProvider.extractIdFromToken(token);
+                                             @Parameter(hidden = true) @RequestAttribute(AuthContext.ATTRIBUTE) AuthContext auth) {
+        UUID storeAdminId = auth.userId();
         log.info("Attempting to deactivate store ID: {} by admin ID: {}", id, storeAdminId);
 
         try {
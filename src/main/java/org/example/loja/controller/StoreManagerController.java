@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.StoreScoped;
 import org.example.loja.dto.StoreManagerDTO;
 import org.example.loja.services.StoreManagerService;
 import org.slf4j.Logger;
@@ -20,6 +21,7 @@ import java.util.UUID;
 @RestController
 @Tag(name = "Store Manager Controller", description = "Endpoints for Store Manager management")
 @RequestMapping("/api/v1/store/{storeId}/store-manager")
+@StoreScoped
 public class StoreManagerController {
 
     @Autowired
@@ -7,11 +7,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.LoginRateLimiter;
 import org.example.loja.dto.LoginDTO;
 import org.example.loja.entities.StoreManagerEntity;
+import org.example.loja.enums.TokenType;
+import org.example.loja.services.PasswordHashingService;
 import org.example.loja.services.StoreManagerService;
-import org.example.loja.util.Authorization;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller for handling store manager authentication and JWT token generation.
@@ -37,6 +41,12 @@ public class StoreManagerLoginController {
     @Autowired
     private StoreManagerService storeManagerService;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @Operation(
             summary = "Authenticate store manager",
             description = """
@@ -74,7 +84,7 @@ public class StoreManagerLoginController {
                             schema = @Schema(implementation = Map.class),
                             examples = @ExampleObject(
                                     name = "Success response",
-                                    value = "{\"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\"}"
+                                    value = "{\"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\", \"refreshToken\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\"}"
                             )
                     )
             ),
@@ -90,6 +100,18 @@ public class StoreManagerLoginController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many logins being processed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples = @ExampleObject(
+                                    name = "Error response",
+                                    value = "{\"error\": \"Too many login attempts, try again later\"}"
+                            )
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Internal server error",
@@ -104,17 +126,26 @@ public class StoreManagerLoginController {
             )
     })
     @PostMapping
-    public ResponseEntity<?> post(@RequestBody LoginDTO login) {
+    public ResponseEntity<?> post(@RequestBody LoginDTO login, HttpServletRequest request) {
+        if (!loginRateLimiter.tryAcquire(LoginRateLimiter.Endpoint.STORE_MANAGER, login.getEmail(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", "Too many login attempts, try again later"));
+        }
         try {
             StoreManagerEntity storeManager = storeManagerService.getStoreIdByStoreManagerEmail(login.getEmail());
             if (storeManager == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid credentials"));
             }
-            if (!Authorization.isAuthorized(login.getPassword(), storeManager.getPassword())) {
+            if (!passwordHashingService.verify(login.getPassword(), storeManager.getPassword(),
+                    hash -> storeManagerService.updatePassword(storeManager.getId(), hash))) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Invalid credentials"));
             }
             String token = provider.generateStoreManagerToken(storeManager);
-            return ResponseEntity.ok().body(Map.of("token", token));
+            String refreshToken = provider.generateRefreshToken(storeManager.getEmail(), TokenType.MANAGER);
+            return ResponseEntity.ok().body(Map.of("token", token, "refreshToken", refreshToken));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", "Too many login attempts, try again later"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "An unexpected error occurred"));
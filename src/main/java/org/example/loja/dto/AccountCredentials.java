@@ -0,0 +1,20 @@
+package org.example.loja.dto;
+
+import java.util.UUID;
+
+/**
+ * What a login needs from an account row, selected directly by the repository so the
+ * eager role set and the other associations are not loaded. Roles are resolved from their
+ * ids through the reference data cache.
+ *
+ * @param status {@code null} for accounts without a status column, which are always enabled
+ */
+public record AccountCredentials(UUID id,
+                                 String email,
+                                 String password,
+                                 Boolean status) {
+
+    public AccountCredentials(UUID id, String email, String password) {
+        this(id, email, password, null);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.loja.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is opaque to clients and is
+ * {@code null} on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasNext) {
+}
@@ -0,0 +1,22 @@
+package org.example.loja.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts of a store's catalog under a {@link FacetFilter}. Each facet is counted with
+ * every filter except its own, so the other values of a selected facet keep their counts.
+ *
+ * @param total   products matching the whole filter
+ * @param inStock products with stock under the other filters
+ */
+public record FacetCounts(int total,
+                          Map<String, Integer> brands,
+                          Map<Long, Integer> categories,
+                          List<PriceBand> priceBands,
+                          int inStock) {
+
+    /** Products priced in {@code [min, max)}; {@code max} is {@code null} for the last band. */
+    public record PriceBand(int band, double min, Double max, int count) {
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.loja.dto;
+
+import java.util.Set;
+
+/**
+ * Catalog facet selection. Values of one facet are OR-ed, facets are AND-ed; an empty set
+ * leaves the facet unfiltered.
+ *
+ * @param priceBands indexes into {@code products.facets.price-bands}
+ */
+public record FacetFilter(Set<String> brands, Set<Long> categoryIds, Set<Integer> priceBands, boolean inStockOnly) {
+
+    public FacetFilter {
+        brands = brands == null ? Set.of() : Set.copyOf(brands);
+        categoryIds = categoryIds == null ? Set.of() : Set.copyOf(categoryIds);
+        priceBands = priceBands == null ? Set.of() : Set.copyOf(priceBands);
+    }
+
+    public static FacetFilter none() {
+        return new FacetFilter(Set.of(), Set.of(), Set.of(), false);
+    }
+}
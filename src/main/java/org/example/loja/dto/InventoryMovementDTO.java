@@ -0,0 +1,17 @@
+package org.example.loja.dto;
+
+import org.example.loja.enums.MovementReason;
+
+/**
+ * A journal entry; {@code id} is {@code null} until the journal writer has stored it.
+ *
+ * @param createdAt epoch millis of the change
+ */
+public record InventoryMovementDTO(Long id,
+                                   Long productId,
+                                   Long storeId,
+                                   Integer delta,
+                                   MovementReason reason,
+                                   String actor,
+                                   Long createdAt) {
+}
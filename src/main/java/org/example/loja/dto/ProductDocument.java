@@ -0,0 +1,21 @@
+package org.example.loja.dto;
+
+import java.util.Set;
+
+/**
+ * The fields of a product the search and facet indexes need: text to tokenize plus the
+ * values the store, brand, category, price and stock filters look at.
+ */
+public record ProductDocument(long id,
+                              long storeId,
+                              String name,
+                              String description,
+                              String brand,
+                              Double price,
+                              int quantity,
+                              Set<Long> categoryIds) {
+
+    public ProductDocument {
+        categoryIds = categoryIds == null ? Set.of() : Set.copyOf(categoryIds);
+    }
+}
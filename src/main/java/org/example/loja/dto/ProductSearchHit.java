@@ -0,0 +1,7 @@
+package org.example.loja.dto;
+
+/**
+ * A search result: the product as listed in the store catalog and its BM25 score.
+ */
+public record ProductSearchHit(ProductSummaryDTO product, double score) {
+}
@@ -0,0 +1,37 @@
+package org.example.loja.dto;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a product with its store, categories and image URLs. Unlike a managed
+ * {@code ProductEntity} it holds no session or lazy association, so one instance can be
+ * cached and handed to any number of requests. {@code version} is the product's
+ * {@code @Version} at the time it was read.
+ */
+public record ProductSnapshot(Long id,
+                              String name,
+                              Double price,
+                              String description,
+                              String brand,
+                              Integer quantity,
+                              Store store,
+                              List<Category> categories,
+                              List<String> images,
+                              Long version) {
+
+    public ProductSnapshot {
+        categories = categories == null ? List.of() : List.copyOf(categories);
+        images = images == null ? List.of() : List.copyOf(images);
+    }
+
+    /** First image URL, read by the GraphQL {@code image} field. */
+    public String image() {
+        return images.isEmpty() ? null : images.get(0);
+    }
+
+    public record Store(Long id, String name) {
+    }
+
+    public record Category(Long id, String name, String description) {
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.loja.dto;
+
+/**
+ * An autocomplete suggestion: a product name, with its id, or a brand.
+ *
+ * @param productId {@code null} for brands
+ */
+public record ProductSuggestion(String text, Type type, Long productId) {
+
+    public enum Type {
+        PRODUCT,
+        BRAND
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.loja.dto;
+
+/**
+ * Flat view of a product for catalog listings, selected directly by the repository so a
+ * page is a single SQL statement: no entity is managed, and no store, image or category
+ * association is loaded.
+ */
+public record ProductSummaryDTO(Long id,
+                                String name,
+                                Double price,
+                                String description,
+                                String brand,
+                                Integer quantity,
+                                Long storeId) {
+}
@@ -0,0 +1,12 @@
+package org.example.loja.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class RefreshTokenDTO {
+    public String refreshToken;
+}
@@ -0,0 +1,27 @@
+package org.example.loja.dto;
+
+/**
+ * Outcome of a conditional stock adjustment. {@code quantity} is the new stock when the
+ * change was applied, the stock left when it was refused, and {@code null} when the product
+ * does not exist in the store.
+ */
+public record StockAdjustment(Status status, Integer quantity) {
+
+    public enum Status {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND
+    }
+
+    public static StockAdjustment applied(int quantity) {
+        return new StockAdjustment(Status.APPLIED, quantity);
+    }
+
+    public static StockAdjustment insufficientStock(int available) {
+        return new StockAdjustment(Status.INSUFFICIENT_STOCK, available);
+    }
+
+    public static StockAdjustment notFound() {
+        return new StockAdjustment(Status.NOT_FOUND, null);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.loja.dto;
+
+/**
+ * Stock of a product as of {@code at}, rebuilt from the inventory journal.
+ *
+ * @param replayedMovements journal entries applied on top of the nearest snapshot
+ */
+public record StockAtTime(Long productId, Long quantity, Long at, Integer replayedMovements) {
+}
@@ -0,0 +1,19 @@
+package org.example.loja.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockBatchDTO {
+    private String mode;
+
+    /** Movement reason journaled for every applied change; adjustment when absent. */
+    private String reason;
+
+    private List<StockChangeDTO> changes;
+}
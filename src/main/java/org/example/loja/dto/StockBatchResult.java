@@ -0,0 +1,25 @@
+package org.example.loja.dto;
+
+import java.util.List;
+
+/**
+ * Result of a stock batch. {@code items} follow the order of the request; when
+ * {@code committed} is false nothing was written.
+ */
+public record StockBatchResult(boolean committed, List<Item> items) {
+
+    public enum Status {
+        APPLIED,
+        INSUFFICIENT_STOCK,
+        NOT_FOUND,
+        /** Could have been applied, but another item made the all-or-nothing batch roll back. */
+        ROLLED_BACK
+    }
+
+    /**
+     * {@code quantity} is the stock seen by the batch after all its updates ran, or
+     * {@code null} for unknown products and rolled-back items.
+     */
+    public record Item(Long productId, int delta, Status status, Integer quantity) {
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.loja.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeDTO {
+    private Long productId;
+
+    private Integer delta;
+}
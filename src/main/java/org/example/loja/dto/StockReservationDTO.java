@@ -0,0 +1,16 @@
+package org.example.loja.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockReservationDTO {
+    private Long productId;
+
+    private Integer quantity;
+
+    private Long ttlSeconds;
+}
@@ -0,0 +1,23 @@
+package org.example.loja.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a reservation request. {@code availableQuantity} is the stock still free for
+ * other holds and sales: after this hold when it was granted, before it when it was refused.
+ */
+public record StockReservationResult(StockAdjustment.Status status, UUID reservationId, Long expiresAt,
+                                     Integer availableQuantity) {
+
+    public static StockReservationResult reserved(UUID reservationId, long expiresAt, int availableQuantity) {
+        return new StockReservationResult(StockAdjustment.Status.APPLIED, reservationId, expiresAt, availableQuantity);
+    }
+
+    public static StockReservationResult insufficientStock(int availableQuantity) {
+        return new StockReservationResult(StockAdjustment.Status.INSUFFICIENT_STOCK, null, null, availableQuantity);
+    }
+
+    public static StockReservationResult notFound() {
+        return new StockReservationResult(StockAdjustment.Status.NOT_FOUND, null, null, null);
+    }
+}
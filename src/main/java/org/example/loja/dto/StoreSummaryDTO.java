@@ -0,0 +1,15 @@
+package org.example.loja.dto;
+
+/**
+ * Public view of a store, selected directly by the repository: no admin, manager, employee
+ * or product association is loaded.
+ */
+public record StoreSummaryDTO(Long id,
+                              String name,
+                              String description,
+                              String imageURL,
+                              String phone,
+                              String email,
+                              Boolean active,
+                              Long version) {
+}
@@ -0,0 +1,46 @@
+package org.example.loja.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.loja.enums.MovementReason;
+
+/**
+ * One stock change in the append-only inventory journal. Rows are never updated or
+ * deleted; the ids grow with insertion order and double as the history cursor. Product and
+ * store are plain ids so the journal outlives deleted products.
+ */
+@Entity
+@Table(name = "inventory_movements", indexes = {
+        @Index(name = "idx_inventory_movements_product", columnList = "product_id, id"),
+        @Index(name = "idx_inventory_movements_store", columnList = "store_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventoryMovementEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private long productId;
+
+    @Column(name = "store_id", nullable = false)
+    private long storeId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MovementReason reason;
+
+    @Column(length = 64)
+    private String actor;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+}
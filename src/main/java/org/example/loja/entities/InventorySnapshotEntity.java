@@ -0,0 +1,48 @@
+package org.example.loja.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Stock of a product after every journal movement up to {@code lastMovementId}, so the
+ * stock at a point in time is this quantity plus the movements that followed it.
+ */
+@Entity
+@Table(name = "inventory_snapshots", indexes = {
+        @Index(name = "idx_inventory_snapshots_product_taken", columnList = "product_id, taken_at"),
+        @Index(name = "idx_inventory_snapshots_last_movement", columnList = "last_movement_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class InventorySnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private long productId;
+
+    @Column(name = "store_id", nullable = false)
+    private long storeId;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private long lastMovementId;
+
+    @Column(name = "taken_at", nullable = false)
+    private long takenAt;
+
+    public InventorySnapshotEntity(long productId, long storeId, long quantity, long lastMovementId, long takenAt) {
+        this.productId = productId;
+        this.storeId = storeId;
+        this.quantity = quantity;
+        this.lastMovementId = lastMovementId;
+        this.takenAt = takenAt;
+    }
+}
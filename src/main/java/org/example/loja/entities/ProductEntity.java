@@ -2,13 +2,20 @@ package org.example.loja.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
 
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_store_id", columnList = "store_id, id"),
+        @Index(name = "idx_products_store_price_id", columnList = "store_id, price, id"),
+        @Index(name = "idx_products_store_name_id", columnList = "store_id, name, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,6 +30,12 @@ public class ProductEntity {
     @EqualsAndHashCode.Include
     private Long id;
 
+    // Bumped by every write, including the bulk stock UPDATEs; the ETag of the product.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @ToString.Include
     private String name;
 
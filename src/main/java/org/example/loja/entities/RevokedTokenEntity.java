@@ -0,0 +1,68 @@
+package org.example.loja.entities;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+/**
+ * A revoked token, stored as its 16-byte {@code jti} and expiry in epoch millis. Rows are
+ * deleted once the token would have expired anyway. {@code revoked_at} lets other nodes
+ * pick up only the revocations made since their last sync.
+ * <p>
+ * New instances always report {@link #isNew()}, so saving one is a plain INSERT rather than
+ * a merge of the assigned id; a second revocation of the same {@code jti} fails on the
+ * primary key instead of silently overwriting the first.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RevokedTokenEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    // Null for rows written before the column existed; those are only read by the startup load.
+    @Column(name = "revoked_at")
+    private Long revokedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    public RevokedTokenEntity(UUID jti, long expiresAt, long revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    @Override
+    public UUID getId() {
+        return jti;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -45,7 +45,8 @@ public class RoleEntity {
     @ManyToMany(mappedBy = "role")
     private List<StoreManagerEntity> storeManager = new ArrayList<>();
 
-    @OneToMany( fetch = FetchType.EAGER, cascade = CascadeType.ALL, targetEntity = EmployeeEntity.class)
+    // Lazy: every account login loads its roles, which must not drag in all employees.
+    @OneToMany( fetch = FetchType.LAZY, cascade = CascadeType.ALL, targetEntity = EmployeeEntity.class)
     private Set<EmployeeEntity> employee = new HashSet<>();
 
     @PreUpdate
@@ -0,0 +1,45 @@
+package org.example.loja.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * An active stock hold. Product and store are plain ids rather than associations, so the
+ * startup rebuild is a single scan of this table. Rows are deleted when the hold is
+ * confirmed, released or expires.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = @Index(name = "idx_stock_reservations_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockReservationEntity {
+
+    @Id
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
+
+    @Column(name = "product_id", nullable = false)
+    private long productId;
+
+    @Column(name = "store_id", nullable = false)
+    private long storeId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    public StockReservationEntity(UUID id, long productId, long storeId, int quantity, long expiresAt) {
+        this.id = id;
+        this.productId = productId;
+        this.storeId = storeId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+}
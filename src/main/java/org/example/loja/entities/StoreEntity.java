@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.List;
@@ -22,6 +23,12 @@ public class StoreEntity {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
+    // Bumped by every write, including the bulk UPDATEs in StoreRepository; the ETag of the store.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private String name;
 
     @ManyToMany
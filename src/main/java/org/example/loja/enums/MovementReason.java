@@ -0,0 +1,27 @@
+package org.example.loja.enums;
+
+/**
+ * Why a product's stock changed, as recorded in the inventory journal.
+ */
+public enum MovementReason {
+    /** Stock the product had when it entered the journal. */
+    OPENING,
+    SALE,
+    RESTOCK,
+    RETURN,
+    /** Manual correction, e.g. after a stock count; the default when no reason is given. */
+    ADJUSTMENT,
+    /** A confirmed stock reservation. */
+    RESERVATION;
+
+    public static MovementReason fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return ADJUSTMENT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid movement reason " + value);
+        }
+    }
+}
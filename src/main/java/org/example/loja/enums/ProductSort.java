@@ -0,0 +1,24 @@
+package org.example.loja.enums;
+
+/**
+ * Orderings available for paginated product listings. Each one is backed by an index
+ * ending in {@code id}, so the next page is an index range scan starting right after the
+ * last row of the previous page.
+ */
+public enum ProductSort {
+    ID,
+    PRICE,
+    PRICE_DESC,
+    NAME;
+
+    public static ProductSort fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sort " + value);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.loja.enums;
+
+/**
+ * How a batch of stock changes handles items that cannot be applied.
+ */
+public enum StockBatchMode {
+    /** Any refused item rolls back the whole batch. */
+    ALL_OR_NOTHING,
+    /** Refused items are reported and every other change is committed. */
+    BEST_EFFORT;
+
+    public static StockBatchMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL_OR_NOTHING;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid batch mode " + value);
+        }
+    }
+}
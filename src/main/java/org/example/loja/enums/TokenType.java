@@ -1,16 +1,31 @@
 package org.example.loja.enums;
 
 public enum TokenType {
-    ADMIN_MASTER,
-    MANAGER,
-    STORE_ADMIN;
+    ADMIN_MASTER("adminMaster-"),
+    MANAGER("manager"),
+    STORE_ADMIN("storeAdmin");
+
+    private final String claimValue;
+
+    TokenType(String claimValue) {
+        this.claimValue = claimValue;
+    }
+
+    /** Value written to the {@code type} claim of issued tokens. */
+    public String claimValue() {
+        return claimValue;
+    }
+
     public static TokenType fromString(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing token type");
+        }
         return switch (value) {
-            case "AdminMaster" -> ADMIN_MASTER;
-            case "Manager" -> MANAGER;
-            case "StoreAdmin" -> STORE_ADMIN;
-            default -> throw new RuntimeException("Invalid token type " + value);
+            case "AdminMaster", "adminMaster-" -> ADMIN_MASTER;
+            case "Manager", "manager" -> MANAGER;
+            case "StoreAdmin", "storeAdmin" -> STORE_ADMIN;
+            default -> throw new IllegalArgumentException("Invalid token type " + value);
         };
     }
 
-}
\ No newline at end of file
+}
@@ -3,19 +3,32 @@ package org.example.loja.graphql;
 import graphql.Scalars;
 import graphql.language.IntValue;
 import graphql.schema.*;
+import org.example.loja.dto.CursorPage;
+import org.example.loja.entities.ProductEntity;
+import org.example.loja.enums.ProductSort;
 import org.example.loja.services.ProductsServices;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import graphql.GraphQL;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 @Configuration
 public class GraphQLConfig {
 
     @Autowired
     private ProductsServices productsServices;
 
+    @Value("${products.page.max-size:100}")
+    private int maxPageSize = 100;
+
     @Bean
     public GraphQL graphQL() {
         GraphQLScalarType longScalar = GraphQLScalarType.newScalar()
@@ -73,13 +86,50 @@ public class GraphQLConfig {
                 .field(field -> field.name("categories").type(new GraphQLList(categoryType))) // Lista de categorias
                 .build();
 
+        GraphQLEnumType.Builder sortEnum = GraphQLEnumType.newEnum().name("ProductSort");
+        Arrays.stream(ProductSort.values()).forEach(sort -> sortEnum.value(sort.name(), sort));
+        GraphQLEnumType productSortType = sortEnum.build();
+
+        GraphQLObjectType pageInfoType = GraphQLObjectType.newObject()
+                .name("PageInfo")
+                .field(field -> field.name("hasNextPage").type(GraphQLNonNull.nonNull(Scalars.GraphQLBoolean)))
+                .field(field -> field.name("endCursor").type(Scalars.GraphQLString))
+                .build();
+
+        GraphQLObjectType productEdgeType = GraphQLObjectType.newObject()
+                .name("ProductEdge")
+                .field(field -> field.name("cursor").type(GraphQLNonNull.nonNull(Scalars.GraphQLString)))
+                .field(field -> field.name("node").type(productType))
+                .build();
+
+        GraphQLObjectType productConnectionType = GraphQLObjectType.newObject()
+                .name("ProductConnection")
+                .field(field -> field.name("edges").type(new GraphQLList(productEdgeType)))
+                .field(field -> field.name("pageInfo").type(GraphQLNonNull.nonNull(pageInfoType)))
+                .build();
+
         GraphQLObjectType queryType = GraphQLObjectType.newObject()
                 .name("Query")
                 .field(field -> field
                         .name("products")
-                        .description("List all products")
+                        .description("First " + maxPageSize + " products by id")
+                        .deprecate("Returns only the first " + maxPageSize + " products (products.page.max-size); "
+                                + "use productsConnection, which pages through every product")
                         .type(new GraphQLList(productType))
-                        .dataFetcher(environment -> productsServices.getAllProducts())) // DataFetcher para todos os produtos
+                        .dataFetcher(environment -> productsServices.getAllProducts()))
+                .field(field -> field
+                        .name("productsConnection")
+                        .description("Products paginated with opaque cursors (Relay connection)")
+                        .argument(arg -> arg.name("first").type(Scalars.GraphQLInt))
+                        .argument(arg -> arg.name("after").type(Scalars.GraphQLString))
+                        .argument(arg -> arg.name("sort").type(productSortType).defaultValueProgrammatic(ProductSort.ID))
+                        .type(productConnectionType)
+                        .dataFetcher(environment -> {
+                            ProductSort sort = Objects.requireNonNullElse(environment.getArgument("sort"), ProductSort.ID);
+                            CursorPage<ProductEntity> page = productsServices.getProductsPage(
+                                    environment.getArgument("after"), environment.getArgument("first"), sort);
+                            return toConnection(page, sort);
+                        }))
                 .field(field -> field
                         .name("productById")
                         .description("Find a product by its ID")
@@ -102,4 +152,14 @@ public class GraphQLConfig {
 
         return GraphQL.newGraphQL(graphQLSchema).build();
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> toConnection(CursorPage<ProductEntity> page, ProductSort sort) {
+        List<Map<String, Object>> edges = page.items().stream()
+                .map(product -> Map.<String, Object>of("cursor", productsServices.cursorOf(product, sort), "node", product))
+                .toList();
+        Map<String, Object> pageInfo = new LinkedHashMap<>();
+        pageInfo.put("hasNextPage", page.hasNext());
+        pageInfo.put("endCursor", edges.isEmpty() ? null : edges.get(edges.size() - 1).get("cursor"));
+        return Map.of("edges", edges, "pageInfo", pageInfo);
+    }
+}
@@ -1,11 +1,28 @@
 package org.example.loja.repository;
 
+import org.example.loja.dto.AccountCredentials;
 import org.example.loja.entities.AdminMasterEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface AdminMasterRepository extends JpaRepository<AdminMasterEntity, UUID> {
     Optional<AdminMasterEntity> findByEmail(String email);
+
+    @Query("SELECT new org.example.loja.dto.AccountCredentials(a.id, a.email, a.password) FROM AdminMasterEntity a WHERE a.email = :email")
+    Optional<AccountCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("SELECT r.id FROM AdminMasterEntity a JOIN a.role r WHERE a.id = :id")
+    List<Long> findRoleIds(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AdminMasterEntity a SET a.password = :password WHERE a.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
 }
@@ -3,7 +3,10 @@ package org.example.loja.repository;
 import org.example.loja.entities.CategoryEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 
 public interface CategoryRepository extends JpaRepository<CategoryEntity, Long> {
 
+    Optional<CategoryEntity> findByName(String name);
 }
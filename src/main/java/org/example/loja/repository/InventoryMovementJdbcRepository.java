@@ -0,0 +1,78 @@
+package org.example.loja.repository;
+
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.enums.MovementReason;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends to {@code inventory_movements} with JDBC batches. JPA would insert IDENTITY rows
+ * one statement at a time, which the journal writer cannot afford.
+ */
+@Repository
+public class InventoryMovementJdbcRepository {
+
+    static final String INSERT_SQL = "INSERT INTO inventory_movements " +
+            "(product_id, store_id, delta, reason, actor, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String INSERT_OPENING_SQL = "INSERT INTO inventory_movements " +
+            "(product_id, store_id, delta, reason, actor, created_at) " +
+            "SELECT p.id, p.store_id, COALESCE(p.quantity, 0), '" + MovementReason.OPENING.name() + "', ?, ? FROM products p " +
+            "WHERE p.store_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM inventory_movements m WHERE m.product_id = p.id)";
+
+    static final String UNITS_SOLD_SQL = "SELECT product_id, -SUM(delta) FROM inventory_movements " +
+            "WHERE reason IN ('" + MovementReason.SALE.name() + "', '" + MovementReason.RESERVATION.name() + "') " +
+            "AND delta < 0 AND created_at >= ? GROUP BY product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryMovementJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(List<InventoryMovementDTO> movements) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                InventoryMovementDTO movement = movements.get(i);
+                ps.setLong(1, movement.productId());
+                ps.setLong(2, movement.storeId());
+                ps.setInt(3, movement.delta());
+                ps.setString(4, movement.reason().name());
+                ps.setString(5, movement.actor());
+                ps.setLong(6, movement.createdAt());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return movements.size();
+            }
+        });
+    }
+
+    /**
+     * Records the current stock of every product that has no movement yet as an
+     * {@link MovementReason#OPENING} entry, in one statement.
+     *
+     * @return the number of products added to the journal
+     */
+    public int insertOpeningBalances(String actor, long createdAt) {
+        return jdbcTemplate.update(INSERT_OPENING_SQL, actor, createdAt);
+    }
+
+    /** Units sold per product since {@code since} (epoch millis), counting direct sales and confirmed reservations. */
+    public Map<Long, Long> unitsSoldSince(long since) {
+        Map<Long, Long> sold = new HashMap<>();
+        jdbcTemplate.query(UNITS_SOLD_SQL, rs -> {
+            sold.put(rs.getLong(1), rs.getLong(2));
+        }, since);
+        return sold;
+    }
+}
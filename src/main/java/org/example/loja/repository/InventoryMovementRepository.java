@@ -0,0 +1,39 @@
+package org.example.loja.repository;
+
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.entities.InventoryMovementEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovementEntity, Long> {
+
+    // History pages run newest first and continue below the last id of the previous page,
+    // served by the (store_id, id) and (product_id, id) indexes.
+
+    String HISTORY_SELECT = "SELECT new org.example.loja.dto.InventoryMovementDTO(" +
+            "m.id, m.productId, m.storeId, m.delta, m.reason, m.actor, m.createdAt) FROM InventoryMovementEntity m ";
+
+    @Query(HISTORY_SELECT + "WHERE m.storeId = :storeId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<InventoryMovementDTO> findStoreHistory(@Param("storeId") long storeId, @Param("beforeId") long beforeId, Pageable limit);
+
+    @Query(HISTORY_SELECT + "WHERE m.productId = :productId AND m.storeId = :storeId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<InventoryMovementDTO> findProductHistory(@Param("storeId") long storeId, @Param("productId") long productId,
+                                                  @Param("beforeId") long beforeId, Pageable limit);
+
+    /** Sum and count of the product's movements after {@code afterId} made up to {@code at}, as one row. */
+    @Query("SELECT COALESCE(SUM(m.delta), 0), COUNT(m) FROM InventoryMovementEntity m " +
+            "WHERE m.productId = :productId AND m.id > :afterId AND m.createdAt <= :at")
+    List<Object[]> replay(@Param("productId") long productId, @Param("afterId") long afterId, @Param("at") long at);
+
+    /** Per product: store id, sum of deltas and last id of the movements in {@code (afterId, upToId]}. */
+    @Query("SELECT m.productId, m.storeId, SUM(m.delta), MAX(m.id) FROM InventoryMovementEntity m " +
+            "WHERE m.id > :afterId AND m.id <= :upToId GROUP BY m.productId, m.storeId")
+    List<Object[]> summarize(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM InventoryMovementEntity m")
+    long findLastId();
+}
@@ -0,0 +1,23 @@
+package org.example.loja.repository;
+
+import org.example.loja.entities.InventorySnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshotEntity, Long> {
+
+    Optional<InventorySnapshotEntity> findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(long productId, long at);
+
+    @Query("SELECT s FROM InventorySnapshotEntity s WHERE s.productId IN :productIds AND s.takenAt = " +
+            "(SELECT MAX(s2.takenAt) FROM InventorySnapshotEntity s2 WHERE s2.productId = s.productId)")
+    List<InventorySnapshotEntity> findLatest(@Param("productIds") Collection<Long> productIds);
+
+    /** Last journal movement covered by any snapshot; every earlier movement is in one. */
+    @Query("SELECT COALESCE(MAX(s.lastMovementId), 0) FROM InventorySnapshotEntity s")
+    long findWatermark();
+}
@@ -4,6 +4,10 @@ import org.example.loja.entities.PermissionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface PermissionRepository extends JpaRepository<PermissionEntity, Long> {
+
+    Optional<PermissionEntity> findByName(String name);
 }
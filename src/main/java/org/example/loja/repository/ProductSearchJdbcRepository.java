@@ -0,0 +1,80 @@
+package org.example.loja.repository;
+
+import org.example.loja.dto.ProductDocument;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads products for the search and facet indexes. The table is walked in id order in chunks of
+ * {@code chunkSize} products, each chunk one statement with its categories joined in, so a
+ * full rebuild holds a single chunk in memory.
+ */
+@Repository
+public class ProductSearchJdbcRepository {
+
+    static final String CHUNK_SQL = "SELECT p.id, p.store_id, p.name, p.description, p.brand, COALESCE(p.quantity, 0), pc.category_id, p.price " +
+            "FROM (SELECT id, store_id, name, description, brand, price, quantity FROM products " +
+            "WHERE id > ? AND store_id IS NOT NULL ORDER BY id LIMIT ?) p " +
+            "LEFT JOIN product_category pc ON pc.product_id = p.id ORDER BY p.id";
+
+    static final String NAME_CHUNK_SQL = "SELECT id, store_id, name, brand FROM products " +
+            "WHERE id > ? AND store_id IS NOT NULL ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductSearchJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachDocument(int chunkSize, Consumer<ProductDocument> consumer) {
+        long afterId = 0;
+        while (true) {
+            List<ProductDocument> chunk = new ArrayList<>(chunkSize);
+            jdbcTemplate.query(CHUNK_SQL, rs -> {
+                long id = rs.getLong(1);
+                ProductDocument last = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1);
+                long categoryId = rs.getLong(7);
+                boolean hasCategory = !rs.wasNull();
+                if (last != null && last.id() == id) {
+                    if (hasCategory) {
+                        Set<Long> categories = new HashSet<>(last.categoryIds());
+                        categories.add(categoryId);
+                        chunk.set(chunk.size() - 1, new ProductDocument(id, last.storeId(), last.name(),
+                                last.description(), last.brand(), last.price(), last.quantity(), categories));
+                    }
+                } else {
+                    chunk.add(new ProductDocument(id, rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                            rs.getObject(8, Double.class), rs.getInt(6), hasCategory ? Set.of(categoryId) : Set.of()));
+                }
+            }, afterId, chunkSize);
+            chunk.forEach(consumer);
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+    }
+
+    /** Same walk as {@link #forEachDocument} over names and brands only, for autocomplete. */
+    public void forEachName(int chunkSize, Consumer<ProductName> consumer) {
+        long afterId = 0;
+        while (true) {
+            List<ProductName> chunk = jdbcTemplate.query(NAME_CHUNK_SQL, (rs, rowNum) ->
+                    new ProductName(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4)), afterId, chunkSize);
+            chunk.forEach(consumer);
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+    }
+
+    public record ProductName(long id, long storeId, String name, String brand) {
+    }
+}
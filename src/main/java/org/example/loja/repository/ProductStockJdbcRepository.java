@@ -0,0 +1,102 @@
+package org.example.loja.repository;
+
+import org.example.loja.dto.StockChangeDTO;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Plain JDBC access to product stock for bulk changes. The statements match the conditional
+ * UPDATE of {@link ProductsRepository#adjustQuantity}, but run as a single JDBC batch. It
+ * joins the surrounding Spring transaction, so it can be mixed with the JPA repositories.
+ * <p>
+ * With MySQL, add {@code rewriteBatchedStatements=true} to the datasource URL so the batch
+ * travels in one round trip.
+ */
+@Repository
+public class ProductStockJdbcRepository {
+
+    static final String ADJUST_QUANTITY_SQL = "UPDATE products SET quantity = COALESCE(quantity, 0) + ?, version = version + 1 " +
+            "WHERE id = ? AND store_id = ? AND COALESCE(quantity, 0) + ? >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Applies every change in list order and returns one update count per change: 1 when it
+     * was applied, 0 when the product is missing from the store or stock would go negative.
+     * Reservation holds are not taken into account.
+     */
+    public int[] adjustQuantities(long storeId, List<StockChangeDTO> changes) {
+        return adjustQuantities(storeId, changes, change -> 0);
+    }
+
+    /**
+     * Same as {@link #adjustQuantities(long, List)}, refusing changes that would leave less
+     * than {@code floor} units.
+     */
+    public int[] adjustQuantities(long storeId, List<StockChangeDTO> changes, ToLongFunction<StockChangeDTO> floor) {
+        return jdbcTemplate.batchUpdate(ADJUST_QUANTITY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockChangeDTO change = changes.get(i);
+                ps.setInt(1, change.getDelta());
+                ps.setLong(2, change.getProductId());
+                ps.setLong(3, storeId);
+                ps.setInt(4, change.getDelta());
+                ps.setLong(5, floor.applyAsLong(change));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changes.size();
+            }
+        });
+    }
+
+    /** Current stock of the given products of a store, in one statement; missing ids are absent. */
+    public Map<Long, Integer> findQuantities(long storeId, Collection<Long> productIds) {
+        return queryQuantities(storeId, productIds, "");
+    }
+
+    /**
+     * Same as {@link #findQuantities}, locking the rows in id order until the transaction
+     * ends, like {@link ProductsRepository#lockQuantity} does for one product.
+     */
+    public Map<Long, Integer> lockQuantities(long storeId, Collection<Long> productIds) {
+        return queryQuantities(storeId, productIds, " ORDER BY id FOR UPDATE");
+    }
+
+    private Map<Long, Integer> queryQuantities(long storeId, Collection<Long> productIds, String suffix) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        Object[] args = new Object[productIds.size() + 1];
+        args[0] = storeId;
+        int i = 1;
+        for (Long id : productIds) {
+            args[i++] = id;
+        }
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT id, COALESCE(quantity, 0) FROM products WHERE store_id = ? AND id IN (" + placeholders + ")"
+                        + suffix,
+                rs -> {
+                    quantities.put(rs.getLong(1), rs.getInt(2));
+                }, args);
+        return quantities;
+    }
+}
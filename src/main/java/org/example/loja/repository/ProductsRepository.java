@@ -1,14 +1,106 @@
 package org.example.loja.repository;
 
+import org.example.loja.dto.ProductSummaryDTO;
 import org.example.loja.entities.CategoryEntity;
 import org.example.loja.entities.ProductEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductsRepository extends JpaRepository<ProductEntity, Long> {
 
     int deleteProductEntitiesById(Long id);
 
-    List<ProductEntity> findAllByCategories_Name(String categoryName);
-}
\ No newline at end of file
+    List<ProductEntity> findAllByCategories_Id(Long categoryId);
+
+    // Everything a ProductSnapshot needs in one statement. Categories and images are sets,
+    // so fetching both does not hit Hibernate's multiple-bag restriction.
+    @EntityGraph(attributePaths = {"store", "categories", "image"})
+    Optional<ProductEntity> findDetailedById(Long id);
+
+    // Stock changes are a single conditional UPDATE: the row lock it takes serializes
+    // concurrent sales of the same product and the WHERE clause refuses to go below the
+    // floor, which is zero plus whatever is on hold for reservations.
+
+    @Modifying
+    @Query("UPDATE ProductEntity p SET p.quantity = COALESCE(p.quantity, 0) + :delta, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.store.id = :storeId AND COALESCE(p.quantity, 0) + :delta >= :floor")
+    int adjustQuantity(@Param("storeId") long storeId, @Param("id") long id, @Param("delta") int delta,
+                       @Param("floor") long floor);
+
+    @Query("SELECT COALESCE(p.quantity, 0) FROM ProductEntity p WHERE p.id = :id AND p.store.id = :storeId")
+    Optional<Integer> findQuantity(@Param("storeId") long storeId, @Param("id") long id);
+
+    // Same read, holding the row lock until the transaction ends. Reservations are counted in
+    // memory, so whoever reads the held total or adds to it takes this lock first; otherwise
+    // a sale could use a floor read just before a reservation it does not see.
+    @Query(value = "SELECT COALESCE(quantity, 0) FROM products WHERE id = :id AND store_id = :storeId FOR UPDATE",
+            nativeQuery = true)
+    Optional<Integer> lockQuantity(@Param("storeId") long storeId, @Param("id") long id);
+
+    // Primary key lookup of the version alone, for conditional GETs.
+    @Query("SELECT p.version FROM ProductEntity p WHERE p.id = :id AND p.store.id = :storeId")
+    Optional<Long> findVersion(@Param("storeId") long storeId, @Param("id") long id);
+
+    // Keyset pagination: each query continues right after (key, id) of the previous page's
+    // last row, so the database seeks into the index instead of skipping OFFSET rows.
+    // Callers pass a Pageable only to get the LIMIT.
+    //
+    // Price and name may be NULL. MySQL and H2 both sort NULL below every value, so those
+    // rows come first in ascending pages and last in descending ones, matching the order of
+    // the (key, id) indexes; a NULL key in the cursor continues inside that run by id. Spelling
+    // out NULLS FIRST/LAST would make Hibernate emulate it on MySQL with an expression that
+    // no index can serve.
+
+    @Query("SELECT p FROM ProductEntity p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductEntity> findPageById(@Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM ProductEntity p WHERE (:price IS NULL AND (p.price IS NOT NULL OR p.id > :afterId)) " +
+            "OR p.price > :price OR (p.price = :price AND p.id > :afterId) ORDER BY p.price, p.id")
+    List<ProductEntity> findPageByPrice(@Param("price") Double price, @Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM ProductEntity p WHERE p.price < :price OR (p.price = :price AND p.id < :afterId) " +
+            "OR (p.price IS NULL AND (:price IS NOT NULL OR p.id < :afterId)) ORDER BY p.price DESC, p.id DESC")
+    List<ProductEntity> findPageByPriceDesc(@Param("price") Double price, @Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT p FROM ProductEntity p WHERE (:name IS NULL AND (p.name IS NOT NULL OR p.id > :afterId)) " +
+            "OR p.name > :name OR (p.name = :name AND p.id > :afterId) ORDER BY p.name, p.id")
+    List<ProductEntity> findPageByName(@Param("name") String name, @Param("afterId") long afterId, Pageable limit);
+
+    // Store catalog pages select ProductSummaryDTO directly: one statement per page, served
+    // by the (store_id, <key>, id) indexes declared on ProductEntity.
+
+    String STORE_PAGE_SELECT = "SELECT new org.example.loja.dto.ProductSummaryDTO(" +
+            "p.id, p.name, p.price, p.description, p.brand, p.quantity, p.store.id) FROM ProductEntity p ";
+
+    @Query(STORE_PAGE_SELECT + "WHERE p.store.id = :storeId AND p.id IN :ids")
+    List<ProductSummaryDTO> findStoreSummaries(@Param("storeId") long storeId, @Param("ids") Collection<Long> ids);
+
+    @Query(STORE_PAGE_SELECT + "WHERE p.store.id = :storeId AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummaryDTO> findStorePageById(@Param("storeId") long storeId, @Param("afterId") long afterId, Pageable limit);
+
+    @Query(STORE_PAGE_SELECT + "WHERE p.store.id = :storeId " +
+            "AND ((:price IS NULL AND (p.price IS NOT NULL OR p.id > :afterId)) " +
+            "OR p.price > :price OR (p.price = :price AND p.id > :afterId)) ORDER BY p.price, p.id")
+    List<ProductSummaryDTO> findStorePageByPrice(@Param("storeId") long storeId, @Param("price") Double price,
+                                                 @Param("afterId") long afterId, Pageable limit);
+
+    @Query(STORE_PAGE_SELECT + "WHERE p.store.id = :storeId " +
+            "AND (p.price < :price OR (p.price = :price AND p.id < :afterId) " +
+            "OR (p.price IS NULL AND (:price IS NOT NULL OR p.id < :afterId))) ORDER BY p.price DESC, p.id DESC")
+    List<ProductSummaryDTO> findStorePageByPriceDesc(@Param("storeId") long storeId, @Param("price") Double price,
+                                                     @Param("afterId") long afterId, Pageable limit);
+
+    @Query(STORE_PAGE_SELECT + "WHERE p.store.id = :storeId " +
+            "AND ((:name IS NULL AND (p.name IS NOT NULL OR p.id > :afterId)) " +
+            "OR p.name > :name OR (p.name = :name AND p.id > :afterId)) ORDER BY p.name, p.id")
+    List<ProductSummaryDTO> findStorePageByName(@Param("storeId") long storeId, @Param("name") String name,
+                                                @Param("afterId") long afterId, Pageable limit);
+}
@@ -0,0 +1,25 @@
+package org.example.loja.repository;
+
+import org.example.loja.entities.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, UUID> {
+
+    List<RevokedTokenEntity> findAllByExpiresAtGreaterThan(long now);
+
+    List<RevokedTokenEntity> findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(long revokedAt, long now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedTokenEntity r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
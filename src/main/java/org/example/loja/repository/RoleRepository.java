@@ -0,0 +1,13 @@
+package org.example.loja.repository;
+
+import org.example.loja.entities.RoleEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RoleRepository extends JpaRepository<RoleEntity, Long> {
+
+    Optional<RoleEntity> findFirstByName(String name);
+}
@@ -0,0 +1,23 @@
+package org.example.loja.repository;
+
+import org.example.loja.entities.StockReservationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservationEntity, UUID> {
+
+    List<StockReservationEntity> findAllByExpiresAtGreaterThan(long now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StockReservationEntity r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") long now);
+}
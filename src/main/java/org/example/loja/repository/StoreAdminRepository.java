@@ -1,5 +1,6 @@
 package org.example.loja.repository;
 
+import org.example.loja.dto.AccountCredentials;
 import org.example.loja.entities.StoreAdminEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,8 +18,19 @@ public interface StoreAdminRepository extends JpaRepository<StoreAdminEntity, UU
 
     Optional<StoreAdminEntity> findByEmail(String email);
 
+    @Query("SELECT new org.example.loja.dto.AccountCredentials(s.id, s.email, s.password, s.status) FROM StoreAdminEntity s WHERE s.email = :email")
+    Optional<AccountCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("SELECT r.id FROM StoreAdminEntity s JOIN s.role r WHERE s.id = :id")
+    List<Long> findRoleIds(@Param("id") UUID id);
+
     @Modifying
     @Transactional
     @Query("UPDATE StoreAdminEntity s SET s.status = :status WHERE s.id = :id")
     int updateStatus(@Param("id") UUID id, @Param("status") boolean status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoreAdminEntity s SET s.password = :password WHERE s.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
 }
\ No newline at end of file
@@ -1,12 +1,15 @@
 package org.example.loja.repository;
 
+import org.example.loja.dto.AccountCredentials;
 import org.example.loja.entities.StoreManagerEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +17,12 @@ import java.util.UUID;
 public interface StoreManagerRepository extends JpaRepository<StoreManagerEntity, UUID> {
     Optional<StoreManagerEntity> findByEmail(String email);
 
+    @Query("SELECT new org.example.loja.dto.AccountCredentials(m.id, m.email, m.password, m.status) FROM StoreManagerEntity m WHERE m.email = :email")
+    Optional<AccountCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("SELECT r.id FROM StoreManagerEntity m JOIN m.role r WHERE m.id = :id")
+    List<Long> findRoleIds(@Param("id") UUID id);
+
     @Modifying
     @Transactional
     @Query("UPDATE StoreAdminEntity s SET s.status = true, s.managedStore = :storeId  WHERE s.id = :id")
@@ -23,4 +32,9 @@ public interface StoreManagerRepository extends JpaRepository<StoreManagerEntity
     @Transactional
     @Query
     int deleteStoreManagerById(UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoreManagerEntity m SET m.password = :password WHERE m.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
 }
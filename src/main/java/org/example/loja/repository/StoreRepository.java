@@ -1,6 +1,7 @@
 package org.example.loja.repository;
 
 import lombok.NonNull;
+import org.example.loja.dto.StoreSummaryDTO;
 import org.example.loja.entities.StoreEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -9,23 +10,36 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface StoreRepository extends JpaRepository<StoreEntity, Long> {
     @Modifying
     @Transactional
-    @Query("UPDATE StoreEntity s SET s.active = false WHERE s.id =:id")
+    @Query("UPDATE StoreEntity s SET s.active = false, s.version = s.version + 1 WHERE s.id =:id")
     int deactivateStoreById(@Param("id") long id);
 
     @Modifying
     @Query("UPDATE StoreEntity s SET s.name = :#{#storeEntity.name}, " +
             "s.description = :#{#storeEntity.description}, " +
             "s.phone = :#{#storeEntity.phone}, " +
-            "s.email = :#{#storeEntity.email} " +
+            "s.email = :#{#storeEntity.email}, " +
+            "s.version = s.version + 1 " +
             "WHERE s.id = :#{#storeEntity.id}")
     @Transactional
     int saveStoreAndReturnAffectedRows(@NonNull @Param("storeEntity") StoreEntity storeEntity);
 
     Optional<Object> findOneByName(String name);
+
+    @Query("SELECT s.version FROM StoreEntity s WHERE s.id = :id")
+    Optional<Long> findVersion(@Param("id") long id);
+
+    @Query("SELECT new org.example.loja.dto.StoreSummaryDTO(s.id, s.name, s.description, s.imageURL, s.phone, " +
+            "s.email, s.active, s.version) FROM StoreEntity s WHERE s.id = :id")
+    Optional<StoreSummaryDTO> findSummaryById(@Param("id") long id);
+
+    @Query("SELECT s.id FROM StoreEntity s WHERE s.storeAdmin.id = :storeAdminId")
+    List<Long> findIdsByStoreAdminId(@Param("storeAdminId") UUID storeAdminId);
 }
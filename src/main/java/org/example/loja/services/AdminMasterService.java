@@ -5,6 +5,8 @@ import org.example.loja.repository.AdminMasterRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 public class AdminMasterService  {
 
@@ -16,4 +18,8 @@ public class AdminMasterService  {
         return adminMasterRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid Credentials"));
     }
+
+    public void updatePassword(UUID id, String passwordHash) {
+        adminMasterRepository.updatePassword(id, passwordHash);
+    }
 }
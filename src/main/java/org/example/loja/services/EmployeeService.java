@@ -18,6 +18,9 @@ public class EmployeeService {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     public List<EmployeeEntity> getAllEmployees(){
         return employeeRepository.findAll();
     }
@@ -42,6 +45,7 @@ public class EmployeeService {
         permission.addEmployee(employee);
         employeeRepository.save(employee);
         permissionRepository.save(permission);
+        referenceDataCache.evictPermission(permissionId);
         return true;
     }
     public boolean removePermissionFromEmployee(UUID employeeId, long permissionId) {
@@ -51,10 +55,11 @@ public class EmployeeService {
         permission.removeEmployee(employee);
         employeeRepository.save(employee);
         permissionRepository.save(permission);
+        referenceDataCache.evictPermission(permissionId);
         return true;
     }
 
     public List<PermissionEntity> getPermissions(){
-        return permissionRepository.findAll();
+        return referenceDataCache.getPermissions();
     }
 }
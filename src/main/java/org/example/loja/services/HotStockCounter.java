@@ -0,0 +1,442 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockChangeDTO;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.repository.ProductStockJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind stock for the products listed in {@code products.stock.hot.product-ids}.
+ * <p>
+ * The sellable stock of a hot product lives in a striped in-memory counter: each thread
+ * decrements its own stripe with a CAS and only takes a lock when no single stripe has
+ * enough units. Granted changes accumulate per stripe and {@link #flush()} writes them as
+ * one conditional UPDATE per product every {@code products.stock.hot.flush-interval-ms} and
+ * on shutdown, so the row lock is taken once per window instead of once per sale.
+ * <p>
+ * {@code products.stock.hot.reserve-floor} units are never sold from memory, and a change
+ * is refused rather than taking the counter below it, so the database never goes negative.
+ * All stock writes for a hot product must go through {@link ProductsServices}. A write that
+ * fails puts its delta back for the next flush. A delta the database refuses because the
+ * row changed elsewhere is dropped, and the counter is rebased on the stored quantity,
+ * keeping the changes granted since the flush started; {@link #reload(long)} does the same
+ * after the stock was overwritten on purpose. Metrics are published under
+ * {@code products.stock.hot}.
+ */
+@Component
+public class HotStockCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockCounter.class);
+
+    // Each stripe owns a 64-byte block: [0] sellable units, [1] unflushed delta.
+    private static final int PAD = 8;
+
+    private final Set<Long> hotProductIds;
+
+    private final int stripes;
+
+    private final long reserveFloor;
+
+    private final ProductStockJdbcRepository productStockJdbcRepository;
+
+    private final InventoryJournal inventoryJournal;
+
+    private final Map<Long, HotSku> skus = new ConcurrentHashMap<>();
+
+    private final Counter contended;
+
+    private final Counter flushFailures;
+
+    private final Timer flushTimer;
+
+    public HotStockCounter(@Value("${products.stock.hot.product-ids:}") String hotProductIds,
+                           @Value("${products.stock.hot.stripes:0}") int stripes,
+                           @Value("${products.stock.hot.reserve-floor:0}") long reserveFloor,
+                           ProductStockJdbcRepository productStockJdbcRepository,
+                           InventoryJournal inventoryJournal,
+                           MeterRegistry meterRegistry) {
+        this.hotProductIds = Arrays.stream(hotProductIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        int requested = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.stripes = Integer.highestOneBit(Math.max(1, requested - 1)) << 1;
+        this.reserveFloor = reserveFloor;
+        this.productStockJdbcRepository = productStockJdbcRepository;
+        this.inventoryJournal = inventoryJournal;
+
+        this.contended = Counter.builder("products.stock.hot.contended")
+                .description("Hot stock changes that had to retry a CAS or take the stripe lock")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("products.stock.hot.flush.failures")
+                .description("Hot product deltas refused by the database or kept back after a failed write")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("products.stock.hot.flush")
+                .description("Time to write the coalesced deltas of every hot product")
+                .register(meterRegistry);
+        Gauge.builder("products.stock.hot.pending", skus, HotStockCounter::pendingTotal)
+                .description("Absolute unflushed stock delta across hot products")
+                .register(meterRegistry);
+    }
+
+    public boolean isHot(long productId) {
+        return hotProductIds.contains(productId);
+    }
+
+    /**
+     * Applies {@code delta} to a hot product's in-memory stock; the database sees it on the
+     * next flush. The reported quantity includes the reserve floor.
+     */
+    public StockAdjustment adjust(long storeId, long productId, int delta) {
+        Reservation reservation = reserve(storeId, productId, delta);
+        if (reservation.status() == StockAdjustment.Status.APPLIED) {
+            reservation.commitWithTransaction();
+        }
+        return reservation.result();
+    }
+
+    /**
+     * First phase of a change that may still be abandoned: a decrement takes its units out
+     * of the sellable stock right away, but nothing is queued for the database until
+     * {@link Reservation#commit()}. {@link Reservation#release()} gives the units back.
+     */
+    public Reservation reserve(long storeId, long productId, int delta) {
+        HotSku sku = load(storeId, productId);
+        if (sku == null) {
+            return new Reservation(null, 0, StockAdjustment.notFound());
+        }
+        if (delta < 0 && !sku.take(-delta)) {
+            return new Reservation(null, 0, StockAdjustment.insufficientStock(quantityOf(sku)));
+        }
+        return new Reservation(sku, delta, null);
+    }
+
+    private HotSku load(long storeId, long productId) {
+        HotSku sku = skus.computeIfAbsent(productId, id -> {
+            Integer quantity = productStockJdbcRepository.findQuantities(storeId, List.of(id)).get(id);
+            return quantity == null ? null : new HotSku(storeId, quantity, Math.max(0, quantity - reserveFloor));
+        });
+        return sku != null && sku.storeId == storeId ? sku : null;
+    }
+
+    private long quantityOf(HotSku sku) {
+        return sku.available() + reserveFloor;
+    }
+
+    /**
+     * Writes the delta accumulated by each hot product since the last flush as one
+     * conditional UPDATE, batched per store.
+     */
+    @Scheduled(fixedDelayString = "${products.stock.hot.flush-interval-ms:50}")
+    public synchronized void flush() {
+        flushTimer.record(() -> {
+            Map<Long, List<StockChangeDTO>> changesByStore = new TreeMap<>();
+            Map<Long, HotSku> flushed = new TreeMap<>();
+            skus.forEach((productId, sku) -> {
+                long delta = sku.drainPending();
+                if (delta != 0) {
+                    changesByStore.computeIfAbsent(sku.storeId, store -> new ArrayList<>())
+                            .add(new StockChangeDTO(productId, Math.toIntExact(delta)));
+                    flushed.put(productId, sku);
+                }
+            });
+
+            changesByStore.forEach((storeId, changes) -> {
+                changes.sort(Comparator.comparing(StockChangeDTO::getProductId));
+                int[] counts;
+                try {
+                    counts = productStockJdbcRepository.adjustQuantities(storeId, changes);
+                } catch (RuntimeException e) {
+                    logger.error("Could not write the stock of {} hot products of storeId={}, retrying on the next flush",
+                            changes.size(), storeId, e);
+                    for (StockChangeDTO change : changes) {
+                        flushed.get(change.getProductId()).addPending(change.getDelta());
+                        flushFailures.increment();
+                    }
+                    return;
+                }
+                for (int i = 0; i < counts.length; i++) {
+                    Long productId = changes.get(i).getProductId();
+                    int delta = changes.get(i).getDelta();
+                    HotSku sku = flushed.get(productId);
+                    if (counts[i] == 0) {
+                        logger.error("Coalesced stock delta {} refused for hot productId={}, reloading its counter",
+                                delta, productId);
+                        flushFailures.increment();
+                        // The sales were journaled when they were granted; reverse them.
+                        inventoryJournal.record(storeId, productId, -delta, MovementReason.ADJUSTMENT);
+                        rebase(productId, sku, delta);
+                    } else {
+                        sku.flushedQuantity += delta;
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Re-reads the stock of a hot product that was overwritten outside the counter, after
+     * the surrounding transaction commits when there is one. Changes granted but not flushed
+     * yet are applied on top of the stored quantity.
+     */
+    public void reload(long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadNow(productId);
+                }
+            });
+        } else {
+            reloadNow(productId);
+        }
+    }
+
+    private synchronized void reloadNow(long productId) {
+        HotSku sku = skus.get(productId);
+        if (sku != null) {
+            rebase(productId, sku, 0);
+        }
+    }
+
+    // The counter sells what it believes the row holds once the pending deltas are written:
+    // the last flushed quantity plus the dropped delta. Moving it by the difference to the
+    // stored quantity keeps whatever was granted since, including open reservations.
+    private void rebase(long productId, HotSku sku, long droppedDelta) {
+        Integer quantity = productStockJdbcRepository.findQuantities(sku.storeId, List.of(productId)).get(productId);
+        if (quantity == null) {
+            logger.warn("Hot productId={} is gone from storeId={}, dropping its counter", productId, sku.storeId);
+            skus.remove(productId, sku);
+            return;
+        }
+        sku.rebase(quantity - sku.flushedQuantity - droppedDelta);
+        sku.flushedQuantity = quantity;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static double pendingTotal(Map<Long, HotSku> skus) {
+        return skus.values().stream().mapToLong(HotSku::pendingAbsolute).sum();
+    }
+
+    /**
+     * A change reserved against a hot product. Exactly one of {@link #commit()} or
+     * {@link #release()} must follow a successful reservation.
+     */
+    public final class Reservation {
+
+        private final HotSku sku;
+        private final int delta;
+        private final StockAdjustment refused;
+        private volatile boolean settled;
+
+        private Reservation(HotSku sku, int delta, StockAdjustment refused) {
+            this.sku = sku;
+            this.delta = delta;
+            this.refused = refused;
+        }
+
+        public StockAdjustment.Status status() {
+            return refused == null ? StockAdjustment.Status.APPLIED : refused.status();
+        }
+
+        /** Current result of the change; for reservations, the stock after it. */
+        public StockAdjustment result() {
+            if (refused != null) {
+                return refused;
+            }
+            // An increment only reaches the counter on commit.
+            long unsettled = delta > 0 && !settled ? delta : 0;
+            return StockAdjustment.applied(Math.toIntExact(quantityOf(sku) + unsettled));
+        }
+
+        public void commit() {
+            if (sku != null) {
+                if (delta > 0) {
+                    sku.give(delta);
+                }
+                sku.addPending(delta);
+            }
+            settled = true;
+        }
+
+        public void release() {
+            if (sku != null && delta < 0) {
+                sku.give(-delta);
+            }
+            settled = true;
+        }
+
+        /**
+         * Commits once the surrounding transaction has committed and releases if it rolls
+         * back, so a failed commit never reaches the database through a flush. Commits right
+         * away outside a transaction.
+         */
+        public void commitWithTransaction() {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                commit();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        commit();
+                    } else {
+                        release();
+                    }
+                }
+            });
+        }
+    }
+
+    private final class HotSku {
+
+        private final long storeId;
+        private final AtomicLongArray cells;
+
+        // Stored quantity as of the last load or successful flush; only touched under the counter's lock.
+        private long flushedQuantity;
+
+        private HotSku(long storeId, long quantity, long sellable) {
+            this.storeId = storeId;
+            this.flushedQuantity = quantity;
+            this.cells = new AtomicLongArray(stripes * PAD);
+            for (int i = 0; i < stripes; i++) {
+                cells.set(i * PAD, sellable / stripes + (i < sellable % stripes ? 1 : 0));
+            }
+        }
+
+        private int home() {
+            long threadId = Thread.currentThread().getId();
+            return (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 32) & (stripes - 1);
+        }
+
+        private long available() {
+            long total = 0;
+            for (int i = 0; i < stripes; i++) {
+                total += cells.get(i * PAD);
+            }
+            return total;
+        }
+
+        private void give(long units) {
+            cells.getAndAdd(home() * PAD, units);
+        }
+
+        private void addPending(long delta) {
+            cells.getAndAdd(home() * PAD + 1, delta);
+        }
+
+        private long drainPending() {
+            long total = 0;
+            for (int i = 0; i < stripes; i++) {
+                total += cells.getAndSet(i * PAD + 1, 0);
+            }
+            return total;
+        }
+
+        private long pendingAbsolute() {
+            long total = 0;
+            for (int i = 0; i < stripes; i++) {
+                total += cells.get(i * PAD + 1);
+            }
+            return Math.abs(total);
+        }
+
+        private boolean take(long units) {
+            int home = home();
+            for (int n = 0; n < stripes; n++) {
+                int index = ((home + n) & (stripes - 1)) * PAD;
+                long current = cells.get(index);
+                while (current >= units) {
+                    if (cells.compareAndSet(index, current, current - units)) {
+                        return true;
+                    }
+                    contended.increment();
+                    current = cells.get(index);
+                }
+            }
+            contended.increment();
+            return takeAcrossStripes(units);
+        }
+
+        // Moves the sellable units by correction. A cut takes units from any stripe but never
+        // goes below zero: stock that was sold and is not in the database any more is gone.
+        private synchronized void rebase(long correction) {
+            if (correction >= 0) {
+                give(correction);
+                return;
+            }
+            long remaining = -correction;
+            for (int i = 0; i < stripes && remaining > 0; i++) {
+                int index = i * PAD;
+                long current = cells.get(index);
+                while (current > 0) {
+                    long part = Math.min(current, remaining);
+                    if (cells.compareAndSet(index, current, current - part)) {
+                        remaining -= part;
+                        break;
+                    }
+                    current = cells.get(index);
+                }
+            }
+        }
+
+        // No single stripe had enough: gather the units from several stripes under the lock,
+        // putting them back if the total falls short.
+        private synchronized boolean takeAcrossStripes(long units) {
+            long[] taken = new long[stripes];
+            long remaining = units;
+            for (int i = 0; i < stripes && remaining > 0; i++) {
+                int index = i * PAD;
+                long current = cells.get(index);
+                while (current > 0) {
+                    long part = Math.min(current, remaining);
+                    if (cells.compareAndSet(index, current, current - part)) {
+                        taken[i] = part;
+                        remaining -= part;
+                        break;
+                    }
+                    current = cells.get(index);
+                }
+            }
+            if (remaining == 0) {
+                return true;
+            }
+            for (int i = 0; i < stripes; i++) {
+                if (taken[i] > 0) {
+                    cells.getAndAdd(i * PAD, taken[i]);
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -21,6 +21,9 @@ public class ImageService {
     @Autowired
     private ProductsRepository productsRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
     public String saveStoreImage(ImageEntity image, String storeName) {
         StoreEntity store = (StoreEntity) storeRepository.findOneByName(storeName)
                 .orElseThrow(() -> new RuntimeException("No store found"));
@@ -42,6 +45,8 @@ public class ImageService {
         image.setProduct(product);
         image.setStore(store); // Optional: if you want to link both
 
-        return imageRepository.save(image).getUrl();
+        String url = imageRepository.save(image).getUrl();
+        productCache.evict(productId);
+        return url;
     }
 }
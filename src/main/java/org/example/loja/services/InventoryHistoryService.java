@@ -0,0 +1,176 @@
+package org.example.loja.services;
+
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.dto.StockAtTime;
+import org.example.loja.entities.InventorySnapshotEntity;
+import org.example.loja.repository.InventoryMovementRepository;
+import org.example.loja.repository.InventorySnapshotRepository;
+import org.example.loja.repository.ProductsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the inventory journal written by {@link InventoryJournal}: movement history with
+ * cursor paging, and the stock of a product at a point in time.
+ * <p>
+ * The snapshot job stores, per product that moved since the previous run, its stock after
+ * the last journaled movement. Snapshots are computed from the journal alone (previous
+ * snapshot plus the new deltas), so "stock as of T" is the nearest snapshot at or before T
+ * plus a replay of at most one snapshot interval of movements. The journal lags the
+ * products table by up to one writer flush.
+ */
+@Service
+public class InventoryHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryHistoryService.class);
+
+    private static final String CURSOR_PREFIX = "m1|";
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private ProductsRepository productsRepository;
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Value("${inventory.history.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${inventory.history.page.max-size:500}")
+    private int maxPageSize = 500;
+
+    /**
+     * Products created before the journal existed get their current stock as opening
+     * balance, so every product's history adds up to its stock.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void openJournal() {
+        int opened = inventoryJournal.recordOpeningBalances();
+        if (opened > 0) {
+            logger.info("Recorded opening stock of {} products in the inventory journal", opened);
+        }
+    }
+
+    /**
+     * Movements of a store, or of one of its products when {@code productId} is set, newest
+     * first.
+     *
+     * @param after cursor returned with the previous page, {@code null} for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or the page size not positive
+     */
+    public CursorPage<InventoryMovementDTO> getMovements(long storeId, Long productId, String after, Integer first) {
+        int size = first == null ? defaultPageSize : first;
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        size = Math.min(size, maxPageSize);
+        long beforeId = after == null || after.isBlank() ? Long.MAX_VALUE : decodeCursor(after);
+
+        // One extra row tells whether there is a next page without a COUNT query.
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<InventoryMovementDTO> rows = productId == null
+                ? movementRepository.findStoreHistory(storeId, beforeId, limit)
+                : movementRepository.findProductHistory(storeId, productId, beforeId, limit);
+        boolean hasNext = rows.size() > size;
+        List<InventoryMovementDTO> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(items.get(items.size() - 1).id()) : null;
+        return new CursorPage<>(items, nextCursor, hasNext);
+    }
+
+    /**
+     * Stock of the product as of {@code at} (epoch millis): the latest snapshot taken at or
+     * before {@code at} plus the movements made after it up to {@code at}.
+     *
+     * @return empty if the product is not in the store
+     */
+    public Optional<StockAtTime> getStockAt(long storeId, long productId, long at) {
+        if (productsRepository.findQuantity(storeId, productId).isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<InventorySnapshotEntity> snapshot =
+                snapshotRepository.findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(productId, at);
+        long base = snapshot.map(InventorySnapshotEntity::getQuantity).orElse(0L);
+        long afterId = snapshot.map(InventorySnapshotEntity::getLastMovementId).orElse(0L);
+
+        Object[] replay = movementRepository.replay(productId, afterId, at).get(0);
+        long delta = ((Number) replay[0]).longValue();
+        int replayed = ((Number) replay[1]).intValue();
+        return Optional.of(new StockAtTime(productId, base + delta, at, replayed));
+    }
+
+    /**
+     * Snapshots every product with movements since the previous run. Only movements up to
+     * the journal's last id at the start are covered, and the writer is single-threaded, so
+     * no movement below the new watermark can show up later. Not transactional on purpose:
+     * the journal flush must not be rolled back with a failed snapshot run.
+     *
+     * @return the number of snapshots written
+     */
+    @Scheduled(fixedDelayString = "${inventory.snapshots.interval-ms:3600000}",
+            initialDelayString = "${inventory.snapshots.interval-ms:3600000}")
+    public int takeSnapshots() {
+        inventoryJournal.flush();
+        long watermark = snapshotRepository.findWatermark();
+        long upToId = movementRepository.findLastId();
+        if (upToId <= watermark) {
+            return 0;
+        }
+        List<Object[]> totals = movementRepository.summarize(watermark, upToId);
+        Map<Long, InventorySnapshotEntity> latest = snapshotRepository.findLatest(
+                        totals.stream().map(row -> ((Number) row[0]).longValue()).toList())
+                .stream()
+                .collect(Collectors.toMap(InventorySnapshotEntity::getProductId, Function.identity()));
+
+        long takenAt = System.currentTimeMillis();
+        List<InventorySnapshotEntity> snapshots = new ArrayList<>(totals.size());
+        for (Object[] row : totals) {
+            long productId = ((Number) row[0]).longValue();
+            InventorySnapshotEntity previous = latest.get(productId);
+            long quantity = (previous == null ? 0 : previous.getQuantity()) + ((Number) row[2]).longValue();
+            snapshots.add(new InventorySnapshotEntity(productId, ((Number) row[1]).longValue(), quantity,
+                    ((Number) row[3]).longValue(), takenAt));
+        }
+        snapshotRepository.saveAll(snapshots);
+        logger.info("Took {} inventory snapshots up to movement {}", snapshots.size(), upToId);
+        return snapshots.size();
+    }
+
+    private static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.repository.InventoryMovementJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched writer of the append-only inventory journal.
+ * <p>
+ * {@link #record} writes the movements of a transaction as one JDBC batch right before it
+ * commits, so a stock change and its journal row commit or roll back together.
+ * {@link #recordAfterCommit} is for the hot stock path, which cannot afford a write per
+ * sale: it only queues the movement once the transaction has committed, and
+ * {@link #flush()} writes the queue as JDBC batches of {@code inventory.journal.batch-size}
+ * every {@code inventory.journal.flush-interval-ms} and on shutdown. Outside a transaction
+ * both queue. When a flush fails the batch is kept and retried first on the next one; when
+ * the queue is full the caller flushes it itself and waits for room rather than losing the
+ * movement. Metrics are published under {@code inventory.journal}.
+ */
+@Component
+public class InventoryJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryJournal.class);
+
+    static final String SYSTEM_ACTOR = "system";
+
+    private static final int MAX_ACTOR_LENGTH = 64;
+
+    // How long a caller facing a full queue waits before trying to flush it again.
+    private static final long FULL_QUEUE_WAIT_MILLIS = 100;
+
+    private final InventoryMovementJdbcRepository movementJdbcRepository;
+
+    private final int batchSize;
+
+    private final BlockingQueue<InventoryMovementDTO> queue;
+
+    private final Counter flushFailures;
+
+    private final Counter dropped;
+
+    // Batch whose insert failed; only touched under the flush lock.
+    private List<InventoryMovementDTO> retry = List.of();
+
+    public InventoryJournal(InventoryMovementJdbcRepository movementJdbcRepository,
+                            @Value("${inventory.journal.queue-capacity:10000}") int queueCapacity,
+                            @Value("${inventory.journal.batch-size:500}") int batchSize,
+                            MeterRegistry meterRegistry) {
+        this.movementJdbcRepository = movementJdbcRepository;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.flushFailures = Counter.builder("inventory.journal.flush.failures")
+                .description("Journal batches that could not be written and were kept for retry")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("inventory.journal.dropped")
+                .description("Movements lost because the caller was interrupted while waiting for room in the queue")
+                .register(meterRegistry);
+        Gauge.builder("inventory.journal.pending", queue, BlockingQueue::size)
+                .description("Movements waiting to be written to the journal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appends a stock change made by the current user (or {@code system} outside a
+     * request), as part of the surrounding transaction. Zero deltas are ignored, except for
+     * opening balances.
+     */
+    public void record(long storeId, long productId, int delta, MovementReason reason) {
+        InventoryMovementDTO movement = movement(storeId, productId, delta, reason);
+        if (movement == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            enqueue(movement);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionBatch batch && batch.journal() == this) {
+                batch.movements.add(movement);
+                return;
+            }
+        }
+        TransactionBatch batch = new TransactionBatch();
+        batch.movements.add(movement);
+        TransactionSynchronizationManager.registerSynchronization(batch);
+    }
+
+    /**
+     * Same as {@link #record}, but queued once the surrounding transaction commits, so the
+     * stock change never waits for its journal row. A crash before the next flush loses it.
+     */
+    public void recordAfterCommit(long storeId, long productId, int delta, MovementReason reason) {
+        InventoryMovementDTO movement = movement(storeId, productId, delta, reason);
+        if (movement == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(movement);
+                }
+            });
+        } else {
+            enqueue(movement);
+        }
+    }
+
+    private static InventoryMovementDTO movement(long storeId, long productId, int delta, MovementReason reason) {
+        if (delta == 0 && reason != MovementReason.OPENING) {
+            return null;
+        }
+        return new InventoryMovementDTO(null, productId, storeId, delta, reason, currentActor(), System.currentTimeMillis());
+    }
+
+    // The stock change has committed by now, so the movement must not be lost: keep flushing
+    // until there is room, which holds the caller back while the database is unavailable.
+    private void enqueue(InventoryMovementDTO movement) {
+        try {
+            while (!queue.offer(movement)) {
+                flush();
+                if (queue.offer(movement, FULL_QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted waiting for room in the inventory journal, dropping {} of productId={} by {}",
+                    movement.reason(), movement.productId(), movement.delta());
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes every queued movement. Single-threaded, so journal ids follow the order in
+     * which the batches were written.
+     *
+     * @return the number of movements written
+     */
+    @Scheduled(fixedDelayString = "${inventory.journal.flush-interval-ms:200}")
+    public synchronized int flush() {
+        int written = 0;
+        while (true) {
+            List<InventoryMovementDTO> batch = retry;
+            if (batch.isEmpty()) {
+                batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+                queue.drainTo(batch, batchSize);
+                if (batch.isEmpty()) {
+                    return written;
+                }
+            }
+            try {
+                movementJdbcRepository.insert(batch);
+            } catch (RuntimeException e) {
+                logger.error("Could not write {} inventory movements, retrying on the next flush", batch.size(), e);
+                flushFailures.increment();
+                retry = batch;
+                return written;
+            }
+            retry = List.of();
+            written += batch.size();
+        }
+    }
+
+    /**
+     * Adds an opening balance for every product that is not in the journal yet, after
+     * writing what is queued, so a product created meanwhile is not counted twice.
+     */
+    public synchronized int recordOpeningBalances() {
+        flush();
+        return movementJdbcRepository.insertOpeningBalances(SYSTEM_ACTOR, System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!retry.isEmpty()) {
+            logger.error("Shutting down with {} inventory movements that could not be written", retry.size() + queue.size());
+        }
+    }
+
+    // Movements recorded in one transaction, written in its beforeCommit so a failed insert
+    // rolls the stock change back with it.
+    private final class TransactionBatch implements TransactionSynchronization {
+
+        private final List<InventoryMovementDTO> movements = new ArrayList<>();
+
+        private InventoryJournal journal() {
+            return InventoryJournal.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            movementJdbcRepository.insert(movements);
+        }
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getName() == null) {
+            return SYSTEM_ACTOR;
+        }
+        String name = authentication.getName();
+        return name.length() > MAX_ACTOR_LENGTH ? name.substring(0, MAX_ACTOR_LENGTH) : name;
+    }
+}
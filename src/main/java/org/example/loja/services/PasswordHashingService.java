@@ -0,0 +1,140 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.example.loja.util.Authorization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs BCrypt off the Tomcat request threads on a pool sized to the CPU count.
+ * <p>
+ * The pool has a bounded queue and no caller-runs fallback: when it is full the request
+ * fails immediately with {@link RejectedExecutionException}, which the login endpoints map
+ * to 429, instead of piling up seconds of CPU work behind every other endpoint.
+ * Queue depth, active threads and rejections are published under {@code password.hashing}.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final int targetCost;
+
+    private final long timeoutMillis;
+
+    private final Counter rejected;
+
+    private final Counter rehashed;
+
+    public PasswordHashingService(@Value("${security.password.bcrypt-cost:12}") int targetCost,
+                                  @Value("${security.password.hashing.threads:0}") int threads,
+                                  @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password.hashing.timeout-ms:10000}") long timeoutMillis,
+                                  MeterRegistry meterRegistry) {
+        this.targetCost = targetCost;
+        this.timeoutMillis = timeoutMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        Gauge.builder("password.hashing.queue.remaining", executor, e -> e.getQueue().remainingCapacity())
+                .description("Free slots in the password hashing queue")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        this.rehashed = Counter.builder("password.hashing.rehashed")
+                .description("Stored hashes upgraded to the target cost after a successful login")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a new password with the target cost.
+     *
+     * @throws RejectedExecutionException if the hashing queue is full
+     */
+    public String hash(String password) {
+        return await(() -> Authorization.hashPassword(password, targetCost));
+    }
+
+    /**
+     * Checks the password against the stored hash. When it matches and the hash was made
+     * with a lower cost than the target (or its cost cannot be read), a new hash is computed
+     * in the background and handed to {@code onRehash}; a full queue simply postpones the
+     * upgrade to a later login. Stronger hashes are kept as they are.
+     *
+     * @throws RejectedExecutionException if the hashing queue is full
+     */
+    public boolean verify(String password, String hash, Consumer<String> onRehash) {
+        boolean verified = await(() -> Authorization.isAuthorized(password, hash));
+        if (verified && Authorization.costOf(hash) < targetCost) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        onRehash.accept(Authorization.hashPassword(password, targetCost));
+                        rehashed.increment();
+                    } catch (Exception e) {
+                        logger.warn("Error while upgrading password hash", e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.debug("Hashing queue full, skipping password hash upgrade");
+            }
+        }
+        return verified;
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error while hashing password", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Timed out while hashing password", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.loja.dto.ProductSuggestion;
+import org.example.loja.repository.InventoryMovementJdbcRepository;
+import org.example.loja.repository.ProductSearchJdbcRepository;
+import org.example.loja.util.PrefixTrie;
+import org.example.loja.util.TextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search-as-you-type suggestions from one {@link PrefixTrie} per store over the normalized
+ * product names and brands ({@link TextAnalyzer#normalize}), ranked by units sold in the
+ * last {@code products.autocomplete.popularity-days} days.
+ * <p>
+ * Lookups only read the current tries and never reach the database. The tries are rebuilt
+ * from scratch on a thread of their own every
+ * {@code products.autocomplete.rebuild-interval-ms} (two light scans, products and the
+ * journal's recent sales) and swapped in at once, so new names and sales show up within
+ * one interval and a slow rebuild never delays the shared scheduler.
+ */
+@Component
+public class ProductAutocomplete {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductAutocomplete.class);
+
+    private final ProductSearchJdbcRepository productSearchJdbcRepository;
+
+    private final InventoryMovementJdbcRepository movementJdbcRepository;
+
+    private final int topK;
+
+    private final long popularityWindowMillis;
+
+    private final long rebuildIntervalMillis;
+
+    private final int chunkSize;
+
+    private final Timer rebuildTimer;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autocomplete-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Map<Long, PrefixTrie<Candidate>> tries = Map.of();
+
+    public ProductAutocomplete(ProductSearchJdbcRepository productSearchJdbcRepository,
+                               InventoryMovementJdbcRepository movementJdbcRepository,
+                               @Value("${products.autocomplete.top-k:10}") int topK,
+                               @Value("${products.autocomplete.popularity-days:30}") int popularityDays,
+                               @Value("${products.autocomplete.rebuild-interval-ms:300000}") long rebuildIntervalMillis,
+                               @Value("${products.search.rebuild.chunk-size:10000}") int chunkSize,
+                               MeterRegistry meterRegistry) {
+        this.productSearchJdbcRepository = productSearchJdbcRepository;
+        this.movementJdbcRepository = movementJdbcRepository;
+        this.topK = topK;
+        this.popularityWindowMillis = TimeUnit.DAYS.toMillis(popularityDays);
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+        this.chunkSize = chunkSize;
+        this.rebuildTimer = Timer.builder("products.autocomplete.rebuild")
+                .description("Time to rebuild the autocomplete tries of every store")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                // The previous tries keep serving; the next run tries again.
+                logger.error("Error while rebuilding the autocomplete index", e);
+            }
+        }, 0, rebuildIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Up to {@code limit} (at most {@code products.autocomplete.top-k}) names and brands of
+     * the store starting with {@code prefix}, most sold first.
+     *
+     * @throws IllegalArgumentException if the prefix has no letter or digit, or the limit is not positive
+     */
+    public List<ProductSuggestion> suggest(long storeId, String prefix, int limit) {
+        String key = TextAnalyzer.normalize(prefix);
+        if (key.isBlank()) {
+            throw new IllegalArgumentException("Prefix must contain a letter or digit");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        PrefixTrie<Candidate> trie = tries.get(storeId);
+        if (trie == null) {
+            return List.of();
+        }
+        List<Candidate> candidates = trie.complete(key);
+        List<ProductSuggestion> suggestions = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            suggestions.add(candidates.get(i).suggestion());
+        }
+        return suggestions;
+    }
+
+    /**
+     * Rebuilds every store's trie and swaps them in.
+     *
+     * @return the number of suggestions indexed
+     */
+    public int rebuild() {
+        long start = System.nanoTime();
+        Map<Long, Long> sold = movementJdbcRepository.unitsSoldSince(System.currentTimeMillis() - popularityWindowMillis);
+        Map<Long, StoreCandidates> stores = new HashMap<>();
+        productSearchJdbcRepository.forEachName(chunkSize, product ->
+                stores.computeIfAbsent(product.storeId(), id -> new StoreCandidates())
+                        .add(product, sold.getOrDefault(product.id(), 0L)));
+
+        Map<Long, PrefixTrie<Candidate>> fresh = new HashMap<>();
+        int suggestions = 0;
+        for (Map.Entry<Long, StoreCandidates> store : stores.entrySet()) {
+            PrefixTrie<Candidate> trie = PrefixTrie.build(store.getValue().candidates(), Candidate::key, Candidate::popularity, topK);
+            fresh.put(store.getKey(), trie);
+            suggestions += trie.size();
+        }
+        tries = Map.copyOf(fresh);
+        long elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        logger.info("Indexed {} autocomplete suggestions for {} stores in {} ms", suggestions, fresh.size(), elapsed / 1_000_000);
+        return suggestions;
+    }
+
+    private record Candidate(String key, ProductSuggestion suggestion, long popularity) {
+    }
+
+    // A name sold under several products is suggested once, as its best seller; a brand is
+    // as popular as all its products together.
+    private static final class StoreCandidates {
+
+        private final Map<String, Candidate> names = new HashMap<>();
+        private final Map<String, Candidate> brands = new HashMap<>();
+
+        private void add(ProductSearchJdbcRepository.ProductName product, long popularity) {
+            String name = TextAnalyzer.normalize(product.name());
+            if (!name.isEmpty()) {
+                Candidate candidate = new Candidate(name, new ProductSuggestion(product.name().trim(),
+                        ProductSuggestion.Type.PRODUCT, product.id()), popularity);
+                names.merge(name, candidate, (current, next) -> next.popularity() > current.popularity() ? next : current);
+            }
+            String brand = TextAnalyzer.normalize(product.brand());
+            if (!brand.isEmpty()) {
+                Candidate candidate = new Candidate(brand, new ProductSuggestion(product.brand().trim(),
+                        ProductSuggestion.Type.BRAND, null), popularity);
+                brands.merge(brand, candidate, (current, next) ->
+                        new Candidate(brand, current.suggestion(), current.popularity() + next.popularity()));
+            }
+        }
+
+        private List<Candidate> candidates() {
+            List<Candidate> candidates = new ArrayList<>(names.size() + brands.size());
+            candidates.addAll(names.values());
+            candidates.addAll(brands.values());
+            return candidates;
+        }
+    }
+}
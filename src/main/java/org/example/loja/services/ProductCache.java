@@ -0,0 +1,98 @@
+package org.example.loja.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.loja.dto.ProductSnapshot;
+import org.example.loja.entities.ImageEntity;
+import org.example.loja.entities.ProductEntity;
+import org.example.loja.repository.ProductsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Size-bounded read cache of {@link ProductSnapshot}s by product id. Caffeine's W-TinyLFU
+ * policy keeps the products that are read most often and does not let a burst of one-off
+ * reads push them out. A miss loads the product, store, categories and images in one query.
+ * <p>
+ * Every write to a product must call {@link #evict}. Inside a transaction the entry is also
+ * evicted again after completion, so a read that reloaded the old row before the commit
+ * does not stay cached. Products missing from the database are not cached.
+ * {@code products.cache.ttl-seconds} bounds how long writes made outside this application
+ * stay invisible. Hit ratio, evictions and size are published under {@code products}.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductsRepository productsRepository;
+
+    private final Cache<Long, ProductSnapshot> cache;
+
+    public ProductCache(ProductsRepository productsRepository,
+                        @Value("${products.cache.max-size:50000}") long maxSize,
+                        @Value("${products.cache.ttl-seconds:600}") long ttlSeconds,
+                        MeterRegistry meterRegistry) {
+        this.productsRepository = productsRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public Optional<ProductSnapshot> get(long id) {
+        return Optional.ofNullable(cache.get(id, key -> load(key).orElse(null)));
+    }
+
+    /** Reads the product from the database without caching it. */
+    public Optional<ProductSnapshot> load(long id) {
+        return productsRepository.findDetailedById(id).map(ProductCache::snapshotOf);
+    }
+
+    public void evict(long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    // Size-based evictions are applied by Caffeine's maintenance pass; this runs it now.
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    static ProductSnapshot snapshotOf(ProductEntity product) {
+        ProductSnapshot.Store store = product.getStore() == null ? null
+                : new ProductSnapshot.Store(product.getStore().getId(), product.getStore().getName());
+        return new ProductSnapshot(product.getId(), product.getName(), product.getPrice(), product.getDescription(),
+                product.getBrand(), product.getQuantity(), store,
+                product.getCategories().stream()
+                        .map(category -> new ProductSnapshot.Category(category.getId(), category.getName(), category.getDescription()))
+                        .sorted(Comparator.comparing(ProductSnapshot.Category::id, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .toList(),
+                product.getImage().stream()
+                        .map(ImageEntity::getUrl)
+                        .filter(Objects::nonNull)
+                        .sorted()
+                        .toList(),
+                product.getVersion());
+    }
+}
@@ -0,0 +1,377 @@
+package org.example.loja.services;
+
+import org.example.loja.dto.FacetCounts;
+import org.example.loja.dto.FacetFilter;
+import org.example.loja.dto.ProductDocument;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Facet engine for catalog pages: per store, one compressed {@link RoaringBitmap} of product
+ * ids for every brand, category, price band ({@code products.facets.price-bands}) and for
+ * "in stock". Filters are bitmap unions and intersections, and facet counts are
+ * {@link RoaringBitmap#andCardinality} calls, so a page load costs a few microseconds per
+ * facet value whatever the size of the catalog, and never touches the database.
+ * <p>
+ * Kept current by {@link ProductsServices} like {@link ProductSearchIndex}, whose locking,
+ * rebuild protocol and after-commit updates it shares. Product ids are stored as ints, so
+ * products with an id above {@link Integer#MAX_VALUE} cannot be indexed.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private final double[] bandBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Facets facets = new Facets();
+
+    // Same role as in ProductSearchIndex. Guarded by the write lock.
+    private List<Consumer<Facets>> pending;
+
+    public ProductFacetIndex(@Value("${products.facets.price-bands:50,100,250,500,1000}") String priceBands) {
+        this.bandBounds = Arrays.stream(priceBands.split(","))
+                .map(String::trim)
+                .filter(bound -> !bound.isEmpty())
+                .mapToDouble(Double::parseDouble)
+                .sorted()
+                .toArray();
+    }
+
+    /** Number of price bands: one below each bound plus one above the last. */
+    public int priceBandCount() {
+        return bandBounds.length + 1;
+    }
+
+    /**
+     * Adds the product, or replaces what was indexed for it.
+     *
+     * @throws IllegalArgumentException if the product id does not fit in an int
+     */
+    public void index(ProductDocument document) {
+        checkId(document.id());
+        apply(facets -> facets.add(document));
+    }
+
+    public void remove(long productId) {
+        apply(facets -> facets.remove(productId));
+    }
+
+    public void updateQuantity(long productId, int quantity) {
+        apply(facets -> facets.setInStock(productId, quantity > 0));
+    }
+
+    private void apply(Consumer<Facets> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(change);
+                }
+            });
+        } else {
+            applyNow(change);
+        }
+    }
+
+    private void applyNow(Consumer<Facets> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(facets);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every bitmap with the documents {@code source} passes to its consumer.
+     *
+     * @throws IllegalStateException if another rebuild is running
+     */
+    public int rebuild(Consumer<Consumer<ProductDocument>> source) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                throw new IllegalStateException("A rebuild of the facet index is already running");
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Facets fresh = new Facets();
+        try {
+            source.accept(fresh::add);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            fresh.stores.values().forEach(StoreFacets::optimize);
+            facets = fresh;
+            return fresh.entries.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts of the store under {@code filter}; each facet is counted with the other
+     * facets' selections applied but not its own.
+     *
+     * @throws IllegalArgumentException for an unknown price band
+     */
+    public FacetCounts count(long storeId, FacetFilter filter) {
+        checkBands(filter);
+        lock.readLock().lock();
+        try {
+            StoreFacets store = facets.stores.get(storeId);
+            if (store == null) {
+                return empty();
+            }
+            RoaringBitmap brands = union(store.brands, filter.brands());
+            RoaringBitmap categories = union(store.categories, filter.categoryIds());
+            RoaringBitmap bands = unionBands(store, filter);
+            RoaringBitmap stock = filter.inStockOnly() ? store.inStock : null;
+
+            Map<String, Integer> brandCounts = new LinkedHashMap<>();
+            RoaringBitmap base = intersect(store.all, categories, bands, stock);
+            store.brands.forEach((brand, ids) -> brandCounts.put(brand, RoaringBitmap.andCardinality(base, ids)));
+
+            Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+            RoaringBitmap withoutCategories = intersect(store.all, brands, bands, stock);
+            store.categories.forEach((category, ids) -> categoryCounts.put(category, RoaringBitmap.andCardinality(withoutCategories, ids)));
+
+            List<FacetCounts.PriceBand> bandCounts = new ArrayList<>(priceBandCount());
+            RoaringBitmap withoutBands = intersect(store.all, brands, categories, stock);
+            for (int band = 0; band < priceBandCount(); band++) {
+                bandCounts.add(new FacetCounts.PriceBand(band, band == 0 ? 0 : bandBounds[band - 1],
+                        band < bandBounds.length ? bandBounds[band] : null,
+                        RoaringBitmap.andCardinality(withoutBands, store.bands[band])));
+            }
+
+            RoaringBitmap withoutStock = intersect(store.all, brands, categories, bands);
+            int total = stock == null ? withoutStock.getCardinality() : RoaringBitmap.andCardinality(withoutStock, stock);
+            return new FacetCounts(total, brandCounts, categoryCounts, bandCounts,
+                    RoaringBitmap.andCardinality(withoutStock, store.inStock));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the store's products matching the filter, ascending, starting after
+     * {@code afterId}.
+     *
+     * @throws IllegalArgumentException for an unknown price band
+     */
+    public List<Long> filter(long storeId, FacetFilter filter, long afterId, int limit) {
+        checkBands(filter);
+        lock.readLock().lock();
+        try {
+            StoreFacets store = facets.stores.get(storeId);
+            if (store == null || afterId >= Integer.MAX_VALUE) {
+                return List.of();
+            }
+            RoaringBitmap matching = intersect(store.all, union(store.brands, filter.brands()),
+                    union(store.categories, filter.categoryIds()), unionBands(store, filter),
+                    filter.inStockOnly() ? store.inStock : null);
+            List<Long> ids = new ArrayList<>(limit);
+            PeekableIntIterator iterator = matching.getIntIterator();
+            iterator.advanceIfNeeded((int) Math.max(0, afterId + 1));
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add((long) iterator.next());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private FacetCounts empty() {
+        List<FacetCounts.PriceBand> bands = new ArrayList<>();
+        for (int band = 0; band < priceBandCount(); band++) {
+            bands.add(new FacetCounts.PriceBand(band, band == 0 ? 0 : bandBounds[band - 1],
+                    band < bandBounds.length ? bandBounds[band] : null, 0));
+        }
+        return new FacetCounts(0, Map.of(), Map.of(), bands, 0);
+    }
+
+    // null means the facet is not filtered.
+    private static <K> RoaringBitmap union(Map<K, RoaringBitmap> bitmaps, Iterable<K> selected) {
+        if (!selected.iterator().hasNext()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (K key : selected) {
+            RoaringBitmap ids = bitmaps.get(key);
+            if (ids != null) {
+                union.or(ids);
+            }
+        }
+        return union;
+    }
+
+    private RoaringBitmap unionBands(StoreFacets store, FacetFilter filter) {
+        if (filter.priceBands().isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (int band : filter.priceBands()) {
+            union.or(store.bands[band]);
+        }
+        return union;
+    }
+
+    private void checkBands(FacetFilter filter) {
+        for (int band : filter.priceBands()) {
+            if (band < 0 || band >= priceBandCount()) {
+                throw new IllegalArgumentException("Invalid price band " + band);
+            }
+        }
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap all, RoaringBitmap... filters) {
+        RoaringBitmap result = all;
+        for (RoaringBitmap filter : filters) {
+            if (filter != null) {
+                result = RoaringBitmap.and(result, filter);
+            }
+        }
+        return result;
+    }
+
+    private static int checkId(long productId) {
+        if (productId < 0 || productId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Product id " + productId + " is out of range for the facet index");
+        }
+        return (int) productId;
+    }
+
+    private int bandOf(Double price) {
+        if (price == null) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(bandBounds, price);
+        // A price equal to a bound opens the next band.
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private record Entry(long storeId, String brand, long[] categories, int band) {
+    }
+
+    private final class Facets {
+
+        private final Map<Long, StoreFacets> stores = new HashMap<>();
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        private void add(ProductDocument document) {
+            remove(document.id());
+            int id = checkId(document.id());
+            StoreFacets store = stores.computeIfAbsent(document.storeId(), storeId -> new StoreFacets(priceBandCount()));
+            String brand = document.brand() == null || document.brand().isBlank() ? null : document.brand().trim();
+            long[] categories = document.categoryIds().stream().mapToLong(Long::longValue).toArray();
+            int band = bandOf(document.price());
+
+            store.all.add(id);
+            if (brand != null) {
+                store.brands.computeIfAbsent(brand, key -> new RoaringBitmap()).add(id);
+            }
+            for (long category : categories) {
+                store.categories.computeIfAbsent(category, key -> new RoaringBitmap()).add(id);
+            }
+            store.bands[band].add(id);
+            if (document.quantity() > 0) {
+                store.inStock.add(id);
+            }
+            entries.put(document.id(), new Entry(document.storeId(), brand, categories, band));
+        }
+
+        private void remove(long productId) {
+            Entry entry = entries.remove(productId);
+            if (entry == null) {
+                return;
+            }
+            int id = (int) productId;
+            StoreFacets store = stores.get(entry.storeId());
+            store.all.remove(id);
+            store.inStock.remove(id);
+            store.bands[entry.band()].remove(id);
+            if (entry.brand() != null) {
+                removeFrom(store.brands, entry.brand(), id);
+            }
+            for (long category : entry.categories()) {
+                removeFrom(store.categories, category, id);
+            }
+        }
+
+        private <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+            RoaringBitmap ids = bitmaps.get(key);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+
+        private void setInStock(long productId, boolean inStock) {
+            Entry entry = entries.get(productId);
+            if (entry == null) {
+                return;
+            }
+            RoaringBitmap ids = stores.get(entry.storeId()).inStock;
+            if (inStock) {
+                ids.add((int) productId);
+            } else {
+                ids.remove((int) productId);
+            }
+        }
+    }
+
+    private static final class StoreFacets {
+
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final RoaringBitmap inStock = new RoaringBitmap();
+        private final Map<String, RoaringBitmap> brands = new TreeMap<>();
+        private final Map<Long, RoaringBitmap> categories = new TreeMap<>();
+        private final RoaringBitmap[] bands;
+
+        private StoreFacets(int bandCount) {
+            bands = new RoaringBitmap[bandCount];
+            for (int i = 0; i < bandCount; i++) {
+                bands[i] = new RoaringBitmap();
+            }
+        }
+
+        // Switches dense containers to run-length encoding after a bulk load.
+        private void optimize() {
+            all.runOptimize();
+            inStock.runOptimize();
+            brands.values().forEach(RoaringBitmap::runOptimize);
+            categories.values().forEach(RoaringBitmap::runOptimize);
+            Arrays.stream(bands).forEach(RoaringBitmap::runOptimize);
+        }
+    }
+}
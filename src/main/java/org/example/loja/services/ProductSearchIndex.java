@@ -0,0 +1,378 @@
+package org.example.loja.services;
+
+import org.example.loja.dto.ProductDocument;
+import org.example.loja.util.TextAnalyzer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over product name, brand and description, ranked with BM25.
+ * <p>
+ * Every search is scoped to a store, so each store has its own term dictionary and BM25
+ * statistics. Products get a dense int doc id; a posting list is a pair of growable
+ * {@code int[]} (doc ids in ascending order and term frequencies), and queries walk the
+ * lists of their terms in parallel (document at a time) into a top-k heap, so nothing is
+ * allocated per candidate. Name and brand terms count twice, so a match there ranks above
+ * one in the description.
+ * <p>
+ * Updates are incremental: a changed product is tombstoned and indexed again under a new
+ * doc id, and the index compacts itself when a quarter of the doc ids are tombstones.
+ * Searches share a read lock; changes take the write lock. {@link #rebuild} loads a fresh
+ * index without blocking searches and replays the changes made while it was loading.
+ * Changes made inside a transaction are applied once it commits, so a rolled back write
+ * never shows up in search results.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 2;
+
+    private static final int COMPACT_MIN_TOMBSTONES = 1024;
+
+    private final float k1;
+
+    private final float b;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment segment = new Segment();
+
+    // Changes applied while a rebuild is loading, replayed onto the new segment before it is
+    // published; null when no rebuild is running. Guarded by the write lock.
+    private List<Consumer<Segment>> pending;
+
+    public ProductSearchIndex(@Value("${products.search.bm25.k1:1.2}") double k1,
+                              @Value("${products.search.bm25.b:0.75}") double b) {
+        this.k1 = (float) k1;
+        this.b = (float) b;
+    }
+
+    public record Hit(long productId, double score) {
+    }
+
+    /** Adds the product, or replaces what was indexed for it. */
+    public void index(ProductDocument document) {
+        apply(segment -> segment.add(document));
+    }
+
+    public void remove(long productId) {
+        apply(segment -> segment.remove(productId));
+    }
+
+    /** Keeps the in-stock filter current; no-op for products that are not indexed. */
+    public void updateQuantity(long productId, int quantity) {
+        apply(segment -> segment.setQuantity(productId, quantity));
+    }
+
+    private void apply(Consumer<Segment> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyNow(change);
+                }
+            });
+        } else {
+            applyNow(change);
+        }
+    }
+
+    private void applyNow(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the documents {@code source} passes to its consumer.
+     *
+     * @return the number of indexed products
+     * @throws IllegalStateException if another rebuild is running
+     */
+    public int rebuild(Consumer<Consumer<ProductDocument>> source) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                throw new IllegalStateException("A rebuild of the search index is already running");
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        try {
+            source.accept(fresh::add);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            segment = fresh;
+            return fresh.liveCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products of the store matching any query term, best first; ties go to the lower id.
+     *
+     * @param categoryId only products in this category, or {@code null}
+     * @param inStockOnly only products with a positive quantity
+     */
+    public List<Hit> search(long storeId, String query, Long categoryId, boolean inStockOnly, int limit) {
+        String[] terms = TextAnalyzer.tokenize(query).stream().distinct().toArray(String[]::new);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return segment.search(storeId, terms, categoryId, inStockOnly, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private final class Segment {
+
+        private final Map<Long, StoreTerms> stores = new HashMap<>();
+        private final Map<Long, Integer> docByProduct = new HashMap<>();
+        private final BitSet tombstones = new BitSet();
+        private long[] productIds = new long[1024];
+        private long[] storeIds = new long[1024];
+        private int[] quantities = new int[1024];
+        private int[] lengths = new int[1024];
+        private long[][] categories = new long[1024][];
+        private int docCount;
+        private int tombstoneCount;
+        private int liveCount;
+
+        private void add(ProductDocument document) {
+            remove(document.id());
+            if (docCount == productIds.length) {
+                int capacity = docCount * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                storeIds = Arrays.copyOf(storeIds, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+            }
+            int doc = docCount++;
+            productIds[doc] = document.id();
+            storeIds[doc] = document.storeId();
+            quantities[doc] = document.quantity();
+            categories[doc] = document.categoryIds().stream().mapToLong(Long::longValue).sorted().toArray();
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            count(document.name(), NAME_WEIGHT, frequencies);
+            count(document.brand(), NAME_WEIGHT, frequencies);
+            count(document.description(), 1, frequencies);
+            StoreTerms store = stores.computeIfAbsent(document.storeId(), id -> new StoreTerms());
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                store.postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            lengths[doc] = length;
+            store.liveCount++;
+            store.totalLength += length;
+            docByProduct.put(document.id(), doc);
+            liveCount++;
+        }
+
+        private void count(String text, int weight, Map<String, Integer> frequencies) {
+            for (String token : TextAnalyzer.tokenize(text)) {
+                frequencies.merge(token, weight, Integer::sum);
+            }
+        }
+
+        private void remove(long productId) {
+            Integer doc = docByProduct.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            StoreTerms store = stores.get(storeIds[doc]);
+            store.liveCount--;
+            store.totalLength -= lengths[doc];
+            tombstones.set(doc);
+            tombstoneCount++;
+            liveCount--;
+            if (tombstoneCount >= COMPACT_MIN_TOMBSTONES && tombstoneCount * 4 >= docCount) {
+                compact();
+            }
+        }
+
+        private void setQuantity(long productId, int quantity) {
+            Integer doc = docByProduct.get(productId);
+            if (doc != null) {
+                quantities[doc] = quantity;
+            }
+        }
+
+        // Drops tombstones and renumbers the remaining docs in the same order, so posting
+        // lists stay sorted.
+        private void compact() {
+            int[] remap = new int[docCount];
+            int next = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (tombstones.get(doc)) {
+                    remap[doc] = -1;
+                    continue;
+                }
+                remap[doc] = next;
+                productIds[next] = productIds[doc];
+                storeIds[next] = storeIds[doc];
+                quantities[next] = quantities[doc];
+                lengths[next] = lengths[doc];
+                categories[next] = categories[doc];
+                next++;
+            }
+            Arrays.fill(categories, next, docCount, null);
+            for (StoreTerms store : stores.values()) {
+                Iterator<Postings> postings = store.postings.values().iterator();
+                while (postings.hasNext()) {
+                    if (postings.next().retain(remap) == 0) {
+                        postings.remove();
+                    }
+                }
+            }
+            stores.values().removeIf(store -> store.liveCount == 0);
+            docByProduct.replaceAll((productId, doc) -> remap[doc]);
+            tombstones.clear();
+            tombstoneCount = 0;
+            docCount = next;
+        }
+
+        private List<Hit> search(long storeId, String[] terms, Long categoryId, boolean inStockOnly, int limit) {
+            StoreTerms store = stores.get(storeId);
+            if (store == null || store.liveCount == 0) {
+                return List.of();
+            }
+            float averageLength = Math.max(1f, (float) store.totalLength / store.liveCount);
+
+            Postings[] lists = new Postings[terms.length];
+            float[] weights = new float[terms.length];
+            int listCount = 0;
+            for (String term : terms) {
+                Postings postings = store.postings.get(term);
+                if (postings != null) {
+                    // Tombstones still count in the document frequency until the next compaction.
+                    int df = Math.min(postings.size, store.liveCount);
+                    weights[listCount] = (float) Math.log(1 + (store.liveCount - df + 0.5) / (df + 0.5));
+                    lists[listCount++] = postings;
+                }
+            }
+            int[] cursors = new int[listCount];
+
+            Comparator<Hit> worstFirst = Comparator.comparingDouble(Hit::score)
+                    .thenComparing(Comparator.comparingLong(Hit::productId).reversed());
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, worstFirst);
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int i = 0; i < cursors.length; i++) {
+                    Postings postings = lists[i];
+                    if (cursors[i] < postings.size && postings.docs[cursors[i]] < doc) {
+                        doc = postings.docs[cursors[i]];
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+                float score = 0;
+                float norm = k1 * (1 - b + b * lengths[doc] / averageLength);
+                for (int i = 0; i < cursors.length; i++) {
+                    Postings postings = lists[i];
+                    if (cursors[i] < postings.size && postings.docs[cursors[i]] == doc) {
+                        int tf = postings.frequencies[cursors[i]++];
+                        score += weights[i] * tf * (k1 + 1) / (tf + norm);
+                    }
+                }
+                if (tombstones.get(doc)
+                        || (inStockOnly && quantities[doc] <= 0)
+                        || (categoryId != null && Arrays.binarySearch(categories[doc], categoryId) < 0)) {
+                    continue;
+                }
+                top.offer(new Hit(productIds[doc], score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(worstFirst.reversed());
+            return hits;
+        }
+    }
+
+    private static final class StoreTerms {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private int liveCount;
+        private long totalLength;
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private int retain(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
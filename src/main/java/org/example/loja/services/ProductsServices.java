@@ -1,22 +1,59 @@
 package org.example.loja.services;
 
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.FacetCounts;
+import org.example.loja.dto.FacetFilter;
 import org.example.loja.dto.ProductDTO;
+import org.example.loja.dto.ProductDocument;
+import org.example.loja.dto.ProductSearchHit;
+import org.example.loja.dto.ProductSnapshot;
+import org.example.loja.dto.ProductSummaryDTO;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockBatchResult;
+import org.example.loja.dto.StockChangeDTO;
+import org.example.loja.entities.CategoryEntity;
 import org.example.loja.entities.ImageEntity;
 import org.example.loja.entities.ProductEntity;
-import org.example.loja.repository.CategoryRepository;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.enums.ProductSort;
+import org.example.loja.enums.StockBatchMode;
 import org.example.loja.repository.ImageRepository;
+import org.example.loja.repository.ProductSearchJdbcRepository;
+import org.example.loja.repository.ProductStockJdbcRepository;
 import org.example.loja.repository.ProductsRepository;
 import org.example.loja.repository.StoreRepository;
+import org.example.loja.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductsServices {
+    private static final Logger logger = LoggerFactory.getLogger(ProductsServices.class);
+
     @Autowired
     private ProductsRepository productsRepository;
 
@@ -24,38 +61,421 @@ public class ProductsServices {
     private StoreRepository storeRepository;
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private ReferenceDataCache referenceDataCache;
 
     @Autowired
     private ImageRepository imageRepository;
 
+    @Autowired
+    private ProductStockJdbcRepository productStockJdbcRepository;
+
+    @Autowired
+    private HotStockCounter hotStockCounter;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSearchJdbcRepository productSearchJdbcRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Value("${products.page.default-size:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${products.page.max-size:100}")
+    private int maxPageSize = 100;
+
+    @Value("${products.stock.batch.max-size:1000}")
+    private int maxStockBatchSize = 1000;
+
+    @Value("${products.search.rebuild.chunk-size:10000}")
+    private int searchRebuildChunkSize = 10000;
+
+    /**
+     * First page of every product by id, at most {@code products.page.max-size} of them; kept
+     * for the deprecated GraphQL {@code products} field, which used to load the whole table.
+     * The cap is stated in the field's deprecation reason.
+     */
     public List<ProductEntity> getAllProducts(){
-        return productsRepository.findAll();
+        return getProductsPage(null, maxPageSize, ProductSort.ID).items();
+    }
+
+    /**
+     * Keyset-paginated listing of every product.
+     *
+     * @param after cursor returned with the previous page, {@code null} for the first page
+     * @param first page size, capped at {@code products.page.max-size}
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort
+     */
+    public CursorPage<ProductEntity> getProductsPage(String after, Integer first, ProductSort sort) {
+        return page(after, first, sort, (cursor, limit) -> switch (sort) {
+            case ID -> productsRepository.findPageById(afterId(cursor, sort), limit);
+            case PRICE -> productsRepository.findPageByPrice(priceKey(cursor, sort), afterId(cursor, sort), limit);
+            case PRICE_DESC -> productsRepository.findPageByPriceDesc(priceKey(cursor, sort), afterId(cursor, sort), limit);
+            case NAME -> productsRepository.findPageByName(nameKey(cursor), afterId(cursor, sort), limit);
+        }, product -> cursorOf(product, sort));
+    }
+
+    /**
+     * Keyset-paginated catalog of one store. Each page is a single statement returning
+     * {@link ProductSummaryDTO} rows.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort
+     */
+    public CursorPage<ProductSummaryDTO> getStoreProductsPage(Long storeId, String after, Integer first, ProductSort sort) {
+        return page(after, first, sort, (cursor, limit) -> switch (sort) {
+            case ID -> productsRepository.findStorePageById(storeId, afterId(cursor, sort), limit);
+            case PRICE -> productsRepository.findStorePageByPrice(storeId, priceKey(cursor, sort), afterId(cursor, sort), limit);
+            case PRICE_DESC -> productsRepository.findStorePageByPriceDesc(storeId, priceKey(cursor, sort), afterId(cursor, sort), limit);
+            case NAME -> productsRepository.findStorePageByName(storeId, nameKey(cursor), afterId(cursor, sort), limit);
+        }, product -> cursor(sort, product.price(), product.name(), product.id()));
+    }
+
+    /** Cursor pointing right after {@code product} in the given ordering. */
+    public String cursorOf(ProductEntity product, ProductSort sort) {
+        return cursor(sort, product.getPrice(), product.getName(), product.getId());
+    }
+
+    private <T> CursorPage<T> page(String after, Integer first, ProductSort sort,
+                                   BiFunction<KeysetCursor, Pageable, List<T>> query,
+                                   Function<T, String> cursorOf) {
+        int size = first == null ? defaultPageSize : first;
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        size = Math.min(size, maxPageSize);
+        KeysetCursor cursor = after == null || after.isBlank() ? null : KeysetCursor.decode(after, sort);
+
+        // One extra row tells whether there is a next page without a COUNT query.
+        List<T> rows = query.apply(cursor, PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<T> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasNext);
+    }
+
+    private static String cursor(ProductSort sort, Double price, String name, Long id) {
+        String key = switch (sort) {
+            case ID -> "";
+            case PRICE, PRICE_DESC -> price == null ? null : String.valueOf(price);
+            case NAME -> name;
+        };
+        return new KeysetCursor(sort, key, id).encode();
+    }
+
+    // First-page bounds sit before every real row in the requested direction. Ascending
+    // pages start inside the NULL keys, which sort first; descending pages end with them.
+
+    private static long afterId(KeysetCursor cursor, ProductSort sort) {
+        if (cursor == null) {
+            return sort == ProductSort.PRICE_DESC ? Long.MAX_VALUE : 0;
+        }
+        return cursor.id();
+    }
+
+    private static Double priceKey(KeysetCursor cursor, ProductSort sort) {
+        if (cursor == null) {
+            return sort == ProductSort.PRICE_DESC ? Double.MAX_VALUE : null;
+        }
+        if (cursor.key() == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(cursor.key());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String nameKey(KeysetCursor cursor) {
+        return cursor == null ? null : cursor.key();
+    }
+
+    /**
+     * Full-text search over the store's products, ranked by {@link ProductSearchIndex}. The
+     * hits are loaded with one catalog query and returned in rank order.
+     *
+     * @param categoryId only products in this category, or {@code null}
+     * @param limit number of hits, capped at {@code products.page.max-size}
+     * @throws IllegalArgumentException if the query is blank or the limit not positive
+     */
+    public List<ProductSearchHit> searchProducts(long storeId, String query, Long categoryId, boolean inStockOnly, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int size = limit == null ? defaultPageSize : limit;
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        List<ProductSearchIndex.Hit> hits = productSearchIndex.search(storeId, query, categoryId, inStockOnly, Math.min(size, maxPageSize));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductSummaryDTO> products = productsRepository.findStoreSummaries(storeId,
+                        hits.stream().map(ProductSearchIndex.Hit::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::id, Function.identity()));
+        // A product deleted since it was indexed is skipped.
+        return hits.stream()
+                .filter(hit -> products.containsKey(hit.productId()))
+                .map(hit -> new ProductSearchHit(products.get(hit.productId()), hit.score()))
+                .toList();
+    }
+
+    /**
+     * Facet counts of the store's catalog under {@code filter}. Each facet is counted with
+     * the other facets' filters applied but not its own, so selected values keep showing
+     * their alternatives.
+     *
+     * @throws IllegalArgumentException for an unknown price band
+     */
+    public FacetCounts getFacetCounts(long storeId, FacetFilter filter) {
+        return productFacetIndex.count(storeId, filter);
+    }
+
+    /**
+     * Keyset-paginated products of the store matching every facet in {@code filter}, by id.
+     * The ids come from {@link ProductFacetIndex}; the page is loaded with one catalog query.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or a price band unknown
+     */
+    public CursorPage<ProductSummaryDTO> filterProducts(long storeId, FacetFilter filter, String after, Integer first) {
+        return page(after, first, ProductSort.ID, (cursor, limit) -> {
+            List<Long> ids = productFacetIndex.filter(storeId, filter, afterId(cursor, ProductSort.ID), limit.getPageSize());
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            // A product deleted since it was indexed is skipped.
+            return productsRepository.findStoreSummaries(storeId, ids).stream()
+                    .sorted(Comparator.comparing(ProductSummaryDTO::id))
+                    .toList();
+        }, product -> cursor(ProductSort.ID, product.price(), product.name(), product.id()));
+    }
+
+    /**
+     * Loads the search and facet indexes once the application is up, from a single pass over
+     * the catalog.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        long start = System.nanoTime();
+        int indexed = productFacetIndex.rebuild(facets -> productSearchIndex.rebuild(
+                search -> productSearchJdbcRepository.forEachDocument(searchRebuildChunkSize, document -> {
+                    search.accept(document);
+                    facets.accept(document);
+                })));
+        logger.info("Indexed {} products for search in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static ProductDocument searchDocument(Long id, ProductEntity product) {
+        return new ProductDocument(id, product.getStore().getId(), product.getName(), product.getDescription(),
+                product.getBrand(), product.getPrice(), product.getQuantity() == null ? 0 : product.getQuantity(),
+                product.getCategories().stream().map(CategoryEntity::getId).filter(Objects::nonNull).collect(Collectors.toSet()));
     }
 
     public boolean deleteProduct(Long id){
         int affectedRows = productsRepository.deleteProductEntitiesById(id);
+        if (affectedRows > 0) {
+            productSearchIndex.remove(id);
+            productFacetIndex.remove(id);
+            productCache.evict(id);
+        }
         return affectedRows > 0;
     }
 
-    public ProductEntity getProductById(Long id){
-        return productsRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid Product"));
+    /**
+     * The product as an immutable snapshot, served from {@link ProductCache}. Hot products
+     * are always read from the database: every sale would evict them anyway.
+     */
+    public ProductSnapshot getProductById(Long id){
+        if (id == null) {
+            throw new IllegalArgumentException("Invalid Product");
+        }
+        Optional<ProductSnapshot> product = hotStockCounter.isHot(id) ? productCache.load(id) : productCache.get(id);
+        return product.orElseThrow(() -> new IllegalArgumentException("Invalid Product"));
+    }
+
+    /** The product's current version, read by primary key without loading the product. */
+    public Optional<Long> getProductVersion(long storeId, long productId) {
+        return productsRepository.findVersion(storeId, productId);
     }
 
-    public int updateProductQuantity(Long productId, int quantityChange) {
-        ProductEntity product = productsRepository.findById(productId).orElseThrow(() -> new IllegalArgumentException("Invalid Product"));
-        int newQuantity = product.getQuantity() + quantityChange;
+    /**
+     * Adds {@code quantityChange} to the product's stock in one conditional UPDATE, so
+     * concurrent sales cannot lose updates or oversell. The resulting stock is read back in
+     * the same transaction, while the UPDATE still holds the row lock. Decrements cannot take
+     * units on hold in {@link StockReservationService}. Products in {@link HotStockCounter}
+     * are adjusted in memory and written behind instead. Applied changes are recorded in the
+     * {@link InventoryJournal} as an {@link MovementReason#ADJUSTMENT}.
+     */
+    @Transactional
+    public StockAdjustment updateProductQuantity(long storeId, long productId, int quantityChange) {
+        return updateProductQuantity(storeId, productId, quantityChange, MovementReason.ADJUSTMENT);
+    }
 
-        if (newQuantity < 0) {
-            throw new IllegalArgumentException("Resulting product quantity cannot be less than zero");
+    /** Same as {@link #updateProductQuantity(long, long, int)}, journaled with the given reason. */
+    @Transactional
+    public StockAdjustment updateProductQuantity(long storeId, long productId, int quantityChange, MovementReason reason) {
+        // Decided once, so a product promoted mid-call is not adjusted one way and journaled the other.
+        boolean hot = hotStockCounter.isHot(productId);
+        StockAdjustment adjustment = adjustQuantity(storeId, productId, quantityChange, hot);
+        if (adjustment.status() == StockAdjustment.Status.APPLIED) {
+            if (hot) {
+                inventoryJournal.recordAfterCommit(storeId, productId, quantityChange, reason);
+            } else {
+                inventoryJournal.record(storeId, productId, quantityChange, reason);
+            }
+            productSearchIndex.updateQuantity(productId, adjustment.quantity());
+            productFacetIndex.updateQuantity(productId, adjustment.quantity());
+            productCache.evict(productId);
         }
-        product.setQuantity(newQuantity);
-        productsRepository.save(product);
+        return adjustment;
+    }
 
-        return product.getQuantity();
+    private StockAdjustment adjustQuantity(long storeId, long productId, int quantityChange, boolean hot) {
+        if (hot) {
+            return hotStockCounter.adjust(storeId, productId, quantityChange);
+        }
+        // The held total is only read under the row lock, see StockReservationService.reserve.
+        // The locked read also gives the stock the UPDATE starts from, so no SELECT follows it.
+        Optional<Integer> stock = productsRepository.lockQuantity(storeId, productId);
+        if (stock.isEmpty()) {
+            return StockAdjustment.notFound();
+        }
+        long floor = quantityChange < 0 ? stockReservationService.heldQuantity(productId) : 0;
+        return productsRepository.adjustQuantity(storeId, productId, quantityChange, floor) == 1
+                ? StockAdjustment.applied(stock.get() + quantityChange)
+                : StockAdjustment.insufficientStock((int) Math.max(0, stock.get() - floor));
+    }
+
+    /**
+     * Applies many stock changes in one transaction and one JDBC batch. Changes are executed
+     * in product id order, so concurrent batches lock rows in the same order and cannot
+     * deadlock each other; results are returned in request order.
+     *
+     * @throws IllegalArgumentException if the batch is empty, too large or has incomplete items
+     */
+    @Transactional
+    public StockBatchResult updateProductQuantities(long storeId, List<StockChangeDTO> changes, StockBatchMode mode) {
+        return updateProductQuantities(storeId, changes, mode, MovementReason.ADJUSTMENT);
     }
+
+    /**
+     * Same as {@link #updateProductQuantities(long, List, StockBatchMode)}; every applied
+     * change is journaled with the given reason in the same transaction.
+     */
+    @Transactional
+    public StockBatchResult updateProductQuantities(long storeId, List<StockChangeDTO> changes, StockBatchMode mode,
+                                                    MovementReason reason) {
+        if (changes == null || changes.isEmpty()) {
+            throw new IllegalArgumentException("No stock changes provided");
+        }
+        if (changes.size() > maxStockBatchSize) {
+            throw new IllegalArgumentException("At most " + maxStockBatchSize + " stock changes per batch");
+        }
+        if (changes.stream().anyMatch(change -> change == null || change.getProductId() == null || change.getDelta() == null)) {
+            throw new IllegalArgumentException("Every stock change needs a productId and a delta");
+        }
+
+        Integer[] order = new Integer[changes.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> changes.get(i).getProductId()));
+        List<StockChangeDTO> sorted = Arrays.stream(order).map(changes::get).toList();
+
+        // Hot products live in HotStockCounter: they are reserved there once the database part
+        // has run, and released with a refused batch or committed once the transaction has.
+        // The split is taken once and reused below, so every change is handled on one path.
+        boolean[] hot = new boolean[sorted.size()];
+        List<StockChangeDTO> regular = new ArrayList<>(sorted.size());
+        for (int i = 0; i < hot.length; i++) {
+            hot[i] = hotStockCounter.isHot(sorted.get(i).getProductId());
+            if (!hot[i]) {
+                regular.add(sorted.get(i));
+            }
+        }
+        // Lock the rows before the floors are read, see StockReservationService.reserve.
+        if (regular.stream().anyMatch(change -> change.getDelta() < 0)) {
+            productStockJdbcRepository.lockQuantities(storeId,
+                    regular.stream().map(StockChangeDTO::getProductId).collect(Collectors.toCollection(TreeSet::new)));
+        }
+        int[] counts = regular.isEmpty() ? new int[0] : productStockJdbcRepository.adjustQuantities(storeId, regular,
+                change -> change.getDelta() < 0 ? stockReservationService.heldQuantity(change.getProductId()) : 0);
+        Map<Long, Integer> quantities = regular.isEmpty() ? Map.of() : productStockJdbcRepository.findQuantities(storeId,
+                regular.stream().map(StockChangeDTO::getProductId).collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        StockBatchResult.Status[] statuses = new StockBatchResult.Status[sorted.size()];
+        HotStockCounter.Reservation[] reservations = new HotStockCounter.Reservation[sorted.size()];
+        int next = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            StockChangeDTO change = sorted.get(i);
+            if (hot[i]) {
+                reservations[i] = hotStockCounter.reserve(storeId, change.getProductId(), change.getDelta());
+                statuses[i] = StockBatchResult.Status.valueOf(reservations[i].status().name());
+            } else if (!quantities.containsKey(change.getProductId())) {
+                statuses[i] = StockBatchResult.Status.NOT_FOUND;
+                next++;
+            } else {
+                statuses[i] = counts[next++] == 0 ? StockBatchResult.Status.INSUFFICIENT_STOCK : StockBatchResult.Status.APPLIED;
+            }
+        }
+
+        boolean refused = Arrays.stream(statuses).anyMatch(status -> status != StockBatchResult.Status.APPLIED);
+        boolean rollback = refused && mode == StockBatchMode.ALL_OR_NOTHING;
+        StockBatchResult.Item[] items = new StockBatchResult.Item[changes.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            StockChangeDTO change = sorted.get(i);
+            StockBatchResult.Status status = statuses[i];
+            if (rollback && status == StockBatchResult.Status.APPLIED) {
+                status = StockBatchResult.Status.ROLLED_BACK;
+            }
+            Integer quantity = quantities.get(change.getProductId());
+            if (reservations[i] != null) {
+                if (status == StockBatchResult.Status.APPLIED) {
+                    reservations[i].commitWithTransaction();
+                } else {
+                    reservations[i].release();
+                }
+                quantity = reservations[i].result().quantity();
+            }
+            items[order[i]] = new StockBatchResult.Item(change.getProductId(), change.getDelta(), status,
+                    status == StockBatchResult.Status.ROLLED_BACK ? null : quantity);
+            if (status == StockBatchResult.Status.APPLIED) {
+                if (reservations[i] != null) {
+                    inventoryJournal.recordAfterCommit(storeId, change.getProductId(), change.getDelta(), reason);
+                } else {
+                    inventoryJournal.record(storeId, change.getProductId(), change.getDelta(), reason);
+                }
+                productSearchIndex.updateQuantity(change.getProductId(), quantity);
+                productFacetIndex.updateQuantity(change.getProductId(), quantity);
+                productCache.evict(change.getProductId());
+            }
+        }
+
+        if (rollback) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return new StockBatchResult(!rollback, List.of(items));
+    }
+
     public List<ProductEntity> getProductsByCategories(String category){
-        return productsRepository.findAllByCategories_Name(category);
+        // The name is resolved from the cache, which remembers unknown names as well, so the
+        // query needs no join to categories and an unknown name costs no query.
+        return referenceDataCache.categoryIdOf(category)
+                .map(productsRepository::findAllByCategories_Id)
+                .orElse(List.of());
     }
     public ProductEntity createProduct(ProductDTO productDTO){
         ProductEntity product = new ProductEntity();
@@ -72,15 +492,41 @@ public class ProductsServices {
                         })
                 ).collect(Collectors.toSet());
             product.setStore(storeRepository.findById(productDTO.getStoreId()).orElseThrow(() -> new IllegalArgumentException("Invalid Store")));
-        product.setCategories(new HashSet<>(categoryRepository.findAllById(productDTO.getCategories())));
+        product.setCategories(new HashSet<>(referenceDataCache.getCategories(productDTO.getCategories())));
 
         validateProduct(product);
-        return productsRepository.save(product);
+        ProductEntity saved = productsRepository.save(product);
+        inventoryJournal.record(product.getStore().getId(), saved.getId(), product.getQuantity(), MovementReason.OPENING);
+        ProductDocument document = searchDocument(saved.getId(), product);
+        productSearchIndex.index(document);
+        productFacetIndex.index(document);
+        return saved;
     }
 
+    @Transactional
     public boolean updateProduct(ProductEntity product){
         validateProduct(product);
+        // A full update overwrites the stock; the difference goes to the journal.
+        Optional<Integer> previous = product.getId() == null ? Optional.empty()
+                : productsRepository.findQuantity(product.getStore().getId(), product.getId());
+        // Without a version the request overwrites whatever is stored, as before versioning;
+        // with one, a stale version fails with an optimistic locking conflict.
+        if (product.getId() != null && product.getVersion() == null) {
+            productsRepository.findVersion(product.getStore().getId(), product.getId()).ifPresent(product::setVersion);
+        }
         productsRepository.save(product);
+        previous.ifPresent(quantity -> inventoryJournal.record(product.getStore().getId(), product.getId(),
+                product.getQuantity() - quantity, MovementReason.ADJUSTMENT));
+        if (product.getId() != null && hotStockCounter.isHot(product.getId())) {
+            // The in-memory stock still sells the old quantity.
+            hotStockCounter.reload(product.getId());
+        }
+        if (product.getId() != null) {
+            ProductDocument document = searchDocument(product.getId(), product);
+            productSearchIndex.index(document);
+            productFacetIndex.index(document);
+            productCache.evict(product.getId());
+        }
         return true;
     }
     public void validateProduct(ProductEntity product) throws IllegalArgumentException{
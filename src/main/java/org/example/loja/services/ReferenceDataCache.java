@@ -0,0 +1,212 @@
+package org.example.loja.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.loja.entities.CategoryEntity;
+import org.example.loja.entities.PermissionEntity;
+import org.example.loja.entities.RoleEntity;
+import org.example.loja.repository.CategoryRepository;
+import org.example.loja.repository.PermissionRepository;
+import org.example.loja.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of the reference data that almost never changes: categories, roles and
+ * permissions, by id and by name. Everything is preloaded once the application is up and a
+ * miss reads the row and keeps it; a name that matches no row is remembered as missing too.
+ * <p>
+ * Writes made by this application evict what they touch ({@link #evictPermission} and
+ * friends); rows changed behind its back, including rows created under a name cached as
+ * missing, are reread after {@code reference.cache.ttl-seconds}. Entities are handed out
+ * detached and shared, so callers must not modify them. Hit rates are published under
+ * {@code reference.categories}, {@code reference.roles} and {@code reference.permissions}.
+ * <p>
+ * Logins read only the role ids of the account and take the roles from here, see
+ * {@link UserDetailsService}.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final CategoryRepository categoryRepository;
+
+    private final RoleRepository roleRepository;
+
+    private final PermissionRepository permissionRepository;
+
+    private final Table<CategoryEntity> categories;
+
+    private final Table<RoleEntity> roles;
+
+    private final Table<PermissionEntity> permissions;
+
+    public ReferenceDataCache(CategoryRepository categoryRepository,
+                              RoleRepository roleRepository,
+                              PermissionRepository permissionRepository,
+                              @Value("${reference.cache.ttl-seconds:600}") long ttlSeconds,
+                              @Value("${reference.cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.roleRepository = roleRepository;
+        this.permissionRepository = permissionRepository;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.categories = new Table<>("reference.categories", CategoryEntity::getId, CategoryEntity::getName, ttl, maxSize, meterRegistry);
+        this.roles = new Table<>("reference.roles", RoleEntity::getId, RoleEntity::getName, ttl, maxSize, meterRegistry);
+        this.permissions = new Table<>("reference.permissions", PermissionEntity::getId, PermissionEntity::getName, ttl, maxSize, meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        categories.all(categoryRepository::findAll);
+        roles.all(roleRepository::findAll);
+        permissions.all(permissionRepository::findAll);
+        logger.info("Preloaded {} categories, {} roles and {} permissions",
+                categories.byId.estimatedSize(), roles.byId.estimatedSize(), permissions.byId.estimatedSize());
+    }
+
+    /** The categories with these ids; unknown ids are left out. */
+    public List<CategoryEntity> getCategories(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return categories.get(ids, categoryRepository::findAllById);
+    }
+
+    public Optional<Long> categoryIdOf(String name) {
+        return categories.idOf(name, categoryRepository::findByName);
+    }
+
+    /** The roles with these ids; unknown ids are left out. */
+    public List<RoleEntity> getRoles(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return roles.get(ids, roleRepository::findAllById);
+    }
+
+    public Optional<RoleEntity> getRole(long id) {
+        return roles.get(id, roleRepository::findById);
+    }
+
+    public Optional<Long> roleIdOf(String name) {
+        return roles.idOf(name, roleRepository::findFirstByName);
+    }
+
+    public List<PermissionEntity> getPermissions() {
+        return permissions.all(permissionRepository::findAll);
+    }
+
+    public Optional<PermissionEntity> getPermission(long id) {
+        return permissions.get(id, permissionRepository::findById);
+    }
+
+    public void evictCategory(long id) {
+        categories.evict(id);
+    }
+
+    public void evictRole(long id) {
+        roles.evict(id);
+    }
+
+    public void evictPermission(long id) {
+        permissions.evict(id);
+    }
+
+    public void evictAll() {
+        categories.evictAll();
+        roles.evictAll();
+        permissions.evictAll();
+    }
+
+    private static final class Table<E> {
+
+        private final Function<E, Long> idOf;
+        private final Function<E, String> nameOf;
+        private final Cache<Long, E> byId;
+        // Empty for a name that matched no row, so unknown names do not query every time.
+        private final Cache<String, Optional<Long>> idsByName;
+        // The full table, as last listed; dropped with any eviction.
+        private final Cache<Boolean, List<E>> all;
+
+        private Table(String name, Function<E, Long> idOf, Function<E, String> nameOf,
+                      Duration ttl, long maxSize, MeterRegistry meterRegistry) {
+            this.idOf = idOf;
+            this.nameOf = nameOf;
+            this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+            this.idsByName = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+            this.all = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+            CaffeineCacheMetrics.monitor(meterRegistry, byId, name);
+            CaffeineCacheMetrics.monitor(meterRegistry, idsByName, name + ".names");
+        }
+
+        private Optional<E> get(long id, Function<Long, Optional<E>> loader) {
+            return Optional.ofNullable(byId.get(id, key -> loader.apply(key).map(this::indexName).orElse(null)));
+        }
+
+        private List<E> get(Collection<Long> ids, Function<Set<Long>, List<E>> loader) {
+            Map<Long, E> found = byId.getAll(ids, missing -> loader.apply(Set.copyOf(missing)).stream()
+                    .map(this::indexName)
+                    .collect(Collectors.toMap(idOf, Function.identity())));
+            return List.copyOf(found.values());
+        }
+
+        private Optional<Long> idOf(String name, Function<String, Optional<E>> loader) {
+            if (name == null) {
+                return Optional.empty();
+            }
+            return idsByName.get(name, key -> loader.apply(key).map(entity -> {
+                byId.put(idOf.apply(entity), entity);
+                return idOf.apply(entity);
+            }));
+        }
+
+        private List<E> all(Supplier<List<E>> loader) {
+            return all.get(Boolean.TRUE, key -> {
+                List<E> rows = List.copyOf(loader.get());
+                rows.forEach(entity -> byId.put(idOf.apply(entity), indexName(entity)));
+                return rows;
+            });
+        }
+
+        private E indexName(E entity) {
+            String name = nameOf.apply(entity);
+            if (name != null) {
+                idsByName.put(name, Optional.of(idOf.apply(entity)));
+            }
+            return entity;
+        }
+
+        private void evict(long id) {
+            E entity = byId.getIfPresent(id);
+            if (entity != null && nameOf.apply(entity) != null) {
+                idsByName.invalidate(nameOf.apply(entity));
+            }
+            byId.invalidate(id);
+            all.invalidateAll();
+        }
+
+        private void evictAll() {
+            byId.invalidateAll();
+            idsByName.invalidateAll();
+            all.invalidateAll();
+        }
+    }
+}
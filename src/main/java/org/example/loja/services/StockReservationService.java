@@ -0,0 +1,301 @@
+package org.example.loja.services;
+
+import jakarta.annotation.PostConstruct;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockReservationResult;
+import org.example.loja.entities.StockReservationEntity;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.repository.ProductsRepository;
+import org.example.loja.repository.StockReservationRepository;
+import org.example.loja.util.HashedTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Time-bounded stock holds for carts and checkouts. A hold does not touch
+ * {@code products.quantity}; it is added to an in-memory per-product total, and the
+ * available stock is {@code quantity - held}. Direct sales and batches use that total as
+ * their floor, so they cannot take units that are on hold. A reservation grows the total
+ * and a sale reads it only while holding the product's row lock
+ * ({@link ProductsRepository#lockQuantity}), so a sale never runs on a floor that misses a
+ * reservation granted in the meantime, and a reservation never counts stock that a sale
+ * has taken but not committed yet.
+ * <p>
+ * Expiry runs on a {@link HashedTimingWheel} advanced every
+ * {@code stock.reservations.tick-ms}, so each hold costs O(1) to schedule, cancel or expire
+ * and nothing scans the table. Holds are written through to {@code stock_reservations} and
+ * reloaded at startup. The index lives in this instance only, so every reservation of a
+ * product must be served by the same node.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final StockReservationRepository reservationRepository;
+
+    private final ProductsRepository productsRepository;
+
+    private final HotStockCounter hotStockCounter;
+
+    private final InventoryJournal inventoryJournal;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final ProductFacetIndex productFacetIndex;
+
+    private final ProductCache productCache;
+
+    private final long defaultTtlMillis;
+
+    private final long maxTtlMillis;
+
+    private final HashedTimingWheel<UUID> wheel;
+
+    private final Map<UUID, Hold> holds = new ConcurrentHashMap<>();
+
+    private final Map<Long, AtomicLong> heldByProduct = new ConcurrentHashMap<>();
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   ProductsRepository productsRepository,
+                                   HotStockCounter hotStockCounter,
+                                   InventoryJournal inventoryJournal,
+                                   ProductSearchIndex productSearchIndex,
+                                   ProductFacetIndex productFacetIndex,
+                                   ProductCache productCache,
+                                   @Value("${stock.reservations.ttl-seconds:900}") long defaultTtlSeconds,
+                                   @Value("${stock.reservations.max-ttl-seconds:3600}") long maxTtlSeconds,
+                                   @Value("${stock.reservations.tick-ms:100}") long tickMillis,
+                                   @Value("${stock.reservations.wheel-size:4096}") int wheelSize) {
+        this.reservationRepository = reservationRepository;
+        this.productsRepository = productsRepository;
+        this.hotStockCounter = hotStockCounter;
+        this.inventoryJournal = inventoryJournal;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.productCache = productCache;
+        this.defaultTtlMillis = defaultTtlSeconds * 1000;
+        this.maxTtlMillis = maxTtlSeconds * 1000;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void load() {
+        long now = System.currentTimeMillis();
+        int purged = reservationRepository.deleteExpired(now);
+        for (StockReservationEntity entity : reservationRepository.findAllByExpiresAtGreaterThan(now)) {
+            index(entity.getId(), entity.getStoreId(), entity.getProductId(), entity.getQuantity(), entity.getExpiresAt());
+        }
+        logger.info("Loaded {} stock reservations, purged {} expired", holds.size(), purged);
+    }
+
+    /** Units of the product currently on hold. */
+    public long heldQuantity(long productId) {
+        AtomicLong held = heldByProduct.get(productId);
+        return held == null ? 0 : held.get();
+    }
+
+    /**
+     * Holds {@code quantity} units for {@code ttlSeconds} (the configured default when
+     * {@code null}, capped at {@code stock.reservations.max-ttl-seconds}).
+     *
+     * @throws IllegalArgumentException for a non-positive quantity or TTL, or a hot product
+     */
+    @Transactional
+    public StockReservationResult reserve(long storeId, long productId, int quantity, Long ttlSeconds) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be positive");
+        }
+        if (ttlSeconds != null && ttlSeconds <= 0) {
+            throw new IllegalArgumentException("Reservation TTL must be positive");
+        }
+        if (hotStockCounter.isHot(productId)) {
+            throw new IllegalArgumentException("Reservations are not available for hot products");
+        }
+        Optional<Integer> stock = productsRepository.lockQuantity(storeId, productId);
+        if (stock.isEmpty()) {
+            return StockReservationResult.notFound();
+        }
+
+        AtomicLong held = heldByProduct.computeIfAbsent(productId, id -> new AtomicLong());
+        long current;
+        do {
+            current = held.get();
+            if (current + quantity > stock.get()) {
+                return StockReservationResult.insufficientStock((int) Math.max(0, stock.get() - current));
+            }
+        } while (!held.compareAndSet(current, current + quantity));
+
+        UUID id = UUID.randomUUID();
+        long ttlMillis = ttlSeconds == null ? defaultTtlMillis : Math.min(ttlSeconds * 1000, maxTtlMillis);
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        try {
+            reservationRepository.save(new StockReservationEntity(id, productId, storeId, quantity, expiresAt));
+        } catch (RuntimeException e) {
+            held.addAndGet(-quantity);
+            throw e;
+        }
+        track(id, storeId, productId, quantity, expiresAt);
+        // The hold counts from now on, so sales waiting for the row lock see it; a rolled back
+        // reservation takes it out again.
+        afterCompletion(committed -> {
+            if (!committed) {
+                forget(id);
+            }
+        });
+        return StockReservationResult.reserved(id, expiresAt, (int) (stock.get() - current - quantity));
+    }
+
+    /**
+     * Turns the hold into a sale: its units are taken from {@code products.quantity} with the
+     * conditional UPDATE and the hold is deleted, in one transaction. The units stay counted
+     * as held until the transaction has committed, so a concurrent sale cannot take them in
+     * between. If the UPDATE is refused or the transaction rolls back, the hold is kept.
+     * The sale is journaled as a {@link MovementReason#RESERVATION}.
+     */
+    @Transactional
+    public StockAdjustment confirm(long storeId, UUID reservationId) {
+        Hold found = holds.get(reservationId);
+        if (found == null || found.storeId() != storeId) {
+            return StockAdjustment.notFound();
+        }
+        Optional<Integer> stock = productsRepository.lockQuantity(storeId, found.productId());
+        // Claimed under the row lock, so a second confirmation of the same hold waits and
+        // then finds it gone.
+        Hold hold = claim(storeId, reservationId);
+        if (hold == null) {
+            return StockAdjustment.notFound();
+        }
+        boolean confirmed = false;
+        try {
+            if (stock.isEmpty()) {
+                return StockAdjustment.notFound();
+            }
+            long floor = heldQuantity(hold.productId()) - hold.quantity();
+            if (productsRepository.adjustQuantity(storeId, hold.productId(), -hold.quantity(), floor) == 0) {
+                logger.warn("Stock of productId={} changed under reservation {}, confirmation refused", hold.productId(), reservationId);
+                return StockAdjustment.insufficientStock((int) Math.max(0, stock.get() - floor));
+            }
+            reservationRepository.deleteById(reservationId);
+            confirmed = true;
+        } finally {
+            settle(hold, confirmed);
+        }
+        int quantity = stock.get() - hold.quantity();
+        inventoryJournal.record(storeId, hold.productId(), -hold.quantity(), MovementReason.RESERVATION);
+        productSearchIndex.updateQuantity(hold.productId(), quantity);
+        productFacetIndex.updateQuantity(hold.productId(), quantity);
+        productCache.evict(hold.productId());
+        return StockAdjustment.applied(quantity);
+    }
+
+    /** @return {@code false} if the hold does not exist, already expired or belongs to another store */
+    public boolean release(long storeId, UUID reservationId) {
+        Hold hold = claim(storeId, reservationId);
+        if (hold == null) {
+            return false;
+        }
+        unhold(hold);
+        reservationRepository.deleteById(reservationId);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservations.tick-ms:100}")
+    public void expireDue() {
+        expireDue(System.currentTimeMillis());
+    }
+
+    void expireDue(long now) {
+        List<UUID> expired = new ArrayList<>();
+        for (UUID id : wheel.advance(now)) {
+            Hold hold = holds.remove(id);
+            if (hold != null) {
+                unhold(hold);
+                expired.add(id);
+            }
+        }
+        if (!expired.isEmpty()) {
+            reservationRepository.deleteAllByIdInBatch(expired);
+            logger.debug("Expired {} stock reservations", expired.size());
+        }
+    }
+
+    // Takes the hold out of the index and the wheel; its units stay held until unhold().
+    private Hold claim(long storeId, UUID reservationId) {
+        Hold hold = holds.get(reservationId);
+        if (hold == null || hold.storeId() != storeId || !holds.remove(reservationId, hold)) {
+            return null;
+        }
+        wheel.cancel(hold.timeout());
+        return hold;
+    }
+
+    private void unhold(Hold hold) {
+        heldByProduct.get(hold.productId()).addAndGet(-hold.quantity());
+    }
+
+    // A confirmed hold stops counting once the sale has committed; otherwise it goes back
+    // into the index with its original deadline.
+    private void settle(Hold hold, boolean confirmed) {
+        afterCompletion(committed -> {
+            if (confirmed && committed) {
+                unhold(hold);
+            } else {
+                track(hold.timeout().item(), hold.storeId(), hold.productId(), hold.quantity(), hold.timeout().deadlineMillis());
+            }
+        });
+    }
+
+    private void forget(UUID id) {
+        Hold hold = holds.remove(id);
+        if (hold != null) {
+            wheel.cancel(hold.timeout());
+            unhold(hold);
+        }
+    }
+
+    // Runs once the surrounding transaction has ended, right away (as committed) without one.
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void index(UUID id, long storeId, long productId, int quantity, long expiresAt) {
+        heldByProduct.computeIfAbsent(productId, key -> new AtomicLong()).addAndGet(quantity);
+        track(id, storeId, productId, quantity, expiresAt);
+    }
+
+    // Scheduling and publishing under the wheel's lock keeps advance() from firing the
+    // timeout before the hold is in the map, where the expiry would miss it.
+    private void track(UUID id, long storeId, long productId, int quantity, long expiresAt) {
+        synchronized (wheel) {
+            holds.put(id, new Hold(storeId, productId, quantity, wheel.schedule(id, expiresAt)));
+        }
+    }
+
+    private record Hold(long storeId, long productId, int quantity, HashedTimingWheel.Timeout<UUID> timeout) {
+    }
+}
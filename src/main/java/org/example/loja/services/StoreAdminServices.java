@@ -1,9 +1,9 @@
 package org.example.loja.services;
 
 import org.apache.catalina.Store;
+import org.example.loja.config.security.PrincipalCache;
 import org.example.loja.entities.StoreAdminEntity;
 import org.example.loja.repository.StoreAdminRepository;
-import org.example.loja.util.Authorization;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +19,12 @@ public class StoreAdminServices {
     @Autowired
     AdminLogsService adminLogsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     // Renamed method for clarity and purpose
     public  List<StoreAdminEntity> getAllStoreAdmins() {
         return storeAdminRepository.findAll();
@@ -28,7 +34,7 @@ public class StoreAdminServices {
     public UUID saveStoreAdmin(StoreAdminEntity storeAdminEntity, double lat, double lon) throws IllegalArgumentException{
         validateStoreAdmin(storeAdminEntity);
         storeAdminEntity.setActive(false);
-        storeAdminEntity.setPassword(Authorization.hashPassword(storeAdminEntity.getPassword()));
+        storeAdminEntity.setPassword(passwordHashingService.hash(storeAdminEntity.getPassword()));
         storeAdminEntity.setStatus(true);
 
         StoreAdminEntity newAdmin = storeAdminRepository.save(storeAdminEntity);
@@ -41,6 +47,7 @@ public class StoreAdminServices {
     }
     public boolean deleteStoreAdmin(UUID uuid) throws IllegalArgumentException{
         int updated = storeAdminRepository.updateStatus(uuid, false);
+        principalCache.invalidate(uuid.toString());
         return updated > 0;
     }
 
@@ -48,6 +55,10 @@ public class StoreAdminServices {
         return storeAdminRepository.findByEmail(email).orElseThrow(() -> new IllegalArgumentException("Store Admin not found"));
     }
 
+    public void updatePassword(UUID uuid, String passwordHash) {
+        storeAdminRepository.updatePassword(uuid, passwordHash);
+    }
+
     /**
      * Validates the given StoreAdmin object to ensure that all required fields are populated
      * and properly formatted.
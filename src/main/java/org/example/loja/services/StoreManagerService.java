@@ -1,5 +1,6 @@
 package org.example.loja.services;
 
+import org.example.loja.config.security.PrincipalCache;
 import org.example.loja.dto.StoreManagerDTO;
 import org.example.loja.entities.StoreEntity;
 import org.example.loja.entities.StoreManagerEntity;
@@ -20,6 +21,12 @@ public class StoreManagerService {
     @Autowired
     private StoreRepository storeRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @Transactional
     public boolean dissociateStoreManager(UUID managerId) {
         StoreManagerEntity manager = storeManagerRepository.findById(managerId).orElseThrow();
@@ -31,6 +38,7 @@ public class StoreManagerService {
             manager.setStatus(false);
             storeRepository.save(store);
             storeManagerRepository.save(manager);
+            principalCache.invalidate(managerId.toString());
             return true;
         }
         return false;
@@ -45,7 +53,7 @@ public class StoreManagerService {
 
         validateStoreManager(storeManager);
         storeManager.setActive(false);
-        storeManager.setPassword(org.example.loja.util.Authorization.hashPassword(storeManager.getPassword()));
+        storeManager.setPassword(passwordHashingService.hash(storeManager.getPassword()));
         storeManager.setStatus(true);
         storeManager.setStore(storeRepository.findById(storeManagerDTO.getStoreId()).orElseThrow(() -> new IllegalArgumentException("Invalid Store")));
         return storeManagerRepository.save(storeManager).getId();
@@ -55,14 +63,20 @@ public class StoreManagerService {
         return  storeManagerRepository.findByEmail(email).orElseThrow(() -> new IllegalArgumentException("Invalid Store Manager"));
     }
 
+    public void updatePassword(UUID id, String passwordHash) {
+        storeManagerRepository.updatePassword(id, passwordHash);
+    }
+
     public boolean activateStoreManager(UUID id, Long storeId){
         int isUpdated = storeManagerRepository.updateStatusToTrue(id, storeId);
+        principalCache.invalidate(id.toString());
 
         return isUpdated > 0;
     }
 
     public boolean deleteStoreManager(UUID id){
         int affectedRows = storeManagerRepository.deleteStoreManagerById(id);
+        principalCache.invalidate(id.toString());
         return affectedRows > 0;
     }
 
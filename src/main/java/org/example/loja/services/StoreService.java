@@ -1,5 +1,7 @@
 package org.example.loja.services;
 
+import org.example.loja.config.security.StoreMembershipRegistry;
+import org.example.loja.dto.StoreSummaryDTO;
 import org.example.loja.entities.ProductEntity;
 import org.example.loja.entities.StoreAdminEntity;
 import org.example.loja.entities.StoreEntity;
@@ -11,6 +13,7 @@ import com.google.i18n.phonenumbers.PhoneNumberUtil;
 import com.google.i18n.phonenumbers.Phonenumber;
 import com.google.i18n.phonenumbers.NumberParseException;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -22,6 +25,9 @@ public class StoreService {
     @Autowired
     StoreAdminRepository storeAdminRepository;
 
+    @Autowired
+    StoreMembershipRegistry storeMembershipRegistry;
+
     public Long saveStore(StoreEntity store, UUID storeAdmin) throws IllegalArgumentException {
         store.setStoreAdmin(storeAdminRepository.findById(storeAdmin)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid Credentials")));
@@ -29,7 +35,9 @@ public class StoreService {
         validateStore(store);
 
         try {
-            return storeRepository.save(store).getId();
+            Long id = storeRepository.save(store).getId();
+            storeMembershipRegistry.invalidate(storeAdmin);
+            return id;
         } catch (Exception e) {
             throw new RuntimeException("An unexpected error occurred while saving the store: " + e.getMessage());
         }
@@ -55,6 +63,15 @@ public class StoreService {
         }
     }
 
+    public Optional<StoreSummaryDTO> getStore(long id) {
+        return storeRepository.findSummaryById(id);
+    }
+
+    /** The store's current version, read by primary key without loading the store. */
+    public Optional<Long> getStoreVersion(long id) {
+        return storeRepository.findVersion(id);
+    }
+
     public boolean addProductsToStore(Long storeId, ProductEntity product) throws IllegalArgumentException {
         StoreEntity store = storeRepository.findById(storeId).orElseThrow(() -> new IllegalArgumentException("Store not found"));
         store.addProduct(product);
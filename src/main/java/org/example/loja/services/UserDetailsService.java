@@ -11,6 +11,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +30,9 @@ public class UserDetailsService implements org.springframework.security.core.use
     @Autowired
     private AdminMasterRepository adminMasterRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(UserDetailsService.class);
 
     @Override
@@ -49,52 +53,50 @@ public class UserDetailsService implements org.springframework.security.core.use
     }
 
     private UserDetails loadAdminMasterUser(String email) {
-        return adminMasterRepository.findByEmail(email)
-                .map(admin -> {
-                    if (admin.getRole() == null || admin.getRole().isEmpty()) {
-                        throw new UsernameNotFoundException("Admin Master has no roles assigned");
-                    }
-                    return new org.springframework.security.core.userdetails.User(
-                            admin.getEmail(),
-                            admin.getPassword(),
-                            admin.getRole().stream()
-                                    .map(role -> new SimpleGrantedAuthority(role.getName()))
-                                    .collect(Collectors.toList())
-                    );
-                })
+        return adminMasterRepository.findCredentialsByEmail(email)
+                .map(admin -> new org.springframework.security.core.userdetails.User(
+                        admin.email(),
+                        admin.password(),
+                        authorities(adminMasterRepository.findRoleIds(admin.id()), "Admin Master has no roles assigned")
+                ))
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid Admin Master Credentials"));
     }
 
     private UserDetails loadStoreAdminUser(String email) {
-        return storeAdminRepository.findByEmail(email)
-                .map(storeAdmin -> {
-                    if (storeAdmin.getRole() == null || storeAdmin.getRole().isEmpty()) {
-                        throw new UsernameNotFoundException("Store Admin has no roles assigned");
-                    }
-                    return new org.springframework.security.core.userdetails.User(
-                            storeAdmin.getEmail(),
-                            storeAdmin.getPassword(),
-                            storeAdmin.getRole().stream()
-                                    .map(role -> new SimpleGrantedAuthority(role.getName()))
-                                    .collect(Collectors.toList())
-                    );
-                })
+        return storeAdminRepository.findCredentialsByEmail(email)
+                .map(storeAdmin -> new org.springframework.security.core.userdetails.User(
+                        storeAdmin.email(),
+                        storeAdmin.password(),
+                        !Boolean.FALSE.equals(storeAdmin.status()),
+                        true,
+                        true,
+                        true,
+                        authorities(storeAdminRepository.findRoleIds(storeAdmin.id()), "Store Admin has no roles assigned")
+                ))
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid Store Admin Credentials"));
     }
 
     public UserDetails loadStoreManagerUser(String email){
-        return storeManagerRepository.findByEmail(email)
-                .map(storeManager -> {
-                    if (storeManager.getRole() == null || storeManager.getRole().isEmpty()) {
-                        throw new UsernameNotFoundException("Store Manager has no roles assigned");
-                    }
-                    return new org.springframework.security.core.userdetails.User(
-                            storeManager.getEmail(),
-                            storeManager.getPassword(),
-                            storeManager.getRole().stream()
-                                    .map(role -> new SimpleGrantedAuthority(role.getName()))
-                                    .collect(Collectors.toList())
-                    );
-                }).orElseThrow(() -> new UsernameNotFoundException("Invalid Store Manager Credentials"));
+        return storeManagerRepository.findCredentialsByEmail(email)
+                .map(storeManager -> new org.springframework.security.core.userdetails.User(
+                        storeManager.email(),
+                        storeManager.password(),
+                        !Boolean.FALSE.equals(storeManager.status()),
+                        true,
+                        true,
+                        true,
+                        authorities(storeManagerRepository.findRoleIds(storeManager.id()), "Store Manager has no roles assigned")
+                )).orElseThrow(() -> new UsernameNotFoundException("Invalid Store Manager Credentials"));
+    }
+
+    // Only the role ids come from the account; the roles themselves are reference data.
+    private List<SimpleGrantedAuthority> authorities(List<Long> roleIds, String noRolesMessage) {
+        List<SimpleGrantedAuthority> authorities = referenceDataCache.getRoles(roleIds).stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName()))
+                .collect(Collectors.toList());
+        if (authorities.isEmpty()) {
+            throw new UsernameNotFoundException(noRolesMessage);
+        }
+        return authorities;
     }
 }
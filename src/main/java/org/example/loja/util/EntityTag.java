@@ -0,0 +1,40 @@
+package org.example.loja.util;
+
+/**
+ * Strong entity tags built from a row's id and {@code @Version}. The version changes with
+ * every write, so comparing tags answers a conditional GET without loading the row.
+ */
+public final class EntityTag {
+
+    private EntityTag() {
+    }
+
+    /** {@code "id.version"}, quoted as the {@code ETag} header requires. */
+    public static String of(long id, long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches {@code etag}: {@code *} or any tag of the
+     * list, compared weakly as RFC 9110 requires for this header. Only call it for a resource
+     * that exists, since {@code *} matches any current representation.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
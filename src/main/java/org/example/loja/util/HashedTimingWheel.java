@@ -0,0 +1,129 @@
+package org.example.loja.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: deadlines are hashed into {@code wheelSize} buckets of
+ * {@code tickMillis} each, so scheduling and cancelling are O(1) and each tick only visits
+ * one bucket. A deadline more than one revolution away stays in its bucket with a round
+ * counter that is decremented every time the wheel passes it.
+ * <p>
+ * The wheel has no thread of its own; the owner calls {@link #advance(long)} periodically
+ * and handles the returned items.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final long startMillis;
+
+    private final int mask;
+
+    private final Timeout<T>[] buckets;
+
+    // Next tick to process, counted from startMillis.
+    private long tick;
+
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int bucketCount = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = bucketCount - 1;
+        this.buckets = (Timeout<T>[]) new Timeout[bucketCount];
+    }
+
+    /** Schedules {@code item} to be returned by the first {@link #advance} at or after {@code deadlineMillis}. */
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        long target = Math.max(tick, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+        Timeout<T> timeout = new Timeout<>(item, deadlineMillis, (target - tick) / buckets.length, (int) (target & mask));
+        Timeout<T> head = buckets[timeout.bucket];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[timeout.bucket] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /** @return {@code false} if the timeout had already expired or been cancelled */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.removed) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /** Processes every tick up to {@code nowMillis} and returns the items that expired. */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        while (startMillis + tick * tickMillis <= nowMillis) {
+            Timeout<T> timeout = buckets[(int) (tick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.rounds <= 0) {
+                    unlink(timeout);
+                    expired.add(timeout.item);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+            tick++;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.removed = true;
+        size--;
+    }
+
+    public static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineMillis;
+        private final int bucket;
+        private long rounds;
+        private boolean removed;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadlineMillis, long rounds, int bucket) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+            this.rounds = rounds;
+            this.bucket = bucket;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public long deadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.loja.util;
+
+import org.example.loja.enums.ProductSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page for keyset pagination: the sort it belongs to, the
+ * value of the sort key ({@code null} when the row has none) and the row id as tie-breaker.
+ * Serialized as an opaque URL-safe string so clients cannot depend on its layout.
+ */
+public record KeysetCursor(ProductSort sort, String key, long id) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        // A NULL key has no key field at all, so it stays distinct from an empty string.
+        String raw = VERSION + "|" + sort.name() + "|" + id + (key == null ? "" : "|" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    public static KeysetCursor decode(String cursor, ProductSort expectedSort) {
+        KeysetCursor decoded;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length < 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            decoded = new KeysetCursor(ProductSort.valueOf(parts[1]), parts.length == 4 ? parts[3] : null,
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (decoded.sort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor does not match sort " + expectedSort);
+        }
+        return decoded;
+    }
+}
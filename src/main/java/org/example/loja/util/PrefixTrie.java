@@ -0,0 +1,265 @@
+package org.example.loja.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable radix trie answering "the {@code topK} heaviest values whose key starts with
+ * this prefix". Every node stores its precomputed top-K, so a lookup walks at most
+ * {@code prefix.length()} characters and copies one short list, whatever the number of keys.
+ * <p>
+ * Nodes live in parallel int arrays and edge labels are ranges of the keys themselves, so
+ * no per-node objects or label strings are allocated. Keys may repeat. Build a new trie to
+ * change the contents.
+ */
+public final class PrefixTrie<T> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final String[] keys;
+    private final Object[] byRank;
+
+    // Node arrays; node 0 is the root. A label is keys[labelKey][labelFrom, labelTo).
+    private int[] labelKey;
+    private int[] labelFrom;
+    private int[] labelTo;
+    private int[] firstChild;
+    private int[] childCount;
+    private int[] topFrom;
+    private int[] topLength;
+    private int nodes;
+
+    // Ranks of each node's top values, node after node.
+    private int[] tops;
+    private int topsSize;
+
+    // Merge buffer of fill(); only used after the children are done, so one is enough.
+    private int[] scratch = new int[64];
+
+    private final int topK;
+
+    private PrefixTrie(String[] keys, Object[] byRank, int topK) {
+        this.keys = keys;
+        this.byRank = byRank;
+        this.topK = topK;
+        int capacity = Math.max(16, keys.length * 2);
+        labelKey = new int[capacity];
+        labelFrom = new int[capacity];
+        labelTo = new int[capacity];
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+        topFrom = new int[capacity];
+        topLength = new int[capacity];
+        tops = new int[Math.max(16, keys.length * 2)];
+    }
+
+    /**
+     * @param key    lookup key of a value; values with an empty key are left out
+     * @param weight higher weights are returned first, ties in key order
+     */
+    public static <T> PrefixTrie<T> build(List<T> values, Function<T, String> key, ToLongFunction<T> weight, int topK) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK must be positive");
+        }
+        List<Entry<T>> entries = new ArrayList<>(values.size());
+        for (T value : values) {
+            String k = key.apply(value);
+            if (k != null && !k.isEmpty()) {
+                entries.add(new Entry<>(k, weight.applyAsLong(value), value));
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+        String[] keys = new String[entries.size()];
+        long[] weights = new long[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).key();
+            weights[i] = entries.get(i).weight();
+        }
+        // A value's rank is its position by weight, ties in key order; top-K merges only
+        // compare ranks.
+        int[] byWeight = rankOrder(weights);
+        Object[] byRank = new Object[keys.length];
+        int[] ranks = new int[keys.length];
+        for (int rank = 0; rank < byWeight.length; rank++) {
+            byRank[rank] = entries.get(byWeight[rank]).value();
+            ranks[byWeight[rank]] = rank;
+        }
+        PrefixTrie<T> trie = new PrefixTrie<>(keys, byRank, topK);
+        trie.newNode(0, 0, 0);
+        trie.fill(0, 0, keys.length, 0, ranks);
+        trie.trim();
+        return trie;
+    }
+
+    // Indexes by descending weight, then ascending index. Weights that fit in an int are
+    // packed with their index into one primitive long sort.
+    private static int[] rankOrder(long[] weights) {
+        int[] order = new int[weights.length];
+        if (Arrays.stream(weights).allMatch(weight -> weight >= 0 && weight <= Integer.MAX_VALUE)) {
+            long[] packed = new long[weights.length];
+            for (int i = 0; i < weights.length; i++) {
+                packed[i] = (Integer.MAX_VALUE - weights[i]) << 32 | i;
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < packed.length; i++) {
+                order[i] = (int) packed[i];
+            }
+            return order;
+        }
+        Integer[] boxed = new Integer[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> weights[a] != weights[b] ? Long.compare(weights[b], weights[a]) : Integer.compare(a, b));
+        for (int i = 0; i < boxed.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    /** Values whose key starts with {@code prefix}, heaviest first; everything for an empty prefix. */
+    @SuppressWarnings("unchecked")
+    public List<T> complete(String prefix) {
+        int node = 0;
+        int position = 0;
+        while (position < prefix.length()) {
+            node = child(node, prefix.charAt(position));
+            if (node < 0) {
+                return List.of();
+            }
+            String label = keys[labelKey[node]];
+            for (int i = labelFrom[node]; i < labelTo[node] && position < prefix.length(); i++, position++) {
+                if (label.charAt(i) != prefix.charAt(position)) {
+                    return List.of();
+                }
+            }
+        }
+        List<T> result = new ArrayList<>(topLength[node]);
+        for (int i = topFrom[node]; i < topFrom[node] + topLength[node]; i++) {
+            result.add((T) byRank[tops[i]]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public int nodeCount() {
+        return nodes;
+    }
+
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = keys[labelKey[mid]].charAt(labelFrom[mid]);
+            if (first < c) {
+                low = mid + 1;
+            } else if (first > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Builds the subtree of keys[lo, hi), which share their first `depth` characters.
+    private void fill(int node, int lo, int hi, int depth, int[] ranks) {
+        int terminalEnd = lo;
+        while (terminalEnd < hi && keys[terminalEnd].length() == depth) {
+            terminalEnd++;
+        }
+
+        // Siblings are allocated together so a node's children are contiguous and sorted.
+        // A child's label key is the first key of its range, which ends where the next begins.
+        int first = nodes;
+        for (int start = terminalEnd; start < hi; ) {
+            char c = keys[start].charAt(depth);
+            int end = start + 1;
+            while (end < hi && keys[end].charAt(depth) == c) {
+                end++;
+            }
+            newNode(start, depth, commonPrefix(keys[start], keys[end - 1], depth));
+            start = end;
+        }
+        int children = nodes - first;
+        firstChild[node] = first;
+        childCount[node] = children;
+        for (int i = 0; i < children; i++) {
+            int child = first + i;
+            int end = i + 1 < children ? labelKey[child + 1] : hi;
+            fill(child, labelKey[child], end, labelTo[child], ranks);
+        }
+
+        // Own values plus the children's top lists; subtrees are disjoint, so no duplicates.
+        int size = 0;
+        for (int i = lo; i < terminalEnd; i++) {
+            scratch = ensure(scratch, size + 1);
+            scratch[size++] = ranks[i];
+        }
+        for (int child = first; child < first + children; child++) {
+            scratch = ensure(scratch, size + topLength[child]);
+            System.arraycopy(tops, topFrom[child], scratch, size, topLength[child]);
+            size += topLength[child];
+        }
+        Arrays.sort(scratch, 0, size);
+        int length = Math.min(topK, size);
+        tops = ensure(tops, topsSize + length);
+        System.arraycopy(scratch, 0, tops, topsSize, length);
+        topFrom[node] = topsSize;
+        topLength[node] = length;
+        topsSize += length;
+    }
+
+    private static int commonPrefix(String a, String b, int from) {
+        int end = Math.min(a.length(), b.length());
+        int i = from;
+        while (i < end && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private void newNode(int key, int from, int to) {
+        if (nodes == labelKey.length) {
+            int capacity = nodes * 2;
+            labelKey = Arrays.copyOf(labelKey, capacity);
+            labelFrom = Arrays.copyOf(labelFrom, capacity);
+            labelTo = Arrays.copyOf(labelTo, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            topFrom = Arrays.copyOf(topFrom, capacity);
+            topLength = Arrays.copyOf(topLength, capacity);
+        }
+        labelKey[nodes] = key;
+        labelFrom[nodes] = from;
+        labelTo[nodes] = to;
+        nodes++;
+    }
+
+    private static int[] ensure(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, size));
+    }
+
+    private void trim() {
+        labelKey = Arrays.copyOf(labelKey, nodes);
+        labelFrom = Arrays.copyOf(labelFrom, nodes);
+        labelTo = Arrays.copyOf(labelTo, nodes);
+        firstChild = Arrays.copyOf(firstChild, nodes);
+        childCount = Arrays.copyOf(childCount, nodes);
+        topFrom = Arrays.copyOf(topFrom, nodes);
+        topLength = Arrays.copyOf(topLength, nodes);
+        tops = topsSize == 0 ? EMPTY : Arrays.copyOf(tops, topsSize);
+        scratch = null;
+    }
+
+    private record Entry<T>(String key, long weight, T value) {
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.loja.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tokenizer for product search. Text is split on anything that is not a letter or digit,
+ * lower-cased and accent-folded ("Pão de Açúcar" becomes {@code pao}, {@code acucar}), and
+ * Portuguese stop words and one-letter words are dropped. Indexing and querying must use
+ * the same analyzer.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos",
+            "um", "uma", "uns", "umas", "para", "por", "com", "sem", "ao", "aos", "que", "se", "ou");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else {
+                emit(token, tokens);
+            }
+        }
+        emit(token, tokens);
+        return tokens;
+    }
+
+    /**
+     * Folds accents and case like {@link #tokenize} but keeps every word, joined by single
+     * spaces: "Pão de Açúcar" becomes {@code "pao de acucar"}. Leading separators are dropped
+     * and trailing ones become one space, so a typed "tv " no longer matches "tvbox".
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean separator = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                separator = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                separator = true;
+            }
+        }
+        if (separator && !normalized.isEmpty()) {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    private static void emit(StringBuilder token, List<String> tokens) {
+        if (token.isEmpty()) {
+            return;
+        }
+        String value = token.toString();
+        token.setLength(0);
+        if ((value.length() > 1 || Character.isDigit(value.charAt(0))) && !STOP_WORDS.contains(value)) {
+            tokens.add(value);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyMaterialTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path publicKey;
+
+    private Path privateKey;
+
+    @BeforeEach
+    void setUp() {
+        publicKey = tempDir.resolve("public.pem");
+        privateKey = tempDir.resolve("private.pem");
+    }
+
+    private static void writePem(Path file, String type, byte[] der) throws IOException {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        Files.writeString(file, "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n",
+                StandardCharsets.US_ASCII);
+    }
+
+    private void writeConfiguredKeys(KeyPair keyPair, long modifiedMillis) throws IOException {
+        writePem(publicKey, "PUBLIC KEY", keyPair.getPublic().getEncoded());
+        writePem(privateKey, "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        Files.setLastModifiedTime(publicKey, FileTime.fromMillis(modifiedMillis));
+        Files.setLastModifiedTime(privateKey, FileTime.fromMillis(modifiedMillis));
+    }
+
+    private JwtKeyMaterial keyMaterial() throws Exception {
+        return new JwtKeyMaterial(publicKey.toString(), privateKey.toString(), "", "",
+                "RS256", "", "", 0, 604800, 300);
+    }
+
+    // A key pair in jwt.keys.dir as written by rotateIfDue, created secondsAgo seconds ago.
+    private KeyPair writeDirKey(Path keysDir, long secondsAgo) throws Exception {
+        KeyPair keyPair = JwtSigningAlgorithm.RS256.generateKeyPair();
+        long createdAt = System.currentTimeMillis() / 1000 - secondsAgo;
+        Files.createDirectories(keysDir);
+        writePem(keysDir.resolve(createdAt + "-RS256.private.pem"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        writePem(keysDir.resolve(createdAt + "-RS256.public.pem"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+        return keyPair;
+    }
+
+    private static long pemCount(Path keysDir) throws IOException {
+        try (Stream<Path> files = Files.list(keysDir)) {
+            return files.filter(file -> file.toString().endsWith(".pem")).count();
+        }
+    }
+
+    private static String kid(KeyPair keyPair) {
+        return JwtSigningAlgorithm.RS256.thumbprint(keyPair.getPublic());
+    }
+
+    private static String sign(JwtKeyMaterial keyMaterial) {
+        return JWT.create()
+                .withIssuer(JwtKeyMaterial.ISSUER)
+                .withSubject("cliente@loja.com")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(keyMaterial.algorithm());
+    }
+
+    @Test
+    void testVerify_TokenCarriesKidOfSigningKey() throws Exception {
+        KeyPair keyPair = JwtSigningAlgorithm.RS256.generateKeyPair();
+        writeConfiguredKeys(keyPair, System.currentTimeMillis());
+        JwtKeyMaterial keyMaterial = keyMaterial();
+
+        String token = sign(keyMaterial);
+
+        assertEquals(JwtSigningAlgorithm.RS256.thumbprint(keyPair.getPublic()), JWT.decode(token).getKeyId());
+        assertEquals("cliente@loja.com", keyMaterial.verify(token).getSubject());
+        assertEquals(keyPair.getPublic(), keyMaterial.publicKey());
+    }
+
+    @Test
+    void testReloadIfChanged_UnchangedFilesKeepTheRing() throws Exception {
+        writeConfiguredKeys(JwtSigningAlgorithm.RS256.generateKeyPair(), System.currentTimeMillis());
+        JwtKeyMaterial keyMaterial = keyMaterial();
+        JWTVerifier verifier = keyMaterial.verifier();
+
+        keyMaterial.reloadIfChanged();
+
+        assertSame(verifier, keyMaterial.verifier());
+    }
+
+    @Test
+    void testReloadIfChanged_EditedPemSwapsVerifierWhileOldSnapshotKeepsWorking() throws Exception {
+        long now = System.currentTimeMillis();
+        writeConfiguredKeys(JwtSigningAlgorithm.RS256.generateKeyPair(), now - 60_000);
+        JwtKeyMaterial keyMaterial = keyMaterial();
+        String oldToken = sign(keyMaterial);
+        // What a request that started before the reload is holding on to.
+        JWTVerifier oldVerifier = keyMaterial.verifier();
+
+        KeyPair newKeyPair = JwtSigningAlgorithm.RS256.generateKeyPair();
+        writeConfiguredKeys(newKeyPair, now);
+        keyMaterial.reloadIfChanged();
+
+        assertNotSame(oldVerifier, keyMaterial.verifier());
+        assertEquals(newKeyPair.getPublic(), keyMaterial.publicKey());
+        String newToken = sign(keyMaterial);
+        assertDoesNotThrow(() -> keyMaterial.verify(newToken));
+        assertThrows(JWTVerificationException.class, () -> keyMaterial.verify(oldToken));
+
+        assertDoesNotThrow(() -> oldVerifier.verify(oldToken));
+        assertThrows(SignatureVerificationException.class, () -> oldVerifier.verify(newToken));
+    }
+
+    @Test
+    void testReloadIfChanged_BrokenPemKeepsPreviousRing() throws Exception {
+        long now = System.currentTimeMillis();
+        writeConfiguredKeys(JwtSigningAlgorithm.RS256.generateKeyPair(), now - 60_000);
+        JwtKeyMaterial keyMaterial = keyMaterial();
+        String token = sign(keyMaterial);
+        JWTVerifier verifier = keyMaterial.verifier();
+
+        Files.writeString(publicKey, "-----BEGIN PUBLIC KEY-----\nnot a key\n-----END PUBLIC KEY-----\n");
+        Files.setLastModifiedTime(publicKey, FileTime.fromMillis(now));
+        keyMaterial.reloadIfChanged();
+
+        assertSame(verifier, keyMaterial.verifier());
+        assertDoesNotThrow(() -> keyMaterial.verify(token));
+    }
+
+    @Test
+    void testVerify_LooksUpKeyByKid() throws Exception {
+        writeConfiguredKeys(JwtSigningAlgorithm.RS256.generateKeyPair(), System.currentTimeMillis());
+        Path keysDir = tempDir.resolve("keys");
+        KeyPair older = writeDirKey(keysDir, 7200);
+        KeyPair newer = writeDirKey(keysDir, 3600);
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial(publicKey.toString(), privateKey.toString(), "", "",
+                "RS256", "", keysDir.toString(), 0, 604800, 300);
+
+        String olderToken = JWT.create().withIssuer(JwtKeyMaterial.ISSUER).withSubject("antigo")
+                .sign(JwtSigningAlgorithm.RS256.create(older.getPublic(), older.getPrivate(), kid(older)));
+
+        assertEquals(kid(newer), JWT.decode(sign(keyMaterial)).getKeyId());
+        assertEquals("antigo", keyMaterial.verify(olderToken).getSubject());
+    }
+
+    @Test
+    void testVerify_UnknownKidIsRejected() throws Exception {
+        writeConfiguredKeys(JwtSigningAlgorithm.RS256.generateKeyPair(), System.currentTimeMillis());
+        JwtKeyMaterial keyMaterial = keyMaterial();
+        KeyPair stranger = JwtSigningAlgorithm.RS256.generateKeyPair();
+
+        String token = JWT.create().withIssuer(JwtKeyMaterial.ISSUER)
+                .sign(JwtSigningAlgorithm.RS256.create(stranger.getPublic(), stranger.getPrivate(), "desconhecida"));
+
+        JWTVerificationException error = assertThrows(JWTVerificationException.class, () -> keyMaterial.verify(token));
+        assertTrue(error.getMessage().contains("desconhecida"));
+    }
+
+    @Test
+    void testVerify_KidOfAnotherAlgorithmIsRejected() throws Exception {
+        KeyPair keyPair = JwtSigningAlgorithm.RS256.generateKeyPair();
+        writeConfiguredKeys(keyPair, System.currentTimeMillis());
+        JwtKeyMaterial keyMaterial = keyMaterial();
+
+        String token = JWT.create().withIssuer(JwtKeyMaterial.ISSUER).withKeyId(kid(keyPair))
+                .sign(Algorithm.HMAC256("segredo"));
+
+        assertThrows(AlgorithmMismatchException.class, () -> keyMaterial.verify(token));
+    }
+
+    @Test
+    void testVerify_TokenWithoutKidFallsBackToConfiguredKey() throws Exception {
+        KeyPair configured = JwtSigningAlgorithm.RS256.generateKeyPair();
+        writeConfiguredKeys(configured, System.currentTimeMillis());
+        Path keysDir = tempDir.resolve("keys");
+        KeyPair rotated = writeDirKey(keysDir, 3600);
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial(publicKey.toString(), privateKey.toString(), "", "",
+                "RS256", "", keysDir.toString(), 0, 604800, 300);
+
+        String legacy = JWT.create().withIssuer(JwtKeyMaterial.ISSUER).withSubject("legado")
+                .sign(JwtSigningAlgorithm.RS256.create(configured.getPublic(), configured.getPrivate()));
+        String legacyFromRotatedKey = JWT.create().withIssuer(JwtKeyMaterial.ISSUER)
+                .sign(JwtSigningAlgorithm.RS256.create(rotated.getPublic(), rotated.getPrivate()));
+
+        assertEquals("legado", keyMaterial.verify(legacy).getSubject());
+        assertThrows(SignatureVerificationException.class, () -> keyMaterial.verify(legacyFromRotatedKey));
+    }
+
+    @Test
+    void testLoad_NewKeySignsOnlyAfterActivationDelay() throws Exception {
+        KeyPair configured = JwtSigningAlgorithm.RS256.generateKeyPair();
+        writeConfiguredKeys(configured, System.currentTimeMillis());
+        Path keysDir = tempDir.resolve("keys");
+        KeyPair pending = writeDirKey(keysDir, 60);
+
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial(publicKey.toString(), privateKey.toString(), "", "",
+                "RS256", "", keysDir.toString(), 0, 604800, 300);
+
+        assertEquals(kid(configured), JWT.decode(sign(keyMaterial)).getKeyId());
+        // Already published so JWKS consumers can fetch it before it signs anything.
+        @SuppressWarnings("unchecked")
+        List<Map<String, String>> keys = (List<Map<String, String>>) keyMaterial.jwks().get("keys");
+        assertTrue(keys.stream().anyMatch(jwk -> kid(pending).equals(jwk.get("kid"))));
+
+        JwtKeyMaterial activated = new JwtKeyMaterial(publicKey.toString(), privateKey.toString(), "", "",
+                "RS256", "", keysDir.toString(), 0, 604800, 30);
+        assertEquals(kid(pending), JWT.decode(sign(activated)).getKeyId());
+    }
+
+    @Test
+    void testLoad_OnlyKeySignsRightAway() throws Exception {
+        Path keysDir = tempDir.resolve("keys");
+        KeyPair only = writeDirKey(keysDir, 0);
+
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial("", "", "", "",
+                "RS256", "", keysDir.toString(), 0, 604800, 300);
+
+        assertEquals(kid(only), JWT.decode(sign(keyMaterial)).getKeyId());
+    }
+
+    @Test
+    void testRotateIfDue_GeneratesKeyIntoEmptyDirectory() throws Exception {
+        Path keysDir = tempDir.resolve("keys");
+
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial("", "", "", "",
+                "RS256", "", keysDir.toString(), 24, 604800, 300);
+
+        assertEquals(2, pemCount(keysDir));
+        assertDoesNotThrow(() -> keyMaterial.verify(sign(keyMaterial)));
+    }
+
+    @Test
+    void testRotateIfDue_GeneratesKeyOnlyWhenNewestIsOld() throws Exception {
+        Path keysDir = tempDir.resolve("keys");
+        writeDirKey(keysDir, 3600);
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial("", "", "", "",
+                "RS256", "", keysDir.toString(), 24, 604800, 300);
+        assertEquals(2, pemCount(keysDir));
+
+        writeDirKey(keysDir, 25 * 3600);
+        keyMaterial.rotateIfDue();
+        assertEquals(4, pemCount(keysDir));
+
+        Path dueDir = tempDir.resolve("due");
+        writeDirKey(dueDir, 25 * 3600);
+        new JwtKeyMaterial("", "", "", "", "RS256", "", dueDir.toString(), 24, 604800, 300);
+        assertEquals(4, pemCount(dueDir));
+    }
+
+    @Test
+    void testRotateIfDue_DeletesKeysRetiredLongEnoughAgo() throws Exception {
+        Path keysDir = tempDir.resolve("keys");
+        KeyPair expired = writeDirKey(keysDir, 10_000);
+        KeyPair retired = writeDirKey(keysDir, 5_000);
+        KeyPair current = writeDirKey(keysDir, 1_000);
+
+        // expired was superseded 5000s ago, past the 300s activation plus 1000s token lifetime;
+        // retired was superseded 1000s ago, so tokens it signed may still be in use.
+        JwtKeyMaterial keyMaterial = new JwtKeyMaterial("", "", "", "",
+                "RS256", "", keysDir.toString(), 24, 1_000, 300);
+
+        assertEquals(4, pemCount(keysDir));
+        @SuppressWarnings("unchecked")
+        List<Map<String, String>> keys = (List<Map<String, String>>) keyMaterial.jwks().get("keys");
+        List<String> kids = keys.stream().map(jwk -> jwk.get("kid")).toList();
+        assertFalse(kids.contains(kid(expired)));
+        assertTrue(kids.contains(kid(retired)));
+        assertTrue(kids.contains(kid(current)));
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.loja.config.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtSigningAlgorithmTest {
+
+    // RFC 7638, section 3.1.
+    private static final String RFC_7638_MODULUS = "0vx7agoebGcQSuuPiLJXZptN9nndrQmbXEps2aiAFbWhM78LhWx4cbbfAAtVT86zwu1RK7aPFFxuhDR1L6tSoc_BJECPebWKRXjBZCiFV4n3oknjhMstn64tZ_2W-5JsGY4Hc5n9yBXArwl93lqt7_RN5w6Cf0h4QyQ5v-65YGjQR0_FDW2QvzqY368QQMicAtaSqzs8KJZgnYb9c7d0zgdAZHzu6qMQvRL5hajrn1n91CbOpbISD08qNLyrdkt-bFTWhAI4vMQFh6WeZu0fM4lFd2NcRwr3XPksINHaQ-G_xBniIqbw0Ls1jF44-csFCur-kEgU8awapJzKnqDKgw";
+    private static final String RFC_7638_THUMBPRINT = "NzbLsXh8uDCcd-6MNwXF4W_7noWXFZAfHkxZsRGC9Xs";
+
+    private static PublicKey rfc7638Key() throws Exception {
+        BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(RFC_7638_MODULUS));
+        return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, BigInteger.valueOf(65537)));
+    }
+
+    @Test
+    void testThumbprint_MatchesRfc7638Example() throws Exception {
+        assertEquals(RFC_7638_THUMBPRINT, JwtSigningAlgorithm.RS256.thumbprint(rfc7638Key()));
+    }
+
+    @Test
+    void testJwk_RsaMembersInLexicographicOrder() throws Exception {
+        Map<String, String> jwk = JwtSigningAlgorithm.RS256.jwk(rfc7638Key());
+
+        assertEquals(List.of("e", "kty", "n"), List.copyOf(jwk.keySet()));
+        assertEquals("AQAB", jwk.get("e"));
+        assertEquals(RFC_7638_MODULUS, jwk.get("n"));
+    }
+
+    @Test
+    void testJwk_EcCoordinatesArePaddedTo32Bytes() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            KeyPair keyPair = JwtSigningAlgorithm.ES256.generateKeyPair();
+            Map<String, String> jwk = JwtSigningAlgorithm.ES256.jwk(keyPair.getPublic());
+
+            assertEquals(List.of("crv", "kty", "x", "y"), List.copyOf(jwk.keySet()));
+            assertEquals(32, Base64.getUrlDecoder().decode(jwk.get("x")).length);
+            assertEquals(32, Base64.getUrlDecoder().decode(jwk.get("y")).length);
+        }
+    }
+
+    @Test
+    void testThumbprint_DiffersPerKey() throws Exception {
+        assertNotEquals(
+                JwtSigningAlgorithm.ES256.thumbprint(JwtSigningAlgorithm.ES256.generateKeyPair().getPublic()),
+                JwtSigningAlgorithm.ES256.thumbprint(JwtSigningAlgorithm.ES256.generateKeyPair().getPublic()));
+    }
+
+    @Test
+    void testFromString_AcceptsAnyCaseAndRejectsUnknown() {
+        assertEquals(JwtSigningAlgorithm.ES256, JwtSigningAlgorithm.fromString(" es256 "));
+        assertThrows(IllegalArgumentException.class, () -> JwtSigningAlgorithm.fromString("HS256"));
+        assertThrows(IllegalArgumentException.class, () -> JwtSigningAlgorithm.fromString(""));
+    }
+}
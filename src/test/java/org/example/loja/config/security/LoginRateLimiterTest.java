@@ -0,0 +1,82 @@
+package org.example.loja.config.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.example.loja.config.security.LoginRateLimiter.Endpoint.STORE_ADMIN;
+import static org.example.loja.config.security.LoginRateLimiter.Endpoint.STORE_MANAGER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Long window so the sliding estimate does not move during a test.
+        limiter = new LoginRateLimiter(3600, 2, 3, 1_000, new MockEnvironment(), meterRegistry);
+    }
+
+    private double attempts(String outcome) {
+        return meterRegistry.get("security.login.attempts")
+                .tag("endpoint", "store-admin").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void testTryAcquire_BlocksEmailOverLimit() {
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, " Admin@Loja.com", "10.0.0.2"));
+        assertFalse(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.3"));
+
+        assertEquals(2.0, attempts("allowed"));
+        assertEquals(1.0, attempts("blocked"));
+    }
+
+    @Test
+    void testTryAcquire_BlockedAddressDoesNotUseUpTheEmail() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(STORE_ADMIN, "atacante" + i + "@loja.com", "10.0.0.1"));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertFalse(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        }
+
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.2"));
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.2"));
+    }
+
+    @Test
+    void testTryAcquire_BlockedEmailDoesNotUseUpTheAddress() {
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        assertFalse(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        assertFalse(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "gerente@loja.com", "10.0.0.1"));
+        assertFalse(limiter.tryAcquire(STORE_ADMIN, "outro@loja.com", "10.0.0.1"));
+    }
+
+    @Test
+    void testTryAcquire_EndpointsAreCountedSeparately() {
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+
+        assertTrue(limiter.tryAcquire(STORE_MANAGER, "admin@loja.com", "10.0.0.1"));
+    }
+
+    @Test
+    void testTryAcquire_EndpointLimitOverridesDefault() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("security.login.rate-limit.store-admin.max-per-email", "1");
+        limiter = new LoginRateLimiter(3600, 2, 3, 1_000, environment, new SimpleMeterRegistry());
+
+        assertTrue(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        assertFalse(limiter.tryAcquire(STORE_ADMIN, "admin@loja.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire(STORE_MANAGER, "admin@loja.com", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private static final String MANAGER_ID = "0b6f3c8e-2a4d-4c1e-9f7a-1d2e3f4a5b6c";
+
+    private final AtomicInteger databaseLoads = new AtomicInteger();
+
+    private static PrincipalCache cache(String source) {
+        return new PrincipalCache(source, 60, 100, 900, new SimpleMeterRegistry());
+    }
+
+    private static DecodedJWT token(long issuedAtMillis) {
+        return JWT.decode(JWT.create()
+                .withIssuer(JwtKeyMaterial.ISSUER)
+                .withClaim("email", "gerente@loja.com")
+                .withClaim("id", MANAGER_ID)
+                .withArrayClaim("roles", new String[]{"STORE_MANAGER"})
+                .withIssuedAt(new Date(issuedAtMillis))
+                .sign(Algorithm.HMAC256("segredo")));
+    }
+
+    // Issued after the cache was created, like every token once the node has been up a while.
+    private static DecodedJWT freshToken() {
+        return token(System.currentTimeMillis() + 2_000);
+    }
+
+    private Supplier<Authentication> database(boolean enabled) {
+        return () -> {
+            databaseLoads.incrementAndGet();
+            UserDetails user = User.withUsername("gerente@loja.com").password("")
+                    .authorities("ROLE_STORE_MANAGER").disabled(!enabled).build();
+            return new UsernamePasswordAuthenticationToken(user, "", user.getAuthorities());
+        };
+    }
+
+    private static List<String> authorities(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Test
+    void testClaimsMode_BuildsPrincipalWithoutDatabase() {
+        PrincipalCache cache = cache("claims");
+
+        Authentication authentication = cache.get(freshToken(), database(true));
+
+        assertEquals(0, databaseLoads.get());
+        assertEquals("gerente@loja.com", ((UserDetails) authentication.getPrincipal()).getUsername());
+        assertTrue(((UserDetails) authentication.getPrincipal()).isEnabled());
+    }
+
+    @Test
+    void testClaimsMode_PrefixesRoles() {
+        PrincipalCache cache = cache("claims");
+
+        assertEquals(List.of("ROLE_STORE_MANAGER"), authorities(cache.get(freshToken(), database(true))));
+    }
+
+    @Test
+    void testClaimsMode_SecondLookupIsCached() {
+        PrincipalCache cache = cache("claims");
+        DecodedJWT jwt = freshToken();
+
+        assertSame(cache.get(jwt, database(true)), cache.get(jwt, database(true)));
+    }
+
+    @Test
+    void testDatabaseMode_LoadsOncePerTtl() {
+        PrincipalCache cache = cache("database");
+
+        cache.get(freshToken(), database(true));
+        cache.get(freshToken(), database(true));
+
+        assertEquals(1, databaseLoads.get());
+    }
+
+    @Test
+    void testInvalidate_NextLookupGoesToDatabaseAndRejectsDisabledAccount() {
+        PrincipalCache cache = cache("claims");
+        DecodedJWT jwt = freshToken();
+        cache.get(jwt, database(true));
+
+        cache.invalidate(MANAGER_ID);
+
+        assertThrows(DisabledException.class, () -> cache.get(jwt, database(false)));
+        assertEquals(1, databaseLoads.get());
+    }
+
+    @Test
+    void testInvalidate_StaleSubjectKeepsGoingToDatabaseAfterPrincipalExpires() {
+        PrincipalCache cache = new PrincipalCache("claims", 0, 100, 900, new SimpleMeterRegistry());
+        cache.invalidate(MANAGER_ID);
+
+        cache.get(freshToken(), database(true));
+        cache.get(freshToken(), database(true));
+
+        assertEquals(2, databaseLoads.get());
+    }
+
+    @Test
+    void testClaimsMode_TokenIssuedBeforeStartGoesToDatabase() {
+        PrincipalCache cache = cache("claims");
+
+        assertThrows(DisabledException.class,
+                () -> cache.get(token(System.currentTimeMillis() - 60_000), database(false)));
+        assertEquals(1, databaseLoads.get());
+    }
+
+    @Test
+    void testSubjectOf_FallsBackToEmail() {
+        DecodedJWT jwt = JWT.decode(JWT.create()
+                .withClaim("email", "admin@loja.com")
+                .sign(Algorithm.HMAC256("segredo")));
+
+        assertEquals("admin@loja.com", PrincipalCache.subjectOf(jwt));
+        assertEquals(MANAGER_ID, PrincipalCache.subjectOf(freshToken()));
+    }
+}
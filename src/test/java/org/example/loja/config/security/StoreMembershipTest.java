@@ -0,0 +1,35 @@
+package org.example.loja.config.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreMembershipTest {
+
+    @Test
+    void testOf_ContainsOnlyGivenIds() {
+        StoreMembership membership = StoreMembership.of(List.of(7L, 3L, 7L, 42L));
+
+        assertTrue(membership.contains(3L));
+        assertTrue(membership.contains(7L));
+        assertTrue(membership.contains(42L));
+        assertFalse(membership.contains(4L));
+        assertFalse(membership.contains(-3L));
+    }
+
+    @Test
+    void testOf_HandlesIdsOutsideIntRange() {
+        StoreMembership membership = StoreMembership.of(List.of(Integer.MAX_VALUE - 1L, Long.MAX_VALUE, 1L));
+
+        assertTrue(membership.contains(Integer.MAX_VALUE - 1L));
+        assertTrue(membership.contains(Long.MAX_VALUE));
+        assertFalse(membership.contains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testOf_EmptyIsNone() {
+        assertSame(StoreMembership.NONE, StoreMembership.of(List.of()));
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.loja.config.security;
+
+import org.example.loja.entities.RevokedTokenEntity;
+import org.example.loja.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        revocationList = new TokenRevocationList(repository, 1_000, 0.001);
+    }
+
+    private static long inAnHour() {
+        return System.currentTimeMillis() + 3_600_000;
+    }
+
+    @Test
+    void testLoad_RevokesStoredTokens() {
+        UUID jti = UUID.randomUUID();
+        when(repository.findAllByExpiresAtGreaterThan(anyLong()))
+                .thenReturn(List.of(new RevokedTokenEntity(jti, inAnHour(), System.currentTimeMillis())));
+
+        revocationList.load();
+
+        assertTrue(revocationList.isRevoked(jti.toString()));
+        assertFalse(revocationList.isRevoked(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void testRevoke_WritesThroughOnce() {
+        String jti = UUID.randomUUID().toString();
+
+        assertTrue(revocationList.revoke(jti, inAnHour()));
+        assertFalse(revocationList.revoke(jti, inAnHour()));
+
+        assertTrue(revocationList.isRevoked(jti));
+        ArgumentCaptor<RevokedTokenEntity> saved = ArgumentCaptor.forClass(RevokedTokenEntity.class);
+        verify(repository, times(1)).saveAndFlush(saved.capture());
+        assertNotNull(saved.getValue().getRevokedAt());
+        assertTrue(saved.getValue().isNew());
+    }
+
+    @Test
+    void testRevoke_AlreadyRevokedOnAnotherNode() {
+        String jti = UUID.randomUUID().toString();
+        when(repository.saveAndFlush(any(RevokedTokenEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        assertFalse(revocationList.revoke(jti, inAnHour()));
+
+        assertTrue(revocationList.isRevoked(jti));
+        assertFalse(revocationList.revoke(jti, inAnHour()));
+        verify(repository, times(1)).saveAndFlush(any(RevokedTokenEntity.class));
+    }
+
+    @Test
+    void testSync_PicksUpTokensRevokedOnOtherNodes() {
+        revocationList.load();
+        UUID jti = UUID.randomUUID();
+        assertFalse(revocationList.isRevoked(jti.toString()));
+        when(repository.findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(anyLong(), anyLong()))
+                .thenReturn(List.of(new RevokedTokenEntity(jti, inAnHour(), System.currentTimeMillis())));
+
+        revocationList.sync();
+
+        assertTrue(revocationList.isRevoked(jti.toString()));
+    }
+
+    @Test
+    void testSync_ReadsOnlySinceThePreviousSync() {
+        long before = System.currentTimeMillis();
+        revocationList.load();
+        revocationList.sync();
+        long firstSync = System.currentTimeMillis();
+        revocationList.sync();
+
+        ArgumentCaptor<Long> since = ArgumentCaptor.forClass(Long.class);
+        verify(repository, times(2)).findAllByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(since.capture(), anyLong());
+        assertTrue(since.getAllValues().get(0) >= before - 60_000);
+        assertTrue(since.getAllValues().get(1) >= since.getAllValues().get(0));
+        assertTrue(since.getAllValues().get(1) <= firstSync - 60_000);
+    }
+
+    @Test
+    void testPurgeExpired_DropsExpiredTokens() {
+        String expired = UUID.randomUUID().toString();
+        String live = UUID.randomUUID().toString();
+        revocationList.revoke(expired, System.currentTimeMillis() - 1);
+        revocationList.revoke(live, inAnHour());
+
+        revocationList.purgeExpired();
+
+        assertFalse(revocationList.isRevoked(expired));
+        assertTrue(revocationList.isRevoked(live));
+        verify(repository).deleteExpired(anyLong());
+    }
+}
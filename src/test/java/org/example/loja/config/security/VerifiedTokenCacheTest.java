@@ -0,0 +1,94 @@
+package org.example.loja.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private VerifiedTokenCache cache(long maxTtlSeconds) {
+        return new VerifiedTokenCache(100, maxTtlSeconds, new SimpleMeterRegistry(), nanos::get);
+    }
+
+    private static String token(long expiresInSeconds, String secret) {
+        return JWT.create()
+                .withIssuer(JwtKeyMaterial.ISSUER)
+                .withSubject("cliente@loja.com")
+                .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expiresInSeconds)))
+                .sign(Algorithm.HMAC256(secret));
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void testGetIfPresent_ReturnsCachedToken() {
+        VerifiedTokenCache cache = cache(900);
+        String token = token(600, "segredo");
+        DecodedJWT jwt = JWT.decode(token);
+
+        cache.put(token, jwt);
+
+        assertSame(jwt, cache.getIfPresent(token));
+    }
+
+    @Test
+    void testEntry_ExpiresWithTheToken() {
+        VerifiedTokenCache cache = cache(900);
+        String token = token(60, "segredo");
+        cache.put(token, JWT.decode(token));
+
+        advanceSeconds(50);
+        assertNotNull(cache.getIfPresent(token));
+
+        advanceSeconds(15);
+        assertNull(cache.getIfPresent(token));
+    }
+
+    @Test
+    void testEntry_ExpiresAfterMaxTtlBeforeTheToken() {
+        VerifiedTokenCache cache = cache(30);
+        String token = token(600, "segredo");
+        cache.put(token, JWT.decode(token));
+
+        advanceSeconds(25);
+        assertNotNull(cache.getIfPresent(token));
+
+        advanceSeconds(10);
+        assertNull(cache.getIfPresent(token));
+    }
+
+    @Test
+    void testPut_ExpiredTokenIsNotCached() {
+        VerifiedTokenCache cache = cache(900);
+        String token = token(-5, "segredo");
+
+        cache.put(token, JWT.decode(token));
+
+        assertNull(cache.getIfPresent(token));
+    }
+
+    @Test
+    void testGetIfPresent_SameClaimsWithAnotherSignatureIsAMiss() {
+        VerifiedTokenCache cache = cache(900);
+        String token = token(600, "segredo");
+        cache.put(token, JWT.decode(token));
+
+        String forged = token.substring(0, token.lastIndexOf('.') + 1)
+                + JWT.decode(token(600, "outro-segredo")).getSignature();
+
+        assertEquals(JWT.decode(token).getPayload(), JWT.decode(forged).getPayload());
+        assertNull(cache.getIfPresent(forged));
+    }
+}
@@ -1,22 +1,24 @@
 package org.example.loja.controller;
 
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.LoginRateLimiter;
 import org.example.loja.dto.LoginDTO;
 import org.example.loja.entities.AdminMasterEntity;
+import org.example.loja.enums.TokenType;
 import org.example.loja.services.AdminMasterService;
-import org.example.loja.util.Authorization;
+import org.example.loja.services.PasswordHashingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -31,6 +33,14 @@ class AdminMasterControllerLoginTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
     @InjectMocks
     private AdminMasterControllerLogin adminMasterControllerLogin;
 
@@ -51,29 +61,33 @@ class AdminMasterControllerLoginTest {
         adminMasterEntity = new AdminMasterEntity();
         adminMasterEntity.setEmail("admin@example.com");
         adminMasterEntity.setPassword("hashedCorrectPassword");
+
+        lenient().when(loginRateLimiter.tryAcquire(eq(LoginRateLimiter.Endpoint.ADMIN_MASTER), anyString(), any()))
+                .thenReturn(true);
     }
 
     @Test
     void login_ShouldReturnToken_WhenCredentialsAreValid() throws Exception {
         when(adminMasterService.getAdminMasterByEmail(validLogin.getEmail()))
                 .thenReturn(adminMasterEntity);
-        try (MockedStatic<Authorization> mockedAuth = Mockito.mockStatic(Authorization.class)) {
-            mockedAuth.when(() -> Authorization.isAuthorized(validLogin.getPassword(), adminMasterEntity.getPassword()))
-                    .thenReturn(true);
+        when(passwordHashingService.verify(eq(validLogin.getPassword()), eq(adminMasterEntity.getPassword()), any()))
+                .thenReturn(true);
 
-            String testToken = "test.jwt.token";
-            when(jwtTokenProvider.generateAdminMasterToken(adminMasterEntity))
-                    .thenReturn(testToken);
+        String testToken = "test.jwt.token";
+        when(jwtTokenProvider.generateAdminMasterToken(adminMasterEntity))
+                .thenReturn(testToken);
+        when(jwtTokenProvider.generateRefreshToken(adminMasterEntity.getEmail(), TokenType.ADMIN_MASTER))
+                .thenReturn("test.refresh.token");
 
-            ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin);
+        ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin, request);
 
-            assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertEquals(testToken, ((Map<?, ?>) response.getBody()).get("token"));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(testToken, ((Map<?, ?>) response.getBody()).get("token"));
+        assertEquals("test.refresh.token", ((Map<?, ?>) response.getBody()).get("refreshToken"));
 
-            verify(adminMasterService).getAdminMasterByEmail(validLogin.getEmail());
-            verify(jwtTokenProvider).generateAdminMasterToken(adminMasterEntity);
-        }
+        verify(adminMasterService).getAdminMasterByEmail(validLogin.getEmail());
+        verify(jwtTokenProvider).generateAdminMasterToken(adminMasterEntity);
     }
 
     @Test
@@ -81,21 +95,44 @@ class AdminMasterControllerLoginTest {
         // Arrange
         when(adminMasterService.getAdminMasterByEmail(invalidLogin.getEmail()))
                 .thenReturn(adminMasterEntity);
-        try (MockedStatic<Authorization> mockedAuth = Mockito.mockStatic(Authorization.class)) {
-            mockedAuth.when(() -> Authorization.isAuthorized(validLogin.getPassword(), adminMasterEntity.getPassword()))
-                    .thenReturn(false);
+        when(passwordHashingService.verify(eq(invalidLogin.getPassword()), eq(adminMasterEntity.getPassword()), any()))
+                .thenReturn(false);
+
+        // Act
+        ResponseEntity<?> response = adminMasterControllerLogin.login(invalidLogin, request);
 
-            // Act
-            ResponseEntity<?> response = adminMasterControllerLogin.login(invalidLogin);
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Invalid credentials", ((Map<?, ?>) response.getBody()).get("error"));
+
+        verify(adminMasterService).getAdminMasterByEmail(invalidLogin.getEmail());
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    @Test
+    void login_ShouldReturnTooManyRequests_WhenHashingQueueIsFull() throws Exception {
+        when(adminMasterService.getAdminMasterByEmail(validLogin.getEmail()))
+                .thenReturn(adminMasterEntity);
+        when(passwordHashingService.verify(eq(validLogin.getPassword()), eq(adminMasterEntity.getPassword()), any()))
+                .thenThrow(new RejectedExecutionException());
+
+        ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin, request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("Too many login attempts, try again later", ((Map<?, ?>) response.getBody()).get("error"));
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    @Test
+    void login_ShouldReturnTooManyRequests_WhenThrottled() {
+        when(loginRateLimiter.tryAcquire(LoginRateLimiter.Endpoint.ADMIN_MASTER, validLogin.getEmail(), request.getRemoteAddr()))
+                .thenReturn(false);
 
-            // Assert
-            assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertEquals("Invalid credentials", ((Map<?, ?>) response.getBody()).get("error"));
+        ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin, request);
 
-            verify(adminMasterService).getAdminMasterByEmail(invalidLogin.getEmail());
-            verifyNoInteractions(jwtTokenProvider);
-        }
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        verifyNoInteractions(adminMasterService, passwordHashingService, jwtTokenProvider);
     }
 
     @Test
@@ -105,7 +142,7 @@ class AdminMasterControllerLoginTest {
                 .thenThrow(new IllegalArgumentException("Admin not found"));
 
         // Act
-        ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin);
+        ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin, request);
 
         // Assert
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -123,7 +160,7 @@ class AdminMasterControllerLoginTest {
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         // Act
-        ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin);
+        ResponseEntity<?> response = adminMasterControllerLogin.login(validLogin, request);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
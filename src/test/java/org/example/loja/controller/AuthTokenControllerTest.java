@@ -0,0 +1,135 @@
+package org.example.loja.controller;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.example.loja.config.security.AuthContext;
+import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.StoreMembership;
+import org.example.loja.dto.RefreshTokenDTO;
+import org.example.loja.entities.StoreAdminEntity;
+import org.example.loja.enums.TokenType;
+import org.example.loja.services.AdminMasterService;
+import org.example.loja.services.StoreAdminServices;
+import org.example.loja.services.StoreManagerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthTokenControllerTest {
+
+    @Mock
+    private JwtTokenProvider provider;
+
+    @Mock
+    private AdminMasterService adminMasterService;
+
+    @Mock
+    private StoreAdminServices storeAdminServices;
+
+    @Mock
+    private StoreManagerService storeManagerService;
+
+    @Mock
+    private DecodedJWT refreshJwt;
+
+    @InjectMocks
+    private AuthTokenController authTokenController;
+
+    private RefreshTokenDTO body;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        body = new RefreshTokenDTO();
+        body.setRefreshToken("refresh.token");
+
+        Claim email = mock(Claim.class);
+        when(email.asString()).thenReturn("admin@test.com");
+        Claim type = mock(Claim.class);
+        when(type.asString()).thenReturn(TokenType.STORE_ADMIN.claimValue());
+        when(refreshJwt.getClaim("email")).thenReturn(email);
+        when(refreshJwt.getClaim("type")).thenReturn(type);
+        when(refreshJwt.getId()).thenReturn(UUID.randomUUID().toString());
+    }
+
+    @Test
+    void testRefresh_RotatesTokens() throws Exception {
+        StoreAdminEntity admin = new StoreAdminEntity();
+        admin.setEmail("admin@test.com");
+        admin.setStatus(true);
+
+        when(provider.verifyRefreshToken("refresh.token")).thenReturn(refreshJwt);
+        when(provider.revoke(refreshJwt)).thenReturn(true);
+        when(storeAdminServices.getStoreAdminByEmail("admin@test.com")).thenReturn(admin);
+        when(provider.generateStoreAdminToken(admin)).thenReturn("new.access.token");
+        when(provider.generateRefreshToken("admin@test.com", TokenType.STORE_ADMIN)).thenReturn("new.refresh.token");
+
+        ResponseEntity<?> response = authTokenController.refresh(body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("token", "new.access.token", "refreshToken", "new.refresh.token"), response.getBody());
+        verify(provider).revoke(refreshJwt);
+    }
+
+    @Test
+    void testRefresh_RevokedToken() {
+        when(provider.verifyRefreshToken("refresh.token")).thenThrow(new JWTVerificationException("Token has been revoked"));
+
+        ResponseEntity<?> response = authTokenController.refresh(body);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(storeAdminServices);
+    }
+
+    @Test
+    void testRefresh_ConcurrentReuse() {
+        when(provider.verifyRefreshToken("refresh.token")).thenReturn(refreshJwt);
+        when(provider.revoke(refreshJwt)).thenReturn(false);
+
+        ResponseEntity<?> response = authTokenController.refresh(body);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(storeAdminServices);
+    }
+
+    @Test
+    void testRefresh_DisabledAccount() throws Exception {
+        StoreAdminEntity admin = new StoreAdminEntity();
+        admin.setEmail("admin@test.com");
+        admin.setStatus(false);
+
+        when(provider.verifyRefreshToken("refresh.token")).thenReturn(refreshJwt);
+        when(provider.revoke(refreshJwt)).thenReturn(true);
+        when(storeAdminServices.getStoreAdminByEmail("admin@test.com")).thenReturn(admin);
+
+        ResponseEntity<?> response = authTokenController.refresh(body);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(provider, never()).generateStoreAdminToken(any());
+    }
+
+    @Test
+    void testLogout_RevokesBothTokens() {
+        AuthContext auth = new AuthContext(UUID.randomUUID(), "admin@test.com", List.of("STORE_ADMIN"),
+                TokenType.STORE_ADMIN, StoreMembership.NONE, "access-jti", 1_000L);
+        when(provider.verifyRefreshToken("refresh.token")).thenReturn(refreshJwt);
+
+        ResponseEntity<?> response = authTokenController.logout(body, auth);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(provider).revoke(refreshJwt);
+        verify(provider).revoke("access-jti", 1_000L);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.loja.controller;
+
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.dto.StockAtTime;
+import org.example.loja.services.InventoryHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InventoryControllerTest {
+
+    @Mock
+    private InventoryHistoryService inventoryHistoryService;
+
+    @InjectMocks
+    private InventoryController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testListMovements_Success() {
+        CursorPage<InventoryMovementDTO> page = new CursorPage<>(List.of(), null, false);
+        when(inventoryHistoryService.getMovements(1L, 2L, null, 10)).thenReturn(page);
+
+        ResponseEntity<?> response = controller.listMovements(1L, 2L, null, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void testListMovements_InvalidCursor() {
+        when(inventoryHistoryService.getMovements(1L, null, "bad", null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        ResponseEntity<?> response = controller.listMovements(1L, null, "bad", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Map.of("error", "Invalid cursor"), response.getBody());
+    }
+
+    @Test
+    void testGetStockAt_Success() {
+        StockAtTime stock = new StockAtTime(2L, 41L, 5_000L, 3);
+        when(inventoryHistoryService.getStockAt(1L, 2L, 5_000L)).thenReturn(Optional.of(stock));
+
+        ResponseEntity<?> response = controller.getStockAt(1L, 2L, 5_000L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stock, response.getBody());
+    }
+
+    @Test
+    void testGetStockAt_NotFound() {
+        when(inventoryHistoryService.getStockAt(eq(1L), eq(2L), anyLong())).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = controller.getStockAt(1L, 2L, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
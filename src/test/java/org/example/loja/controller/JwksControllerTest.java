@@ -0,0 +1,42 @@
+package org.example.loja.controller;
+
+import org.example.loja.config.security.JwtKeyMaterial;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwksControllerTest {
+
+    @Mock
+    private JwtKeyMaterial keyMaterial;
+
+    @InjectMocks
+    private JwksController jwksController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testJwks_ReturnsKeySetWithCacheControl() {
+        Map<String, Object> keySet = Map.of("keys", List.of(Map.of("kty", "EC", "kid", "abc", "alg", "ES256")));
+        when(keyMaterial.jwks()).thenReturn(keySet);
+
+        ResponseEntity<Map<String, Object>> response = jwksController.jwks();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(keySet, response.getBody());
+        assertEquals("max-age=300, public", response.getHeaders().getCacheControl());
+    }
+}
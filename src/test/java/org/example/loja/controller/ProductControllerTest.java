@@ -1,7 +1,22 @@
 package org.example.loja.controller;
 
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.FacetCounts;
+import org.example.loja.dto.FacetFilter;
 import org.example.loja.dto.ProductDTO;
+import org.example.loja.dto.ProductSearchHit;
+import org.example.loja.dto.ProductSnapshot;
+import org.example.loja.dto.ProductSuggestion;
+import org.example.loja.dto.ProductSummaryDTO;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockBatchDTO;
+import org.example.loja.dto.StockBatchResult;
+import org.example.loja.dto.StockChangeDTO;
 import org.example.loja.entities.ProductEntity;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.enums.ProductSort;
+import org.example.loja.enums.StockBatchMode;
+import org.example.loja.services.ProductAutocomplete;
 import org.example.loja.services.ProductsServices;
 import org.example.loja.services.StoreService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,9 +25,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +44,9 @@ class ProductControllerTest {
     @Mock
     private StoreService storeService;
 
+    @Mock
+    private ProductAutocomplete productAutocomplete;
+
     @InjectMocks
     private ProductController productController;
 
@@ -123,10 +145,10 @@ class ProductControllerTest {
         int quantity = 50;
         int updatedQuantity = 75;
 
-        when(productsServices.updateProductQuantity(productId, quantity)).thenReturn(updatedQuantity);
+        when(productsServices.updateProductQuantity(1L, productId, quantity, MovementReason.SALE)).thenReturn(StockAdjustment.applied(updatedQuantity));
 
         // Act
-        ResponseEntity<?> response = productController.updateProductQuantity(productId, quantity);
+        ResponseEntity<?> response = productController.updateProductQuantity(1L, productId, quantity, "sale");
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -140,22 +162,211 @@ class ProductControllerTest {
     }
 
     @Test
-    void testUpdateProductQuantity_InvalidQuantity() {
+    void testUpdateProductQuantity_InsufficientStock() {
         // Arrange
         long productId = 123L;
-        int quantity = -5;
-        String errorMessage = "Quantity cannot be negative";
+        when(productsServices.updateProductQuantity(1L, productId, -5, MovementReason.ADJUSTMENT)).thenReturn(StockAdjustment.insufficientStock(2));
 
-        when(productsServices.updateProductQuantity(productId, quantity))
-                .thenThrow(new IllegalArgumentException(errorMessage));
+        // Act
+        ResponseEntity<?> response = productController.updateProductQuantity(1L, productId, -5, null);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(Map.of("error", "Insufficient stock", "availableQuantity", 2, "productId", productId), response.getBody());
+    }
+
+    @Test
+    void testUpdateProductQuantity_NotFound() {
+        // Arrange
+        long productId = 123L;
+        when(productsServices.updateProductQuantity(1L, productId, 5, MovementReason.ADJUSTMENT)).thenReturn(StockAdjustment.notFound());
 
         // Act
-        ResponseEntity<?> response = productController.updateProductQuantity(productId, quantity);
+        ResponseEntity<?> response = productController.updateProductQuantity(1L, productId, 5, null);
 
         // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Product not found", ((Map<?, ?>) response.getBody()).get("error"));
+    }
+
+    @Test
+    void testUpdateProductQuantity_InvalidReason() {
+        ResponseEntity<?> response = productController.updateProductQuantity(1L, 123L, 5, "lost");
+
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertEquals(errorMessage, ((Map<?, ?>) response.getBody()).get("error"));
+        assertEquals(Map.of("error", "Invalid movement reason lost"), response.getBody());
+        verifyNoInteractions(productsServices);
+    }
+
+    @Test
+    void testSearch_Success() {
+        List<ProductSearchHit> hits = List.of(new ProductSearchHit(
+                new ProductSummaryDTO(123L, "TV", 10.0, null, null, 1, 1L), 1.5));
+        when(productsServices.searchProducts(1L, "tv", null, true, null)).thenReturn(hits);
+
+        ResponseEntity<?> response = productController.search(1L, "tv", null, true, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(hits, response.getBody());
+    }
+
+    @Test
+    void testSearch_BlankQuery() {
+        when(productsServices.searchProducts(1L, " ", null, false, null))
+                .thenThrow(new IllegalArgumentException("Search query must not be blank"));
+
+        ResponseEntity<?> response = productController.search(1L, " ", null, false, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Map.of("error", "Search query must not be blank"), response.getBody());
+    }
+
+    @Test
+    void testSuggest_Success() {
+        List<ProductSuggestion> suggestions = List.of(new ProductSuggestion("TV 50", ProductSuggestion.Type.PRODUCT, 7L));
+        when(productAutocomplete.suggest(1L, "tv", 5)).thenReturn(suggestions);
+
+        ResponseEntity<?> response = productController.suggest(1L, "tv", 5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(suggestions, response.getBody());
+        verifyNoInteractions(productsServices);
+    }
+
+    @Test
+    void testSuggest_EmptyPrefix() {
+        when(productAutocomplete.suggest(1L, " - ", 10))
+                .thenThrow(new IllegalArgumentException("Prefix must contain a letter or digit"));
+
+        ResponseEntity<?> response = productController.suggest(1L, " - ", 10);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Map.of("error", "Prefix must contain a letter or digit"), response.getBody());
+    }
+
+    @Test
+    void testFacets_Success() {
+        FacetFilter filter = new FacetFilter(Set.of("LG"), null, null, false);
+        FacetCounts counts = new FacetCounts(1, Map.of("LG", 1), Map.of(), List.of(), 1);
+        when(productsServices.getFacetCounts(1L, filter)).thenReturn(counts);
+
+        ResponseEntity<?> response = productController.facets(1L, Set.of("LG"), null, null, false);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(counts, response.getBody());
+    }
+
+    @Test
+    void testFilter_InvalidPriceBand() {
+        when(productsServices.filterProducts(1L, new FacetFilter(null, null, Set.of(9), true), null, null))
+                .thenThrow(new IllegalArgumentException("Invalid price band 9"));
+
+        ResponseEntity<?> response = productController.filter(1L, null, null, Set.of(9), true, null, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Map.of("error", "Invalid price band 9"), response.getBody());
+    }
+
+    private static ProductSnapshot snapshot(long storeId) {
+        return new ProductSnapshot(2L, "TV", 1999.0, null, "LG", 3,
+                new ProductSnapshot.Store(storeId, "Loja"), List.of(), List.of(), 4L);
+    }
+
+    @Test
+    void testGetProduct_Success() {
+        ProductSnapshot product = snapshot(1L);
+        when(productsServices.getProductById(2L)).thenReturn(product);
+
+        ResponseEntity<?> response = productController.get(1L, 2L, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(product, response.getBody());
+        assertEquals("\"2.4\"", response.getHeaders().getETag());
+        verify(productsServices, never()).getProductVersion(anyLong(), anyLong());
+    }
+
+    @Test
+    void testGetProduct_NotModifiedSkipsTheProduct() {
+        when(productsServices.getProductVersion(1L, 2L)).thenReturn(Optional.of(4L));
+
+        ResponseEntity<?> response = productController.get(1L, 2L, "\"2.4\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"2.4\"", response.getHeaders().getETag());
+        verify(productsServices, never()).getProductById(anyLong());
+    }
+
+    @Test
+    void testGetProduct_StaleTagGetsTheProduct() {
+        when(productsServices.getProductVersion(1L, 2L)).thenReturn(Optional.of(4L));
+        when(productsServices.getProductById(2L)).thenReturn(snapshot(1L));
+
+        ResponseEntity<?> response = productController.get(1L, 2L, "\"2.3\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"2.4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetProduct_OtherStoreIsNotFound() {
+        when(productsServices.getProductVersion(1L, 2L)).thenReturn(Optional.empty());
+        when(productsServices.getProductById(2L)).thenReturn(snapshot(9L));
+
+        ResponseEntity<?> response = productController.get(1L, 2L, "*");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testGetProduct_NotFound() {
+        when(productsServices.getProductById(2L)).thenThrow(new IllegalArgumentException("Invalid Product"));
+
+        ResponseEntity<?> response = productController.get(1L, 2L, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(Map.of("error", "Product not found"), response.getBody());
+    }
+
+    @Test
+    void testUpdateProductQuantities_Committed() {
+        StockBatchDTO batch = new StockBatchDTO();
+        batch.setMode("best_effort");
+        batch.setChanges(List.of(new StockChangeDTO(123L, -2)));
+        StockBatchResult result = new StockBatchResult(true,
+                List.of(new StockBatchResult.Item(123L, -2, StockBatchResult.Status.APPLIED, 48)));
+        when(productsServices.updateProductQuantities(1L, batch.getChanges(), StockBatchMode.BEST_EFFORT, MovementReason.ADJUSTMENT)).thenReturn(result);
+
+        ResponseEntity<?> response = productController.updateProductQuantities(1L, batch);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testUpdateProductQuantities_RolledBack() {
+        StockBatchDTO batch = new StockBatchDTO();
+        batch.setChanges(List.of(new StockChangeDTO(123L, -9)));
+        StockBatchResult result = new StockBatchResult(false,
+                List.of(new StockBatchResult.Item(123L, -9, StockBatchResult.Status.INSUFFICIENT_STOCK, 3)));
+        when(productsServices.updateProductQuantities(1L, batch.getChanges(), StockBatchMode.ALL_OR_NOTHING, MovementReason.ADJUSTMENT)).thenReturn(result);
+
+        ResponseEntity<?> response = productController.updateProductQuantities(1L, batch);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testUpdateProductQuantities_InvalidMode() {
+        StockBatchDTO batch = new StockBatchDTO();
+        batch.setMode("sometimes");
+
+        ResponseEntity<?> response = productController.updateProductQuantities(1L, batch);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Map.of("error", "Invalid batch mode sometimes"), response.getBody());
+        verifyNoInteractions(productsServices);
     }
 
     @Test
@@ -226,4 +437,41 @@ class ProductControllerTest {
         assertNotNull(response.getBody());
         assertEquals("Product not found", ((Map<?, ?>) response.getBody()).get("error"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUpdateProduct_StaleVersion() {
+        ProductEntity product = new ProductEntity();
+        product.setName("Updated Product");
+        product.setVersion(3L);
+        when(productsServices.updateProduct(product))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ProductEntity.class, 123L));
+
+        ResponseEntity<?> response = productController.updateProduct(123L, product);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(Map.of("error", "Product was modified by another request"), response.getBody());
+    }
+
+    @Test
+    void testListProducts_Success() {
+        ProductSummaryDTO product = new ProductSummaryDTO(1L, "Product", 10.0, null, null, 5, 1L);
+        CursorPage<ProductSummaryDTO> page = new CursorPage<>(List.of(product), "next", true);
+        when(productsServices.getStoreProductsPage(1L, null, 20, ProductSort.PRICE)).thenReturn(page);
+
+        ResponseEntity<?> response = productController.list(1L, null, 20, "price");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void testListProducts_InvalidCursor() {
+        when(productsServices.getStoreProductsPage(1L, "bad", null, ProductSort.ID))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        ResponseEntity<?> response = productController.list(1L, "bad", null, "id");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Map.of("error", "Invalid cursor"), response.getBody());
+    }
+}
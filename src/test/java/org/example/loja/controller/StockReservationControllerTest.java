@@ -0,0 +1,90 @@
+package org.example.loja.controller;
+
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockReservationDTO;
+import org.example.loja.dto.StockReservationResult;
+import org.example.loja.services.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockReservationControllerTest {
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @InjectMocks
+    private StockReservationController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private StockReservationDTO reservation(Long productId, Integer quantity) {
+        StockReservationDTO dto = new StockReservationDTO();
+        dto.setProductId(productId);
+        dto.setQuantity(quantity);
+        return dto;
+    }
+
+    @Test
+    void testReserve_Created() {
+        UUID id = UUID.randomUUID();
+        when(stockReservationService.reserve(1L, 2L, 3, null)).thenReturn(StockReservationResult.reserved(id, 1_000L, 7));
+
+        ResponseEntity<?> response = controller.reserve(1L, reservation(2L, 3));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(Map.of("reservationId", id, "expiresAt", 1_000L, "availableQuantity", 7), response.getBody());
+    }
+
+    @Test
+    void testReserve_InsufficientStock() {
+        when(stockReservationService.reserve(1L, 2L, 3, null)).thenReturn(StockReservationResult.insufficientStock(2));
+
+        ResponseEntity<?> response = controller.reserve(1L, reservation(2L, 3));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(Map.of("error", "Insufficient stock", "availableQuantity", 2), response.getBody());
+    }
+
+    @Test
+    void testReserve_MissingFields() {
+        ResponseEntity<?> response = controller.reserve(1L, reservation(2L, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    void testConfirm_Success() {
+        UUID id = UUID.randomUUID();
+        when(stockReservationService.confirm(1L, id)).thenReturn(StockAdjustment.applied(48));
+
+        ResponseEntity<?> response = controller.confirm(1L, id);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("message", "Reservation confirmed", "productQuantity", 48), response.getBody());
+    }
+
+    @Test
+    void testRelease_NotFound() {
+        UUID id = UUID.randomUUID();
+        when(stockReservationService.release(1L, id)).thenReturn(false);
+
+        ResponseEntity<?> response = controller.release(1L, id);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -2,21 +2,24 @@ package org.example.loja.controller;
 
 import io.github.cdimascio.dotenv.Dotenv;
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.LoginRateLimiter;
 import org.example.loja.dto.LoginDTO;
 import org.example.loja.entities.StoreAdminEntity;
+import org.example.loja.enums.TokenType;
+import org.example.loja.services.PasswordHashingService;
 import org.example.loja.services.StoreAdminServices;
-import org.example.loja.util.Authorization;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,10 +36,19 @@ class    StoreAdminLoginControllerTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         when(jwtTokenProvider.validateToken(any(String.class))).thenReturn(true);
+        when(loginRateLimiter.tryAcquire(eq(LoginRateLimiter.Endpoint.STORE_ADMIN), anyString(), any())).thenReturn(true);
     }
     @BeforeAll
     public static void setUpBeforeClass() throws Exception {
@@ -63,21 +75,21 @@ class    StoreAdminLoginControllerTest {
 
         when(storeAdminServices.getStoreAdminByEmail(login.getEmail())).thenReturn(admin);
 
-        try (MockedStatic<Authorization> mockedAuth = mockStatic(Authorization.class)) {
-            mockedAuth.when(() -> Authorization.isAuthorized(anyString(), anyString()))
-                    .thenReturn(true);
+        when(passwordHashingService.verify(anyString(), anyString(), any()))
+                .thenReturn(true);
 
-            when(jwtTokenProvider.generateStoreAdminToken(admin))
-                    .thenReturn("mock_jwt_token");
+        when(jwtTokenProvider.generateStoreAdminToken(admin))
+                .thenReturn("mock_jwt_token");
+        when(jwtTokenProvider.generateRefreshToken(admin.getEmail(), TokenType.STORE_ADMIN))
+                .thenReturn("mock_refresh_token");
 
-            ResponseEntity<?> response = storeAdminLoginController.login(login);
-            System.out.println(response.getBody());
-            assertNotNull(response);
-            assertEquals(HttpStatusCode.valueOf(200), response.getStatusCode());
-            assertEquals(Map.of("token", "mock_jwt_token"), response.getBody());
+        ResponseEntity<?> response = storeAdminLoginController.login(login, request);
+        System.out.println(response.getBody());
+        assertNotNull(response);
+        assertEquals(HttpStatusCode.valueOf(200), response.getStatusCode());
+        assertEquals(Map.of("token", "mock_jwt_token", "refreshToken", "mock_refresh_token"), response.getBody());
 
-            verify(jwtTokenProvider, times(1)).generateStoreAdminToken(admin);
-        }
+        verify(jwtTokenProvider, times(1)).generateStoreAdminToken(admin);
 
         verify(storeAdminServices, times(1)).getStoreAdminByEmail(login.getEmail());
     }
@@ -96,21 +108,56 @@ class    StoreAdminLoginControllerTest {
 
         when(storeAdminServices.getStoreAdminByEmail(login.getEmail())).thenReturn(admin);
 
-        try (MockedStatic<Authorization> mockedAuth = mockStatic(Authorization.class)) {
-            mockedAuth.when(() -> Authorization.isAuthorized(login.getPassword(), admin.getPassword()))
-                    .thenReturn(false);
+        when(passwordHashingService.verify(eq(login.getPassword()), eq(admin.getPassword()), any()))
+                .thenReturn(false);
 
-            ResponseEntity<?> response = storeAdminLoginController.login(login);
+        ResponseEntity<?> response = storeAdminLoginController.login(login, request);
 
-            assertNotNull(response);
-            assertEquals(HttpStatusCode.valueOf(401), response.getStatusCode());
-            assertEquals(Map.of("error", "Invalid credentials"), response.getBody());
-        }
+        assertNotNull(response);
+        assertEquals(HttpStatusCode.valueOf(401), response.getStatusCode());
+        assertEquals(Map.of("error", "Invalid credentials"), response.getBody());
 
         verify(storeAdminServices, times(1)).getStoreAdminByEmail(login.getEmail());
         verifyNoMoreInteractions(jwtTokenProvider);
     }
 
+    @Test
+    void testLogin_TooManyRequests() throws Exception {
+        LoginDTO login = new LoginDTO();
+        login.setEmail("admin@test.com");
+        login.setPassword("password");
+
+        StoreAdminEntity admin = new StoreAdminEntity();
+        admin.setId(UUID.randomUUID());
+        admin.setEmail("admin@test.com");
+        admin.setPassword("hashed_password");
+
+        when(storeAdminServices.getStoreAdminByEmail(login.getEmail())).thenReturn(admin);
+        when(passwordHashingService.verify(eq(login.getPassword()), eq(admin.getPassword()), any()))
+                .thenThrow(new RejectedExecutionException());
+
+        ResponseEntity<?> response = storeAdminLoginController.login(login, request);
+
+        assertEquals(429, response.getStatusCode().value());
+        assertEquals(Map.of("error", "Too many login attempts, try again later"), response.getBody());
+        verify(jwtTokenProvider, never()).generateStoreAdminToken(any());
+    }
+
+    @Test
+    void testLogin_Throttled() {
+        LoginDTO login = new LoginDTO();
+        login.setEmail("admin@test.com");
+        login.setPassword("password");
+
+        when(loginRateLimiter.tryAcquire(LoginRateLimiter.Endpoint.STORE_ADMIN, login.getEmail(), request.getRemoteAddr()))
+                .thenReturn(false);
+
+        ResponseEntity<?> response = storeAdminLoginController.login(login, request);
+
+        assertEquals(429, response.getStatusCode().value());
+        verifyNoInteractions(storeAdminServices, passwordHashingService);
+    }
+
     @Test
     void testLogin_EmailNotFound() {
         // Arrange
@@ -122,7 +169,7 @@ class    StoreAdminLoginControllerTest {
                 .thenThrow(new IllegalArgumentException("Store Admin not found"));
 
         // Act
-        ResponseEntity<?> response = storeAdminLoginController.login(login);
+        ResponseEntity<?> response = storeAdminLoginController.login(login, request);
 
         // Assert
         assertNotNull(response);
@@ -142,7 +189,7 @@ class    StoreAdminLoginControllerTest {
         when(storeAdminServices.getStoreAdminByEmail(login.getEmail()))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
-        ResponseEntity<?> response = storeAdminLoginController.login(login);
+        ResponseEntity<?> response = storeAdminLoginController.login(login, request);
 
         assertNotNull(response);
         assertEquals(400, response.getStatusCode().value());
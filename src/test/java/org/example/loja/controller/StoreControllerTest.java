@@ -1,15 +1,20 @@
 package org.example.loja.controller;
 
+import org.example.loja.config.security.AuthContext;
+import org.example.loja.config.security.StoreMembership;
+import org.example.loja.dto.StoreSummaryDTO;
 import org.example.loja.entities.StoreEntity;
+import org.example.loja.enums.TokenType;
 import org.example.loja.services.StoreService;
-import org.example.loja.config.security.JwtTokenProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +35,11 @@ class StoreControllerTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    private static AuthContext storeAdminContext(UUID storeAdminId) {
+        return new AuthContext(storeAdminId, "admin@test.com", List.of("STORE_ADMIN"), TokenType.STORE_ADMIN,
+                StoreMembership.of(List.of(1L)), UUID.randomUUID().toString(), Long.MAX_VALUE);
+    }
+
     @Test
     @WithMockUser
     void postStore_shouldCreateNewStoreWhenValidInput() throws Exception {
@@ -39,26 +49,22 @@ class StoreControllerTest {
         store.setPhone("+123456789");
         store.setEmail("test@example.com");
         UUID storeAdminId = UUID.randomUUID();
-        String token = "Bearer header.payload.signature";
+        AuthContext auth = storeAdminContext(storeAdminId);
 
-        try (MockedStatic<JwtTokenProvider> mockedJwt = Mockito.mockStatic(JwtTokenProvider.class)) {
-            mockedJwt.when(() -> JwtTokenProvider.extractIdFromToken(anyString()))
-                    .thenReturn(storeAdminId);
-            when(storeService.saveStore(any(StoreEntity.class), eq(storeAdminId)))
-                    .thenReturn(1L);
+        when(storeService.saveStore(any(StoreEntity.class), eq(storeAdminId)))
+                .thenReturn(1L);
 
-            ResponseEntity<?> response = storeController.postStore(store, token);
+        ResponseEntity<?> response = storeController.postStore(store, auth);
 
-            assertNotNull(response);
-            assertEquals(201, response.getStatusCode().value());
+        assertNotNull(response);
+        assertEquals(201, response.getStatusCode().value());
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            assertEquals("Store created", responseBody.get("message"));
-            assertEquals(1L, responseBody.get("id"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals("Store created", responseBody.get("message"));
+        assertEquals(1L, responseBody.get("id"));
 
-            verify(storeService, times(1)).saveStore(any(StoreEntity.class), eq(storeAdminId));
-        }
+        verify(storeService, times(1)).saveStore(any(StoreEntity.class), eq(storeAdminId));
     }
 
     @Test
@@ -71,25 +77,21 @@ class StoreControllerTest {
         store.setEmail("updated@example.com");
 
         UUID storeAdminId = UUID.randomUUID();
-        String token = "Bearer header.payload.signature";
+        AuthContext auth = storeAdminContext(storeAdminId);
 
-        try (MockedStatic<JwtTokenProvider> mockedJwt = Mockito.mockStatic(JwtTokenProvider.class)) {
-            mockedJwt.when(() -> JwtTokenProvider.extractIdFromToken(anyString()))
-                    .thenReturn(storeAdminId);
-            when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(false);
-            when(storeService.updateStore(any(StoreEntity.class))).thenReturn(true);
+        when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(false);
+        when(storeService.updateStore(any(StoreEntity.class))).thenReturn(true);
 
-            ResponseEntity<?> response = storeController.putStore(store, token, 1L);
+        ResponseEntity<?> response = storeController.putStore(store, auth, 1L);
 
-            assertNotNull(response);
-            assertEquals(202, response.getStatusCode().value());
+        assertNotNull(response);
+        assertEquals(202, response.getStatusCode().value());
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            assertEquals("Store updated", responseBody.get("message"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals("Store updated", responseBody.get("message"));
 
-            verify(storeService, times(1)).updateStore(any(StoreEntity.class));
-        }
+        verify(storeService, times(1)).updateStore(any(StoreEntity.class));
     }
 
     @Test
@@ -99,97 +101,115 @@ class StoreControllerTest {
         store.setName("Unauthorized Update");
 
         UUID storeAdminId = UUID.randomUUID();
-        String token = "Bearer header.payload.signature";
+        AuthContext auth = storeAdminContext(storeAdminId);
 
-        try (MockedStatic<JwtTokenProvider> mockedJwt = Mockito.mockStatic(JwtTokenProvider.class)) {
-            mockedJwt.when(() -> JwtTokenProvider.extractIdFromToken(anyString()))
-                    .thenReturn(storeAdminId);
-            when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(true);
+        when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(true);
 
-            ResponseEntity<?> response = storeController.putStore(store, token, 1L);
+        ResponseEntity<?> response = storeController.putStore(store, auth, 1L);
 
-            assertNotNull(response);
-            assertEquals(403, response.getStatusCode().value());
+        assertNotNull(response);
+        assertEquals(403, response.getStatusCode().value());
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            assertEquals("You are not authorized to update this store", responseBody.get("error"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals("You are not authorized to update this store", responseBody.get("error"));
 
-            verify(storeService, never()).updateStore(any(StoreEntity.class));
-        }
+        verify(storeService, never()).updateStore(any(StoreEntity.class));
     }
 
     @Test
     @WithMockUser
     void deleteStore_shouldDeactivateStoreWhenAuthorized() throws Exception {
         UUID storeAdminId = UUID.randomUUID();
-        String token = "Bearer header.payload.signature";
+        AuthContext auth = storeAdminContext(storeAdminId);
 
-        try (MockedStatic<JwtTokenProvider> mockedJwt = Mockito.mockStatic(JwtTokenProvider.class)) {
-            mockedJwt.when(() -> JwtTokenProvider.extractIdFromToken(anyString()))
-                    .thenReturn(storeAdminId);
-            when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(false);
-            when(storeService.deleteStore(eq(1L))).thenReturn(true);
+        when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(false);
+        when(storeService.deleteStore(eq(1L))).thenReturn(true);
 
-            ResponseEntity<?> response = storeController.deactivateStore(1L, token);
+        ResponseEntity<?> response = storeController.deactivateStore(1L, auth);
 
-            assertNotNull(response);
-            assertEquals(202, response.getStatusCode().value());
+        assertNotNull(response);
+        assertEquals(202, response.getStatusCode().value());
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            assertEquals("Store deactivated", responseBody.get("message"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals("Store deactivated", responseBody.get("message"));
 
-            verify(storeService, times(1)).deleteStore(eq(1L));
-        }
+        verify(storeService, times(1)).deleteStore(eq(1L));
     }
 
     @Test
     @WithMockUser
     void deleteStore_shouldReturnForbiddenWhenNotAuthorized() throws Exception {
         UUID storeAdminId = UUID.randomUUID();
-        String token = "Bearer header.payload.signature";
+        AuthContext auth = storeAdminContext(storeAdminId);
 
-        try (MockedStatic<JwtTokenProvider> mockedJwt = Mockito.mockStatic(JwtTokenProvider.class)) {
-            mockedJwt.when(() -> JwtTokenProvider.extractIdFromToken(anyString()))
-                    .thenReturn(storeAdminId);
-            when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(true);
+        when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(true);
 
-            ResponseEntity<?> response = storeController.deactivateStore(1L, token);
+        ResponseEntity<?> response = storeController.deactivateStore(1L, auth);
 
-            assertNotNull(response);
-            assertEquals(403, response.getStatusCode().value());
+        assertNotNull(response);
+        assertEquals(403, response.getStatusCode().value());
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            assertEquals("You are not authorized to deactivate this store", responseBody.get("error"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals("You are not authorized to deactivate this store", responseBody.get("error"));
 
-            verify(storeService, never()).deleteStore(eq(1L));
-        }
+        verify(storeService, never()).deleteStore(eq(1L));
     }
 
     @Test
     @WithMockUser
     void deleteStore_shouldReturnNotFoundWhenStoreDoesNotExist() throws Exception {
         UUID storeAdminId = UUID.randomUUID();
-        String token = "Bearer header.payload.signature";
+        AuthContext auth = storeAdminContext(storeAdminId);
+
+        when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(false);
+        when(storeService.deleteStore(eq(1L))).thenReturn(false);
+
+        ResponseEntity<?> response = storeController.deactivateStore(1L, auth);
+
+        assertNotNull(response);
+        assertEquals(404, response.getStatusCode().value());
 
-        try (MockedStatic<JwtTokenProvider> mockedJwt = Mockito.mockStatic(JwtTokenProvider.class)) {
-            mockedJwt.when(() -> JwtTokenProvider.extractIdFromToken(anyString()))
-                    .thenReturn(storeAdminId);
-            when(storeService.verifyIfIsAuthorized(eq(storeAdminId), eq(1L))).thenReturn(false);
-            when(storeService.deleteStore(eq(1L))).thenReturn(false);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals("Store not found", responseBody.get("error"));
+
+        verify(storeService, times(1)).deleteStore(eq(1L));
+    }
+
+    @Test
+    void getStore_shouldReturnStoreWithETag() {
+        StoreSummaryDTO store = new StoreSummaryDTO(1L, "Loja", null, null, "+123456789", "loja@example.com", true, 5L);
+        when(storeService.getStore(1L)).thenReturn(Optional.of(store));
 
-            ResponseEntity<?> response = storeController.deactivateStore(1L, token);
+        ResponseEntity<?> response = storeController.getStore(1L, null);
 
-            assertNotNull(response);
-            assertEquals(404, response.getStatusCode().value());
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(store, response.getBody());
+        assertEquals("\"1.5\"", response.getHeaders().getETag());
+        verify(storeService, never()).getStoreVersion(anyLong());
+    }
+
+    @Test
+    void getStore_shouldReturnNotModifiedWithoutLoadingTheStore() {
+        when(storeService.getStoreVersion(1L)).thenReturn(Optional.of(5L));
+
+        ResponseEntity<?> response = storeController.getStore(1L, "W/\"1.5\"");
+
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        verify(storeService, never()).getStore(anyLong());
+    }
+
+    @Test
+    void getStore_shouldReturnNotFoundWhenStoreDoesNotExist() {
+        when(storeService.getStoreVersion(1L)).thenReturn(Optional.empty());
+        when(storeService.getStore(1L)).thenReturn(Optional.empty());
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
-            assertEquals("Store not found", responseBody.get("error"));
+        ResponseEntity<?> response = storeController.getStore(1L, "*");
 
-            verify(storeService, times(1)).deleteStore(eq(1L));
-        }
+        assertEquals(404, response.getStatusCode().value());
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,21 @@
 package org.example.loja.controller;
 
 import org.example.loja.config.security.JwtTokenProvider;
+import org.example.loja.config.security.LoginRateLimiter;
 import org.example.loja.dto.LoginDTO;
 import org.example.loja.entities.StoreManagerEntity;
+import org.example.loja.enums.TokenType;
+import org.example.loja.services.PasswordHashingService;
 import org.example.loja.services.StoreManagerService;
-import org.example.loja.util.Authorization;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,12 +28,21 @@ class StoreManagerLoginControllerTest {
     @Mock
     private StoreManagerService storeManagerService;
 
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
     @InjectMocks
     private StoreManagerLoginController storeManagerLoginController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(loginRateLimiter.tryAcquire(eq(LoginRateLimiter.Endpoint.STORE_MANAGER), anyString(), any())).thenReturn(true);
     }
 
     @Test
@@ -46,25 +59,26 @@ class StoreManagerLoginControllerTest {
         when(storeManagerService.getStoreIdByStoreManagerEmail(loginDTO.getEmail()))
                 .thenReturn(storeManager);
 
-        try (MockedStatic<Authorization> mockedAuth = Mockito.mockStatic(Authorization.class)) {
-            mockedAuth.when(() -> Authorization.isAuthorized(loginDTO.getPassword(), storeManager.getPassword()))
-                    .thenReturn(true);
+        when(passwordHashingService.verify(eq(loginDTO.getPassword()), eq(storeManager.getPassword()), any()))
+                .thenReturn(true);
 
-            when(jwtTokenProvider.generateStoreManagerToken(storeManager))
-                    .thenReturn("generated.jwt.token");
+        when(jwtTokenProvider.generateStoreManagerToken(storeManager))
+                .thenReturn("generated.jwt.token");
+        when(jwtTokenProvider.generateRefreshToken(storeManager.getEmail(), TokenType.MANAGER))
+                .thenReturn("generated.refresh.token");
 
-            // Act
-            ResponseEntity<?> response = storeManagerLoginController.post(loginDTO);
+        // Act
+        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO, request);
 
-            // Assert
-            assertEquals(HttpStatus.OK, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertInstanceOf(Map.class, response.getBody());
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertInstanceOf(Map.class, response.getBody());
 
-            @SuppressWarnings("unchecked")
-            Map<String, String> responseBody = (Map<String, String>) response.getBody();
-            assertEquals("generated.jwt.token", responseBody.get("token"));
-        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> responseBody = (Map<String, String>) response.getBody();
+        assertEquals("generated.jwt.token", responseBody.get("token"));
+        assertEquals("generated.refresh.token", responseBody.get("refreshToken"));
 
         verify(storeManagerService).getStoreIdByStoreManagerEmail(loginDTO.getEmail());
         verify(jwtTokenProvider).generateStoreManagerToken(storeManager);
@@ -81,7 +95,7 @@ class StoreManagerLoginControllerTest {
                 .thenReturn(null);
 
         // Act
-        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO);
+        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO, request);
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -106,23 +120,58 @@ class StoreManagerLoginControllerTest {
         when(storeManagerService.getStoreIdByStoreManagerEmail(loginDTO.getEmail()))
                 .thenReturn(storeManager);
 
-        try (MockedStatic<Authorization> mockedAuth = Mockito.mockStatic(Authorization.class)) {
-            mockedAuth.when(() -> Authorization.isAuthorized(loginDTO.getPassword(), storeManager.getPassword()))
-                    .thenReturn(false);
+        when(passwordHashingService.verify(eq(loginDTO.getPassword()), eq(storeManager.getPassword()), any()))
+                .thenReturn(false);
 
-            // Act
-            ResponseEntity<?> response = storeManagerLoginController.post(loginDTO);
+        // Act
+        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO, request);
 
-            // Assert
-            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-            assertNotNull(response.getBody());
-            assertEquals("Invalid credentials", ((Map<?, ?>) response.getBody()).get("error"));
-        }
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Invalid credentials", ((Map<?, ?>) response.getBody()).get("error"));
 
         verify(storeManagerService).getStoreIdByStoreManagerEmail(loginDTO.getEmail());
         verifyNoInteractions(jwtTokenProvider);
     }
 
+    @Test
+    void testPost_TooManyRequests() {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail("manager@example.com");
+        loginDTO.setPassword("securePassword123");
+
+        StoreManagerEntity storeManager = new StoreManagerEntity();
+        storeManager.setEmail(loginDTO.getEmail());
+        storeManager.setPassword("hashedPassword");
+
+        when(storeManagerService.getStoreIdByStoreManagerEmail(loginDTO.getEmail()))
+                .thenReturn(storeManager);
+        when(passwordHashingService.verify(eq(loginDTO.getPassword()), eq(storeManager.getPassword()), any()))
+                .thenThrow(new RejectedExecutionException());
+
+        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO, request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("Too many login attempts, try again later", ((Map<?, ?>) response.getBody()).get("error"));
+        verifyNoInteractions(jwtTokenProvider);
+    }
+
+    @Test
+    void testPost_Throttled() {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail("manager@example.com");
+        loginDTO.setPassword("securePassword123");
+
+        when(loginRateLimiter.tryAcquire(LoginRateLimiter.Endpoint.STORE_MANAGER, loginDTO.getEmail(), request.getRemoteAddr()))
+                .thenReturn(false);
+
+        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO, request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        verifyNoInteractions(storeManagerService, passwordHashingService, jwtTokenProvider);
+    }
+
     @Test
     void testPost_InternalServerError() {
         // Arrange
@@ -134,7 +183,7 @@ class StoreManagerLoginControllerTest {
                 .thenThrow(new RuntimeException("Database error"));
 
         // Act
-        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO);
+        ResponseEntity<?> response = storeManagerLoginController.post(loginDTO, request);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -0,0 +1,174 @@
+package org.example.loja.interceptor;
+
+import org.example.loja.config.security.AuthContext;
+import org.example.loja.config.security.StoreMembership;
+import org.example.loja.config.security.StoreScoped;
+import org.example.loja.enums.TokenType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreAccessInterceptorTest {
+
+    private StoreAccessInterceptor interceptor;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    static class Handlers {
+        public void unscoped() {
+        }
+
+        @StoreScoped
+        public void byStoreId() {
+        }
+
+        @StoreScoped("id")
+        public void byId() {
+        }
+    }
+
+    @StoreScoped
+    static class ScopedController {
+        public void anyHandler() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new StoreAccessInterceptor();
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    private static HandlerMethod handler(Object bean, String method) throws Exception {
+        return new HandlerMethod(bean, bean.getClass().getMethod(method));
+    }
+
+    private static AuthContext storeAdmin(Long... storeIds) {
+        return new AuthContext(UUID.randomUUID(), "admin@loja.com", List.of("STORE_ADMIN"), TokenType.STORE_ADMIN,
+                StoreMembership.of(List.of(storeIds)), UUID.randomUUID().toString(), Long.MAX_VALUE);
+    }
+
+    private void pathVariables(Map<String, String> variables) {
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+    }
+
+    private void assertUnauthorized(boolean proceed) throws Exception {
+        assertFalse(proceed);
+        assertEquals(401, response.getStatus());
+        assertEquals("{\"error\": \"Unauthorized\"}", response.getContentAsString());
+        assertNull(request.getAttribute(StoreAccessInterceptor.AUTHORIZED_STORE_ATTRIBUTE));
+    }
+
+    @Test
+    void testPreHandle_UnannotatedHandlerIsSkipped() throws Exception {
+        pathVariables(Map.of("storeId", "7"));
+
+        assertTrue(interceptor.preHandle(request, response, handler(new Handlers(), "unscoped")));
+
+        assertEquals(200, response.getStatus());
+        assertNull(request.getAttribute(StoreAccessInterceptor.AUTHORIZED_STORE_ATTRIBUTE));
+    }
+
+    @Test
+    void testPreHandle_NonControllerHandlerIsSkipped() throws Exception {
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+    }
+
+    @Test
+    void testPreHandle_AllowedStoreIsGranted() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin(7L));
+        pathVariables(Map.of("storeId", "7"));
+
+        assertTrue(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+
+        assertEquals(7L, request.getAttribute(StoreAccessInterceptor.AUTHORIZED_STORE_ATTRIBUTE));
+    }
+
+    @Test
+    void testPreHandle_DeniedStore() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin(7L));
+        pathVariables(Map.of("storeId", "8"));
+
+        assertUnauthorized(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+    }
+
+    @Test
+    void testPreHandle_MissingPathVariable() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin(7L));
+        pathVariables(Map.of("id", "7"));
+
+        assertUnauthorized(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+    }
+
+    @Test
+    void testPreHandle_NoPathVariablesAtAll() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin(7L));
+
+        assertUnauthorized(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+    }
+
+    @Test
+    void testPreHandle_NonNumericPathVariable() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin(7L));
+        pathVariables(Map.of("storeId", "sete"));
+
+        assertUnauthorized(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+    }
+
+    @Test
+    void testPreHandle_MissingAuthContext() throws Exception {
+        pathVariables(Map.of("storeId", "7"));
+
+        assertUnauthorized(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+    }
+
+    @Test
+    void testPreHandle_CustomPathVariableName() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin(7L));
+        pathVariables(Map.of("id", "7", "storeId", "8"));
+
+        assertTrue(interceptor.preHandle(request, response, handler(new Handlers(), "byId")));
+        assertEquals(7L, request.getAttribute(StoreAccessInterceptor.AUTHORIZED_STORE_ATTRIBUTE));
+    }
+
+    @Test
+    void testPreHandle_AnnotationOnController() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin(7L));
+        pathVariables(Map.of("storeId", "8"));
+
+        assertUnauthorized(interceptor.preHandle(request, response, handler(new ScopedController(), "anyHandler")));
+    }
+
+    @Test
+    void testPreHandle_ForwardReusesGrantedStore() throws Exception {
+        // Membership that would deny the store: only the attribute from the first dispatch can let it through.
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin());
+        request.setAttribute(StoreAccessInterceptor.AUTHORIZED_STORE_ATTRIBUTE, 7L);
+        pathVariables(Map.of("storeId", "7"));
+
+        assertTrue(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testPreHandle_GrantForAnotherStoreIsNotReused() throws Exception {
+        request.setAttribute(AuthContext.ATTRIBUTE, storeAdmin());
+        request.setAttribute(StoreAccessInterceptor.AUTHORIZED_STORE_ATTRIBUTE, 7L);
+        pathVariables(Map.of("storeId", "8"));
+
+        assertFalse(interceptor.preHandle(request, response, handler(new Handlers(), "byStoreId")));
+        assertEquals(401, response.getStatus());
+    }
+}
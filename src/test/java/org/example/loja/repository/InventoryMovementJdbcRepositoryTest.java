@@ -0,0 +1,43 @@
+package org.example.loja.repository;
+
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.enums.MovementReason;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.config.import=",
+        "spring.application.name=loja-test",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(InventoryMovementJdbcRepository.class)
+class InventoryMovementJdbcRepositoryTest {
+
+    @Autowired
+    private InventoryMovementJdbcRepository movementJdbcRepository;
+
+    private static InventoryMovementDTO movement(long productId, int delta, MovementReason reason, long createdAt) {
+        return new InventoryMovementDTO(null, productId, 1L, delta, reason, "system", createdAt);
+    }
+
+    @Test
+    void testUnitsSoldSince_CountsSalesAndConfirmedReservationsInTheWindow() {
+        movementJdbcRepository.insert(List.of(
+                movement(1, -2, MovementReason.SALE, 1_000),
+                movement(1, -3, MovementReason.RESERVATION, 2_000),
+                movement(1, 1, MovementReason.SALE, 2_000),
+                movement(1, -4, MovementReason.SALE, 10),
+                movement(2, -7, MovementReason.ADJUSTMENT, 2_000),
+                movement(2, 9, MovementReason.RESTOCK, 2_000),
+                movement(3, -1, MovementReason.SALE, 1_500)));
+
+        assertEquals(Map.of(1L, 5L, 3L, 1L), movementJdbcRepository.unitsSoldSince(1_000));
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.loja.repository;
+
+import org.example.loja.dto.ProductDocument;
+import org.example.loja.entities.CategoryEntity;
+import org.example.loja.entities.ProductEntity;
+import org.example.loja.entities.StoreEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.config.import=",
+        "spring.application.name=loja-test",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ProductSearchJdbcRepository.class)
+class ProductSearchJdbcRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductSearchJdbcRepository productSearchJdbcRepository;
+
+    private CategoryEntity category(String name) {
+        CategoryEntity category = new CategoryEntity();
+        category.setName(name);
+        return entityManager.persist(category);
+    }
+
+    @Test
+    void testForEachDocument_ReadsEveryProductWithItsCategoriesInChunks() {
+        StoreEntity store = new StoreEntity();
+        store.setName("Store");
+        store.setPhone("+5511999999999");
+        store.setEmail("store@loja.com");
+        store.setLocations(new HashSet<>());
+        entityManager.persist(store);
+        CategoryEntity tv = category("Tv");
+        CategoryEntity audio = category("Audio");
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ProductEntity product = new ProductEntity();
+            product.setName("Televisão " + i);
+            product.setBrand("Marca");
+            product.setPrice(10.0);
+            product.setQuantity(i);
+            product.setStore(store);
+            product.setCategories(i == 0 ? new HashSet<>(Set.of(tv, audio)) : i == 1 ? new HashSet<>() : new HashSet<>(Set.of(tv)));
+            ids.add(entityManager.persistAndGetId(product, Long.class));
+        }
+        entityManager.flush();
+
+        List<ProductDocument> documents = new ArrayList<>();
+        productSearchJdbcRepository.forEachDocument(2, documents::add);
+
+        assertEquals(ids, documents.stream().map(ProductDocument::id).toList());
+        assertEquals(Set.of(tv.getId(), audio.getId()), documents.get(0).categoryIds());
+        assertEquals(Set.of(), documents.get(1).categoryIds());
+        assertEquals("Televisão 3", documents.get(3).name());
+        assertEquals(3, documents.get(3).quantity());
+        assertEquals(10.0, documents.get(3).price());
+        assertEquals(store.getId(), documents.get(3).storeId());
+
+        List<ProductSearchJdbcRepository.ProductName> names = new ArrayList<>();
+        productSearchJdbcRepository.forEachName(2, names::add);
+
+        assertEquals(ids, names.stream().map(ProductSearchJdbcRepository.ProductName::id).toList());
+        assertEquals(new ProductSearchJdbcRepository.ProductName(ids.get(4), store.getId(), "Televisão 4", "Marca"), names.get(4));
+    }
+}
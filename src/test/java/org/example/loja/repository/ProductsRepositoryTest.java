@@ -0,0 +1,187 @@
+package org.example.loja.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.loja.dto.ProductSummaryDTO;
+import org.example.loja.entities.ProductEntity;
+import org.example.loja.entities.StoreEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.config.import=",
+        "spring.application.name=loja-test",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductsRepository productsRepository;
+
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        StoreEntity store = new StoreEntity();
+        store.setName("Store");
+        store.setPhone("+5511999999999");
+        store.setEmail("store@loja.com");
+        store.setLocations(new HashSet<>());
+        storeId = entityManager.persistAndGetId(store, Long.class);
+
+        StoreEntity otherStore = new StoreEntity();
+        otherStore.setName("Other store");
+        otherStore.setPhone("+5511888888888");
+        otherStore.setEmail("other@loja.com");
+        otherStore.setLocations(new HashSet<>());
+        entityManager.persist(otherStore);
+
+        for (int i = 0; i < 30; i++) {
+            entityManager.persist(product("Product " + i, 10.0 + i, i % 3 == 0 ? otherStore : store));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private ProductEntity product(String name, double price, StoreEntity store) {
+        ProductEntity product = new ProductEntity();
+        product.setName(name);
+        product.setPrice(price);
+        product.setQuantity(1);
+        product.setStore(store);
+        return product;
+    }
+
+    @Test
+    void testFindStorePageById_SingleStatementPerPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProductSummaryDTO> page = productsRepository.findStorePageById(storeId, 0, PageRequest.of(0, 11));
+
+        assertEquals(11, page.size());
+        assertTrue(page.stream().allMatch(product -> storeId.equals(product.storeId())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindStorePageByPrice_ContinuesAfterKey() {
+        List<ProductSummaryDTO> first = productsRepository.findStorePageByPrice(storeId, -Double.MAX_VALUE, 0, PageRequest.of(0, 5));
+        ProductSummaryDTO last = first.get(first.size() - 1);
+
+        List<ProductSummaryDTO> next = productsRepository.findStorePageByPrice(storeId, last.price(), last.id(), PageRequest.of(0, 5));
+
+        assertEquals(5, next.size());
+        assertTrue(next.stream().allMatch(product -> product.price() > last.price()));
+    }
+
+    // Follows the cursor from page to page, as ProductsServices does, and returns every id seen.
+    private List<Long> pageThrough(BiFunction<ProductSummaryDTO, Pageable, List<ProductSummaryDTO>> nextPage) {
+        List<Long> ids = new ArrayList<>();
+        ProductSummaryDTO last = null;
+        List<ProductSummaryDTO> page;
+        while (!(page = nextPage.apply(last, PageRequest.of(0, 3))).isEmpty()) {
+            page.forEach(product -> ids.add(product.id()));
+            last = page.get(page.size() - 1);
+        }
+        return ids;
+    }
+
+    @Test
+    void testStorePages_IncludeRowsWithoutPriceOrName() {
+        StoreEntity store = entityManager.find(StoreEntity.class, storeId);
+        List<Long> nullPriceIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ProductEntity noPrice = product("Sem preço " + i, 0, store);
+            noPrice.setPrice(null);
+            nullPriceIds.add(entityManager.persistAndGetId(noPrice, Long.class));
+        }
+        ProductEntity noName = product(null, 5.0, store);
+        Long noNameId = entityManager.persistAndGetId(noName, Long.class);
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> all = productsRepository.findStorePageById(storeId, 0, PageRequest.of(0, 100)).stream()
+                .map(ProductSummaryDTO::id).toList();
+
+        List<Long> byPrice = pageThrough((last, limit) -> last == null
+                ? productsRepository.findStorePageByPrice(storeId, null, 0, limit)
+                : productsRepository.findStorePageByPrice(storeId, last.price(), last.id(), limit));
+        List<Long> byPriceDesc = pageThrough((last, limit) -> last == null
+                ? productsRepository.findStorePageByPriceDesc(storeId, Double.MAX_VALUE, Long.MAX_VALUE, limit)
+                : productsRepository.findStorePageByPriceDesc(storeId, last.price(), last.id(), limit));
+        List<Long> byName = pageThrough((last, limit) -> last == null
+                ? productsRepository.findStorePageByName(storeId, null, 0, limit)
+                : productsRepository.findStorePageByName(storeId, last.name(), last.id(), limit));
+
+        for (List<Long> ids : List.of(byPrice, byPriceDesc, byName)) {
+            assertEquals(all.size(), ids.size());
+            assertEquals(new HashSet<>(all), new HashSet<>(ids));
+        }
+        assertEquals(nullPriceIds, byPrice.subList(0, 4));
+        List<Long> nullPriceIdsDesc = new ArrayList<>(nullPriceIds);
+        Collections.reverse(nullPriceIdsDesc);
+        assertEquals(nullPriceIdsDesc, byPriceDesc.subList(all.size() - 4, all.size()));
+        assertEquals(noNameId, byName.get(0));
+    }
+
+    @Test
+    void testPages_IncludeRowsWithoutPrice() {
+        StoreEntity store = entityManager.find(StoreEntity.class, storeId);
+        ProductEntity noPrice = product("Sem preço", 0, store);
+        noPrice.setPrice(null);
+        Long id = entityManager.persistAndGetId(noPrice, Long.class);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(id, productsRepository.findPageByPrice(null, 0, PageRequest.of(0, 1)).get(0).getId());
+        assertTrue(productsRepository.findPageByPrice(null, id, PageRequest.of(0, 100)).stream()
+                .allMatch(product -> product.getPrice() != null));
+        assertEquals(31, productsRepository.findPageByPriceDesc(Double.MAX_VALUE, Long.MAX_VALUE, PageRequest.of(0, 100)).size());
+        assertEquals(31, productsRepository.findPageByName(null, 0, PageRequest.of(0, 100)).size());
+    }
+
+    @Test
+    void testAdjustQuantity_BumpsVersion() {
+        ProductSummaryDTO product = productsRepository.findStorePageById(storeId, 0, PageRequest.of(0, 1)).get(0);
+        long before = productsRepository.findVersion(storeId, product.id()).orElseThrow();
+
+        productsRepository.adjustQuantity(storeId, product.id(), 1, 0);
+
+        assertEquals(before + 1, productsRepository.findVersion(storeId, product.id()).orElseThrow());
+        assertTrue(productsRepository.findVersion(storeId + 100, product.id()).isEmpty());
+    }
+
+    @Test
+    void testFindVersion_DoesNotLoadTheProduct() {
+        long id = productsRepository.findStorePageById(storeId, 0, PageRequest.of(0, 1)).get(0).id();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertTrue(productsRepository.findVersion(storeId, id).isPresent());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -26,6 +26,9 @@ public class EmployeeServiceTest {
     @Mock
     private PermissionRepository permissionRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     private final UUID employeeId = UUID.randomUUID();
     private final long permissionId = 1L;
 
@@ -152,16 +155,18 @@ public class EmployeeServiceTest {
         verify(permission).removeEmployee(employee);
         verify(employeeRepository).save(employee);
         verify(permissionRepository).save(permission);
+        verify(referenceDataCache).evictPermission(permissionId);
         assertTrue(result);
     }
 
     @Test
     public void testGetPermissions() {
         List<PermissionEntity> permissions = List.of(new PermissionEntity(), new PermissionEntity());
-        when(permissionRepository.findAll()).thenReturn(permissions);
+        when(referenceDataCache.getPermissions()).thenReturn(permissions);
 
         List<PermissionEntity> result = service.getPermissions();
 
         assertEquals(2, result.size());
+        verifyNoInteractions(permissionRepository);
     }
 }
@@ -0,0 +1,245 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockChangeDTO;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.repository.ProductStockJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotStockCounterTest {
+
+    @Mock
+    private ProductStockJdbcRepository productStockJdbcRepository;
+
+    @Mock
+    private InventoryJournal inventoryJournal;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private HotStockCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        counter = new HotStockCounter("7, 8", 4, 5, productStockJdbcRepository, inventoryJournal, meterRegistry);
+        when(productStockJdbcRepository.findQuantities(1L, List.of(7L))).thenReturn(Map.of(7L, 105));
+        when(productStockJdbcRepository.adjustQuantities(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<?> changes = invocation.getArgument(1);
+            int[] counts = new int[changes.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @Test
+    void testIsHot_OnlyConfiguredProducts() {
+        assertTrue(counter.isHot(7L));
+        assertTrue(counter.isHot(8L));
+        assertFalse(counter.isHot(9L));
+    }
+
+    @Test
+    void testAdjust_ConcurrentSalesNeverGoBelowFloor() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int applied = 0;
+                    for (int i = 0; i < 50; i++) {
+                        if (counter.adjust(1L, 7L, -1).status() == StockAdjustment.Status.APPLIED) {
+                            applied++;
+                        }
+                    }
+                    return applied;
+                }));
+            }
+            start.countDown();
+            int applied = 0;
+            for (Future<Integer> future : futures) {
+                applied += future.get();
+            }
+
+            // 105 in the database, 5 held back by the floor.
+            assertEquals(100, applied);
+            assertEquals(StockAdjustment.insufficientStock(5), counter.adjust(1L, 7L, -1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFlush_CoalescesDeltasIntoOneUpdate() {
+        counter.adjust(1L, 7L, -3);
+        counter.adjust(1L, 7L, -2);
+        counter.adjust(1L, 7L, 1);
+
+        counter.flush();
+        counter.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeDTO>> changes = ArgumentCaptor.forClass(List.class);
+        verify(productStockJdbcRepository, times(1)).adjustQuantities(eq(1L), changes.capture());
+        assertEquals(1, changes.getValue().size());
+        assertEquals(7L, changes.getValue().get(0).getProductId());
+        assertEquals(-4, changes.getValue().get(0).getDelta());
+        assertEquals(2, meterRegistry.get("products.stock.hot.flush").timer().count());
+    }
+
+    @Test
+    void testAdjust_TakesUnitsSpreadOverStripes() {
+        // 100 sellable units are split 25 per stripe, so 60 must come from several stripes.
+        assertEquals(StockAdjustment.applied(45), counter.adjust(1L, 7L, -60));
+        assertEquals(StockAdjustment.insufficientStock(45), counter.adjust(1L, 7L, -41));
+    }
+
+    @Test
+    void testReservation_ReleaseGivesUnitsBack() {
+        HotStockCounter.Reservation reservation = counter.reserve(1L, 7L, -30);
+        assertEquals(StockAdjustment.applied(75), reservation.result());
+
+        reservation.release();
+        counter.flush();
+
+        assertEquals(StockAdjustment.applied(105), counter.adjust(1L, 7L, 0));
+        verify(productStockJdbcRepository, never()).adjustQuantities(anyLong(), anyList());
+    }
+
+    @Test
+    void testAdjust_OtherStoreOrMissingProduct() {
+        when(productStockJdbcRepository.findQuantities(2L, List.of(8L))).thenReturn(Map.of());
+
+        assertEquals(StockAdjustment.notFound(), counter.adjust(2L, 8L, -1));
+        counter.adjust(1L, 7L, 0);
+        assertEquals(StockAdjustment.notFound(), counter.adjust(2L, 7L, -1));
+    }
+
+    @Test
+    void testFlush_RefusedDeltaReloadsCounter() {
+        counter.adjust(1L, 7L, -10);
+        when(productStockJdbcRepository.adjustQuantities(eq(1L), anyList())).thenReturn(new int[]{0});
+        when(productStockJdbcRepository.findQuantities(1L, List.of(7L))).thenReturn(Map.of(7L, 20));
+
+        counter.flush();
+
+        assertEquals(1.0, meterRegistry.get("products.stock.hot.flush.failures").counter().count());
+        verify(inventoryJournal).record(1L, 7L, 10, MovementReason.ADJUSTMENT);
+        assertEquals(StockAdjustment.applied(19), counter.adjust(1L, 7L, -1));
+    }
+
+    @Test
+    void testFlush_RefusedDeltaKeepsSalesGrantedDuringTheFlush() {
+        counter.adjust(1L, 7L, -10);
+        when(productStockJdbcRepository.adjustQuantities(eq(1L), anyList())).thenAnswer(invocation -> {
+            // A sale lands between the drain and the refused write.
+            counter.adjust(1L, 7L, -2);
+            return new int[]{0};
+        });
+        when(productStockJdbcRepository.findQuantities(1L, List.of(7L))).thenReturn(Map.of(7L, 20));
+
+        counter.flush();
+
+        assertEquals(StockAdjustment.applied(18), counter.adjust(1L, 7L, 0));
+        doReturn(new int[]{1}).when(productStockJdbcRepository).adjustQuantities(eq(1L), anyList());
+        counter.flush();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeDTO>> changes = ArgumentCaptor.forClass(List.class);
+        verify(productStockJdbcRepository, times(2)).adjustQuantities(eq(1L), changes.capture());
+        assertEquals(-2, changes.getValue().get(0).getDelta());
+    }
+
+    @Test
+    void testFlush_FailedWriteIsRetried() {
+        counter.adjust(1L, 7L, -10);
+        when(productStockJdbcRepository.adjustQuantities(eq(1L), anyList()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(new int[]{1});
+
+        counter.flush();
+        counter.adjust(1L, 7L, -1);
+        counter.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeDTO>> changes = ArgumentCaptor.forClass(List.class);
+        verify(productStockJdbcRepository, times(2)).adjustQuantities(eq(1L), changes.capture());
+        assertEquals(-11, changes.getValue().get(0).getDelta());
+        assertEquals(StockAdjustment.applied(94), counter.adjust(1L, 7L, 0));
+        verify(inventoryJournal, never()).record(anyLong(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testReload_OverwrittenStockKeepsUnflushedSales() {
+        counter.adjust(1L, 7L, -3);
+        when(productStockJdbcRepository.findQuantities(1L, List.of(7L))).thenReturn(Map.of(7L, 50));
+
+        counter.reload(7L);
+
+        assertEquals(StockAdjustment.applied(47), counter.adjust(1L, 7L, 0));
+    }
+
+    @Test
+    void testReservation_CommitWaitsForTheTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.reserve(1L, 7L, -4).commitWithTransaction();
+            HotStockCounter.Reservation restock = counter.reserve(1L, 7L, 6);
+            restock.commitWithTransaction();
+            assertEquals(StockAdjustment.applied(107), restock.result());
+
+            counter.flush();
+            verify(productStockJdbcRepository, never()).adjustQuantities(anyLong(), anyList());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        counter.flush();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeDTO>> changes = ArgumentCaptor.forClass(List.class);
+        verify(productStockJdbcRepository).adjustQuantities(eq(1L), changes.capture());
+        assertEquals(2, changes.getValue().get(0).getDelta());
+    }
+
+    @Test
+    void testReservation_RolledBackTransactionReleases() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.reserve(1L, 7L, -4).commitWithTransaction();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        counter.flush();
+        assertEquals(StockAdjustment.applied(105), counter.adjust(1L, 7L, 0));
+        verify(productStockJdbcRepository, never()).adjustQuantities(anyLong(), anyList());
+    }
+}
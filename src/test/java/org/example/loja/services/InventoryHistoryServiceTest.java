@@ -0,0 +1,141 @@
+package org.example.loja.services;
+
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.dto.StockAtTime;
+import org.example.loja.entities.InventorySnapshotEntity;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.repository.InventoryMovementRepository;
+import org.example.loja.repository.InventorySnapshotRepository;
+import org.example.loja.repository.ProductsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InventoryHistoryServiceTest {
+
+    @Mock
+    private InventoryMovementRepository movementRepository;
+
+    @Mock
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Mock
+    private ProductsRepository productsRepository;
+
+    @Mock
+    private InventoryJournal inventoryJournal;
+
+    @InjectMocks
+    private InventoryHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static InventoryMovementDTO movement(long id) {
+        return new InventoryMovementDTO(id, 2L, 1L, -1, MovementReason.SALE, "manager@loja.com", 1_000L + id);
+    }
+
+    private static List<Object[]> row(Object... values) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(values);
+        return rows;
+    }
+
+    @Test
+    void testGetMovements_PagesNewestFirst() {
+        when(movementRepository.findStoreHistory(1L, Long.MAX_VALUE, PageRequest.of(0, 3)))
+                .thenReturn(List.of(movement(9), movement(8), movement(7)));
+
+        CursorPage<InventoryMovementDTO> page = service.getMovements(1L, null, null, 2);
+
+        assertEquals(List.of(movement(9), movement(8)), page.items());
+        assertTrue(page.hasNext());
+
+        when(movementRepository.findProductHistory(1L, 2L, 8L, PageRequest.of(0, 3))).thenReturn(List.of(movement(7)));
+
+        CursorPage<InventoryMovementDTO> next = service.getMovements(1L, 2L, page.nextCursor(), 2);
+
+        assertEquals(List.of(movement(7)), next.items());
+        assertFalse(next.hasNext());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void testGetMovements_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> service.getMovements(1L, null, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getMovements(1L, null, null, 0));
+        verifyNoInteractions(movementRepository);
+    }
+
+    @Test
+    void testGetStockAt_ReplaysFromNearestSnapshot() {
+        when(productsRepository.findQuantity(1L, 2L)).thenReturn(Optional.of(30));
+        when(snapshotRepository.findFirstByProductIdAndTakenAtLessThanEqualOrderByTakenAtDesc(2L, 5_000L))
+                .thenReturn(Optional.of(new InventorySnapshotEntity(2L, 1L, 40, 120L, 4_000L)));
+        when(movementRepository.replay(2L, 120L, 5_000L)).thenReturn(row(-6L, 4L));
+
+        assertEquals(Optional.of(new StockAtTime(2L, 34L, 5_000L, 4)), service.getStockAt(1L, 2L, 5_000L));
+    }
+
+    @Test
+    void testGetStockAt_WithoutSnapshotReplaysFromTheStart() {
+        when(productsRepository.findQuantity(1L, 2L)).thenReturn(Optional.of(30));
+        when(movementRepository.replay(2L, 0L, 5_000L)).thenReturn(row(12L, 3L));
+
+        assertEquals(Optional.of(new StockAtTime(2L, 12L, 5_000L, 3)), service.getStockAt(1L, 2L, 5_000L));
+    }
+
+    @Test
+    void testGetStockAt_ProductOfAnotherStore() {
+        when(productsRepository.findQuantity(9L, 2L)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), service.getStockAt(9L, 2L, 5_000L));
+        verifyNoInteractions(movementRepository, snapshotRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTakeSnapshots_AddsNewMovementsToPreviousSnapshot() {
+        when(snapshotRepository.findWatermark()).thenReturn(120L);
+        when(movementRepository.findLastId()).thenReturn(200L);
+        List<Object[]> totals = new ArrayList<>();
+        totals.add(new Object[]{2L, 1L, -6L, 180L});
+        totals.add(new Object[]{3L, 1L, 25L, 200L});
+        when(movementRepository.summarize(120L, 200L)).thenReturn(totals);
+        when(snapshotRepository.findLatest(List.of(2L, 3L)))
+                .thenReturn(List.of(new InventorySnapshotEntity(2L, 1L, 40, 120L, 4_000L)));
+
+        assertEquals(2, service.takeSnapshots());
+
+        verify(inventoryJournal).flush();
+        ArgumentCaptor<List<InventorySnapshotEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(saved.capture());
+        assertEquals(34L, saved.getValue().get(0).getQuantity());
+        assertEquals(180L, saved.getValue().get(0).getLastMovementId());
+        assertEquals(25L, saved.getValue().get(1).getQuantity());
+        assertEquals(200L, saved.getValue().get(1).getLastMovementId());
+    }
+
+    @Test
+    void testTakeSnapshots_NothingNew() {
+        when(snapshotRepository.findWatermark()).thenReturn(200L);
+        when(movementRepository.findLastId()).thenReturn(200L);
+
+        assertEquals(0, service.takeSnapshots());
+        verify(snapshotRepository, never()).saveAll(anyList());
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.dto.InventoryMovementDTO;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.repository.InventoryMovementJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InventoryJournalTest {
+
+    @Mock
+    private InventoryMovementJdbcRepository movementJdbcRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InventoryJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new InventoryJournal(movementJdbcRepository, 4, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<InventoryMovementDTO>> writtenBatches(int times) {
+        ArgumentCaptor<List<InventoryMovementDTO>> batches = ArgumentCaptor.forClass(List.class);
+        verify(movementJdbcRepository, times(times)).insert(batches.capture());
+        return batches.getAllValues();
+    }
+
+    @Test
+    void testFlush_WritesQueuedMovementsInBatches() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("manager@loja.com", "", List.of()));
+        journal.record(1L, 2L, -1, MovementReason.SALE);
+        journal.record(1L, 3L, 5, MovementReason.RESTOCK);
+        journal.record(1L, 2L, -2, MovementReason.SALE);
+
+        assertEquals(3, journal.flush());
+
+        List<List<InventoryMovementDTO>> batches = writtenBatches(2);
+        assertEquals(2, batches.get(0).size());
+        InventoryMovementDTO first = batches.get(0).get(0);
+        assertEquals(2L, first.productId());
+        assertEquals(-1, first.delta());
+        assertEquals(MovementReason.SALE, first.reason());
+        assertEquals("manager@loja.com", first.actor());
+        assertEquals(1, batches.get(1).size());
+        assertEquals(0, journal.flush());
+    }
+
+    @Test
+    void testRecord_IgnoresZeroDeltas() {
+        journal.record(1L, 2L, 0, MovementReason.ADJUSTMENT);
+        journal.record(1L, 2L, 0, MovementReason.OPENING);
+
+        journal.flush();
+
+        List<InventoryMovementDTO> batch = writtenBatches(1).get(0);
+        assertEquals(1, batch.size());
+        assertEquals(MovementReason.OPENING, batch.get(0).reason());
+        assertEquals(InventoryJournal.SYSTEM_ACTOR, batch.get(0).actor());
+    }
+
+    @Test
+    void testRecord_WritesOneBatchInTheTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            journal.record(1L, 2L, -1, MovementReason.SALE);
+            journal.record(1L, 3L, -2, MovementReason.SALE);
+            verifyNoInteractions(movementJdbcRepository);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.get(0).beforeCommit(false);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(2, writtenBatches(1).get(0).size());
+        assertEquals(0, journal.flush());
+    }
+
+    @Test
+    void testRecordAfterCommit_WaitsForTheTransactionToCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            journal.recordAfterCommit(1L, 2L, -1, MovementReason.SALE);
+            assertEquals(0, journal.flush());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.get(0).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, journal.flush());
+    }
+
+    @Test
+    void testFlush_KeepsFailedBatchForRetry() {
+        journal.record(1L, 2L, -1, MovementReason.SALE);
+        doThrow(new RuntimeException("down")).doNothing().when(movementJdbcRepository).insert(anyList());
+
+        assertEquals(0, journal.flush());
+        assertEquals(1, journal.flush());
+
+        List<List<InventoryMovementDTO>> batches = writtenBatches(2);
+        assertSame(batches.get(0), batches.get(1));
+        assertEquals(1.0, meterRegistry.get("inventory.journal.flush.failures").counter().count());
+    }
+
+    @Test
+    void testRecord_FullQueueIsFlushedByTheCaller() {
+        for (int i = 0; i < 5; i++) {
+            journal.record(1L, 2L, -1, MovementReason.SALE);
+        }
+
+        verify(movementJdbcRepository, times(2)).insert(anyList());
+        assertEquals(1, journal.flush());
+        assertEquals(0.0, meterRegistry.get("inventory.journal.dropped").counter().count());
+    }
+
+    @Test
+    void testRecord_FullQueueWaitsForTheDatabaseInsteadOfDropping() {
+        doThrow(new RuntimeException("down")).doThrow(new RuntimeException("down")).doNothing()
+                .when(movementJdbcRepository).insert(anyList());
+        journal.record(1L, 2L, -1, MovementReason.SALE);
+        journal.record(1L, 2L, -1, MovementReason.SALE);
+        assertEquals(0, journal.flush());
+        for (int i = 0; i < 4; i++) {
+            journal.record(1L, 2L, -1, MovementReason.SALE);
+        }
+
+        // The queue stays full while the retried batch keeps failing; the caller waits and
+        // flushes again instead of dropping its movement.
+        journal.record(1L, 2L, -1, MovementReason.SALE);
+
+        assertEquals(1, journal.flush());
+        verify(movementJdbcRepository, times(6)).insert(anyList());
+        assertEquals(2.0, meterRegistry.get("inventory.journal.flush.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("inventory.journal.dropped").counter().count());
+    }
+}
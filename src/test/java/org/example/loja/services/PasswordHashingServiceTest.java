@@ -0,0 +1,56 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.util.Authorization;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService service;
+
+    private PasswordHashingService service(int targetCost) {
+        service = new PasswordHashingService(targetCost, 1, 4, 10_000, new SimpleMeterRegistry());
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testVerify_WeakerHashIsUpgraded() throws Exception {
+        CompletableFuture<String> rehash = new CompletableFuture<>();
+
+        assertTrue(service(5).verify("senha", Authorization.hashPassword("senha", 4), rehash::complete));
+
+        String upgraded = rehash.get(10, TimeUnit.SECONDS);
+        assertEquals(5, Authorization.costOf(upgraded));
+        assertTrue(Authorization.isAuthorized("senha", upgraded));
+    }
+
+    @Test
+    void testVerify_StrongerHashIsKept() {
+        CompletableFuture<String> rehash = new CompletableFuture<>();
+
+        assertTrue(service(4).verify("senha", Authorization.hashPassword("senha", 5), rehash::complete));
+
+        assertThrows(TimeoutException.class, () -> rehash.get(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testVerify_WrongPasswordIsNotUpgraded() {
+        CompletableFuture<String> rehash = new CompletableFuture<>();
+
+        assertFalse(service(5).verify("outra", Authorization.hashPassword("senha", 4), rehash::complete));
+
+        assertThrows(TimeoutException.class, () -> rehash.get(500, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.dto.ProductSuggestion;
+import org.example.loja.repository.InventoryMovementJdbcRepository;
+import org.example.loja.repository.ProductSearchJdbcRepository;
+import org.example.loja.repository.ProductSearchJdbcRepository.ProductName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ProductAutocompleteTest {
+
+    @Mock
+    private ProductSearchJdbcRepository productSearchJdbcRepository;
+
+    @Mock
+    private InventoryMovementJdbcRepository movementJdbcRepository;
+
+    private ProductAutocomplete autocomplete;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        autocomplete = new ProductAutocomplete(productSearchJdbcRepository, movementJdbcRepository, 3, 30, 60_000, 100,
+                new SimpleMeterRegistry());
+        when(movementJdbcRepository.unitsSoldSince(anyLong())).thenReturn(Map.of(1L, 5L, 2L, 20L, 3L, 1L, 4L, 2L));
+        catalog(List.of(
+                new ProductName(1, 1, "Televisão Smart 50", "Samsung"),
+                new ProductName(2, 1, "Telefone sem fio", "Intelbras"),
+                new ProductName(3, 1, "televisao smart 50", "Samsung"),
+                new ProductName(4, 1, "Suporte TV", "Sony"),
+                new ProductName(5, 2, "Televisão 4K", "LG"),
+                new ProductName(6, 1, "Som portátil", "JBL")));
+        autocomplete.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        autocomplete.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void catalog(List<ProductName> products) {
+        doAnswer(invocation -> {
+            products.forEach(invocation.<Consumer<ProductName>>getArgument(1));
+            return null;
+        }).when(productSearchJdbcRepository).forEachName(anyInt(), any(Consumer.class));
+    }
+
+    @Test
+    void testSuggest_RanksByUnitsSoldAndIgnoresAccents() {
+        assertEquals(List.of(
+                new ProductSuggestion("Telefone sem fio", ProductSuggestion.Type.PRODUCT, 2L),
+                new ProductSuggestion("Televisão Smart 50", ProductSuggestion.Type.PRODUCT, 1L)),
+                autocomplete.suggest(1, "TELE", 10));
+        assertEquals(List.of(new ProductSuggestion("Samsung", ProductSuggestion.Type.BRAND, null)),
+                autocomplete.suggest(1, "sam", 10));
+    }
+
+    @Test
+    void testSuggest_LimitAndTopK() {
+        assertEquals(1, autocomplete.suggest(1, "tele", 1).size());
+        assertEquals(3, autocomplete.suggest(1, "s", 10).size());
+    }
+
+    @Test
+    void testSuggest_ScopedPerStore() {
+        assertEquals(List.of(new ProductSuggestion("Televisão 4K", ProductSuggestion.Type.PRODUCT, 5L)),
+                autocomplete.suggest(2, "tel", 10));
+        assertEquals(List.of(), autocomplete.suggest(9, "tel", 10));
+    }
+
+    @Test
+    void testSuggest_InvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> autocomplete.suggest(1, " - ", 10));
+        assertThrows(IllegalArgumentException.class, () -> autocomplete.suggest(1, "tv", 0));
+    }
+
+    @Test
+    void testRebuild_SwapsInTheNewCatalog() {
+        catalog(List.of(new ProductName(7, 1, "Teclado", "Logitech")));
+
+        assertEquals(2, autocomplete.rebuild());
+        assertEquals(List.of("Teclado"), autocomplete.suggest(1, "te", 10).stream().map(ProductSuggestion::text).toList());
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.dto.ProductSnapshot;
+import org.example.loja.entities.CategoryEntity;
+import org.example.loja.entities.ImageEntity;
+import org.example.loja.entities.ProductEntity;
+import org.example.loja.entities.StoreEntity;
+import org.example.loja.repository.ProductsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCacheTest {
+
+    @Mock
+    private ProductsRepository productsRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductCache(productsRepository, 1_000, 600, meterRegistry);
+    }
+
+    private static ProductEntity product(long id, int quantity) {
+        StoreEntity store = new StoreEntity();
+        store.setId(1L);
+        store.setName("Loja");
+        ImageEntity image = new ImageEntity();
+        image.setUrl("https://cdn.loja.com/" + id + ".png");
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setVersion(2L);
+        product.setName("TV " + id);
+        product.setPrice(1999.0);
+        product.setQuantity(quantity);
+        product.setStore(store);
+        product.setCategories(Set.of(new CategoryEntity(4L, "Tv", "Televisores"), new CategoryEntity(2L, "Audio", null)));
+        product.setImage(Set.of(image));
+        return product;
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "products").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void testGet_CopiesEntityIntoSnapshot() {
+        when(productsRepository.findDetailedById(7L)).thenReturn(Optional.of(product(7L, 3)));
+
+        ProductSnapshot snapshot = cache.get(7L).orElseThrow();
+
+        assertEquals("TV 7", snapshot.name());
+        assertEquals(3, snapshot.quantity());
+        assertEquals(new ProductSnapshot.Store(1L, "Loja"), snapshot.store());
+        assertEquals(List.of(new ProductSnapshot.Category(2L, "Audio", null), new ProductSnapshot.Category(4L, "Tv", "Televisores")),
+                snapshot.categories());
+        assertEquals("https://cdn.loja.com/7.png", snapshot.image());
+        assertEquals(2L, snapshot.version());
+    }
+
+    @Test
+    void testGet_SecondReadIsAHit() {
+        when(productsRepository.findDetailedById(7L)).thenReturn(Optional.of(product(7L, 3)));
+
+        assertEquals(cache.get(7L), cache.get(7L));
+
+        verify(productsRepository, times(1)).findDetailedById(7L);
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void testGet_MissingProductIsNotCached() {
+        when(productsRepository.findDetailedById(7L)).thenReturn(Optional.empty());
+        assertTrue(cache.get(7L).isEmpty());
+
+        when(productsRepository.findDetailedById(7L)).thenReturn(Optional.of(product(7L, 3)));
+        assertTrue(cache.get(7L).isPresent());
+    }
+
+    @Test
+    void testEvict_NextReadSeesTheWrite() {
+        when(productsRepository.findDetailedById(7L)).thenReturn(Optional.of(product(7L, 3)));
+        cache.get(7L);
+        when(productsRepository.findDetailedById(7L)).thenReturn(Optional.of(product(7L, 1)));
+
+        cache.evict(7L);
+
+        assertEquals(1, cache.get(7L).orElseThrow().quantity());
+    }
+
+    @Test
+    void testEvict_InTransactionEvictsAgainAfterCompletion() {
+        when(productsRepository.findDetailedById(7L)).thenReturn(Optional.of(product(7L, 3)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(7L);
+            // A concurrent read reloads the row before the writer commits.
+            cache.get(7L);
+            when(productsRepository.findDetailedById(7L)).thenReturn(Optional.of(product(7L, 1)));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, cache.get(7L).orElseThrow().quantity());
+    }
+
+    @Test
+    void testMaxSize_EvictsAndReportsIt() {
+        cache = new ProductCache(productsRepository, 10, 600, meterRegistry = new SimpleMeterRegistry());
+        when(productsRepository.findDetailedById(anyLong())).thenAnswer(call -> Optional.of(product(call.getArgument(0), 1)));
+
+        for (long id = 1; id <= 100; id++) {
+            cache.get(id);
+        }
+        cache.cleanUp();
+
+        assertTrue(meterRegistry.get("cache.size").tag("cache", "products").gauge().value() <= 10);
+        assertTrue(meterRegistry.get("cache.evictions").tag("cache", "products").functionCounter().count() >= 90);
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.loja.services;
+
+import org.example.loja.dto.FacetCounts;
+import org.example.loja.dto.FacetFilter;
+import org.example.loja.dto.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex("100, 50");
+        index.index(document(1, 1, "Samsung", 20.0, 5, 10L));
+        index.index(document(2, 1, "Samsung", 80.0, 0, 10L, 20L));
+        index.index(document(3, 1, "LG", 50.0, 3, 20L));
+        index.index(document(4, 1, "LG", 300.0, 1, 10L));
+        index.index(document(5, 2, "LG", 20.0, 1, 10L));
+    }
+
+    private static ProductDocument document(long id, long storeId, String brand, Double price, int quantity, Long... categories) {
+        return new ProductDocument(id, storeId, "Produto " + id, null, brand, price, quantity, Set.of(categories));
+    }
+
+    private static FacetFilter filter(Set<String> brands, Set<Long> categories, Set<Integer> bands, boolean inStock) {
+        return new FacetFilter(brands, categories, bands, inStock);
+    }
+
+    @Test
+    void testCount_Unfiltered() {
+        FacetCounts counts = index.count(1, FacetFilter.none());
+
+        assertEquals(4, counts.total());
+        assertEquals(Map.of("LG", 2, "Samsung", 2), counts.brands());
+        assertEquals(Map.of(10L, 3, 20L, 2), counts.categories());
+        assertEquals(List.of(
+                new FacetCounts.PriceBand(0, 0, 50.0, 1),
+                new FacetCounts.PriceBand(1, 50.0, 100.0, 2),
+                new FacetCounts.PriceBand(2, 100.0, null, 1)), counts.priceBands());
+        assertEquals(3, counts.inStock());
+    }
+
+    @Test
+    void testCount_FacetsIgnoreTheirOwnSelection() {
+        FacetCounts counts = index.count(1, filter(Set.of("Samsung"), Set.of(), Set.of(), true));
+
+        assertEquals(1, counts.total());
+        assertEquals(Map.of("LG", 2, "Samsung", 1), counts.brands());
+        assertEquals(Map.of(10L, 1, 20L, 0), counts.categories());
+        assertEquals(1, counts.inStock());
+    }
+
+    @Test
+    void testFilter_IntersectsFacetsAndPagesById() {
+        assertEquals(List.of(1L, 2L, 4L), index.filter(1, filter(Set.of(), Set.of(10L), Set.of(), false), 0, 10));
+        assertEquals(List.of(2L, 3L), index.filter(1, filter(Set.of(), Set.of(), Set.of(1), false), 0, 10));
+        assertEquals(List.of(3L), index.filter(1, filter(Set.of("LG", "Apple"), Set.of(20L), Set.of(), true), 0, 10));
+        assertEquals(List.of(2L), index.filter(1, filter(Set.of(), Set.of(10L), Set.of(), false), 1, 1));
+        assertEquals(List.of(), index.filter(9, FacetFilter.none(), 0, 10));
+    }
+
+    @Test
+    void testFilter_UnknownPriceBand() {
+        assertThrows(IllegalArgumentException.class, () -> index.filter(1, filter(Set.of(), Set.of(), Set.of(3), false), 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.count(9, filter(Set.of(), Set.of(), Set.of(-1), false)));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        index.index(document(1, 1, "LG", 500.0, 5, 20L));
+        index.remove(4);
+        index.updateQuantity(2, 7);
+        index.updateQuantity(3, 0);
+
+        FacetCounts counts = index.count(1, FacetFilter.none());
+
+        assertEquals(3, counts.total());
+        assertEquals(Map.of("LG", 2, "Samsung", 1), counts.brands());
+        assertEquals(Map.of(10L, 1, 20L, 3), counts.categories());
+        assertEquals(List.of(1L, 2L), index.filter(1, filter(Set.of(), Set.of(), Set.of(), true), 0, 10));
+    }
+
+    @Test
+    void testRebuild_ReplaysChangesMadeDuringTheLoad() {
+        int indexed = index.rebuild(consumer -> {
+            consumer.accept(document(7, 1, "Apple", 900.0, 1, 30L));
+            index.updateQuantity(7, 0);
+            index.index(document(8, 1, "Apple", 10.0, 2, 30L));
+        });
+
+        assertEquals(2, indexed);
+        assertEquals(Map.of("Apple", 2), index.count(1, FacetFilter.none()).brands());
+        assertEquals(List.of(8L), index.filter(1, filter(Set.of(), Set.of(), Set.of(), true), 0, 10));
+        assertEquals(0, index.count(2, FacetFilter.none()).total());
+    }
+
+    @Test
+    void testIndex_RejectsIdsThatDoNotFitInAnInt() {
+        // Truncated, this id would land on product 1.
+        long id = (1L << 32) + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> index.index(document(id, 1, "LG", 20.0, 1, 10L)));
+        assertEquals(4, index.count(1, FacetFilter.none()).total());
+    }
+
+    @Test
+    void testChangesInTransaction_AppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(document(6, 1, "Philips", 20.0, 2, 10L));
+            index.updateQuantity(1, 0);
+
+            assertEquals(4, index.count(1, FacetFilter.none()).total());
+            assertEquals(3, index.count(1, FacetFilter.none()).inStock());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(5, index.count(1, FacetFilter.none()).total());
+        assertEquals(3, index.count(1, FacetFilter.none()).inStock());
+        assertEquals(List.of(3L, 4L, 6L), index.filter(1, filter(Set.of(), Set.of(), Set.of(), true), 0, 10));
+    }
+}
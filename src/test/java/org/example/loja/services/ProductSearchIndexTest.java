@@ -0,0 +1,133 @@
+package org.example.loja.services;
+
+import org.example.loja.dto.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(1.2, 0.75);
+        index.index(document(1, 1, "Televisão Smart 50", "Tela LED", "Samsung", 5, 10L));
+        index.index(document(2, 1, "Suporte para televisão", "Suporte de parede para TV e monitor", "Elg", 0, 20L));
+        index.index(document(3, 1, "Cabo HDMI", "Ideal para televisão e videogame", "Multilaser", 8, 20L));
+        index.index(document(4, 2, "Televisão 4K", "Outra loja", "LG", 3, 10L));
+    }
+
+    private static ProductDocument document(long id, long storeId, String name, String description, String brand,
+                                            int quantity, Long category) {
+        return new ProductDocument(id, storeId, name, description, brand, 10.0, quantity, Set.of(category));
+    }
+
+    private List<Long> ids(List<ProductSearchIndex.Hit> hits) {
+        return hits.stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+
+    @Test
+    void testSearch_RanksNameMatchesFirstWithinTheStore() {
+        List<ProductSearchIndex.Hit> hits = index.search(1, "televisao", null, false, 10);
+
+        assertEquals(3, hits.size());
+        assertEquals(3L, hits.get(2).productId());
+        assertTrue(hits.get(0).score() >= hits.get(1).score());
+        assertFalse(ids(hits).contains(4L));
+    }
+
+    @Test
+    void testSearch_MoreMatchingTermsScoreHigher() {
+        assertEquals(List.of(2L, 1L, 3L), ids(index.search(1, "suporte TELEVISÃO", null, false, 10)));
+    }
+
+    @Test
+    void testSearch_FiltersAndLimit() {
+        assertEquals(List.of(1L), ids(index.search(1, "televisao", 10L, false, 10)));
+        assertFalse(ids(index.search(1, "televisao", null, true, 10)).contains(2L));
+        assertEquals(1, index.search(1, "televisao", null, false, 1).size());
+        assertEquals(List.of(), index.search(1, "de para", null, false, 10));
+        assertEquals(List.of(), index.search(9, "televisao", null, false, 10));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        index.index(document(3, 1, "Cabo USB", "Carregador", "Multilaser", 8, 20L));
+        index.remove(1);
+        index.updateQuantity(2, 4);
+
+        assertEquals(List.of(2L), ids(index.search(1, "televisao", null, true, 10)));
+        assertEquals(List.of(3L), ids(index.search(1, "carregador", null, false, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testCompaction_KeepsResultsCorrect() {
+        for (int round = 0; round < 3; round++) {
+            for (long id = 100; id < 1_100; id++) {
+                index.index(document(id, 1, "Produto " + id, "Item de teste rodada " + round, "Marca", 1, 30L));
+            }
+        }
+
+        assertEquals(1_004, index.size());
+        assertEquals(List.of(500L), ids(index.search(1, "500", null, false, 10)));
+        assertEquals(1_000, index.search(1, "rodada", null, false, 2_000).size());
+        assertEquals(3, index.search(1, "televisao", null, false, 10).size());
+    }
+
+    @Test
+    void testRebuild_ReplacesContentAndKeepsConcurrentChanges() {
+        int indexed = index.rebuild(consumer -> {
+            consumer.accept(document(7, 1, "Geladeira Frost Free", "", "Brastemp", 2, 40L));
+            // A change made while the rebuild is loading must survive the swap.
+            index.index(document(8, 1, "Geladeira Duplex", "", "Consul", 1, 40L));
+        });
+
+        assertEquals(2, indexed);
+        assertEquals(List.of(), index.search(1, "televisao", null, false, 10));
+        assertEquals(Set.of(7L, 8L), Set.copyOf(ids(index.search(1, "geladeira", null, false, 10))));
+    }
+
+    @Test
+    void testChangesInTransaction_AppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(document(9, 1, "Televisão OLED", "", "LG", 2, 10L));
+            index.updateQuantity(1, 0);
+
+            assertEquals(3, index.search(1, "televisao", null, false, 10).size());
+            assertEquals(List.of(1L, 3L), ids(index.search(1, "televisao", null, true, 10)).stream().sorted().toList());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(4, index.search(1, "televisao", null, false, 10).size());
+        assertEquals(List.of(3L, 9L), ids(index.search(1, "televisao", null, true, 10)).stream().sorted().toList());
+    }
+
+    @Test
+    void testChangesInTransaction_DroppedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(1);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(3, index.search(1, "televisao", null, false, 10).size());
+    }
+}
@@ -0,0 +1,269 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockBatchResult;
+import org.example.loja.dto.StockChangeDTO;
+import org.example.loja.dto.StockReservationResult;
+import org.example.loja.entities.ProductEntity;
+import org.example.loja.entities.StoreEntity;
+import org.example.loja.enums.StockBatchMode;
+import org.example.loja.repository.InventoryMovementJdbcRepository;
+import org.example.loja.repository.InventoryMovementRepository;
+import org.example.loja.repository.ProductSearchJdbcRepository;
+import org.example.loja.repository.ProductStockJdbcRepository;
+import org.example.loja.repository.ProductsRepository;
+import org.example.loja.repository.StockReservationRepository;
+import org.example.loja.repository.StoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the stock adjustment paths of {@link ProductsServices} from several threads against a
+ * real database: every call commits its own transaction, so lost updates, overselling or
+ * lock-order deadlocks would show up in the final stock or as failed calls.
+ */
+@DataJpaTest(properties = {
+        "spring.config.import=",
+        "spring.application.name=loja-test",
+        "spring.datasource.url=jdbc:h2:mem:stock;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductsServices.class, ProductStockJdbcRepository.class, HotStockCounter.class, StockReservationService.class,
+        InventoryJournal.class, InventoryMovementJdbcRepository.class, ProductSearchIndex.class,
+        ProductFacetIndex.class, ProductSearchJdbcRepository.class, ReferenceDataCache.class, ProductCache.class, SimpleMeterRegistry.class})
+class ProductsServicesConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SALES_PER_THREAD = 25;
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private ProductsServices productsServices;
+
+    @Autowired
+    private ProductsRepository productsRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    private StoreEntity store;
+    private long storeId;
+    private long productId;
+
+    @BeforeEach
+    void setUp() {
+        store = new StoreEntity();
+        store.setName("Store");
+        store.setPhone("+5511999999999");
+        store.setEmail("store@loja.com");
+        store.setLocations(new HashSet<>());
+        storeId = storeRepository.save(store).getId();
+
+        productId = createProduct("Hot product");
+    }
+
+    private long createProduct(String name) {
+        ProductEntity product = new ProductEntity();
+        product.setName(name);
+        product.setPrice(10.0);
+        product.setQuantity(INITIAL_STOCK);
+        product.setStore(store);
+        return productsRepository.save(product).getId();
+    }
+
+    // Sum of the product's journaled deltas once the writer has flushed.
+    private long journaledDelta(long id) {
+        inventoryJournal.flush();
+        return ((Number) movementRepository.replay(id, 0, Long.MAX_VALUE).get(0)[0]).longValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movementRepository.deleteAll();
+        reservationRepository.deleteAll();
+        productsRepository.deleteAll();
+        storeRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentSales_NeitherLoseUpdatesNorOversell() throws Exception {
+        assertEquals(INITIAL_STOCK, productsServices.getProductById(productId).quantity());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<StockAdjustment>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                Callable<List<StockAdjustment>> seller = () -> {
+                    start.await();
+                    List<StockAdjustment> results = new ArrayList<>();
+                    for (int i = 0; i < SALES_PER_THREAD; i++) {
+                        results.add(productsServices.updateProductQuantity(storeId, productId, -1));
+                    }
+                    return results;
+                };
+                futures.add(executor.submit(seller));
+            }
+            start.countDown();
+
+            int applied = 0;
+            int refused = 0;
+            for (Future<List<StockAdjustment>> future : futures) {
+                for (StockAdjustment adjustment : future.get()) {
+                    switch (adjustment.status()) {
+                        case APPLIED -> applied++;
+                        case INSUFFICIENT_STOCK -> refused++;
+                        case NOT_FOUND -> fail("Product should exist");
+                    }
+                    assertTrue(adjustment.quantity() >= 0);
+                }
+            }
+
+            assertEquals(INITIAL_STOCK, applied);
+            assertEquals(THREADS * SALES_PER_THREAD - INITIAL_STOCK, refused);
+            assertEquals(0, productsRepository.findQuantity(storeId, productId).orElseThrow());
+            assertEquals(0, productsServices.getProductById(productId).quantity());
+            assertEquals(-INITIAL_STOCK, journaledDelta(productId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsAndSales_NeverPromiseTheSameUnit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                boolean reserves = t % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < SALES_PER_THREAD; i++) {
+                        boolean applied = reserves
+                                ? stockReservationService.reserve(storeId, productId, 1, null).status() == StockAdjustment.Status.APPLIED
+                                : productsServices.updateProductQuantity(storeId, productId, -1).status() == StockAdjustment.Status.APPLIED;
+                        if (applied) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> future : futures) {
+                granted += future.get();
+            }
+
+            // Every unit went either to a hold or to a sale, never to both.
+            int quantity = productsRepository.findQuantity(storeId, productId).orElseThrow();
+            long held = stockReservationService.heldQuantity(productId);
+            assertEquals(INITIAL_STOCK, granted);
+            assertEquals(quantity, held);
+            assertEquals(StockReservationResult.insufficientStock(0), stockReservationService.reserve(storeId, productId, 1, null));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testUpdateProductQuantity_OtherStoreIsNotFound() {
+        assertEquals(StockAdjustment.notFound(), productsServices.updateProductQuantity(storeId + 1, productId, 1));
+        assertEquals(INITIAL_STOCK, productsRepository.findQuantity(storeId, productId).orElseThrow());
+    }
+
+    @Test
+    void testConcurrentBatches_CrossedOrderDoNotDeadlock() throws Exception {
+        long otherProductId = createProduct("Other product");
+        List<StockChangeDTO> forward = List.of(new StockChangeDTO(productId, -1), new StockChangeDTO(otherProductId, -1));
+        List<StockChangeDTO> backward = List.of(new StockChangeDTO(otherProductId, -1), new StockChangeDTO(productId, -1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                List<StockChangeDTO> changes = t % 2 == 0 ? forward : backward;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 10; i++) {
+                        assertTrue(productsServices.updateProductQuantities(storeId, changes, StockBatchMode.ALL_OR_NOTHING).committed());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(INITIAL_STOCK - THREADS * 10, productsRepository.findQuantity(storeId, productId).orElseThrow());
+        assertEquals(INITIAL_STOCK - THREADS * 10, productsRepository.findQuantity(storeId, otherProductId).orElseThrow());
+    }
+
+    @Test
+    void testBatch_AllOrNothingLeavesStockUntouched() {
+        List<StockChangeDTO> changes = List.of(new StockChangeDTO(productId, -10), new StockChangeDTO(productId, -INITIAL_STOCK));
+
+        StockBatchResult result = productsServices.updateProductQuantities(storeId, changes, StockBatchMode.ALL_OR_NOTHING);
+
+        assertFalse(result.committed());
+        assertEquals(StockBatchResult.Status.ROLLED_BACK, result.items().get(0).status());
+        assertEquals(StockBatchResult.Status.INSUFFICIENT_STOCK, result.items().get(1).status());
+        assertEquals(INITIAL_STOCK, productsRepository.findQuantity(storeId, productId).orElseThrow());
+        assertEquals(0, journaledDelta(productId));
+    }
+
+    @Test
+    void testBatch_BestEffortKeepsAppliedChanges() {
+        List<StockChangeDTO> changes = List.of(new StockChangeDTO(productId, -10), new StockChangeDTO(productId, -INITIAL_STOCK));
+
+        StockBatchResult result = productsServices.updateProductQuantities(storeId, changes, StockBatchMode.BEST_EFFORT);
+
+        assertTrue(result.committed());
+        assertEquals(StockBatchResult.Status.APPLIED, result.items().get(0).status());
+        assertEquals(StockBatchResult.Status.INSUFFICIENT_STOCK, result.items().get(1).status());
+        assertEquals(INITIAL_STOCK - 10, productsRepository.findQuantity(storeId, productId).orElseThrow());
+        assertEquals(-10, journaledDelta(productId));
+    }
+}
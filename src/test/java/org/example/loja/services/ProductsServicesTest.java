@@ -1,15 +1,30 @@
 package org.example.loja.services;
 
+import org.example.loja.dto.CursorPage;
+import org.example.loja.dto.FacetFilter;
 import org.example.loja.dto.ProductDTO;
+import org.example.loja.dto.ProductSearchHit;
+import org.example.loja.dto.ProductSnapshot;
+import org.example.loja.dto.ProductSummaryDTO;
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockBatchResult;
+import org.example.loja.dto.StockChangeDTO;
 import org.example.loja.entities.CategoryEntity;
 import org.example.loja.entities.ProductEntity;
 import org.example.loja.entities.StoreEntity;
-import org.example.loja.repository.CategoryRepository;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.enums.ProductSort;
+import org.example.loja.enums.StockBatchMode;
+import org.example.loja.repository.ProductStockJdbcRepository;
 import org.example.loja.repository.ProductsRepository;
 import org.example.loja.repository.StoreRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,7 +42,28 @@ public class ProductsServicesTest {
     private StoreRepository storeRepository;
 
     @Mock
-    private CategoryRepository categoryRepository;
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private ProductStockJdbcRepository productStockJdbcRepository;
+
+    @Mock
+    private HotStockCounter hotStockCounter;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private InventoryJournal inventoryJournal;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private ProductCache productCache;
 
     @BeforeEach
     void setUp() {
@@ -58,15 +94,17 @@ public class ProductsServicesTest {
         category.setDescription("TV");
 
         when(storeRepository.findById(1L)).thenReturn(Optional.of(store));
-        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+        when(referenceDataCache.getCategories(Set.of(1L))).thenReturn(List.of(category));
 
         ProductEntity savedProduct = new ProductEntity();
+        savedProduct.setId(5L);
         savedProduct.setName(dto.getName());
 
         when(productsRepository.save(any())).thenReturn(savedProduct);
 
         ProductEntity result = productsServices.createProduct(dto);
         assertEquals(dto.getName(), result.getName());
+        verify(inventoryJournal).record(1L, 5L, 10, MovementReason.OPENING);
     }
 
     @Test
@@ -77,7 +115,7 @@ public class ProductsServicesTest {
         StoreEntity store = new StoreEntity();
         store.setId(1L);
         when(storeRepository.findById(any())).thenReturn(Optional.of(store));
-        when(categoryRepository.findAllById(any())).thenReturn(List.of(new CategoryEntity()));
+        when(referenceDataCache.getCategories(any())).thenReturn(List.of(new CategoryEntity()));
 
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
             productsServices.createProduct(dto);
@@ -88,51 +126,183 @@ public class ProductsServicesTest {
 
     @Test
     void testUpdateProductQuantity_Success() {
-        ProductEntity product = new ProductEntity();
-        product.setId(1L);
-        product.setQuantity(5);
+        when(productsRepository.lockQuantity(1L, 2L)).thenReturn(Optional.of(5));
+        when(productsRepository.adjustQuantity(1L, 2L, 3, 0)).thenReturn(1);
 
-        when(productsRepository.findById(1L)).thenReturn(Optional.of(product));
+        StockAdjustment adjustment = productsServices.updateProductQuantity(1L, 2L, 3);
 
-        int updated = productsServices.updateProductQuantity(1L, 3);
+        assertEquals(StockAdjustment.applied(8), adjustment);
+        verify(productsRepository, never()).save(any());
+        verify(productsRepository, never()).findQuantity(anyLong(), anyLong());
+        verify(inventoryJournal).record(1L, 2L, 3, MovementReason.ADJUSTMENT);
+    }
 
-        assertEquals(8, updated);
-        verify(productsRepository).save(product);
+    @Test
+    void testUpdateProductQuantity_JournalsWithReason() {
+        when(productsRepository.lockQuantity(1L, 2L)).thenReturn(Optional.of(8));
+        when(productsRepository.adjustQuantity(1L, 2L, -2, 0)).thenReturn(1);
+
+        productsServices.updateProductQuantity(1L, 2L, -2, MovementReason.SALE);
+
+        verify(inventoryJournal).record(1L, 2L, -2, MovementReason.SALE);
     }
 
     @Test
-    void testUpdateProductQuantity_NegativeResult() {
+    void testUpdateProductQuantity_InsufficientStock() {
+        when(productsRepository.lockQuantity(1L, 2L)).thenReturn(Optional.of(7));
+        when(stockReservationService.heldQuantity(2L)).thenReturn(3L);
+        when(productsRepository.adjustQuantity(1L, 2L, -5, 3)).thenReturn(0);
+
+        StockAdjustment adjustment = productsServices.updateProductQuantity(1L, 2L, -5);
+
+        // 7 in stock, 3 of them on hold.
+        assertEquals(StockAdjustment.insufficientStock(4), adjustment);
+        verifyNoInteractions(inventoryJournal);
+        // The held total is read under the row lock.
+        InOrder inOrder = inOrder(productsRepository, stockReservationService);
+        inOrder.verify(productsRepository).lockQuantity(1L, 2L);
+        inOrder.verify(stockReservationService).heldQuantity(2L);
+    }
+
+    @Test
+    void testUpdateProductQuantity_HotProductGoesThroughCounter() {
+        when(hotStockCounter.isHot(2L)).thenReturn(true);
+        when(hotStockCounter.adjust(1L, 2L, -1)).thenReturn(StockAdjustment.applied(41));
+
+        assertEquals(StockAdjustment.applied(41), productsServices.updateProductQuantity(1L, 2L, -1));
+        verify(productsRepository, never()).adjustQuantity(anyLong(), anyLong(), anyInt(), anyLong());
+        verify(inventoryJournal).recordAfterCommit(1L, 2L, -1, MovementReason.ADJUSTMENT);
+    }
+
+    @Test
+    void testUpdateProductQuantity_HotnessDecidedOnce() {
+        // Promoted while the call runs: the change stays on the path it started on.
+        when(hotStockCounter.isHot(2L)).thenReturn(false, true);
+        when(productsRepository.lockQuantity(1L, 2L)).thenReturn(Optional.of(5));
+        when(productsRepository.adjustQuantity(1L, 2L, 1, 0)).thenReturn(1);
+
+        assertEquals(StockAdjustment.applied(6), productsServices.updateProductQuantity(1L, 2L, 1));
+        verify(hotStockCounter, times(1)).isHot(2L);
+        verify(hotStockCounter, never()).adjust(anyLong(), anyLong(), anyInt());
+        verify(inventoryJournal).record(1L, 2L, 1, MovementReason.ADJUSTMENT);
+        verify(inventoryJournal, never()).recordAfterCommit(anyLong(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testUpdateProductQuantity_NotFound() {
+        when(productsRepository.lockQuantity(1L, 2L)).thenReturn(Optional.empty());
+
+        assertEquals(StockAdjustment.notFound(), productsServices.updateProductQuantity(1L, 2L, -5));
+        verify(productsRepository, never()).adjustQuantity(anyLong(), anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void testGetProductsByCategories_ResolvesTheNameFromTheCache() {
         ProductEntity product = new ProductEntity();
-        product.setId(1L);
-        product.setQuantity(2);
+        when(referenceDataCache.categoryIdOf("Tv")).thenReturn(Optional.of(3L));
+        when(productsRepository.findAllByCategories_Id(3L)).thenReturn(List.of(product));
 
-        when(productsRepository.findById(1L)).thenReturn(Optional.of(product));
+        assertEquals(List.of(product), productsServices.getProductsByCategories("Tv"));
+    }
 
-        assertThrows(IllegalArgumentException.class, () -> {
-            productsServices.updateProductQuantity(1L, -5);
-        });
+    @Test
+    void testGetProductsByCategories_UnknownName() {
+        when(referenceDataCache.categoryIdOf("Nada")).thenReturn(Optional.empty());
+
+        assertEquals(List.of(), productsServices.getProductsByCategories("Nada"));
+        verifyNoInteractions(productsRepository);
     }
 
     @Test
     void testDeleteProduct_Success() {
         when(productsRepository.deleteProductEntitiesById(1L)).thenReturn(1);
         assertTrue(productsServices.deleteProduct(1L));
+        verify(productSearchIndex).remove(1L);
+        verify(productFacetIndex).remove(1L);
+        verify(productCache).evict(1L);
+    }
+
+    @Test
+    void testDeleteProduct_NotFoundKeepsCache() {
+        when(productsRepository.deleteProductEntitiesById(1L)).thenReturn(0);
+        assertFalse(productsServices.deleteProduct(1L));
+        verifyNoInteractions(productCache);
+    }
+
+    @Test
+    void testSearchProducts_ReturnsHitsInRankOrder() {
+        when(productSearchIndex.search(1L, "tv", 3L, true, 20)).thenReturn(List.of(
+                new ProductSearchIndex.Hit(7L, 2.5), new ProductSearchIndex.Hit(4L, 1.5), new ProductSearchIndex.Hit(9L, 0.5)));
+        ProductSummaryDTO seven = new ProductSummaryDTO(7L, "TV 7", 10.0, null, null, 1, 1L);
+        ProductSummaryDTO four = new ProductSummaryDTO(4L, "TV 4", 10.0, null, null, 1, 1L);
+        when(productsRepository.findStoreSummaries(1L, List.of(7L, 4L, 9L))).thenReturn(List.of(four, seven));
+
+        List<ProductSearchHit> hits = productsServices.searchProducts(1L, "tv", 3L, true, null);
+
+        // Product 9 was deleted after it was indexed.
+        assertEquals(List.of(new ProductSearchHit(seven, 2.5), new ProductSearchHit(four, 1.5)), hits);
+    }
+
+    @Test
+    void testSearchProducts_BlankQuery() {
+        assertThrows(IllegalArgumentException.class, () -> productsServices.searchProducts(1L, " ", null, false, 10));
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void testUpdateProductQuantity_RefreshesSearchStock() {
+        when(productsRepository.lockQuantity(1L, 2L)).thenReturn(Optional.of(1));
+        when(productsRepository.adjustQuantity(1L, 2L, -1, 0)).thenReturn(1);
+
+        productsServices.updateProductQuantity(1L, 2L, -1);
+
+        verify(productSearchIndex).updateQuantity(2L, 0);
+        verify(productFacetIndex).updateQuantity(2L, 0);
+        verify(productCache).evict(2L);
+    }
+
+    @Test
+    void testFilterProducts_LoadsMatchingIdsInOrder() {
+        FacetFilter filter = new FacetFilter(Set.of("LG"), null, null, true);
+        when(productFacetIndex.filter(1L, filter, 0, 3)).thenReturn(List.of(4L, 7L, 9L));
+        ProductSummaryDTO four = new ProductSummaryDTO(4L, "TV 4", 10.0, null, "LG", 1, 1L);
+        ProductSummaryDTO seven = new ProductSummaryDTO(7L, "TV 7", 10.0, null, "LG", 1, 1L);
+        ProductSummaryDTO nine = new ProductSummaryDTO(9L, "TV 9", 10.0, null, "LG", 1, 1L);
+        when(productsRepository.findStoreSummaries(1L, List.of(4L, 7L, 9L))).thenReturn(List.of(nine, four, seven));
+
+        CursorPage<ProductSummaryDTO> page = productsServices.filterProducts(1L, filter, null, 2);
+
+        assertEquals(List.of(four, seven), page.items());
+        assertTrue(page.hasNext());
+
+        productsServices.filterProducts(1L, filter, page.nextCursor(), 2);
+        verify(productFacetIndex).filter(1L, filter, 7L, 3);
     }
 
     @Test
     void testGetProductById_Exists() {
-        ProductEntity product = new ProductEntity();
-        product.setId(1L);
+        ProductSnapshot product = new ProductSnapshot(1L, "Product", 10.0, null, null, 5, null, null, null, 0L);
+
+        when(productCache.get(1L)).thenReturn(Optional.of(product));
 
-        when(productsRepository.findById(1L)).thenReturn(Optional.of(product));
+        ProductSnapshot result = productsServices.getProductById(1L);
+        assertEquals(1L, result.id());
+        verify(productCache, never()).load(anyLong());
+    }
+
+    @Test
+    void testGetProductById_HotProductBypassesCache() {
+        ProductSnapshot product = new ProductSnapshot(1L, "Product", 10.0, null, null, 5, null, null, null, 0L);
+        when(hotStockCounter.isHot(1L)).thenReturn(true);
+        when(productCache.load(1L)).thenReturn(Optional.of(product));
 
-        ProductEntity result = productsServices.getProductById(1L);
-        assertEquals(1L, result.getId());
+        assertEquals(product, productsServices.getProductById(1L));
+        verify(productCache, never()).get(anyLong());
     }
 
     @Test
     void testGetProductById_NotFound() {
-        when(productsRepository.findById(99L)).thenReturn(Optional.empty());
+        when(productCache.get(99L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> {
             productsServices.getProductById(99L);
@@ -157,5 +327,200 @@ public class ProductsServicesTest {
 
         assertTrue(result);
         verify(productsRepository).save(product);
+        verify(productCache, never()).evict(anyLong());
+    }
+
+    @Test
+    void testUpdateProduct_WithoutVersionOverwritesCurrent() {
+        ProductEntity product = product(2L, 10.0);
+        product.setQuantity(5);
+        product.setBrand("Brand");
+        StoreEntity store = new StoreEntity();
+        store.setId(1L);
+        product.setStore(store);
+        product.setCategories(Set.of(new CategoryEntity(1L, "Tv", null)));
+        when(productsRepository.findQuantity(1L, 2L)).thenReturn(Optional.of(5));
+        when(productsRepository.findVersion(1L, 2L)).thenReturn(Optional.of(7L));
+
+        productsServices.updateProduct(product);
+
+        assertEquals(7L, product.getVersion());
+        verify(productsRepository).save(product);
+        verify(productCache).evict(2L);
+    }
+
+    @Test
+    void testUpdateProduct_HotProductReloadsItsCounter() {
+        ProductEntity product = product(2L, 10.0);
+        product.setQuantity(50);
+        StoreEntity store = new StoreEntity();
+        store.setId(1L);
+        product.setStore(store);
+        product.setCategories(Set.of(new CategoryEntity(1L, "Tv", null)));
+        when(hotStockCounter.isHot(2L)).thenReturn(true);
+
+        productsServices.updateProduct(product);
+
+        verify(hotStockCounter).reload(2L);
+    }
+
+    private ProductEntity product(long id, double price) {
+        ProductEntity product = new ProductEntity();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(price);
+        return product;
+    }
+
+    private ProductSummaryDTO summary(long id, double price) {
+        return new ProductSummaryDTO(id, "Product " + id, price, null, null, 1, 1L);
+    }
+
+    @Test
+    void testGetProductsPage_FirstPageHasNext() {
+        when(productsRepository.findPageById(0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(product(1, 10.0), product(2, 20.0), product(3, 30.0)));
+
+        CursorPage<ProductEntity> page = productsServices.getProductsPage(null, 2, ProductSort.ID);
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasNext());
+        assertEquals(productsServices.cursorOf(page.items().get(1), ProductSort.ID), page.nextCursor());
+    }
+
+    @Test
+    void testGetStoreProductsPage_CursorMatchesEntityCursor() {
+        when(productsRepository.findStorePageByPriceDesc(1L, Double.MAX_VALUE, Long.MAX_VALUE, PageRequest.of(0, 3)))
+                .thenReturn(List.of(summary(3, 30.0), summary(2, 20.0), summary(1, 10.0)));
+
+        CursorPage<ProductSummaryDTO> page = productsServices.getStoreProductsPage(1L, null, 2, ProductSort.PRICE_DESC);
+
+        assertEquals(List.of(summary(3, 30.0), summary(2, 20.0)), page.items());
+        assertTrue(page.hasNext());
+        assertEquals(productsServices.cursorOf(product(2, 20.0), ProductSort.PRICE_DESC), page.nextCursor());
+    }
+
+    @Test
+    void testGetProductsPage_ContinuesAfterCursor() {
+        String cursor = productsServices.cursorOf(product(2, 20.0), ProductSort.PRICE);
+        when(productsRepository.findPageByPrice(20.0, 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(product(3, 30.0)));
+
+        CursorPage<ProductEntity> page = productsServices.getProductsPage(cursor, 2, ProductSort.PRICE);
+
+        assertEquals(1, page.items().size());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testGetProductsPage_FirstPricePageStartsWithNullPrices() {
+        when(productsRepository.findPageByPrice(null, 0L, PageRequest.of(0, 3))).thenReturn(List.of());
+
+        productsServices.getProductsPage(null, 2, ProductSort.PRICE);
+
+        verify(productsRepository).findPageByPrice(null, 0L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void testGetProductsPage_CursorOnNullPriceContinuesInsideNullPrices() {
+        ProductEntity noPrice = product(4, 0.0);
+        noPrice.setPrice(null);
+        String cursor = productsServices.cursorOf(noPrice, ProductSort.PRICE);
+        when(productsRepository.findPageByPrice(null, 4L, PageRequest.of(0, 3))).thenReturn(List.of(product(5, 10.0)));
+
+        CursorPage<ProductEntity> page = productsServices.getProductsPage(cursor, 2, ProductSort.PRICE);
+
+        assertEquals(1, page.items().size());
+    }
+
+    @Test
+    void testGetProductsPage_CursorFromAnotherSort() {
+        String cursor = productsServices.cursorOf(product(2, 20.0), ProductSort.PRICE);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productsServices.getProductsPage(cursor, 2, ProductSort.NAME));
+        verifyNoInteractions(productsRepository);
+    }
+
+    @Test
+    void testGetProductsPage_CapsPageSize() {
+        when(productsRepository.findPageById(0L, PageRequest.of(0, 101))).thenReturn(List.of());
+
+        productsServices.getProductsPage(null, 10_000, ProductSort.ID);
+
+        verify(productsRepository).findPageById(0L, PageRequest.of(0, 101));
+    }
+
+    @Test
+    void testUpdateProductQuantities_BestEffortRunsInIdOrder() {
+        List<StockChangeDTO> changes = List.of(new StockChangeDTO(5L, -1), new StockChangeDTO(2L, 3), new StockChangeDTO(9L, -50));
+        when(productStockJdbcRepository.adjustQuantities(eq(1L), anyList(), any())).thenReturn(new int[]{1, 1, 0});
+        when(productStockJdbcRepository.findQuantities(eq(1L), anyCollection())).thenReturn(Map.of(2L, 13, 5L, 4, 9L, 7));
+
+        StockBatchResult result = productsServices.updateProductQuantities(1L, changes, StockBatchMode.BEST_EFFORT);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeDTO>> sorted = ArgumentCaptor.forClass(List.class);
+        verify(productStockJdbcRepository).adjustQuantities(eq(1L), sorted.capture(), any());
+        assertEquals(List.of(2L, 5L, 9L), sorted.getValue().stream().map(StockChangeDTO::getProductId).toList());
+        verify(productStockJdbcRepository).lockQuantities(1L, Set.of(2L, 5L, 9L));
+        assertTrue(result.committed());
+        assertEquals(List.of(
+                new StockBatchResult.Item(5L, -1, StockBatchResult.Status.APPLIED, 4),
+                new StockBatchResult.Item(2L, 3, StockBatchResult.Status.APPLIED, 13),
+                new StockBatchResult.Item(9L, -50, StockBatchResult.Status.INSUFFICIENT_STOCK, 7)), result.items());
+        verify(inventoryJournal).record(1L, 5L, -1, MovementReason.ADJUSTMENT);
+        verify(inventoryJournal).record(1L, 2L, 3, MovementReason.ADJUSTMENT);
+        verifyNoMoreInteractions(inventoryJournal);
+        verify(productCache).evict(5L);
+        verify(productCache).evict(2L);
+        verify(productCache, never()).evict(9L);
+    }
+
+    @Test
+    void testUpdateProductQuantities_HotnessDecidedOncePerChange() {
+        // Promoted between the split and the status loop: still handled as a regular row.
+        when(hotStockCounter.isHot(2L)).thenReturn(false, true);
+        when(productStockJdbcRepository.adjustQuantities(eq(1L), anyList(), any())).thenReturn(new int[]{1});
+        when(productStockJdbcRepository.findQuantities(eq(1L), anyCollection())).thenReturn(Map.of(2L, 4));
+
+        StockBatchResult result = productsServices.updateProductQuantities(1L, List.of(new StockChangeDTO(2L, -1)),
+                StockBatchMode.BEST_EFFORT);
+
+        assertEquals(List.of(new StockBatchResult.Item(2L, -1, StockBatchResult.Status.APPLIED, 4)), result.items());
+        verify(hotStockCounter, times(1)).isHot(2L);
+        verify(hotStockCounter, never()).reserve(anyLong(), anyLong(), anyInt());
+        verify(inventoryJournal).record(1L, 2L, -1, MovementReason.ADJUSTMENT);
+    }
+
+    @Test
+    void testUpdateProductQuantities_AllOrNothingRollsBack() {
+        List<StockChangeDTO> changes = List.of(new StockChangeDTO(2L, -1), new StockChangeDTO(3L, -1));
+        when(productStockJdbcRepository.adjustQuantities(eq(1L), anyList(), any())).thenReturn(new int[]{1, 0});
+        when(productStockJdbcRepository.findQuantities(eq(1L), anyCollection())).thenReturn(Map.of(2L, 4));
+        TransactionStatus transactionStatus = mock(TransactionStatus.class);
+
+        try (MockedStatic<TransactionAspectSupport> transactions = mockStatic(TransactionAspectSupport.class)) {
+            transactions.when(TransactionAspectSupport::currentTransactionStatus).thenReturn(transactionStatus);
+
+            StockBatchResult result = productsServices.updateProductQuantities(1L, changes, StockBatchMode.ALL_OR_NOTHING);
+
+            verify(transactionStatus).setRollbackOnly();
+            assertFalse(result.committed());
+            assertEquals(List.of(
+                    new StockBatchResult.Item(2L, -1, StockBatchResult.Status.ROLLED_BACK, null),
+                    new StockBatchResult.Item(3L, -1, StockBatchResult.Status.NOT_FOUND, null)), result.items());
+            verifyNoInteractions(inventoryJournal);
+        }
+    }
+
+    @Test
+    void testUpdateProductQuantities_RejectsIncompleteItems() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productsServices.updateProductQuantities(1L, List.of(new StockChangeDTO(2L, null)), StockBatchMode.BEST_EFFORT));
+        assertThrows(IllegalArgumentException.class,
+                () -> productsServices.updateProductQuantities(1L, List.of(), StockBatchMode.BEST_EFFORT));
+        verifyNoInteractions(productStockJdbcRepository);
     }
 }
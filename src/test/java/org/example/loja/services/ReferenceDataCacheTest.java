@@ -0,0 +1,161 @@
+package org.example.loja.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.loja.entities.CategoryEntity;
+import org.example.loja.entities.PermissionEntity;
+import org.example.loja.entities.RoleEntity;
+import org.example.loja.repository.CategoryRepository;
+import org.example.loja.repository.PermissionRepository;
+import org.example.loja.repository.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataCacheTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PermissionRepository permissionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReferenceDataCache cache;
+
+    private final CategoryEntity tv = new CategoryEntity(1L, "Tv", null);
+    private final CategoryEntity audio = new CategoryEntity(2L, "Audio", null);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ReferenceDataCache(categoryRepository, roleRepository, permissionRepository, 600, 1_000, meterRegistry);
+        when(categoryRepository.findAll()).thenReturn(List.of(tv));
+        when(roleRepository.findAll()).thenReturn(List.of(role(5L, "STORE_ADMIN")));
+        when(permissionRepository.findAll()).thenReturn(List.of(permission(7L, "SELL")));
+        cache.preload();
+    }
+
+    private static RoleEntity role(long id, String name) {
+        RoleEntity role = new RoleEntity();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+
+    private static PermissionEntity permission(long id, String name) {
+        PermissionEntity permission = new PermissionEntity();
+        permission.setId(id);
+        permission.setName(name);
+        return permission;
+    }
+
+    @Test
+    void testPreloadedRowsNeedNoQuery() {
+        assertEquals(List.of(tv), cache.getCategories(Set.of(1L)));
+        assertEquals(Optional.of(1L), cache.categoryIdOf("Tv"));
+        assertEquals(Optional.of(5L), cache.roleIdOf("STORE_ADMIN"));
+        assertEquals("STORE_ADMIN", cache.getRoles(Set.of(5L)).get(0).getName());
+        assertEquals("SELL", cache.getPermissions().get(0).getName());
+
+        verify(categoryRepository, never()).findAllById(any());
+        verify(categoryRepository, never()).findByName(any());
+        verify(roleRepository, never()).findFirstByName(any());
+        verify(roleRepository, never()).findAllById(any());
+        verify(permissionRepository, times(1)).findAll();
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "reference.categories").tag("result", "hit").functionCounter().count()
+                + meterRegistry.get("cache.gets").tag("cache", "reference.categories.names").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testMissesReadThrough() {
+        when(categoryRepository.findAllById(Set.of(2L, 9L))).thenReturn(List.of(audio));
+        when(categoryRepository.findByName("Audio")).thenReturn(Optional.of(audio));
+
+        assertEquals(Set.of(tv, audio), new HashSet<>(cache.getCategories(List.of(1L, 2L, 9L))));
+        assertEquals(Optional.of(2L), cache.categoryIdOf("Audio"));
+        assertEquals(Optional.empty(), cache.categoryIdOf("Nada"));
+        assertEquals(List.of(), cache.getCategories(null));
+
+        verify(categoryRepository).findAllById(Set.of(2L, 9L));
+        verify(categoryRepository, never()).findByName("Audio");
+    }
+
+    @Test
+    void testCategoryIdOf_UnknownNameIsCached() {
+        when(categoryRepository.findByName("Nada")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), cache.categoryIdOf("Nada"));
+        assertEquals(Optional.empty(), cache.categoryIdOf("Nada"));
+
+        verify(categoryRepository, times(1)).findByName("Nada");
+    }
+
+    @Test
+    void testCategoryIdOf_NameLoadedOnAMissIsKept() {
+        CategoryEntity games = new CategoryEntity(3L, "Games", null);
+        when(categoryRepository.findByName("Games")).thenReturn(Optional.of(games));
+
+        assertEquals(Optional.of(3L), cache.categoryIdOf("Games"));
+        assertEquals(Optional.of(3L), cache.categoryIdOf("Games"));
+        assertEquals(List.of(games), cache.getCategories(Set.of(3L)));
+
+        verify(categoryRepository, times(1)).findByName("Games");
+        verify(categoryRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testGetRoles_LoadsOnlyMissingIds() {
+        when(roleRepository.findAllById(Set.of(6L))).thenReturn(List.of(role(6L, "STORE_MANAGER")));
+
+        assertEquals(2, cache.getRoles(List.of(5L, 6L)).size());
+        assertEquals(2, cache.getRoles(List.of(5L, 6L)).size());
+        assertEquals(List.of(), cache.getRoles(List.of()));
+
+        verify(roleRepository, times(1)).findAllById(Set.of(6L));
+    }
+
+    @Test
+    void testEvictRole_ReloadsOnNextRead() {
+        cache.evictRole(5L);
+        when(roleRepository.findById(5L)).thenReturn(Optional.of(role(5L, "STORE_OWNER")));
+
+        assertEquals("STORE_OWNER", cache.getRole(5L).orElseThrow().getName());
+        verify(roleRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void testEvictPermission_ReloadsOnNextRead() {
+        cache.evictPermission(7L);
+        when(permissionRepository.findAll()).thenReturn(List.of(permission(7L, "SELL"), permission(8L, "REFUND")));
+
+        assertEquals(2, cache.getPermissions().size());
+        assertEquals("REFUND", cache.getPermission(8L).orElseThrow().getName());
+        verify(permissionRepository, times(2)).findAll();
+        verify(permissionRepository, never()).findById(any());
+    }
+
+    @Test
+    void testEvictCategory_DropsTheName() {
+        cache.evictCategory(1L);
+        when(categoryRepository.findByName("Tv")).thenReturn(Optional.of(new CategoryEntity(1L, "Tv", "renamed")));
+
+        assertEquals(Optional.of(1L), cache.categoryIdOf("Tv"));
+        assertEquals("renamed", cache.getCategories(Set.of(1L)).get(0).getDescription());
+        verify(categoryRepository).findByName("Tv");
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.loja.services;
+
+import org.example.loja.dto.StockAdjustment;
+import org.example.loja.dto.StockReservationResult;
+import org.example.loja.entities.StockReservationEntity;
+import org.example.loja.enums.MovementReason;
+import org.example.loja.repository.ProductsRepository;
+import org.example.loja.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private ProductsRepository productsRepository;
+
+    @Mock
+    private HotStockCounter hotStockCounter;
+
+    @Mock
+    private InventoryJournal inventoryJournal;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private ProductCache productCache;
+
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new StockReservationService(reservationRepository, productsRepository, hotStockCounter, inventoryJournal, productSearchIndex, productFacetIndex, productCache, 60, 600, 100, 64);
+        when(productsRepository.lockQuantity(1L, 2L)).thenReturn(Optional.of(10));
+    }
+
+    @Test
+    void testReserve_HoldsUnitsWithoutTouchingQuantity() {
+        StockReservationResult first = service.reserve(1L, 2L, 6, null);
+        StockReservationResult second = service.reserve(1L, 2L, 5, null);
+
+        assertEquals(StockAdjustment.Status.APPLIED, first.status());
+        assertEquals(4, first.availableQuantity());
+        assertEquals(StockReservationResult.insufficientStock(4), second);
+        assertEquals(6, service.heldQuantity(2L));
+        verify(reservationRepository).save(any(StockReservationEntity.class));
+        verify(productsRepository, never()).adjustQuantity(anyLong(), anyLong(), anyInt(), anyLong());
+    }
+
+    @Test
+    void testReserve_CapsTtl() {
+        long before = System.currentTimeMillis();
+
+        StockReservationResult result = service.reserve(1L, 2L, 1, 86_400L);
+
+        assertTrue(result.expiresAt() <= System.currentTimeMillis() + 600_000);
+        assertTrue(result.expiresAt() >= before + 600_000);
+    }
+
+    @Test
+    void testReserve_HotProductRejected() {
+        when(hotStockCounter.isHot(2L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> service.reserve(1L, 2L, 1, null));
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void testConfirm_TakesUnitsAboveRemainingHolds() {
+        UUID first = service.reserve(1L, 2L, 3, null).reservationId();
+        service.reserve(1L, 2L, 4, null);
+        when(productsRepository.adjustQuantity(1L, 2L, -3, 4)).thenReturn(1);
+
+        StockAdjustment adjustment = service.confirm(1L, first);
+
+        assertEquals(StockAdjustment.applied(7), adjustment);
+        assertEquals(4, service.heldQuantity(2L));
+        verify(reservationRepository).deleteById(first);
+        verify(inventoryJournal).record(1L, 2L, -3, MovementReason.RESERVATION);
+        verify(productSearchIndex).updateQuantity(2L, 7);
+        verify(productFacetIndex).updateQuantity(2L, 7);
+        verify(productCache).evict(2L);
+        assertEquals(StockAdjustment.notFound(), service.confirm(1L, first));
+    }
+
+    @Test
+    void testConfirm_RefusedUpdateKeepsTheHold() {
+        UUID first = service.reserve(1L, 2L, 3, null).reservationId();
+        service.reserve(1L, 2L, 4, null);
+        when(productsRepository.adjustQuantity(1L, 2L, -3, 4)).thenReturn(0);
+
+        // 10 in stock, 4 of them held by the other reservation.
+        assertEquals(StockAdjustment.insufficientStock(6), service.confirm(1L, first));
+
+        assertEquals(7, service.heldQuantity(2L));
+        verify(reservationRepository, never()).deleteById(any());
+        verifyNoInteractions(inventoryJournal);
+        assertTrue(service.release(1L, first));
+    }
+
+    @Test
+    void testConfirm_RolledBackTransactionKeepsTheHold() {
+        UUID id = service.reserve(1L, 2L, 3, null).reservationId();
+        when(productsRepository.adjustQuantity(1L, 2L, -3, 0)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(StockAdjustment.applied(7), service.confirm(1L, id));
+            assertEquals(3, service.heldQuantity(2L));
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(3, service.heldQuantity(2L));
+        assertTrue(service.release(1L, id));
+        assertEquals(0, service.heldQuantity(2L));
+    }
+
+    @Test
+    void testReserve_RolledBackTransactionDropsTheHold() {
+        TransactionSynchronizationManager.initSynchronization();
+        UUID id;
+        try {
+            id = service.reserve(1L, 2L, 3, null).reservationId();
+            assertEquals(3, service.heldQuantity(2L));
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, service.heldQuantity(2L));
+        assertFalse(service.release(1L, id));
+    }
+
+    private static void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    @Test
+    void testRelease_OtherStoreCannotRelease() {
+        UUID id = service.reserve(1L, 2L, 3, null).reservationId();
+
+        assertFalse(service.release(9L, id));
+        assertTrue(service.release(1L, id));
+        assertFalse(service.release(1L, id));
+        assertEquals(0, service.heldQuantity(2L));
+    }
+
+    @Test
+    void testExpireDue_DropsHoldsPastTheirDeadline() {
+        UUID short1 = service.reserve(1L, 2L, 2, 1L).reservationId();
+        UUID long1 = service.reserve(1L, 2L, 3, 120L).reservationId();
+
+        service.expireDue(System.currentTimeMillis() + 5_000);
+
+        assertEquals(3, service.heldQuantity(2L));
+        verify(reservationRepository).deleteAllByIdInBatch(List.of(short1));
+        assertFalse(service.release(1L, short1));
+        assertTrue(service.release(1L, long1));
+    }
+
+    @Test
+    void testLoad_RebuildsIndexFromActiveRows() {
+        UUID id = UUID.randomUUID();
+        when(reservationRepository.findAllByExpiresAtGreaterThan(anyLong()))
+                .thenReturn(List.of(new StockReservationEntity(id, 2L, 1L, 4, System.currentTimeMillis() + 60_000)));
+
+        service.load();
+
+        verify(reservationRepository).deleteExpired(anyLong());
+        assertEquals(4, service.heldQuantity(2L));
+        assertEquals(StockReservationResult.insufficientStock(6), service.reserve(1L, 2L, 7, null));
+        assertTrue(service.release(1L, id));
+    }
+}
@@ -1,8 +1,8 @@
 package org.example.loja.services;
 
+import org.example.loja.config.security.PrincipalCache;
 import org.example.loja.entities.StoreAdminEntity;
 import org.example.loja.repository.StoreAdminRepository;
-import org.example.loja.util.Authorization;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +28,12 @@ class StoreAdminServicesTests {
     @Mock
     private AdminLogsService adminLogsService;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -56,25 +62,23 @@ class StoreAdminServicesTests {
 
         when(storeAdminRepository.save(any(StoreAdminEntity.class))).thenReturn(savedAdmin);
 
-        try (MockedStatic<Authorization> mocked = mockStatic(Authorization.class)) {
-            String hashedPassword = "hashed_password";
-            mocked.when(() -> Authorization.hashPassword("password")).thenReturn(hashedPassword);
+        String hashedPassword = "hashed_password";
+        when(passwordHashingService.hash("password")).thenReturn(hashedPassword);
 
-            UUID resultId = storeAdminServices.saveStoreAdmin(storeAdmin, 10.0, 20.0);
+        UUID resultId = storeAdminServices.saveStoreAdmin(storeAdmin, 10.0, 20.0);
 
-            assertNotNull(resultId);
-            ArgumentCaptor<StoreAdminEntity> captor = ArgumentCaptor.forClass(StoreAdminEntity.class);
-            verify(storeAdminRepository, times(1)).save(captor.capture());
-            StoreAdminEntity capturedAdmin = captor.getValue();
+        assertNotNull(resultId);
+        ArgumentCaptor<StoreAdminEntity> captor = ArgumentCaptor.forClass(StoreAdminEntity.class);
+        verify(storeAdminRepository, times(1)).save(captor.capture());
+        StoreAdminEntity capturedAdmin = captor.getValue();
 
-            assertEquals("Admin Test", capturedAdmin.getName());
-            assertEquals("admin@test.com", capturedAdmin.getEmail());
-            assertEquals(hashedPassword, capturedAdmin.getPassword());
-            assertFalse(capturedAdmin.getActive());
-            assertTrue(capturedAdmin.getStatus());
+        assertEquals("Admin Test", capturedAdmin.getName());
+        assertEquals("admin@test.com", capturedAdmin.getEmail());
+        assertEquals(hashedPassword, capturedAdmin.getPassword());
+        assertFalse(capturedAdmin.getActive());
+        assertTrue(capturedAdmin.getStatus());
 
-            verify(adminLogsService, times(1)).saveLogAction(eq(savedAdmin), eq("Created"), eq("New Store Admin created"), eq(10.0), eq(20.0));
-        }
+        verify(adminLogsService, times(1)).saveLogAction(eq(savedAdmin), eq("Created"), eq("New Store Admin created"), eq(10.0), eq(20.0));
     }
 
     @Test
@@ -116,6 +120,7 @@ class StoreAdminServicesTests {
 
         assertTrue(result);
         verify(storeAdminRepository, times(1)).updateStatus(adminId, false);
+        verify(principalCache, times(1)).invalidate(adminId.toString());
     }
 
     @Test
@@ -1,5 +1,6 @@
 package org.example.loja.services;
 
+import org.example.loja.config.security.PrincipalCache;
 import org.example.loja.dto.StoreManagerDTO;
 import org.example.loja.entities.StoreEntity;
 import org.example.loja.entities.StoreManagerEntity;
@@ -25,6 +26,12 @@ class StoreManagerServiceTest {
     @Mock
     private StoreRepository storeRepository;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
     @InjectMocks
     private StoreManagerService storeManagerService;
 
@@ -157,6 +164,7 @@ class StoreManagerServiceTest {
         // Assert
         assertTrue(result);
         verify(storeManagerRepository).deleteStoreManagerById(managerId);
+        verify(principalCache).invalidate(managerId.toString());
     }
 
     @Test
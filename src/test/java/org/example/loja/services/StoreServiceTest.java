@@ -1,5 +1,6 @@
 package org.example.loja.services;
 
+import org.example.loja.config.security.StoreMembershipRegistry;
 import org.example.loja.entities.AddressEntity;
 import org.example.loja.entities.StoreAdminEntity;
 import org.example.loja.entities.StoreEntity;
@@ -28,12 +29,16 @@ class StoreServiceTest {
     @Mock
     private StoreAdminRepository storeAdminRepository;
 
+    @Mock
+    private StoreMembershipRegistry storeMembershipRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         storeService = new StoreService();
         storeService.storeRepository = storeRepository;
         storeService.storeAdminRepository = storeAdminRepository;
+        storeService.storeMembershipRegistry = storeMembershipRegistry;
     }
 
     @Test
@@ -81,6 +86,7 @@ class StoreServiceTest {
 
         assertNotNull(result);
         assertEquals(1L, result);
+        verify(storeMembershipRegistry).invalidate(adminUuid);
     }
 
 
@@ -1,7 +1,7 @@
 package org.example.loja.services;
 
 import org.example.loja.config.security.JwtTokenProvider;
-import org.example.loja.entities.AdminMasterEntity;
+import org.example.loja.dto.AccountCredentials;
 import org.example.loja.entities.RoleEntity;
 import org.example.loja.repository.AdminMasterRepository;
 import org.example.loja.repository.StoreAdminRepository;
@@ -14,10 +14,12 @@ import org.mockito.Mock;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
@@ -29,6 +31,9 @@ class UserDetailsServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @InjectMocks
     private UserDetailsService userDetailsService;
 
@@ -46,20 +51,22 @@ class UserDetailsServiceTest {
         when(jwtTokenProvider.getRoleFromToken(token)).thenReturn("ADMIN_MASTER");
 
         RoleEntity role = new RoleEntity();
+        role.setId(5L);
         role.setName("ROLE_ADMIN");
 
-        AdminMasterEntity admin = new AdminMasterEntity();
-        admin.setEmail(email);
-        admin.setPassword("encryptedPassword");
-        admin.setRole(Set.of(role));
-
-        when(adminMasterRepository.findByEmail(email)).thenReturn(Optional.of(admin));
+        UUID id = UUID.randomUUID();
+        when(adminMasterRepository.findCredentialsByEmail(email))
+                .thenReturn(Optional.of(new AccountCredentials(id, email, "encryptedPassword")));
+        when(adminMasterRepository.findRoleIds(id)).thenReturn(List.of(5L));
+        when(referenceDataCache.getRoles(List.of(5L))).thenReturn(List.of(role));
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(token);
 
         assertEquals(email, userDetails.getUsername());
         assertEquals("encryptedPassword", userDetails.getPassword());
         assertTrue(userDetails.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN")));
+        // Roles come from the cache, not with the account row.
+        verify(adminMasterRepository, never()).findByEmail(any());
     }
 
     @Test
@@ -81,12 +88,11 @@ class UserDetailsServiceTest {
         when(jwtTokenProvider.getUsernameFromToken(token)).thenReturn(email);
         when(jwtTokenProvider.getRoleFromToken(token)).thenReturn("ADMIN_MASTER");
 
-        AdminMasterEntity admin = new AdminMasterEntity();
-        admin.setEmail(email);
-        admin.setPassword("pass");
-        admin.setRole(Set.of()); // No roles
-
-        when(adminMasterRepository.findByEmail(email)).thenReturn(Optional.of(admin));
+        UUID id = UUID.randomUUID();
+        when(adminMasterRepository.findCredentialsByEmail(email))
+                .thenReturn(Optional.of(new AccountCredentials(id, email, "pass")));
+        when(adminMasterRepository.findRoleIds(id)).thenReturn(List.of()); // No roles
+        when(referenceDataCache.getRoles(List.of())).thenReturn(List.of());
 
         assertThrows(UsernameNotFoundException.class, () -> {
             userDetailsService.loadUserByUsername(token);
@@ -101,7 +107,7 @@ class UserDetailsServiceTest {
         when(jwtTokenProvider.getUsernameFromToken(token)).thenReturn(email);
         when(jwtTokenProvider.getRoleFromToken(token)).thenReturn("ADMIN_MASTER");
 
-        when(adminMasterRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(adminMasterRepository.findCredentialsByEmail(email)).thenReturn(Optional.empty());
 
         assertThrows(UsernameNotFoundException.class, () -> {
             userDetailsService.loadUserByUsername(token);
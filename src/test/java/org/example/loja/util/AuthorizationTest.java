@@ -0,0 +1,23 @@
+package org.example.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorizationTest {
+
+    @Test
+    void testCostOf_ReadsBCryptCost() {
+        assertEquals(4, Authorization.costOf(Authorization.hashPassword("senha", 4)));
+        assertEquals(12, Authorization.costOf("$2a$12$abcdefghijklmnopqrstuv"));
+    }
+
+    @Test
+    void testCostOf_MalformedHashIsMinusOne() {
+        assertEquals(-1, Authorization.costOf(null));
+        assertEquals(-1, Authorization.costOf("plain-text"));
+        assertEquals(-1, Authorization.costOf("$2a$x2$abc"));
+        assertEquals(-1, Authorization.costOf("$2a$1$abcdef"));
+        assertEquals(-1, Authorization.costOf("{bcrypt}$2a$12$abc"));
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagTest {
+
+    @Test
+    void testOf_QuotesIdAndVersion() {
+        assertEquals("\"12.3\"", EntityTag.of(12, 3));
+    }
+
+    @Test
+    void testMatches_AnyTagOfTheList() {
+        assertTrue(EntityTag.matches("\"12.3\"", "\"12.3\""));
+        assertTrue(EntityTag.matches("\"12.2\", \"12.3\"", "\"12.3\""));
+        assertFalse(EntityTag.matches("\"12.2\"", "\"12.3\""));
+        assertFalse(EntityTag.matches("\"1.23\"", "\"12.3\""));
+    }
+
+    @Test
+    void testMatches_WeakComparisonAndWildcard() {
+        assertTrue(EntityTag.matches("W/\"12.3\"", "\"12.3\""));
+        assertTrue(EntityTag.matches("*", "\"12.3\""));
+        assertFalse(EntityTag.matches(null, "\"12.3\""));
+        assertFalse(EntityTag.matches("", "\"12.3\""));
+    }
+}
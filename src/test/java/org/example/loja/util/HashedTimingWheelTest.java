@@ -0,0 +1,53 @@
+package org.example.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void testAdvance_ExpiresAtOrAfterDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_DeadlineSeveralRevolutionsAway() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 0);
+        wheel.schedule("near", 100);
+        wheel.schedule("far", 1_000);
+
+        assertEquals(List.of("near"), wheel.advance(500));
+        assertEquals(List.of(), wheel.advance(900));
+        assertEquals(List.of("far"), wheel.advance(1_000));
+    }
+
+    @Test
+    void testCancel_RemovesTimeoutOnce() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        HashedTimingWheel.Timeout<String> first = wheel.schedule("first", 100);
+        HashedTimingWheel.Timeout<String> second = wheel.schedule("second", 100);
+
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        assertEquals(List.of("second"), wheel.advance(100));
+        assertFalse(wheel.cancel(second));
+    }
+
+    @Test
+    void testSchedule_PastDeadlineExpiresOnNextAdvance() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.advance(1_000);
+
+        wheel.schedule("late", 500);
+
+        assertEquals(List.of("late"), wheel.advance(1_100));
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.loja.util;
+
+import org.example.loja.enums.ProductSort;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void testEncode_RoundTrips() {
+        KeysetCursor cursor = new KeysetCursor(ProductSort.NAME, "TV | 50\"", 12);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode(), ProductSort.NAME));
+    }
+
+    @Test
+    void testEncode_NullKeyStaysDistinctFromEmpty() {
+        KeysetCursor nullKey = new KeysetCursor(ProductSort.NAME, null, 12);
+        KeysetCursor emptyKey = new KeysetCursor(ProductSort.NAME, "", 12);
+
+        assertNull(KeysetCursor.decode(nullKey.encode(), ProductSort.NAME).key());
+        assertEquals("", KeysetCursor.decode(emptyKey.encode(), ProductSort.NAME).key());
+    }
+
+    @Test
+    void testDecode_RejectsOtherSortAndGarbage() {
+        String cursor = new KeysetCursor(ProductSort.PRICE, "10.0", 12).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor, ProductSort.NAME));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor", ProductSort.PRICE));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("djF8UFJJQ0U", ProductSort.PRICE));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixTrieTest {
+
+    private static PrefixTrie<Map.Entry<String, Long>> trie(int topK, Map<String, Long> weights) {
+        return PrefixTrie.build(new ArrayList<>(weights.entrySet()), Map.Entry::getKey, Map.Entry::getValue, topK);
+    }
+
+    private static List<String> keys(List<Map.Entry<String, Long>> entries) {
+        return entries.stream().map(Map.Entry::getKey).toList();
+    }
+
+    @Test
+    void testComplete_ReturnsHeaviestMatchesFirst() {
+        PrefixTrie<Map.Entry<String, Long>> trie = trie(10, Map.of(
+                "televisao", 5L, "telefone", 9L, "tela", 1L, "tv", 7L, "teclado", 3L));
+
+        assertEquals(List.of("telefone", "televisao", "tela"), keys(trie.complete("tel")));
+        assertEquals(List.of("telefone", "televisao"), keys(trie.complete("tele")));
+        assertEquals(List.of("televisao"), keys(trie.complete("televisao")));
+        assertEquals(List.of("telefone", "tv", "televisao", "teclado", "tela"), keys(trie.complete("t")));
+        assertEquals(List.of(), keys(trie.complete("televisaox")));
+        assertEquals(List.of(), keys(trie.complete("x")));
+    }
+
+    @Test
+    void testComplete_PrefixEndingInsideAnEdgeLabel() {
+        PrefixTrie<Map.Entry<String, Long>> trie = trie(10, Map.of("smartphone", 1L, "smartwatch", 2L));
+
+        assertEquals(List.of("smartwatch", "smartphone"), keys(trie.complete("sma")));
+        assertEquals(List.of("smartphone"), keys(trie.complete("smartp")));
+        assertEquals(List.of(), keys(trie.complete("smx")));
+    }
+
+    @Test
+    void testComplete_KeyThatIsAPrefixOfAnother() {
+        PrefixTrie<Map.Entry<String, Long>> trie = trie(10, Map.of("tv", 1L, "tv 50", 3L, "tvbox", 2L));
+
+        assertEquals(List.of("tv 50", "tvbox", "tv"), keys(trie.complete("tv")));
+        assertEquals(List.of("tv 50"), keys(trie.complete("tv ")));
+    }
+
+    @Test
+    void testComplete_KeepsOnlyTopK() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            words.add("produto " + i);
+        }
+        PrefixTrie<String> trie = PrefixTrie.build(words, word -> word,
+                word -> Long.parseLong(word.substring("produto ".length())), 3);
+
+        assertEquals(List.of("produto 999", "produto 998", "produto 997"), trie.complete("prod"));
+        assertEquals(List.of("produto 599", "produto 598", "produto 597"), trie.complete("produto 5"));
+        assertEquals(1_000, trie.size());
+    }
+
+    @Test
+    void testBuild_DuplicateAndEmptyKeys() {
+        PrefixTrie<String> trie = PrefixTrie.build(List.of("lg:brand", "lg:product", ":empty"),
+                value -> value.substring(0, value.indexOf(':')), value -> value.length(), 10);
+
+        assertEquals(List.of("lg:product", "lg:brand"), trie.complete("l"));
+        assertEquals(2, trie.size());
+        assertEquals(List.of(), PrefixTrie.build(List.<String>of(), v -> v, v -> 0, 5).complete("a"));
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.loja.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextAnalyzerTest {
+
+    @Test
+    void testTokenize_FoldsAccentsAndCase() {
+        assertEquals(List.of("pao", "acucar", "integral"), TextAnalyzer.tokenize("Pão de AÇÚCAR integral"));
+    }
+
+    @Test
+    void testTokenize_SplitsOnPunctuationAndKeepsNumbers() {
+        assertEquals(List.of("smart", "tv", "55", "4k"), TextAnalyzer.tokenize("Smart-TV 55\" (4K)"));
+    }
+
+    @Test
+    void testTokenize_DropsStopWordsAndSingleLetters() {
+        assertEquals(List.of("cafe", "leite", "7"), TextAnalyzer.tokenize("Café com leite e x 7"));
+        assertEquals(List.of(), TextAnalyzer.tokenize(null));
+        assertEquals(List.of(), TextAnalyzer.tokenize("  -- "));
+    }
+
+    @Test
+    void testNormalize_KeepsEveryWordAndATrailingSeparator() {
+        assertEquals("pao de acucar", TextAnalyzer.normalize("  Pão de  AÇÚCAR"));
+        assertEquals("smart tv 55 ", TextAnalyzer.normalize("Smart-TV 55\""));
+        assertEquals("", TextAnalyzer.normalize(" - "));
+        assertEquals("", TextAnalyzer.normalize(null));
+    }
+}